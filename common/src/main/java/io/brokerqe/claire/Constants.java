@@ -18,6 +18,7 @@ public interface Constants {
     String TAG_OPERATOR = "operator";
     String TAG_SMOKE = "smoke";
     String TAG_SMOKE_CLIENTS = "smoke-clients";
+    String TAG_SOAK = "soak";
     String TAG_TLS = "tls";
 
     // Environment Variables
@@ -41,7 +42,18 @@ public interface Constants {
     String EV_JDBC_DATA = "JDBC_DATA";
     String PROP_JDBC_DATA = "jdbc.data";
     String EV_CUSTOM_EXTRA_DELAY = "CUSTOM_EXTRA_DELAY";
+    String EV_NAMESPACE_POOL_SIZE = "NAMESPACE_POOL_SIZE";
+    String EV_PERF_BROKER_SIZE = "PERF_BROKER_SIZE";
+    String EV_PERF_BROKER_CPU_LIMIT = "PERF_BROKER_CPU_LIMIT";
+    String EV_PERF_BROKER_MEMORY_LIMIT = "PERF_BROKER_MEMORY_LIMIT";
+    String EV_PERF_STORAGE_CLASS = "PERF_STORAGE_CLASS";
+    String EV_PERF_CLIENT_PODS = "PERF_CLIENT_PODS";
     String EV_KEYCLOAK_VERSION = "KEYCLOAK_VERSION";
+    String EV_TLS_KEY_ALGORITHM = "TLS_KEY_ALGORITHM";
+    String EV_TLS_CERTS_CACHE = "TLS_CERTS_CACHE";
+    String EV_SOAK_DURATION = "SOAK_DURATION";
+    String EV_SOAK_RESUME = "SOAK_RESUME";
+    String EV_PERF_PROFILING = "PERF_PROFILING";
     String EV_USE_EXISTING_CONFIG = "USE_EXISTING_CONFIG";
     String PROP_USE_EXISTING_CONFIG = "use.existing.config";
 
@@ -94,6 +106,7 @@ public interface Constants {
     // Test related strings
     String DEFAULT_KEYCLOAK_VERSION = "21.0.1";
     String DEFAULT_RHSSO_VERSION = "rhsso-operator.7.6.4-opr-002";
+    String DEFAULT_SOAK_DURATION = "PT1H";
 
     // Files
     String PROJECT_USER_DIR = System.getProperty("user.dir");
@@ -101,6 +114,7 @@ public interface Constants {
     String LOGS_DEFAULT_DIR = PROJECT_USER_DIR + "/test-logs";
     String TMP_DEFAULT_DIR = PROJECT_USER_DIR + "/test-tmp";
     String CERTS_GENERATION_DIR = PROJECT_USER_DIR + "/certificates/";
+    String CERTS_CACHE_DIR = PROJECT_USER_DIR + "/target/certificates-cache/";
     String PROJECT_SETTINGS_PATH = PROJECT_USER_DIR + "/artemis/project-settings.properties";
     String OPERATOR_CRDS_DIR_PATH = PROJECT_USER_DIR + "/artemis/crds/";
     String OPERATOR_INSTALL_DIR_PATH = PROJECT_USER_DIR + "/artemis/install/";
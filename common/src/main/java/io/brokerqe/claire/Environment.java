@@ -15,6 +15,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -60,6 +61,27 @@ public abstract class Environment {
         return databaseFile;
     }
 
+    /**
+     * @return duration of soak tests, ISO-8601 value of {@link Constants#EV_SOAK_DURATION} (e.g. PT8H)
+     */
+    public Duration getSoakDuration() {
+        return Duration.parse(System.getenv().getOrDefault(Constants.EV_SOAK_DURATION, Constants.DEFAULT_SOAK_DURATION));
+    }
+
+    /**
+     * @return whether soak tests continue from previously stored state instead of starting over
+     */
+    public boolean isSoakResume() {
+        return Boolean.parseBoolean(System.getenv().getOrDefault(Constants.EV_SOAK_RESUME, "false"));
+    }
+
+    /**
+     * @return whether performance tests record broker JVM by Java Flight Recorder during workload
+     */
+    public boolean isPerfProfiling() {
+        return Boolean.parseBoolean(System.getenv().getOrDefault(Constants.EV_PERF_PROFILING, "false"));
+    }
+
     public String generateTimestamp() {
         LocalDateTime date = LocalDateTime.now();
         String timestamp = date.format(DateTimeFormatter.ofPattern(Constants.DATE_FORMAT));
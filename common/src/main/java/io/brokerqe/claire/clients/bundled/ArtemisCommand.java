@@ -10,7 +10,10 @@ public enum ArtemisCommand {
     QUEUE_CREATE("queue create"),
     QUEUE_DELETE("queue delete"),
     QUEUE_STAT("queue stat"),
-    PERF_CLIENT("perf client");
+    PERF_CLIENT("perf client"),
+    PERF_PRODUCER("perf producer"),
+    PERF_CONSUMER("perf consumer"),
+    PERF_JOURNAL("perf-journal");
 //    BROWSE,
 //    DATA,
 //    TRANSFER;
@@ -14,6 +14,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class BundledArtemisClient {
 
@@ -77,7 +79,7 @@ public class BundledArtemisClient {
         String cmdOutput;
         String[] command = constructClientCommand();
         cmdOutput = (String) deployableClient.getExecutor().executeCommand(maxTimeout, command);
-        if (artemisCommand.equals(ArtemisCommand.PERF_CLIENT)) {
+        if (isPerfCommand()) {
             LOGGER.debug("[PERF] Client detected, to see it's output use trace logging.");
             LOGGER.trace(cmdOutput);
         } else {
@@ -86,6 +88,11 @@ public class BundledArtemisClient {
         return parseOutput(cmdOutput);
     }
 
+    private boolean isPerfCommand() {
+        return artemisCommand == ArtemisCommand.PERF_CLIENT || artemisCommand == ArtemisCommand.PERF_PRODUCER
+                || artemisCommand == ArtemisCommand.PERF_CONSUMER || artemisCommand == ArtemisCommand.PERF_JOURNAL;
+    }
+
     private Object parseOutput(String cmdOutput) {
         switch (artemisCommand) {
             case ADDRESS_SHOW -> {
@@ -97,9 +104,12 @@ public class BundledArtemisClient {
             case QUEUE_STAT -> {
                 return parseQueueCommand(cmdOutput);
             }
-            case PERF_CLIENT -> {
+            case PERF_CLIENT, PERF_PRODUCER, PERF_CONSUMER -> {
                 return parsePerfClientOutput(cmdOutput);
             }
+            case PERF_JOURNAL -> {
+                return parsePerfJournalOutput(cmdOutput);
+            }
 
         }
         return null;
@@ -137,6 +147,22 @@ public class BundledArtemisClient {
         return mappedQueueData;
     }
 
+    /**
+     * perf-journal reports sync rate of journal device and buffer timeout derived from it (average sync time).
+     */
+    private static Map<String, String> parsePerfJournalOutput(String cmdOutput) {
+        Map<String, String> data = new HashMap<>();
+        Matcher syncs = Pattern.compile("can execute ([\\d.,]+) syncs per millisecond").matcher(cmdOutput);
+        if (syncs.find()) {
+            data.put("syncs_per_ms", syncs.group(1).replace(',', '.'));
+        }
+        Matcher bufferTimeout = Pattern.compile("journal-buffer-timeout should be:\\s*(\\d+)").matcher(cmdOutput);
+        if (bufferTimeout.find()) {
+            data.put("journal_buffer_timeout_ns", bufferTimeout.group(1));
+        }
+        return data;
+    }
+
     private static Map<String, String> parsePerfClientOutput(String cmdOutput) {
         List<String> lines = List.of(cmdOutput.split("\n"));
         Map<String, String> data = new HashMap<>();
@@ -0,0 +1,105 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.clients.bundled;
+
+import io.brokerqe.claire.clients.DeployableClient;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message redistribution measurement of already formed cluster, shared by standalone and operator
+ * RedistributionPerformanceTests. All commands are executed by single bundled client (first broker).
+ * <ul>
+ *     <li>forwarding - sustained rate-limited producer on the first node and consumer on the last node, end-to-end
+ *     latency is compared with the same load on single node ({@code added_*} values)</li>
+ *     <li>redistribution - backlog stored on the first node without consumers is drained by consumer on the last
+ *     node, throughput of redistribution (including redistribution delay) is recorded</li>
+ * </ul>
+ */
+public class RedistributionBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedistributionBenchmark.class);
+    public static final String RATE = "5000";
+    public static final String DURATION = "60";
+    public static final String WARMUP = "10";
+    public static final long BACKLOG_MESSAGES = 100_000;
+    private static final long CLIENT_TIMEOUT = TimeUnit.MINUTES.toMillis(30);
+
+    private final DeployableClient deployableClient;
+    private final String destination;
+
+    public RedistributionBenchmark(DeployableClient deployableClient, String destination) {
+        this.deployableClient = deployableClient;
+        this.destination = destination;
+    }
+
+    /**
+     * @return {@code baseline_*}, {@code forwarded_*}, {@code added_*} and {@code redistribution_*} results
+     */
+    public Map<String, String> measure(String firstUrl, String lastUrl) {
+        Map<String, String> results = new HashMap<>();
+        Map<String, String> baseline = runPerfClient(firstUrl, firstUrl);
+        Map<String, String> forwarded = runPerfClient(firstUrl, lastUrl);
+        baseline.forEach((key, value) -> results.put("baseline_" + key, value));
+        forwarded.forEach((key, value) -> results.put("forwarded_" + key, value));
+        for (Map.Entry<String, String> entry : forwarded.entrySet()) {
+            if (entry.getKey().contains("_us_") && baseline.containsKey(entry.getKey())) {
+                double added = Double.parseDouble(entry.getValue().trim()) - Double.parseDouble(baseline.get(entry.getKey()).trim());
+                results.put("added_" + entry.getKey(), String.format(Locale.ROOT, "%.1f", added));
+            }
+        }
+
+        // backlog stays on the first node until consumer appears on another node
+        Map<String, String> producerOptions = Map.of(
+                "url", firstUrl,
+                "message-count", String.valueOf(BACKLOG_MESSAGES),
+                "persistent", "",
+                "max-pending", "1000"
+        );
+        new BundledArtemisClient(deployableClient, ArtemisCommand.PERF_PRODUCER, producerOptions, destination).executeCommand(CLIENT_TIMEOUT);
+        Map<String, String> consumerOptions = Map.of(
+                "url", lastUrl,
+                "message-count", String.valueOf(BACKLOG_MESSAGES)
+        );
+        long start = System.nanoTime();
+        Map<String, String> consumerOutput = (Map<String, String>) new BundledArtemisClient(deployableClient, ArtemisCommand.PERF_CONSUMER,
+                consumerOptions, destination).executeCommand(CLIENT_TIMEOUT);
+        double drainSeconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        consumerOutput.forEach((key, value) -> results.put("redistribution_consumer_" + key, value));
+        results.put("redistribution_backlog", String.valueOf(BACKLOG_MESSAGES));
+        results.put("redistribution_drain_ms", String.format(Locale.ROOT, "%.0f", drainSeconds * 1000));
+        results.put("redistribution_rate", String.format(Locale.ROOT, "%.1f", BACKLOG_MESSAGES / drainSeconds));
+        return results;
+    }
+
+    private Map<String, String> runPerfClient(String producerUrl, String consumerUrl) {
+        Map<String, String> perfOptions = Map.of(
+                "url", producerUrl,
+                "consumer-url", consumerUrl,
+                "rate", RATE,
+                "duration", DURATION,
+                "warmup", WARMUP,
+                "persistent", "",
+                "show-latency", ""
+        );
+        Map<String, String> perfOutput = (Map<String, String>) new BundledArtemisClient(deployableClient, ArtemisCommand.PERF_CLIENT,
+                perfOptions, destination).executeCommand(CLIENT_TIMEOUT);
+        LOGGER.info("[PERF] {} -> {}: {}", producerUrl, consumerUrl, perfOutput);
+        if (!"success".equals(perfOutput.get("result")) || !Objects.equals(perfOutput.get("total_sent"), perfOutput.get("total_received"))) {
+            String errMsg = String.format("[PERF] Perf client %s -> %s did not end successfully (result %s, sent %s, received %s)",
+                    producerUrl, consumerUrl, perfOutput.get("result"), perfOutput.get("total_sent"), perfOutput.get("total_received"));
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg);
+        }
+        return perfOutput;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.clients.mqtt;
+
+import io.brokerqe.claire.TestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * MQTT device fleet scenario shared by standalone and operator suites. Devices are split into groups, every device
+ * subscribes to wildcard {@code fleet/<group>/#} and one device per group publishes telemetry, which is fanned out to
+ * the whole group. In every cumulative connection step are recorded
+ * <ul>
+ *     <li>connect rate and connect latency of connection storm</li>
+ *     <li>broker heap per connection (with its subscription) after GC, using given heap supplier</li>
+ *     <li>publish-to-fanout latency and delivery rate</li>
+ * </ul>
+ * At the end retained status message is published to every group and late devices subscribing to {@code fleet/+/status}
+ * measure time until all retained messages are delivered.
+ */
+public class MqttFanoutBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MqttFanoutBenchmark.class);
+    private static final long STEP_TIMEOUT = Duration.ofMinutes(10).toMillis();
+
+    private final String host;
+    private final int port;
+    private final LongSupplier retainedHeap;
+    private String username;
+    private String password;
+    private int[] connectionSteps = {10_000, 25_000, 50_000};
+    private int qos;
+    private int groups = 100;
+    private int messagesPerGroup = 10;
+    private int payloadSize = 256;
+    private int lateSubscribers = 1_000;
+    private final List<Map<String, String>> series = new ArrayList<>();
+
+    /**
+     * @param retainedHeap returns used heap of broker after GC (bytes)
+     */
+    public MqttFanoutBenchmark(String host, int port, LongSupplier retainedHeap) {
+        this.host = host;
+        this.port = port;
+        this.retainedHeap = retainedHeap;
+    }
+
+    public MqttFanoutBenchmark withCredentials(String username, String password) {
+        this.username = username;
+        this.password = password;
+        return this;
+    }
+
+    /**
+     * @param connectionSteps cumulative number of device connections in every step
+     */
+    public MqttFanoutBenchmark withConnectionSteps(int... connectionSteps) {
+        this.connectionSteps = connectionSteps;
+        return this;
+    }
+
+    public MqttFanoutBenchmark withQos(int qos) {
+        this.qos = qos;
+        return this;
+    }
+
+    public MqttFanoutBenchmark withGroups(int groups) {
+        this.groups = groups;
+        return this;
+    }
+
+    public MqttFanoutBenchmark withMessagesPerGroup(int messagesPerGroup) {
+        this.messagesPerGroup = messagesPerGroup;
+        return this;
+    }
+
+    public MqttFanoutBenchmark withPayloadSize(int payloadSize) {
+        this.payloadSize = payloadSize;
+        return this;
+    }
+
+    public MqttFanoutBenchmark withLateSubscribers(int lateSubscribers) {
+        this.lateSubscribers = lateSubscribers;
+        return this;
+    }
+
+    /**
+     * @return results of the last connection step together with retained message delivery
+     */
+    public Map<String, String> run() {
+        series.clear();
+        long baselineHeap = retainedHeap.getAsLong();
+        Map<String, String> results = new HashMap<>();
+        try (MqttLoadClient client = new MqttLoadClient(host, port).withCredentials(username, password)) {
+            int connections = 0;
+            for (int step : connectionSteps) {
+                Map<String, String> point = new HashMap<>();
+                long start = System.nanoTime();
+                int connected = client.connect(step - connections, "device-", STEP_TIMEOUT);
+                point.put("connections", String.valueOf(step));
+                point.put("connect_rate", format(connected / toSeconds(System.nanoTime() - start)));
+                point.put("failed_connections", String.valueOf(client.getFailedConnections()));
+                point.putAll(client.getConnectLatency().toMap("connect"));
+
+                start = System.nanoTime();
+                int rejected = client.subscribe(connections, step, index -> "fleet/" + index % groups + "/#", qos, STEP_TIMEOUT);
+                point.put("subscribe_ms", String.valueOf(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                point.put("rejected_subscriptions", String.valueOf(rejected));
+                connections = step;
+
+                long heap = retainedHeap.getAsLong();
+                point.put("heap_used_bytes", String.valueOf(heap));
+                point.put("heap_bytes_per_connection", format((heap - baselineHeap) / (double) client.getConnectedCount()));
+
+                point.putAll(measureFanout(client));
+                point.put("lost_connections", String.valueOf(client.getLostConnections()));
+                LOGGER.info("[MQTT] {}", point);
+                series.add(point);
+            }
+            results.putAll(series.get(series.size() - 1));
+            results.putAll(measureRetained(client, connections));
+        }
+        results.put("profile_qos", String.valueOf(qos));
+        results.put("profile_groups", String.valueOf(groups));
+        results.put("profile_messages_per_group", String.valueOf(messagesPerGroup));
+        results.put("profile_payload_size", String.valueOf(payloadSize));
+        return results;
+    }
+
+    /**
+     * @return result of every connection step of the last run
+     */
+    public List<Map<String, String>> getSeries() {
+        return series;
+    }
+
+    /**
+     * @return main columns of every connection step of the last run as CSV
+     */
+    public String getSeriesCsv() {
+        StringBuilder csv = new StringBuilder("connections,connect_rate,connect_us_99.00,heap_bytes_per_connection,fanout_us_50.00,fanout_us_99.00,delivery_rate\n");
+        for (Map<String, String> point : series) {
+            csv.append(String.join(",", point.get("connections"), point.get("connect_rate"), point.get("connect_us_99.00"),
+                    point.get("heap_bytes_per_connection"), point.get("fanout_us_50.00"), point.get("fanout_us_99.00"),
+                    point.get("delivery_rate"))).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private Map<String, String> measureFanout(MqttLoadClient client) {
+        client.resetReceived();
+        // every connected device gets all messages published to its group
+        long expected = (long) client.getConnectedCount() * messagesPerGroup;
+        long start = System.nanoTime();
+        for (int message = 0; message < messagesPerGroup; message++) {
+            for (int group = 0; group < groups; group++) {
+                client.publish(group, "fleet/" + group + "/telemetry", qos, false, payloadSize);
+            }
+        }
+        client.awaitReceived(expected, STEP_TIMEOUT);
+        Map<String, String> fanout = new HashMap<>(client.getFanoutLatency().toMap("fanout"));
+        fanout.put("delivered", String.valueOf(client.getReceived()));
+        fanout.put("delivery_rate", format(client.getReceived() / toSeconds(System.nanoTime() - start)));
+        return fanout;
+    }
+
+    private Map<String, String> measureRetained(MqttLoadClient client, int connections) {
+        long acknowledgedBefore = client.getAcknowledged();
+        for (int group = 0; group < groups; group++) {
+            client.publish(group, "fleet/" + group + "/status", qos, true, payloadSize);
+        }
+        if (qos > 0) {
+            TestUtils.waitFor("retained messages to be acknowledged", 100, STEP_TIMEOUT, () -> client.getAcknowledged() - acknowledgedBefore >= groups);
+        } else {
+            // QoS 0 publish is not acknowledged, give broker time to store retained messages
+            TestUtils.threadSleep(Duration.ofSeconds(1).toMillis());
+        }
+        int lateConnected = client.connect(lateSubscribers, "late-device-", STEP_TIMEOUT);
+        long start = System.nanoTime();
+        client.subscribe(connections, connections + lateSubscribers, index -> "fleet/+/status", qos, STEP_TIMEOUT);
+        client.awaitRetainedReceived((long) lateConnected * groups, STEP_TIMEOUT);
+        Map<String, String> retained = new HashMap<>();
+        retained.put("retained_delivery_ms", String.valueOf(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        retained.put("retained_delivered", String.valueOf(client.getRetainedReceived()));
+        return retained;
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+}
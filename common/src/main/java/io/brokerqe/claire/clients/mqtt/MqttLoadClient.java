@@ -0,0 +1,589 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.clients.mqtt;
+
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.exception.WaitException;
+import io.brokerqe.claire.monitoring.LatencyStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
+
+/**
+ * Lightweight asynchronous MQTT 3.1.1 client for load tests, which keeps tens of thousands of connections in the test JVM
+ * (instead of one CLI process per client). Connections are multiplexed over few non-blocking selector threads.
+ * <ul>
+ *     <li>connect latency is measured from opening socket to CONNACK</li>
+ *     <li>published payload starts with {@link System#nanoTime()} of publisher, so every delivered message records
+ *     publish-to-fanout latency (retained messages delivered on subscribe are only counted)</li>
+ *     <li>QoS 0, 1 and 2 flows are acknowledged by the client, redelivered QoS 2 messages (not yet released by broker)
+ *     are acknowledged again, but not counted</li>
+ * </ul>
+ * Only packets needed by the benchmark are implemented (no MQTT 5, no TLS, no session resumption), encoding and
+ * framing are covered by {@code MqttPacketsTest}. MQTT clients with full protocol support should be used by
+ * functional tests.
+ */
+public class MqttLoadClient implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MqttLoadClient.class);
+    private static final int TIMESTAMP_SIZE = Long.BYTES;
+
+    private final InetSocketAddress address;
+    private String username;
+    private String password;
+    private int keepAliveSeconds = 60;
+    private boolean cleanSession = true;
+    private int ioThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private int maxConnectsInFlight = 1000;
+
+    private IoLoop[] ioLoops;
+    private Semaphore connectPermits;
+    private final List<Connection> connections = Collections.synchronizedList(new ArrayList<>());
+    private final LatencyStats connectLatency = new LatencyStats();
+    private volatile LatencyStats fanoutLatency = new LatencyStats();
+    private final AtomicInteger connected = new AtomicInteger();
+    private final AtomicInteger failedConnections = new AtomicInteger();
+    private final AtomicInteger lostConnections = new AtomicInteger();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final AtomicInteger failedSubscriptions = new AtomicInteger();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong acknowledged = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong retainedReceived = new AtomicLong();
+
+    public MqttLoadClient(String host, int port) {
+        this.address = new InetSocketAddress(host, port);
+    }
+
+    public MqttLoadClient withCredentials(String username, String password) {
+        this.username = username;
+        this.password = password;
+        return this;
+    }
+
+    /**
+     * @param keepAliveSeconds 0 disables keep alive pings
+     */
+    public MqttLoadClient withKeepAlive(int keepAliveSeconds) {
+        this.keepAliveSeconds = keepAliveSeconds;
+        return this;
+    }
+
+    public MqttLoadClient withCleanSession(boolean cleanSession) {
+        this.cleanSession = cleanSession;
+        return this;
+    }
+
+    public MqttLoadClient withIoThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+        return this;
+    }
+
+    /**
+     * Limits number of connections waiting for CONNACK, so connection storm does not overflow accept backlog of broker.
+     */
+    public MqttLoadClient withMaxConnectsInFlight(int maxConnectsInFlight) {
+        this.maxConnectsInFlight = maxConnectsInFlight;
+        return this;
+    }
+
+    /**
+     * Opens given number of new connections with client ids {@code <clientIdPrefix><connection index>}.
+     * @return number of successfully connected new connections
+     */
+    public int connect(int count, String clientIdPrefix, long timeoutMs) {
+        startIoLoops();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        int firstIndex = connections.size();
+        int doneBefore = connected.get() + failedConnections.get();
+        try {
+            for (int i = 0; i < count; i++) {
+                if (!connectPermits.tryAcquire(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+                int index = firstIndex + i;
+                Connection connection = new Connection(index, clientIdPrefix + index, ioLoops[index % ioLoops.length]);
+                connections.add(connection);
+                connection.ioLoop.execute(() -> connection.ioLoop.open(connection));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClaireRuntimeException("Interrupted while opening MQTT connections", e);
+        }
+        int opened = connections.size() - firstIndex;
+        await(opened + " MQTT connections to be acknowledged", Math.max(0, deadline - System.currentTimeMillis()),
+                () -> connected.get() + failedConnections.get() - doneBefore >= opened);
+        int newlyConnected;
+        synchronized (connections) {
+            newlyConnected = (int) connections.subList(firstIndex, connections.size()).stream().filter(connection -> connection.connected).count();
+        }
+        LOGGER.info("[MQTT] Connected {}/{} connections to {} ({} failed), connect latency {}", newlyConnected, count, address,
+                opened - newlyConnected, connectLatency);
+        return newlyConnected;
+    }
+
+    /**
+     * Subscribes connected connections with index in given range to topic filter for its index and waits for all SUBACKs.
+     * @param toConnection exclusive
+     * @return number of subscriptions rejected by broker
+     */
+    public int subscribe(int fromConnection, int toConnection, IntFunction<String> topicFilter, int qos, long timeoutMs) {
+        int subscriptionsBefore = subscriptions.get();
+        int failedBefore = failedSubscriptions.get();
+        List<Connection> subscribers;
+        synchronized (connections) {
+            subscribers = connections.subList(fromConnection, Math.min(toConnection, connections.size())).stream()
+                    .filter(connection -> connection.connected).toList();
+        }
+        for (Connection connection : subscribers) {
+            String filter = topicFilter.apply(connection.index);
+            connection.ioLoop.execute(() -> connection.send(MqttPackets.subscribe(connection.nextPacketId(), filter, qos)));
+        }
+        await(subscribers.size() + " MQTT subscriptions to be acknowledged", timeoutMs,
+                () -> subscriptions.get() - subscriptionsBefore >= subscribers.size());
+        return failedSubscriptions.get() - failedBefore;
+    }
+
+    /**
+     * Publishes message of given size (at least timestamp) from given connection.
+     */
+    public void publish(int connectionIndex, String topic, int qos, boolean retain, int payloadSize) {
+        Connection connection = connections.get(connectionIndex);
+        connection.ioLoop.execute(() -> {
+            ByteBuffer payload = ByteBuffer.allocate(Math.max(TIMESTAMP_SIZE, payloadSize));
+            payload.putLong(System.nanoTime()).position(0);
+            connection.send(MqttPackets.publish(topic, qos, retain, qos > 0 ? connection.nextPacketId() : 0, payload));
+            published.incrementAndGet();
+        });
+    }
+
+    /**
+     * Waits until given total number of messages (not counting retained messages delivered on subscribe) is received.
+     */
+    public void awaitReceived(long expected, long timeoutMs) {
+        await(expected + " MQTT messages to be received", timeoutMs, () -> received.get() >= expected);
+    }
+
+    /**
+     * Waits until given number of retained messages is delivered to new subscriptions.
+     */
+    public void awaitRetainedReceived(long expected, long timeoutMs) {
+        await(expected + " retained MQTT messages to be received", timeoutMs, () -> retainedReceived.get() >= expected);
+    }
+
+    /**
+     * Starts new fanout latency measurement and resets received message counters.
+     */
+    public void resetReceived() {
+        fanoutLatency = new LatencyStats();
+        received.set(0);
+        retainedReceived.set(0);
+    }
+
+    public LatencyStats getConnectLatency() {
+        return connectLatency;
+    }
+
+    public LatencyStats getFanoutLatency() {
+        return fanoutLatency;
+    }
+
+    public int getConnectedCount() {
+        return connected.get();
+    }
+
+    public int getFailedConnections() {
+        return failedConnections.get();
+    }
+
+    /**
+     * @return number of established connections closed by broker or network
+     */
+    public int getLostConnections() {
+        return lostConnections.get();
+    }
+
+    public long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * @return number of QoS 1 (PUBACK) and QoS 2 (PUBCOMP) publishes acknowledged by broker
+     */
+    public long getAcknowledged() {
+        return acknowledged.get();
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+
+    public long getRetainedReceived() {
+        return retainedReceived.get();
+    }
+
+    /**
+     * Polls counters updated by io threads (does not depend on test environment, unlike TestUtils.waitFor).
+     */
+    private void await(String description, long timeoutMs, BooleanSupplier ready) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!ready.getAsBoolean()) {
+            if (System.currentTimeMillis() >= deadline) {
+                String errMsg = String.format("Timeout after %d ms waiting for %s", timeoutMs, description);
+                LOGGER.error(errMsg);
+                throw new WaitException(errMsg);
+            }
+            try {
+                Thread.sleep(Constants.DURATION_100_MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WaitException(e);
+            }
+        }
+    }
+
+    private synchronized void startIoLoops() {
+        if (ioLoops == null) {
+            connectPermits = new Semaphore(maxConnectsInFlight);
+            ioLoops = new IoLoop[ioThreads];
+            for (int i = 0; i < ioThreads; i++) {
+                ioLoops[i] = new IoLoop("mqtt-load-io-" + i);
+            }
+        }
+    }
+
+    /**
+     * Sends DISCONNECT on all connections and closes them.
+     */
+    @Override
+    public synchronized void close() {
+        if (ioLoops == null) {
+            return;
+        }
+        for (IoLoop ioLoop : ioLoops) {
+            ioLoop.shutdown();
+        }
+        for (IoLoop ioLoop : ioLoops) {
+            try {
+                ioLoop.thread.join(Constants.DURATION_10_SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        LOGGER.info("[MQTT] Closed {} connections to {}", connections.size(), address);
+        connections.clear();
+        connected.set(0);
+        ioLoops = null;
+    }
+
+    private final class Connection {
+        private final int index;
+        private final String clientId;
+        private final IoLoop ioLoop;
+        private final Queue<ByteBuffer> writeQueue = new ArrayDeque<>();
+        // ids of received QoS 2 messages waiting for PUBREL
+        private final Set<Integer> unreleasedPacketIds = new HashSet<>();
+        private ByteBuffer inbound = ByteBuffer.allocate(256);
+        private SocketChannel channel;
+        private SelectionKey key;
+        private long connectStart;
+        private long lastWrite;
+        private int packetId;
+        private volatile boolean connected;
+        private boolean closed;
+
+        private Connection(int index, String clientId, IoLoop ioLoop) {
+            this.index = index;
+            this.clientId = clientId;
+            this.ioLoop = ioLoop;
+        }
+
+        private int nextPacketId() {
+            packetId = packetId % 0xFFFF + 1;
+            return packetId;
+        }
+
+        /** called from io loop only */
+        private void send(ByteBuffer packet) {
+            if (closed) {
+                return;
+            }
+            writeQueue.add(packet);
+            flush();
+        }
+
+        private void flush() {
+            try {
+                while (!writeQueue.isEmpty()) {
+                    ByteBuffer packet = writeQueue.peek();
+                    channel.write(packet);
+                    if (packet.hasRemaining()) {
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    writeQueue.poll();
+                }
+                lastWrite = System.nanoTime();
+                key.interestOps(SelectionKey.OP_READ);
+            } catch (IOException e) {
+                close("write failed: " + e.getMessage());
+            }
+        }
+
+        private void read() {
+            try {
+                if (!inbound.hasRemaining()) {
+                    inbound = ByteBuffer.allocate(inbound.capacity() * 2).put(inbound.flip());
+                }
+                if (channel.read(inbound) < 0) {
+                    close("closed by broker");
+                    return;
+                }
+            } catch (IOException e) {
+                close("read failed: " + e.getMessage());
+                return;
+            }
+            inbound.flip();
+            int length;
+            while (!closed && (length = MqttPackets.packetLength(inbound)) >= 0 && inbound.remaining() >= length) {
+                ByteBuffer packet = inbound.slice(inbound.position(), length);
+                inbound.position(inbound.position() + length);
+                int flags = packet.get(0) & 0x0F;
+                handle(MqttPackets.readFixedHeader(packet), flags, packet);
+            }
+            inbound.compact();
+        }
+
+        private void handle(int type, int flags, ByteBuffer packet) {
+            switch (type) {
+                case MqttPackets.CONNACK -> {
+                    int returnCode = packet.get(packet.position() + 1);
+                    if (returnCode == 0) {
+                        connectLatency.recordNanos(System.nanoTime() - connectStart);
+                        connected = true;
+                        MqttLoadClient.this.connected.incrementAndGet();
+                        connectPermits.release();
+                    } else {
+                        close("connection refused with return code " + returnCode);
+                    }
+                }
+                case MqttPackets.SUBACK -> {
+                    if ((packet.get(packet.limit() - 1) & 0x80) != 0) {
+                        failedSubscriptions.incrementAndGet();
+                    }
+                    subscriptions.incrementAndGet();
+                }
+                case MqttPackets.PUBLISH -> {
+                    long now = System.nanoTime();
+                    int qos = (flags >> 1) & 0x03;
+                    boolean retain = (flags & 0x01) != 0;
+                    int topicLength = packet.getShort() & 0xFFFF;
+                    packet.position(packet.position() + topicLength);
+                    int receivedPacketId = qos > 0 ? packet.getShort() & 0xFFFF : 0;
+                    if (qos == 2 && !unreleasedPacketIds.add(receivedPacketId)) {
+                        LOGGER.trace("[MQTT] [{}] Redelivered QoS 2 message {}", clientId, receivedPacketId);
+                    } else if (retain) {
+                        retainedReceived.incrementAndGet();
+                    } else {
+                        if (packet.remaining() >= TIMESTAMP_SIZE) {
+                            fanoutLatency.recordNanos(now - packet.getLong());
+                        }
+                        received.incrementAndGet();
+                    }
+                    if (qos == 1) {
+                        send(MqttPackets.ack(MqttPackets.PUBACK, receivedPacketId));
+                    } else if (qos == 2) {
+                        send(MqttPackets.ack(MqttPackets.PUBREC, receivedPacketId));
+                    }
+                }
+                case MqttPackets.PUBREC -> send(MqttPackets.ack(MqttPackets.PUBREL, packet.getShort() & 0xFFFF));
+                case MqttPackets.PUBREL -> {
+                    int releasedPacketId = packet.getShort() & 0xFFFF;
+                    unreleasedPacketIds.remove(releasedPacketId);
+                    send(MqttPackets.ack(MqttPackets.PUBCOMP, releasedPacketId));
+                }
+                case MqttPackets.PUBACK, MqttPackets.PUBCOMP -> acknowledged.incrementAndGet();
+                case MqttPackets.PINGRESP -> {
+                    // keep alive response
+                }
+                default -> LOGGER.debug("[MQTT] [{}] Ignoring packet type {}", clientId, type);
+            }
+        }
+
+        private void close(String reason) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (connected) {
+                connected = false;
+                MqttLoadClient.this.connected.decrementAndGet();
+                lostConnections.incrementAndGet();
+            } else {
+                failedConnections.incrementAndGet();
+                connectPermits.release();
+            }
+            LOGGER.debug("[MQTT] [{}] Connection closed: {}", clientId, reason);
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                LOGGER.debug("[MQTT] [{}] Error on closing channel: {}", clientId, e.getMessage());
+            }
+        }
+    }
+
+    private final class IoLoop implements Runnable {
+        private final Selector selector;
+        private final Thread thread;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final List<Connection> loopConnections = new ArrayList<>();
+        private volatile boolean running = true;
+        private long lastKeepAliveCheck = System.nanoTime();
+
+        private IoLoop(String name) {
+            try {
+                selector = Selector.open();
+            } catch (IOException e) {
+                throw new ClaireRuntimeException("Unable to open selector for MQTT load client", e);
+            }
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        private void open(Connection connection) {
+            loopConnections.add(connection);
+            try {
+                connection.connectStart = System.nanoTime();
+                connection.channel = SocketChannel.open();
+                connection.channel.configureBlocking(false);
+                connection.channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                connection.key = connection.channel.register(selector, SelectionKey.OP_CONNECT, connection);
+                if (connection.channel.connect(address)) {
+                    finishConnect(connection);
+                }
+            } catch (IOException e) {
+                connection.close("connect failed: " + e.getMessage());
+            }
+        }
+
+        private void finishConnect(Connection connection) {
+            connection.key.interestOps(SelectionKey.OP_READ);
+            connection.send(MqttPackets.connect(connection.clientId, username, password, keepAliveSeconds, cleanSession));
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select(Constants.DURATION_1_SECOND);
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) {
+                        task.run();
+                    }
+                    Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                    while (selectedKeys.hasNext()) {
+                        SelectionKey key = selectedKeys.next();
+                        selectedKeys.remove();
+                        handleKey(key);
+                    }
+                    sendKeepAlive();
+                } catch (IOException e) {
+                    LOGGER.warn("[MQTT] Selector failure: {}", e.getMessage());
+                }
+            }
+            for (Connection connection : loopConnections) {
+                if (connection.connected) {
+                    connection.send(MqttPackets.disconnect());
+                }
+                connection.closed = true;
+                try {
+                    if (connection.channel != null) {
+                        connection.channel.close();
+                    }
+                } catch (IOException e) {
+                    LOGGER.debug("[MQTT] [{}] Error on closing channel: {}", connection.clientId, e.getMessage());
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                LOGGER.debug("[MQTT] Error on closing selector: {}", e.getMessage());
+            }
+        }
+
+        private void handleKey(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+            if (!key.isValid() || connection.closed) {
+                return;
+            }
+            if (key.isConnectable()) {
+                try {
+                    if (connection.channel.finishConnect()) {
+                        finishConnect(connection);
+                    }
+                } catch (IOException e) {
+                    connection.close("connect failed: " + e.getMessage());
+                }
+                return;
+            }
+            if (key.isWritable()) {
+                connection.flush();
+            }
+            if (key.isValid() && key.isReadable()) {
+                connection.read();
+            }
+        }
+
+        private void sendKeepAlive() {
+            long now = System.nanoTime();
+            if (keepAliveSeconds == 0 || now - lastKeepAliveCheck < TimeUnit.SECONDS.toNanos(1)) {
+                return;
+            }
+            lastKeepAliveCheck = now;
+            long pingAfter = TimeUnit.SECONDS.toNanos(keepAliveSeconds) / 2;
+            for (Connection connection : loopConnections) {
+                if (connection.connected && now - connection.lastWrite > pingAfter) {
+                    connection.send(MqttPackets.pingReq());
+                }
+            }
+        }
+
+        private void shutdown() {
+            running = false;
+            selector.wakeup();
+        }
+    }
+}
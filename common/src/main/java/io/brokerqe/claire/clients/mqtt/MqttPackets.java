@@ -0,0 +1,167 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.clients.mqtt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encoding of MQTT 3.1.1 control packets used by {@link MqttLoadClient} and framing of received packets.
+ */
+final class MqttPackets {
+
+    static final int CONNECT = 1;
+    static final int CONNACK = 2;
+    static final int PUBLISH = 3;
+    static final int PUBACK = 4;
+    static final int PUBREC = 5;
+    static final int PUBREL = 6;
+    static final int PUBCOMP = 7;
+    static final int SUBSCRIBE = 8;
+    static final int SUBACK = 9;
+    static final int PINGREQ = 12;
+    static final int PINGRESP = 13;
+    static final int DISCONNECT = 14;
+
+    private static final byte[] PROTOCOL_NAME = "MQTT".getBytes(StandardCharsets.UTF_8);
+    private static final int PROTOCOL_LEVEL = 4;
+    private static final int MAX_REMAINING_LENGTH = 268_435_455;
+
+    private MqttPackets() {
+    }
+
+    static ByteBuffer connect(String clientId, String username, String password, int keepAliveSeconds, boolean cleanSession) {
+        byte[] clientIdBytes = clientId.getBytes(StandardCharsets.UTF_8);
+        byte[] usernameBytes = username == null ? null : username.getBytes(StandardCharsets.UTF_8);
+        byte[] passwordBytes = password == null ? null : password.getBytes(StandardCharsets.UTF_8);
+        int flags = cleanSession ? 0x02 : 0;
+        int remainingLength = 2 + PROTOCOL_NAME.length + 1 + 1 + 2 + 2 + clientIdBytes.length;
+        if (usernameBytes != null) {
+            flags |= 0x80;
+            remainingLength += 2 + usernameBytes.length;
+        }
+        if (passwordBytes != null) {
+            flags |= 0x40;
+            remainingLength += 2 + passwordBytes.length;
+        }
+        ByteBuffer buffer = allocate(CONNECT << 4, remainingLength);
+        putBytes(buffer, PROTOCOL_NAME);
+        buffer.put((byte) PROTOCOL_LEVEL);
+        buffer.put((byte) flags);
+        buffer.putShort((short) keepAliveSeconds);
+        putBytes(buffer, clientIdBytes);
+        if (usernameBytes != null) {
+            putBytes(buffer, usernameBytes);
+        }
+        if (passwordBytes != null) {
+            putBytes(buffer, passwordBytes);
+        }
+        return buffer.flip();
+    }
+
+    static ByteBuffer subscribe(int packetId, String topicFilter, int qos) {
+        byte[] topicBytes = topicFilter.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = allocate(SUBSCRIBE << 4 | 0x02, 2 + 2 + topicBytes.length + 1);
+        buffer.putShort((short) packetId);
+        putBytes(buffer, topicBytes);
+        buffer.put((byte) qos);
+        return buffer.flip();
+    }
+
+    /**
+     * @param packetId ignored for QoS 0
+     */
+    static ByteBuffer publish(String topic, int qos, boolean retain, int packetId, ByteBuffer payload) {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        int header = PUBLISH << 4 | qos << 1 | (retain ? 1 : 0);
+        ByteBuffer buffer = allocate(header, 2 + topicBytes.length + (qos > 0 ? 2 : 0) + payload.remaining());
+        putBytes(buffer, topicBytes);
+        if (qos > 0) {
+            buffer.putShort((short) packetId);
+        }
+        buffer.put(payload);
+        return buffer.flip();
+    }
+
+    /**
+     * PUBACK, PUBREC, PUBREL or PUBCOMP packet.
+     */
+    static ByteBuffer ack(int type, int packetId) {
+        ByteBuffer buffer = allocate(type << 4 | (type == PUBREL ? 0x02 : 0), 2);
+        buffer.putShort((short) packetId);
+        return buffer.flip();
+    }
+
+    static ByteBuffer pingReq() {
+        return allocate(PINGREQ << 4, 0).flip();
+    }
+
+    static ByteBuffer disconnect() {
+        return allocate(DISCONNECT << 4, 0).flip();
+    }
+
+    /**
+     * @return length (fixed header included) of packet starting at buffer position, or -1 when its fixed header is
+     * not complete yet
+     */
+    static int packetLength(ByteBuffer buffer) {
+        int position = buffer.position() + 1;
+        int remainingLength = 0;
+        int multiplier = 1;
+        for (int i = 0; i < 4; i++) {
+            if (position + i >= buffer.limit()) {
+                return -1;
+            }
+            int encodedByte = buffer.get(position + i) & 0xFF;
+            remainingLength += (encodedByte & 0x7F) * multiplier;
+            if ((encodedByte & 0x80) == 0) {
+                return 1 + i + 1 + remainingLength;
+            }
+            multiplier *= 128;
+        }
+        throw new IllegalStateException("Malformed remaining length of MQTT packet");
+    }
+
+    /**
+     * Moves buffer position behind the fixed header.
+     * @return packet type
+     */
+    static int readFixedHeader(ByteBuffer packet) {
+        int type = (packet.get() & 0xFF) >> 4;
+        byte encodedByte;
+        do {
+            encodedByte = packet.get();
+        } while ((encodedByte & 0x80) != 0);
+        return type;
+    }
+
+    static int remainingLengthSize(int remainingLength) {
+        if (remainingLength > MAX_REMAINING_LENGTH) {
+            throw new IllegalArgumentException("MQTT packet too large: " + remainingLength);
+        }
+        int size = 1;
+        while (remainingLength > 127) {
+            remainingLength /= 128;
+            size++;
+        }
+        return size;
+    }
+
+    private static ByteBuffer allocate(int header, int remainingLength) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + remainingLengthSize(remainingLength) + remainingLength);
+        buffer.put((byte) header);
+        do {
+            int encodedByte = remainingLength % 128;
+            remainingLength /= 128;
+            buffer.put((byte) (remainingLength > 0 ? encodedByte | 0x80 : encodedByte));
+        } while (remainingLength > 0);
+        return buffer;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helpers;
+
+import java.io.InputStream;
+
+/**
+ * Stream of given length with deterministic pseudo-random content (xorshift generator seeded by seed), generated on
+ * the fly. Unlike {@code TestUtils.generateRandomText}, payload of any size (even bigger than 2 GiB) is never held in
+ * memory, same seed and length always produce the same bytes.
+ */
+public class GeneratedInputStream extends InputStream {
+
+    private final long length;
+    private long position;
+    private long state;
+    private long word;
+
+    public GeneratedInputStream(long length, long seed) {
+        this.length = length;
+        // xorshift state must not be zero
+        this.state = seed == 0 ? 0x9E3779B97F4A7C15L : seed;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    private byte nextByte() {
+        if (position % Long.BYTES == 0) {
+            state ^= state << 13;
+            state ^= state >>> 7;
+            state ^= state << 17;
+            word = state;
+        }
+        byte value = (byte) (word >>> ((position % Long.BYTES) * Byte.SIZE));
+        position++;
+        return value;
+    }
+
+    @Override
+    public int read() {
+        if (position >= length) {
+            return -1;
+        }
+        return nextByte() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (position >= length) {
+            return -1;
+        }
+        int count = (int) Math.min(len, length - position);
+        for (int i = 0; i < count; i++) {
+            buffer[offset + i] = nextByte();
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = Math.max(0, Math.min(n, length - position));
+        for (long i = 0; i < skipped; i++) {
+            nextByte();
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, length - position);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helpers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Jolokia client using single shared {@link HttpClient} (keep-alive connection reuse) and Jolokia bulk POST requests,
+ * so many MBean attributes can be read and many operations executed in one HTTP round trip.
+ * Responses are parsed in streaming way, one response object at a time.
+ */
+public class JolokiaClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JolokiaClient.class);
+    private static final String JOLOKIA_ENDPOINT = "/console/jolokia";
+    private static final String DEFAULT_ORIGIN_HEADER = "http://localhost:8161";
+    private static final String ARTEMIS_DOMAIN = "org.apache.activemq.artemis";
+    private static final Pattern QUEUE_NAME_PATTERN = Pattern.compile("queue=\"?([^\",]*)\"?");
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(Constants.DURATION_10_SECONDS))
+            .build();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final URI jolokiaUri;
+    private final String authorization;
+    private final String origin;
+
+    /**
+     * @param jolokiaUrl full url of jolokia endpoint, e.g. http://broker-wconsj-0-svc-rte.apps.example.com/console/jolokia
+     */
+    public JolokiaClient(String jolokiaUrl, String user, String password, String origin) {
+        this.jolokiaUri = URI.create(jolokiaUrl.endsWith("/") ? jolokiaUrl : jolokiaUrl + "/");
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+        this.origin = origin;
+    }
+
+    public JolokiaClient(String jolokiaUrl, String user, String password) {
+        this(jolokiaUrl, user, password, DEFAULT_ORIGIN_HEADER);
+    }
+
+    /**
+     * Client for Artemis web console jolokia endpoint with default credentials.
+     * @param host hostname (and port) of broker web console
+     */
+    public static JolokiaClient forBroker(String host) {
+        return forBroker(Constants.HTTP, host, Constants.ARTEMIS_INSTANCE_USER_NAME, Constants.ARTEMIS_INSTANCE_USER_PASS);
+    }
+
+    public static JolokiaClient forBroker(String scheme, String host, String user, String password) {
+        return new JolokiaClient(scheme + "://" + host + JOLOKIA_ENDPOINT, user, password);
+    }
+
+    public static String getBrokerMBean(String brokerName) {
+        return ARTEMIS_DOMAIN + ":broker=\"" + brokerName + "\"";
+    }
+
+    public static String getQueueMBean(String brokerName, String address, String routingType, String queue) {
+        return getBrokerMBean(brokerName) + ",component=addresses,address=\"" + address + "\",subcomponent=queues,routing-type=\""
+                + routingType.toLowerCase(Locale.ROOT) + "\",queue=\"" + queue + "\"";
+    }
+
+    /**
+     * @return MBean pattern matching all queues of given broker
+     */
+    public static String getAllQueuesMBeanPattern(String brokerName) {
+        return getBrokerMBean(brokerName) + ",component=addresses,address=*,subcomponent=queues,routing-type=*,queue=*";
+    }
+
+    public JolokiaResponse execute(JolokiaRequest request) {
+        List<JolokiaResponse> responses = new ArrayList<>();
+        post(request.toJson().toString(), responses::add);
+        return responses.get(0);
+    }
+
+    /**
+     * Sends all requests in single bulk POST.
+     * @return responses in the same order as requests
+     */
+    public List<JolokiaResponse> bulk(List<JolokiaRequest> requests) {
+        List<JolokiaResponse> responses = new ArrayList<>(requests.size());
+        bulk(requests, responses::add);
+        return responses;
+    }
+
+    /**
+     * Sends all requests in single bulk POST and passes each response to consumer as soon as it is parsed.
+     */
+    public void bulk(List<JolokiaRequest> requests, Consumer<JolokiaResponse> responseConsumer) {
+        ArrayNode bulkRequest = MAPPER.createArrayNode();
+        requests.forEach(request -> bulkRequest.add(request.toJson()));
+        post(bulkRequest.toString(), responseConsumer);
+    }
+
+    public JsonNode readAttribute(String mbean, String attribute) {
+        JolokiaResponse response = execute(JolokiaRequest.read(mbean, attribute));
+        checkResponse(response);
+        return response.getValue();
+    }
+
+    public JsonNode exec(String mbean, String operation, Object... arguments) {
+        JolokiaResponse response = execute(JolokiaRequest.exec(mbean, operation, arguments));
+        checkResponse(response);
+        return response.getValue();
+    }
+
+    /**
+     * Reads provided attributes of all queues of broker in one request (using MBean pattern).
+     * @return map of queue name to map of attribute name and its value
+     */
+    public Map<String, Map<String, JsonNode>> readAllQueuesAttributes(String brokerName, String... attributes) {
+        JolokiaResponse response = execute(JolokiaRequest.read(getAllQueuesMBeanPattern(brokerName), attributes));
+        checkResponse(response);
+        Map<String, Map<String, JsonNode>> queuesAttributes = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> mbeans = response.getValue().fields();
+        while (mbeans.hasNext()) {
+            Map.Entry<String, JsonNode> mbean = mbeans.next();
+            Matcher matcher = QUEUE_NAME_PATTERN.matcher(mbean.getKey());
+            String queueName = matcher.find() ? matcher.group(1) : mbean.getKey();
+            Map<String, JsonNode> attributeValues = new HashMap<>();
+            mbean.getValue().fields().forEachRemaining(attribute -> attributeValues.put(attribute.getKey(), attribute.getValue()));
+            queuesAttributes.put(queueName, attributeValues);
+        }
+        return queuesAttributes;
+    }
+
+    public String getAddressSettingsAsJSON(String brokerName, String address) {
+        return exec(getBrokerMBean(brokerName), "getAddressSettingsAsJSON", address).asText();
+    }
+
+    private void checkResponse(JolokiaResponse response) {
+        if (!response.isSuccess()) {
+            String errMsg = String.format("Jolokia request on %s failed with status %d: %s", response.getMbean(), response.getStatus(), response.getError());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg);
+        }
+    }
+
+    private void post(String body, Consumer<JolokiaResponse> responseConsumer) {
+        HttpRequest request = HttpRequest.newBuilder(jolokiaUri)
+                .timeout(Duration.ofMillis(Constants.DURATION_30_SECONDS))
+                .header("Authorization", authorization)
+                .header("Origin", origin)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        LOGGER.trace("[Jolokia] POST {} {}", jolokiaUri, body);
+        try {
+            HttpResponse<InputStream> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream responseStream = response.body()) {
+                if (response.statusCode() != 200) {
+                    String errMsg = String.format("Jolokia endpoint %s returned HTTP %d: %s", jolokiaUri, response.statusCode(),
+                            new String(responseStream.readAllBytes(), StandardCharsets.UTF_8));
+                    LOGGER.error(errMsg);
+                    throw new ClaireRuntimeException(errMsg);
+                }
+                parseResponses(responseStream, responseConsumer);
+            }
+        } catch (IOException e) {
+            String errMsg = String.format("Unable to call Jolokia endpoint %s: %s", jolokiaUri, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClaireRuntimeException("Interrupted while calling Jolokia endpoint " + jolokiaUri, e);
+        }
+    }
+
+    static void parseResponses(InputStream responseStream, Consumer<JolokiaResponse> responseConsumer) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(responseStream)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    responseConsumer.accept(new JolokiaResponse(MAPPER.readTree(parser)));
+                }
+            } else if (token == JsonToken.START_OBJECT) {
+                responseConsumer.accept(new JolokiaResponse(MAPPER.readTree(parser)));
+            } else {
+                throw new ClaireRuntimeException("Unexpected Jolokia response start token " + token);
+            }
+        }
+    }
+}
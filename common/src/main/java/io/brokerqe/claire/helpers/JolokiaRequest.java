@@ -0,0 +1,90 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helpers;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single Jolokia request (read or exec), which can be sent alone or as part of bulk request.
+ */
+public class JolokiaRequest {
+
+    private final String type;
+    private final String mbean;
+    private final List<String> attributes;
+    private final String operation;
+    private final List<Object> arguments;
+
+    private JolokiaRequest(String type, String mbean, List<String> attributes, String operation, List<Object> arguments) {
+        this.type = type;
+        this.mbean = mbean;
+        this.attributes = attributes;
+        this.operation = operation;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Read attributes of MBean. MBean name can be pattern (e.g. {@code queue=*}), then response value is map of MBean names.
+     * @param attributes to be read, all attributes are read if none is provided
+     */
+    public static JolokiaRequest read(String mbean, String... attributes) {
+        return new JolokiaRequest("read", mbean, List.of(attributes), null, List.of());
+    }
+
+    /**
+     * Execute MBean operation. Overloaded operations have to use signature, e.g. {@code createQueue(java.lang.String,java.lang.String)}.
+     */
+    public static JolokiaRequest exec(String mbean, String operation, Object... arguments) {
+        return new JolokiaRequest("exec", mbean, List.of(), operation, Arrays.asList(arguments));
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getMbean() {
+        return mbean;
+    }
+
+    public List<String> getAttributes() {
+        return attributes;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public List<Object> getArguments() {
+        return arguments;
+    }
+
+    ObjectNode toJson() {
+        ObjectNode request = JsonNodeFactory.instance.objectNode();
+        request.put("type", type);
+        request.put("mbean", mbean);
+        if (attributes.size() == 1) {
+            request.put("attribute", attributes.get(0));
+        } else if (attributes.size() > 1) {
+            ArrayNode attributeArray = request.putArray("attribute");
+            attributes.forEach(attributeArray::add);
+        }
+        if (operation != null) {
+            request.put("operation", operation);
+            ArrayNode argumentArray = request.putArray("arguments");
+            arguments.forEach(argument -> argumentArray.addPOJO(argument));
+        }
+        return request;
+    }
+
+    @Override
+    public String toString() {
+        return toJson().toString();
+    }
+}
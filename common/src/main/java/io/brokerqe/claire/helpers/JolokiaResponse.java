@@ -0,0 +1,63 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Response of single Jolokia request (or single item of bulk response).
+ */
+public class JolokiaResponse {
+
+    private final JsonNode response;
+
+    JolokiaResponse(JsonNode response) {
+        this.response = response;
+    }
+
+    public int getStatus() {
+        return response.path("status").asInt();
+    }
+
+    public boolean isSuccess() {
+        return getStatus() == 200;
+    }
+
+    public JsonNode getValue() {
+        return response.path("value");
+    }
+
+    /**
+     * @return value of read attribute or result of executed operation as String
+     */
+    public String getValueAsText() {
+        JsonNode value = getValue();
+        return value.isValueNode() ? value.asText() : value.toString();
+    }
+
+    public String getError() {
+        return response.path("error").asText(null);
+    }
+
+    public String getErrorType() {
+        return response.path("error_type").asText(null);
+    }
+
+    public String getMbean() {
+        return response.path("request").path("mbean").asText(null);
+    }
+
+    /**
+     * @return whole response, including original request, timestamp and status
+     */
+    public JsonNode getJson() {
+        return response;
+    }
+
+    @Override
+    public String toString() {
+        return response.toString();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helpers;
+
+import io.brokerqe.claire.exception.WaitException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Follows log of container or pod incrementally and keeps last lines in bounded ring buffer, so waits for
+ * a log message are triggered by the exact line as soon as it arrives, without downloading whole log again.
+ * Every line gets sequence number; {@link #mark()} returns sequence of next line, so waits can ignore older lines.
+ * Log chunks are fed by {@link #accept(String)} (may contain partial or multiple lines) or read from stream by
+ * {@link #follow(String, InputStream, AutoCloseable)}.
+ */
+public class LogFollower implements Consumer<String>, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogFollower.class);
+    public static final int DEFAULT_CAPACITY = 10_000;
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final String[] lines;
+    private final StringBuilder partialLine = new StringBuilder();
+    /** sequence number of the oldest line in buffer */
+    private long firstSequence;
+    /** sequence number of the next line */
+    private long nextSequence;
+    private boolean closed;
+    private AutoCloseable source;
+
+    public LogFollower(String name) {
+        this(name, DEFAULT_CAPACITY);
+    }
+
+    public LogFollower(String name, int capacity) {
+        this.name = name;
+        this.lines = new String[capacity];
+    }
+
+    /**
+     * Starts daemon thread reading lines of given log stream.
+     * @param source closed together with follower (e.g. log watch), may be null
+     */
+    public static LogFollower follow(String name, InputStream logStream, AutoCloseable source) {
+        LogFollower follower = new LogFollower(name);
+        follower.source = source;
+        Thread readerThread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(logStream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    follower.addLine(line);
+                }
+            } catch (IOException e) {
+                LOGGER.debug("[{}] Log stream closed: {}", name, e.getMessage());
+            } finally {
+                follower.markClosed();
+            }
+        }, "log-follower-" + name);
+        readerThread.setDaemon(true);
+        readerThread.start();
+        return follower;
+    }
+
+    /**
+     * Appends log chunk, last unterminated line is kept until rest of it arrives.
+     */
+    @Override
+    public synchronized void accept(String chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        int start = 0;
+        int newLine;
+        while ((newLine = chunk.indexOf('\n', start)) >= 0) {
+            partialLine.append(chunk, start, newLine);
+            addLine(partialLine.toString());
+            partialLine.setLength(0);
+            start = newLine + 1;
+        }
+        partialLine.append(chunk, start, chunk.length());
+    }
+
+    private synchronized void addLine(String line) {
+        String stripped = line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+        lines[(int) (nextSequence % lines.length)] = stripped;
+        nextSequence++;
+        if (nextSequence - firstSequence > lines.length) {
+            firstSequence = nextSequence - lines.length;
+        }
+        notifyAll();
+    }
+
+    private synchronized void markClosed() {
+        if (partialLine.length() > 0) {
+            addLine(partialLine.toString());
+            partialLine.setLength(0);
+        }
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * @return sequence number of the next line, use it to wait only for lines logged from now on
+     */
+    public synchronized long mark() {
+        return nextSequence;
+    }
+
+    /**
+     * Waits for line matching given regular expression (find, not full match) among all buffered and new lines.
+     * @return the first matching line
+     * @throws WaitException on timeout or when log stream ends without matching line
+     */
+    public String awaitPattern(String regex, long timeoutMs) {
+        return awaitPattern(regex, 0, timeoutMs);
+    }
+
+    /**
+     * Waits for line matching given regular expression, logged after given {@link #mark()}.
+     */
+    public synchronized String awaitPattern(String regex, long fromSequence, long timeoutMs) {
+        Pattern pattern = PATTERNS.computeIfAbsent(regex, Pattern::compile);
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        long sequence = Math.max(fromSequence, firstSequence);
+        while (true) {
+            // lines could be overwritten while waiting
+            sequence = Math.max(sequence, firstSequence);
+            for (; sequence < nextSequence; sequence++) {
+                String line = lines[(int) (sequence % lines.length)];
+                if (pattern.matcher(line).find()) {
+                    LOGGER.debug("[{}] Found log line matching {}: {}", name, regex, line);
+                    return line;
+                }
+            }
+            long timeLeft = deadline - System.currentTimeMillis();
+            if (closed || timeLeft <= 0) {
+                String reason = closed ? "log stream ended" : "timeout after " + timeoutMs + " ms";
+                throw new WaitException(String.format("[%s] Log line matching '%s' not found, %s", name, regex, reason));
+            }
+            try {
+                wait(timeLeft);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WaitException(e);
+            }
+        }
+    }
+
+    /**
+     * @return whether any buffered line matches given regular expression (does not wait)
+     */
+    public synchronized boolean containsPattern(String regex) {
+        Pattern pattern = PATTERNS.computeIfAbsent(regex, Pattern::compile);
+        return getLines().stream().anyMatch(line -> pattern.matcher(line).find());
+    }
+
+    /**
+     * @return copy of buffered lines, from the oldest
+     */
+    public synchronized List<String> getLines() {
+        List<String> bufferedLines = new ArrayList<>((int) (nextSequence - firstSequence));
+        for (long sequence = firstSequence; sequence < nextSequence; sequence++) {
+            bufferedLines.add(lines[(int) (sequence % lines.length)]);
+        }
+        return bufferedLines;
+    }
+
+    /**
+     * @return number of lines which did not fit into buffer
+     */
+    public synchronized long getDroppedLines() {
+        return firstSequence;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        markClosed();
+        if (source != null) {
+            try {
+                source.close();
+            } catch (Exception e) {
+                LOGGER.warn("[{}] Error on closing log source: {}", name, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records GC pauses of current (test) JVM from {@link GarbageCollectorMXBean} notifications, so pauses of the client
+ * itself can be told apart from broker latency. Concurrent collector cycles (G1 concurrent marking, ZGC/Shenandoah
+ * cycles) are not pauses and are skipped. Notifications are delivered asynchronously shortly after collection ends,
+ * so task waits until notifications of all collections counted by collectors during the task arrived.
+ * Measurement of single client task is done by {@link #startTask(String, String, long)}.
+ */
+public final class ClientJvmMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientJvmMonitor.class);
+    public static final long DEFAULT_MAX_PAUSE_MS = 100;
+    private static final int MAX_RECORDED_PAUSES = 10_000;
+    private static final long NOTIFICATION_TIMEOUT_MS = 5_000;
+    private static final long NOTIFICATION_POLL_MS = 10;
+    private static ClientJvmMonitor instance;
+
+    private final Deque<GcPause> pauses = new ArrayDeque<>();
+    private final Map<String, GarbageCollectorMXBean> observedCollectors = new LinkedHashMap<>();
+    // id of the last notified collection of every collector
+    private final Map<String, Long> notifiedCollections = new ConcurrentHashMap<>();
+
+    private ClientJvmMonitor() {
+    }
+
+    public static synchronized ClientJvmMonitor get() {
+        if (instance == null) {
+            instance = new ClientJvmMonitor();
+            for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (gcBean instanceof NotificationEmitter emitter) {
+                    instance.observedCollectors.put(gcBean.getName(), gcBean);
+                    // collections done before monitoring started are never notified
+                    instance.notifiedCollections.put(gcBean.getName(), Math.max(0, gcBean.getCollectionCount()));
+                    emitter.addNotificationListener((notification, handback) -> instance.handleNotification(notification), null, null);
+                } else {
+                    LOGGER.warn("[JVM] Garbage collector {} does not emit notifications, its pauses are not recorded", gcBean.getName());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private void handleNotification(Notification notification) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        GcInfo gcInfo = info.getGcInfo();
+        if (!info.getGcName().contains("Concurrent") && !info.getGcName().contains("Cycles")) {
+            LOGGER.trace("[JVM] {} ({}) paused for {}ms", info.getGcName(), info.getGcCause(), gcInfo.getDuration());
+            synchronized (pauses) {
+                pauses.addLast(new GcPause(info.getGcName(), gcInfo.getId(), gcInfo.getDuration()));
+                if (pauses.size() > MAX_RECORDED_PAUSES) {
+                    pauses.removeFirst();
+                }
+            }
+        }
+        // updated after the pause is recorded, so threads awaiting the notification see the pause
+        notifiedCollections.merge(info.getGcName(), gcInfo.getId(), Math::max);
+    }
+
+    /**
+     * @return number of collections done so far by every observed collector
+     */
+    Map<String, Long> getCollectionCounts() {
+        Map<String, Long> collectionCounts = new HashMap<>();
+        observedCollectors.forEach((name, gcBean) -> collectionCounts.put(name, Math.max(0, gcBean.getCollectionCount())));
+        return collectionCounts;
+    }
+
+    /**
+     * Waits (up to {@value #NOTIFICATION_TIMEOUT_MS} ms) until notifications of given number of collections of every
+     * collector were delivered.
+     */
+    void awaitNotifications(Map<String, Long> collectionCounts) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(NOTIFICATION_TIMEOUT_MS);
+        while (collectionCounts.entrySet().stream().anyMatch(count -> notifiedCollections.getOrDefault(count.getKey(), 0L) < count.getValue())) {
+            if (System.nanoTime() > deadline) {
+                LOGGER.warn("[JVM] Notified collections {} do not reach {}, some client GC pauses may be missing",
+                        notifiedCollections, collectionCounts);
+                return;
+            }
+            try {
+                Thread.sleep(NOTIFICATION_POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Pauses are matched by collection ids, as start times of collections do not share origin with JVM uptime.
+     * @return pauses (duration in ms) of collections counted after {@code fromCounts} up to {@code toCounts}
+     */
+    List<Long> getPauses(Map<String, Long> fromCounts, Map<String, Long> toCounts) {
+        synchronized (pauses) {
+            return pauses.stream()
+                    .filter(pause -> pause.id > fromCounts.getOrDefault(pause.collector, Long.MAX_VALUE)
+                            && pause.id <= toCounts.getOrDefault(pause.collector, Long.MIN_VALUE))
+                    .map(pause -> pause.durationMs)
+                    .toList();
+        }
+    }
+
+    /**
+     * Starts measuring of task running in current thread.
+     * @param taskId id of the task used in logs
+     * @param latencyKey key of latencies recorded by task, e.g. {@code send} or {@code end_to_end}
+     * @param maxPauseMs longest client GC pause, with which measured latencies are still valid
+     */
+    public ClientTaskMetrics startTask(String taskId, String latencyKey, long maxPauseMs) {
+        return new ClientTaskMetrics(this, taskId, latencyKey, maxPauseMs);
+    }
+
+    private static final class GcPause {
+        private final String collector;
+        private final long id;
+        private final long durationMs;
+
+        private GcPause(String collector, long id, long durationMs) {
+            this.collector = collector;
+            this.id = id;
+            this.durationMs = durationMs;
+        }
+    }
+}
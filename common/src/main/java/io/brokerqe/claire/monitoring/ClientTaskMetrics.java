@@ -0,0 +1,140 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client JVM metrics of single produce/consume task - CPU time and allocations of the task thread, CPU time of whole
+ * client JVM (includes IO threads of JMS provider) and client GC pauses of collections counted during the task, with latencies
+ * measured by the task. Task is invalid, when any client GC pause is longer than allowed maximum, as such pause shows
+ * up in measured latencies. Task has to be started and stopped in its own thread.
+ */
+public class ClientTaskMetrics {
+
+    private static final RuntimeMXBean RUNTIME = ManagementFactory.getRuntimeMXBean();
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.OperatingSystemMXBean OS =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    private final ClientJvmMonitor monitor;
+    private final String taskId;
+    private final String latencyKey;
+    private final long maxPauseMs;
+    private final LatencyStats latency = new LatencyStats();
+    private final long startUptimeMs;
+    private final long startThreadCpuNanos;
+    private final long startThreadAllocatedBytes;
+    private final long startProcessCpuNanos;
+    private final Map<String, Long> startCollectionCounts;
+    private long durationMs;
+    private long threadCpuNanos;
+    private long threadAllocatedBytes;
+    private long processCpuNanos;
+    private List<Long> pauses = List.of();
+    private boolean stopped;
+
+    ClientTaskMetrics(ClientJvmMonitor monitor, String taskId, String latencyKey, long maxPauseMs) {
+        this.monitor = monitor;
+        this.taskId = taskId;
+        this.latencyKey = latencyKey;
+        this.maxPauseMs = maxPauseMs;
+        startUptimeMs = RUNTIME.getUptime();
+        startThreadCpuNanos = THREADS.getCurrentThreadCpuTime();
+        startThreadAllocatedBytes = THREADS.getCurrentThreadAllocatedBytes();
+        startProcessCpuNanos = OS.getProcessCpuTime();
+        startCollectionCounts = monitor.getCollectionCounts();
+    }
+
+    public void recordLatencyNanos(long nanos) {
+        latency.recordNanos(nanos);
+    }
+
+    public void recordLatency(long value, TimeUnit unit) {
+        latency.record(value, unit);
+    }
+
+    public synchronized ClientTaskMetrics stop() {
+        if (!stopped) {
+            long endUptimeMs = RUNTIME.getUptime();
+            durationMs = endUptimeMs - startUptimeMs;
+            threadCpuNanos = THREADS.getCurrentThreadCpuTime() - startThreadCpuNanos;
+            threadAllocatedBytes = THREADS.getCurrentThreadAllocatedBytes() - startThreadAllocatedBytes;
+            processCpuNanos = OS.getProcessCpuTime() - startProcessCpuNanos;
+            Map<String, Long> endCollectionCounts = monitor.getCollectionCounts();
+            monitor.awaitNotifications(endCollectionCounts);
+            pauses = monitor.getPauses(startCollectionCounts, endCollectionCounts);
+            stopped = true;
+        }
+        return this;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public LatencyStats getLatency() {
+        return latency;
+    }
+
+    public synchronized long getAllocatedBytes() {
+        return threadAllocatedBytes;
+    }
+
+    public synchronized double getAllocationRate() {
+        return durationMs == 0 ? 0 : threadAllocatedBytes * 1000.0 / durationMs;
+    }
+
+    public synchronized long getGcPauseCount() {
+        return pauses.size();
+    }
+
+    public synchronized long getGcPauseTotalMs() {
+        return pauses.stream().mapToLong(Long::longValue).sum();
+    }
+
+    public synchronized long getGcPauseMaxMs() {
+        return pauses.stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    /**
+     * @return false when some client GC pause during the task exceeded allowed maximum
+     */
+    public boolean isValid() {
+        return getGcPauseMaxMs() <= maxPauseMs;
+    }
+
+    /**
+     * @return {@code client_*} entries followed by latencies of the task ({@link LatencyStats#toMap(String)})
+     */
+    public synchronized Map<String, String> toMap() {
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put("client_duration_ms", String.valueOf(durationMs));
+        data.put("client_thread_cpu_ms", String.valueOf(TimeUnit.NANOSECONDS.toMillis(threadCpuNanos)));
+        data.put("client_process_cpu_ms", String.valueOf(TimeUnit.NANOSECONDS.toMillis(processCpuNanos)));
+        data.put("client_allocated_bytes", String.valueOf(threadAllocatedBytes));
+        data.put("client_allocation_rate_bytes_per_s", String.format(Locale.ROOT, "%.0f", getAllocationRate()));
+        data.put("client_gc_pause_count", String.valueOf(getGcPauseCount()));
+        data.put("client_gc_pause_total_ms", String.valueOf(getGcPauseTotalMs()));
+        data.put("client_gc_pause_max_ms", String.valueOf(getGcPauseMaxMs()));
+        data.put("client_max_allowed_pause_ms", String.valueOf(maxPauseMs));
+        data.put("client_valid", String.valueOf(isValid()));
+        data.putAll(latency.toMap(latencyKey));
+        return data;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.ROOT, "%s: %s latency %s, thread cpu=%dms allocation=%.1fMiB/s gc pauses=%d (total=%dms max=%dms)%s",
+                taskId, latencyKey, latency, TimeUnit.NANOSECONDS.toMillis(threadCpuNanos), getAllocationRate() / (1 << 20),
+                getGcPauseCount(), getGcPauseTotalMs(), getGcPauseMaxMs(), isValid() ? "" : " INVALID");
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples heap usage of current (test) JVM in background. Besides total used heap, which oscillates with young
+ * generation size, it tracks usage of old generation pool (G1 Old Gen, PS Old Gen, Tenured Gen). Peak old generation
+ * usage includes promoted garbage, so retention is evaluated from old generation usage after explicit GC at start and
+ * at stop, which contains only live data.
+ */
+public class HeapMonitor {
+
+    private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .toList();
+    private ScheduledExecutorService scheduler;
+    private long baselineUsed;
+    private long baselineOldGen;
+    private long oldGenAfterGc;
+    private volatile long maxUsed;
+    private volatile long maxOldGen;
+
+    /**
+     * Records baseline after explicit GC and starts sampling with given interval.
+     */
+    public HeapMonitor start(long intervalMs) {
+        System.gc();
+        baselineUsed = getUsed();
+        baselineOldGen = getOldGenUsed();
+        maxUsed = baselineUsed;
+        maxOldGen = baselineOldGen;
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleAtFixedRate(this::sample, 0, intervalMs, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Stops sampling and records old generation usage after explicit GC.
+     */
+    public void stop() {
+        scheduler.shutdownNow();
+        sample();
+        System.gc();
+        oldGenAfterGc = getOldGenUsed();
+    }
+
+    private synchronized void sample() {
+        maxUsed = Math.max(maxUsed, getUsed());
+        maxOldGen = Math.max(maxOldGen, getOldGenUsed());
+    }
+
+    private long getUsed() {
+        return heapPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+    }
+
+    private long getOldGenUsed() {
+        return heapPools.stream()
+                .filter(pool -> pool.getName().contains("Old") || pool.getName().contains("Tenured"))
+                .mapToLong(pool -> pool.getUsage().getUsed())
+                .sum();
+    }
+
+    public long getMaxUsed() {
+        return maxUsed;
+    }
+
+    /**
+     * @return growth of live data in old generation (after GC) over baseline in bytes
+     */
+    public long getOldGenGrowth() {
+        return Math.max(0, oldGenAfterGc - baselineOldGen);
+    }
+
+    /**
+     * @return {@code <key>_baseline_bytes}, {@code <key>_max_bytes}, {@code <key>_old_gen_baseline_bytes},
+     * {@code <key>_old_gen_max_bytes}, {@code <key>_old_gen_after_gc_bytes} and {@code <key>_old_gen_growth_bytes} entries
+     */
+    public Map<String, String> toMap(String key) {
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put(key + "_baseline_bytes", String.valueOf(baselineUsed));
+        data.put(key + "_max_bytes", String.valueOf(maxUsed));
+        data.put(key + "_old_gen_baseline_bytes", String.valueOf(baselineOldGen));
+        data.put(key + "_old_gen_max_bytes", String.valueOf(maxOldGen));
+        data.put(key + "_old_gen_after_gc_bytes", String.valueOf(oldGenAfterGc));
+        data.put(key + "_old_gen_growth_bytes", String.valueOf(getOldGenGrowth()));
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "heap max=%dMiB old gen growth=%dMiB", maxUsed >> 20, getOldGenGrowth() >> 20);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.executor.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Paths;
+import java.util.function.BiConsumer;
+
+/**
+ * Java Flight Recorder session of broker JVM controlled by {@code jcmd} executed inside broker container or pod, so
+ * it works for standalone containers and operator deployed pods alike. Recording covers window between
+ * {@link #start()} and {@link #stop(String)}, then it is copied back to given (test artifacts) directory together with
+ * its {@link JfrSummary}. Broker image has to contain JDK tools and command has to run as broker user (attach API).
+ */
+public class JfrRecorder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JfrRecorder.class);
+    public static final String ARTEMIS_MAIN_CLASS = "org.apache.activemq.artemis.boot.Artemis";
+    public static final String DEFAULT_SETTINGS = "profile";
+    public static final String REMOTE_DIR = "/tmp";
+
+    private final String name;
+    private final Executor executor;
+    private final BiConsumer<String, String> fileCopier;
+    private final String remoteFile;
+    private String settings = DEFAULT_SETTINGS;
+    private String jcmd = "jcmd";
+
+    /**
+     * @param name recording name, used also for created files
+     * @param executor executes commands in broker container or pod
+     * @param fileCopier copies given file from container or pod to given local file
+     */
+    public JfrRecorder(String name, Executor executor, BiConsumer<String, String> fileCopier) {
+        this.name = name;
+        this.executor = executor;
+        this.fileCopier = fileCopier;
+        this.remoteFile = REMOTE_DIR + "/" + name + ".jfr";
+    }
+
+    /**
+     * @param settings JFR settings, {@code default} (low overhead) or {@code profile} (more samples, lower thresholds)
+     */
+    public JfrRecorder withSettings(String settings) {
+        this.settings = settings;
+        return this;
+    }
+
+    /**
+     * @param jcmd path to jcmd, when it is not on PATH of broker container
+     */
+    public JfrRecorder withJcmd(String jcmd) {
+        this.jcmd = jcmd;
+        return this;
+    }
+
+    public JfrRecorder start() {
+        LOGGER.info("[JFR] Starting recording {} with settings {}", name, settings);
+        jcmd("Started recording", "JFR.start", "name=" + name, "settings=" + settings);
+        return this;
+    }
+
+    /**
+     * Dumps and stops recording, copies it into given directory as {@code <name>.jfr} and stores its summary next to it
+     * as {@code <name>_summary.json}.
+     */
+    public JfrSummary stop(String localDir) {
+        jcmd("Dumped recording", "JFR.dump", "name=" + name, "filename=" + remoteFile);
+        jcmd("Stopped recording", "JFR.stop", "name=" + name);
+        String localFile = localDir + Constants.FILE_SEPARATOR + name + ".jfr";
+        TestUtils.createDirectory(localDir);
+        fileCopier.accept(remoteFile, localFile);
+        executor.executeCommand("rm", "-f", remoteFile);
+
+        JfrSummary summary = JfrSummary.parse(Paths.get(localFile));
+        TestUtils.createFile(localDir + Constants.FILE_SEPARATOR + name + "_summary.json", TestUtils.convertMapToJson(summary.toMap()));
+        LOGGER.info("[JFR] Recording {} stored in {}. {}", name, localFile, summary);
+        return summary;
+    }
+
+    private void jcmd(String expectedOutput, String... command) {
+        String[] cmd = new String[command.length + 2];
+        cmd[0] = jcmd;
+        cmd[1] = ARTEMIS_MAIN_CLASS;
+        System.arraycopy(command, 0, cmd, 2, command.length);
+        Object output = executor.executeCommand(Constants.DURATION_30_SECONDS, cmd);
+        if (output == null || !output.toString().contains(expectedOutput)) {
+            String errMsg = String.format("[JFR] Unexpected output of '%s': %s", String.join(" ", cmd), output);
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Digest of Java Flight Recorder recording, so regression can be triaged without opening JMC
+ * <ul>
+ *     <li>hot methods - top frames of execution samples</li>
+ *     <li>allocation rate - from allocation samples (JDK 16+) or TLAB allocation events of older JVMs</li>
+ *     <li>GC pauses - count, total and longest pause</li>
+ *     <li>lock contention - blocked time on monitors (recorded above threshold of used settings) per monitor class</li>
+ * </ul>
+ */
+public class JfrSummary {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JfrSummary.class);
+    public static final int DEFAULT_TOP = 10;
+
+    private final Map<String, Long> methodSamples = new HashMap<>();
+    private final Map<String, Long> monitorBlockedNanos = new HashMap<>();
+    private final Map<String, Long> monitorEnters = new HashMap<>();
+    private long executionSamples;
+    private long sampledAllocationBytes;
+    private long tlabAllocationBytes;
+    private long gcCount;
+    private long gcPauseTotalNanos;
+    private long gcPauseMaxNanos;
+    private Instant start;
+    private Instant end;
+
+    public static JfrSummary parse(Path recording) {
+        JfrSummary summary = new JfrSummary();
+        try (RecordingFile recordingFile = new RecordingFile(recording)) {
+            while (recordingFile.hasMoreEvents()) {
+                summary.add(recordingFile.readEvent());
+            }
+        } catch (IOException e) {
+            String errMsg = String.format("Unable to read JFR recording %s: %s", recording, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+        return summary;
+    }
+
+    private void add(RecordedEvent event) {
+        start = start == null || event.getStartTime().isBefore(start) ? event.getStartTime() : start;
+        end = end == null || event.getEndTime().isAfter(end) ? event.getEndTime() : end;
+        switch (event.getEventType().getName()) {
+            case "jdk.ExecutionSample" -> {
+                if (event.getStackTrace() != null && !event.getStackTrace().getFrames().isEmpty()) {
+                    RecordedFrame frame = event.getStackTrace().getFrames().get(0);
+                    String method = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+                    methodSamples.merge(method, 1L, Long::sum);
+                    executionSamples++;
+                }
+            }
+            case "jdk.ObjectAllocationSample" -> sampledAllocationBytes += event.getLong("weight");
+            case "jdk.ObjectAllocationInNewTLAB" -> tlabAllocationBytes += event.getLong("tlabSize");
+            case "jdk.ObjectAllocationOutsideTLAB" -> tlabAllocationBytes += event.getLong("allocationSize");
+            case "jdk.GarbageCollection" -> {
+                gcCount++;
+                gcPauseTotalNanos += event.getDuration("sumOfPauses").toNanos();
+                gcPauseMaxNanos = Math.max(gcPauseMaxNanos, event.getDuration("longestPause").toNanos());
+            }
+            case "jdk.JavaMonitorEnter" -> {
+                RecordedClass monitorClass = event.getClass("monitorClass");
+                String monitor = monitorClass == null ? "unknown" : monitorClass.getName();
+                monitorBlockedNanos.merge(monitor, event.getDuration().toNanos(), Long::sum);
+                monitorEnters.merge(monitor, 1L, Long::sum);
+            }
+            default -> {
+                // other events are not summarized
+            }
+        }
+    }
+
+    public Duration getDuration() {
+        return start == null ? Duration.ZERO : Duration.between(start, end);
+    }
+
+    /**
+     * @return methods with most execution samples, ordered from the hottest one
+     */
+    public Map<String, Long> getHotMethods(int top) {
+        return topEntries(methodSamples, top);
+    }
+
+    /**
+     * @return monitor classes with longest total blocked time in nanoseconds, ordered from the most contended one
+     */
+    public Map<String, Long> getContendedMonitors(int top) {
+        return topEntries(monitorBlockedNanos, top);
+    }
+
+    public long getAllocatedBytes() {
+        return sampledAllocationBytes > 0 ? sampledAllocationBytes : tlabAllocationBytes;
+    }
+
+    public double getAllocationRate() {
+        long durationMs = getDuration().toMillis();
+        return durationMs == 0 ? 0 : getAllocatedBytes() * 1000.0 / durationMs;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public Duration getGcPauseTotal() {
+        return Duration.ofNanos(gcPauseTotalNanos);
+    }
+
+    public Duration getGcPauseMax() {
+        return Duration.ofNanos(gcPauseMaxNanos);
+    }
+
+    public Duration getMonitorBlockedTotal() {
+        return Duration.ofNanos(monitorBlockedNanos.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    private static Map<String, Long> topEntries(Map<String, Long> values, int top) {
+        return values.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(top)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * @return flat {@code jfr_*} entries suitable for storing together with perf results
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put("jfr_duration_ms", String.valueOf(getDuration().toMillis()));
+        data.put("jfr_execution_samples", String.valueOf(executionSamples));
+        data.put("jfr_allocated_bytes", String.valueOf(getAllocatedBytes()));
+        data.put("jfr_allocation_rate_bytes_per_s", String.format(Locale.ROOT, "%.0f", getAllocationRate()));
+        data.put("jfr_gc_count", String.valueOf(gcCount));
+        data.put("jfr_gc_pause_total_ms", String.valueOf(getGcPauseTotal().toMillis()));
+        data.put("jfr_gc_pause_max_ms", String.valueOf(getGcPauseMax().toMillis()));
+        data.put("jfr_monitor_blocked_total_ms", String.valueOf(getMonitorBlockedTotal().toMillis()));
+        int rank = 1;
+        for (Map.Entry<String, Long> method : getHotMethods(DEFAULT_TOP).entrySet()) {
+            data.put(String.format(Locale.ROOT, "jfr_hot_method_%02d", rank++),
+                    String.format(Locale.ROOT, "%s (%.1f%%)", method.getKey(), method.getValue() * 100.0 / executionSamples));
+        }
+        rank = 1;
+        for (Map.Entry<String, Long> monitor : getContendedMonitors(DEFAULT_TOP).entrySet()) {
+            data.put(String.format(Locale.ROOT, "jfr_contended_monitor_%02d", rank++), String.format(Locale.ROOT, "%s (%d enters, %d ms)",
+                    monitor.getKey(), monitorEnters.get(monitor.getKey()), Duration.ofNanos(monitor.getValue()).toMillis()));
+        }
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "JFR %ds: allocation=%.1fMiB/s gc=%d (pauses total=%dms max=%dms) monitors blocked=%dms hot=%s",
+                getDuration().toSeconds(), getAllocationRate() / (1 << 20), gcCount, getGcPauseTotal().toMillis(),
+                getGcPauseMax().toMillis(), getMonitorBlockedTotal().toMillis(), getHotMethods(3).keySet());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe recorder of latency samples with nearest-rank percentiles.
+ * Results use the same key format as `artemis perf client` output ({@code <key>_us_<percentile>}), so they can be stored
+ * and compared together with perf client results.
+ */
+public class LatencyStats {
+
+    public static final double[] DEFAULT_PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private long[] samples = new long[1024];
+    private int count;
+    private boolean sorted = true;
+
+    public synchronized void record(long value, TimeUnit unit) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = unit.toMicros(value);
+        sorted = false;
+    }
+
+    public void recordNanos(long nanos) {
+        record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * @return value (in microseconds) of given percentile (0-100) using nearest-rank method, 0 without samples
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        // order of samples is not significant, so they are sorted in place only when new samples were recorded
+        if (!sorted) {
+            Arrays.sort(samples, 0, count);
+            sorted = true;
+        }
+        // tolerance for floating point error, e.g. 99.9% of 2000 samples has to be rank 1998
+        int rank = (int) Math.ceil(percentile / 100.0 * count - 1e-9);
+        return samples[Math.min(count, Math.max(1, rank)) - 1];
+    }
+
+    public synchronized long getMax() {
+        return getPercentile(100.0);
+    }
+
+    public synchronized double getMean() {
+        if (count == 0) {
+            return 0;
+        }
+        return Arrays.stream(samples, 0, count).average().orElse(0);
+    }
+
+    /**
+     * @return {@code <key>_count}, {@code <key>_us_<percentile>} and {@code <key>_us_max} entries
+     */
+    public Map<String, String> toMap(String key) {
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put(key + "_count", String.valueOf(getCount()));
+        for (double percentile : DEFAULT_PERCENTILES) {
+            data.put(key + "_us_" + String.format(Locale.ROOT, "%.2f", percentile), String.valueOf(getPercentile(percentile)));
+        }
+        data.put(key + "_us_max", String.valueOf(getMax()));
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "count=%d p50=%dus p99=%dus max=%dus", getCount(), getPercentile(50), getPercentile(99), getMax());
+    }
+}
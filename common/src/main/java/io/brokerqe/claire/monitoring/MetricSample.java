@@ -0,0 +1,109 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Single sample (line) of Prometheus text format or OpenMetrics exposition.
+ */
+public class MetricSample {
+
+    private final String name;
+    private final SortedMap<String, String> labels;
+    private final double value;
+    private final String rawValue;
+    private final Long timestamp;
+    private final MetricType type;
+    private final String series;
+
+    public MetricSample(String name, Map<String, String> labels, String rawValue, Long timestamp, MetricType type, String series) {
+        this.name = name;
+        this.labels = Collections.unmodifiableSortedMap(new TreeMap<>(labels));
+        this.rawValue = rawValue;
+        this.value = parseValue(rawValue);
+        this.timestamp = timestamp;
+        this.type = type;
+        this.series = series;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    public String getLabel(String labelName) {
+        return labels.get(labelName);
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * @return value exactly as published, e.g. "0.0" or "+Inf"
+     */
+    public String getRawValue() {
+        return rawValue;
+    }
+
+    /**
+     * @return timestamp in milliseconds if published by exporter, null otherwise
+     */
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public MetricType getType() {
+        return type;
+    }
+
+    /**
+     * @return series identifier exactly as published, e.g. {@code artemis_address_size{address="DLQ",broker="amq-broker",}}
+     */
+    public String getSeries() {
+        return series;
+    }
+
+    /**
+     * @return true if all provided labels are present on this sample with same values
+     */
+    public boolean matchesLabels(Map<String, String> expectedLabels) {
+        for (Map.Entry<String, String> label : expectedLabels.entrySet()) {
+            if (!label.getValue().equals(labels.get(label.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static double parseValue(String rawValue) {
+        return switch (rawValue) {
+            case "+Inf", "Inf" -> Double.POSITIVE_INFINITY;
+            case "-Inf" -> Double.NEGATIVE_INFINITY;
+            case "NaN" -> Double.NaN;
+            default -> Double.parseDouble(rawValue);
+        };
+    }
+
+    static String seriesKey(String name, Map<String, String> labels) {
+        return name + new TreeMap<>(labels);
+    }
+
+    String seriesKey() {
+        return name + labels;
+    }
+
+    @Override
+    public String toString() {
+        return series + " " + rawValue + (timestamp == null ? "" : " " + timestamp);
+    }
+}
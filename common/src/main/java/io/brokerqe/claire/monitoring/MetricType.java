@@ -0,0 +1,36 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import java.util.Locale;
+
+public enum MetricType {
+    COUNTER,
+    GAUGE,
+    HISTOGRAM,
+    GAUGE_HISTOGRAM,
+    SUMMARY,
+    INFO,
+    STATESET,
+    UNKNOWN;
+
+    /**
+     * Converts type from `# TYPE` line of Prometheus text format or OpenMetrics.
+     * @param type as published by exporter (e.g. "counter", "gaugehistogram", "untyped")
+     * @return matching MetricType or UNKNOWN
+     */
+    public static MetricType fromString(String type) {
+        return switch (type.toLowerCase(Locale.ROOT)) {
+            case "counter" -> COUNTER;
+            case "gauge" -> GAUGE;
+            case "histogram" -> HISTOGRAM;
+            case "gaugehistogram" -> GAUGE_HISTOGRAM;
+            case "summary" -> SUMMARY;
+            case "info" -> INFO;
+            case "stateset" -> STATESET;
+            default -> UNKNOWN;
+        };
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Periodically scrapes metrics and keeps all snapshots, so tests can assert deltas and rates over time
+ * (e.g. rate of {@code artemis_messages_added}) instead of single snapshot values.
+ * Values of series matching provided labels are summed, so partial label set can be used to aggregate e.g. all queues of broker.
+ */
+public class MetricsScraper implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsScraper.class);
+
+    private final Supplier<PrometheusMetrics> metricsSupplier;
+    private final long scrapeIntervalMs;
+    private final List<PrometheusMetrics> snapshots = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService scheduler;
+
+    public MetricsScraper(Supplier<PrometheusMetrics> metricsSupplier, long scrapeIntervalMs) {
+        this.metricsSupplier = metricsSupplier;
+        this.scrapeIntervalMs = scrapeIntervalMs;
+    }
+
+    public MetricsScraper start() {
+        LOGGER.info("[metrics] Starting scraping every {}ms", scrapeIntervalMs);
+        // take initial snapshot synchronously, so all later changes are captured
+        scrape();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleAtFixedRate(this::scrape, scrapeIntervalMs, scrapeIntervalMs, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Stops scraping loop and takes one final snapshot.
+     */
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(scrapeIntervalMs * 2, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+            scrape();
+            LOGGER.info("[metrics] Stopped scraping, collected {} snapshots", snapshots.size());
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    public void scrape() {
+        try {
+            snapshots.add(metricsSupplier.get());
+        } catch (RuntimeException e) {
+            LOGGER.warn("[metrics] Failed to scrape metrics: {}", e.getMessage());
+        }
+    }
+
+    public List<PrometheusMetrics> getSnapshots() {
+        return snapshots;
+    }
+
+    public PrometheusMetrics getLatest() {
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+
+    /**
+     * @return difference of (summed) value between last and first snapshot
+     */
+    public double getDelta(String name, Map<String, String> labels) {
+        checkSnapshots();
+        return snapshots.get(snapshots.size() - 1).sum(name, labels) - snapshots.get(0).sum(name, labels);
+    }
+
+    /**
+     * Counter-reset aware increase between first and last snapshot (drop of value is considered as reset, e.g. broker restart).
+     */
+    public double getIncrease(String name, Map<String, String> labels) {
+        checkSnapshots();
+        double increase = 0;
+        for (int i = 1; i < snapshots.size(); i++) {
+            increase += increase(snapshots.get(i - 1).sum(name, labels), snapshots.get(i).sum(name, labels));
+        }
+        return increase;
+    }
+
+    /**
+     * @return average per-second rate of increase between first and last snapshot
+     */
+    public double getRate(String name, Map<String, String> labels) {
+        checkSnapshots();
+        double durationSeconds = (snapshots.get(snapshots.size() - 1).getScrapeTime() - snapshots.get(0).getScrapeTime()) / 1000.0;
+        return durationSeconds <= 0 ? 0 : getIncrease(name, labels) / durationSeconds;
+    }
+
+    /**
+     * @return per-second rates of increase between each two consecutive snapshots
+     */
+    public List<Double> getRates(String name, Map<String, String> labels) {
+        List<Double> rates = new ArrayList<>();
+        for (int i = 1; i < snapshots.size(); i++) {
+            PrometheusMetrics previous = snapshots.get(i - 1);
+            PrometheusMetrics current = snapshots.get(i);
+            double durationSeconds = (current.getScrapeTime() - previous.getScrapeTime()) / 1000.0;
+            if (durationSeconds > 0) {
+                rates.add(increase(previous.sum(name, labels), current.sum(name, labels)) / durationSeconds);
+            }
+        }
+        return rates;
+    }
+
+    public double getMaxRate(String name, Map<String, String> labels) {
+        return getRates(name, labels).stream().mapToDouble(Double::doubleValue).max().orElse(0);
+    }
+
+    private static double increase(double previous, double current) {
+        return current >= previous ? current - previous : current;
+    }
+
+    private void checkSnapshots() {
+        if (snapshots.size() < 2) {
+            throw new IllegalStateException("At least 2 metrics snapshots are needed, got " + snapshots.size());
+        }
+    }
+}
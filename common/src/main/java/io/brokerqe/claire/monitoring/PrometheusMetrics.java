@@ -0,0 +1,118 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * One scrape of metrics endpoint, indexed by metric name and by metric name + labels.
+ */
+public class PrometheusMetrics {
+
+    private final long scrapeTime;
+    private final List<MetricSample> samples;
+    private final Map<String, List<MetricSample>> samplesByName = new LinkedHashMap<>();
+    private final Map<String, MetricSample> samplesBySeries = new HashMap<>();
+    private final Map<String, MetricType> types;
+    private final Map<String, String> help;
+
+    public PrometheusMetrics(long scrapeTime, List<MetricSample> samples, Map<String, MetricType> types, Map<String, String> help) {
+        this.scrapeTime = scrapeTime;
+        this.samples = Collections.unmodifiableList(samples);
+        this.types = types;
+        this.help = help;
+        for (MetricSample sample : samples) {
+            samplesByName.computeIfAbsent(sample.getName(), k -> new ArrayList<>()).add(sample);
+            samplesBySeries.put(sample.seriesKey(), sample);
+        }
+    }
+
+    /**
+     * @return time of scrape in milliseconds (System.currentTimeMillis)
+     */
+    public long getScrapeTime() {
+        return scrapeTime;
+    }
+
+    public List<MetricSample> getSamples() {
+        return samples;
+    }
+
+    public Set<String> getMetricNames() {
+        return samplesByName.keySet();
+    }
+
+    public boolean containsMetric(String name) {
+        return samplesByName.containsKey(name);
+    }
+
+    public List<MetricSample> getSamples(String name) {
+        return samplesByName.getOrDefault(name, List.of());
+    }
+
+    /**
+     * @return all samples of given metric, which have all provided labels (other labels are ignored)
+     */
+    public List<MetricSample> findSamples(String name, Map<String, String> labels) {
+        return getSamples(name).stream().filter(sample -> sample.matchesLabels(labels)).collect(Collectors.toList());
+    }
+
+    /**
+     * @return all samples with metric name matching provided regex
+     */
+    public List<MetricSample> findSamples(String nameRegex) {
+        Pattern pattern = Pattern.compile(nameRegex);
+        return samples.stream().filter(sample -> pattern.matcher(sample.getName()).find()).collect(Collectors.toList());
+    }
+
+    /**
+     * @return sample with exactly provided set of labels or null
+     */
+    public MetricSample getSample(String name, Map<String, String> labels) {
+        return samplesBySeries.get(MetricSample.seriesKey(name, labels));
+    }
+
+    /**
+     * @return value of sample with exactly provided set of labels or null if there is no such sample
+     */
+    public Double getValue(String name, Map<String, String> labels) {
+        MetricSample sample = getSample(name, labels);
+        return sample == null ? null : sample.getValue();
+    }
+
+    /**
+     * @return sum of values of all samples with given name matching provided labels (0 if there is none)
+     */
+    public double sum(String name, Map<String, String> labels) {
+        return findSamples(name, labels).stream().mapToDouble(MetricSample::getValue).sum();
+    }
+
+    public MetricType getType(String name) {
+        return types.getOrDefault(name, MetricType.UNKNOWN);
+    }
+
+    public String getHelp(String name) {
+        return help.get(name);
+    }
+
+    /**
+     * @return series as published mapped to value string, compatible with former {@code Prometheus.getMetrics} output
+     */
+    public HashMap<String, String> toSeriesMap() {
+        HashMap<String, String> seriesMap = new HashMap<>();
+        for (MetricSample sample : samples) {
+            seriesMap.put(sample.getSeries(), sample.getRawValue());
+        }
+        return seriesMap;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parser of Prometheus text exposition format (0.0.4) and OpenMetrics text format.
+ * Handles escaped label values (including spaces, quotes, commas and braces), trailing comma in label set,
+ * optional timestamps, OpenMetrics exemplars and special values (NaN, +Inf, -Inf). Format can not be told from sample
+ * lines, so scraper passes it by {@link #isOpenMetrics(String)} of response content type.
+ */
+public final class PrometheusParser {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrometheusParser.class);
+    private static final String OPEN_METRICS_CONTENT_TYPE = "application/openmetrics-text";
+    private static final List<String> TYPE_SUFFIXES = List.of("_bucket", "_count", "_sum", "_total", "_created", "_gcount", "_gsum", "_info");
+
+    private PrometheusParser() {
+    }
+
+    public static PrometheusMetrics parse(String metricsText) {
+        return parse(new StringReader(metricsText), System.currentTimeMillis());
+    }
+
+    /**
+     * Parses metrics in Prometheus text format.
+     */
+    public static PrometheusMetrics parse(Reader metricsReader, long scrapeTime) {
+        return parse(metricsReader, scrapeTime, false);
+    }
+
+    /**
+     * @param openMetrics true for OpenMetrics text format, false for Prometheus text format
+     */
+    public static PrometheusMetrics parse(Reader metricsReader, long scrapeTime, boolean openMetrics) {
+        List<MetricSample> samples = new ArrayList<>();
+        Map<String, MetricType> types = new HashMap<>();
+        Map<String, String> help = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(metricsReader)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.startsWith("#")) {
+                    String[] comment = line.split("\\s+", 4);
+                    if (comment.length >= 2 && comment[1].equals("EOF")) {
+                        break;
+                    } else if (comment.length >= 4 && comment[1].equals("TYPE")) {
+                        types.put(comment[2], MetricType.fromString(comment[3].strip()));
+                    } else if (comment.length >= 4 && comment[1].equals("HELP")) {
+                        help.put(comment[2], comment[3]);
+                    }
+                    continue;
+                }
+                try {
+                    samples.add(parseSample(line, types, openMetrics));
+                } catch (RuntimeException e) {
+                    LOGGER.warn("[metrics] Skipping malformed line {}: '{}' ({})", lineNumber, line, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new ClaireRuntimeException("Unable to read metrics: " + e.getMessage(), e);
+        }
+        return new PrometheusMetrics(scrapeTime, samples, types, help);
+    }
+
+    /**
+     * @return true when given content type of scraped metrics is OpenMetrics text format
+     */
+    public static boolean isOpenMetrics(String contentType) {
+        return contentType != null && contentType.strip().toLowerCase(Locale.ROOT).startsWith(OPEN_METRICS_CONTENT_TYPE);
+    }
+
+    static MetricSample parseSample(String line, Map<String, MetricType> types, boolean openMetrics) {
+        int pos = 0;
+        while (pos < line.length() && line.charAt(pos) != '{' && !Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        String name = line.substring(0, pos);
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("missing metric name");
+        }
+
+        Map<String, String> labels = new LinkedHashMap<>();
+        if (pos < line.length() && line.charAt(pos) == '{') {
+            pos = parseLabels(line, pos + 1, labels);
+        }
+        String series = line.substring(0, pos);
+
+        String valuePart = line.substring(pos).strip();
+        int exemplarStart = valuePart.indexOf(" # ");
+        if (exemplarStart >= 0) {
+            valuePart = valuePart.substring(0, exemplarStart);
+        }
+        String[] valueTokens = valuePart.split("\\s+");
+        if (valueTokens[0].isEmpty()) {
+            throw new IllegalArgumentException("missing value");
+        }
+        Long timestamp = valueTokens.length > 1 ? parseTimestamp(valueTokens[1], openMetrics) : null;
+        return new MetricSample(name, labels, valueTokens[0], timestamp, resolveType(name, types), series);
+    }
+
+    /**
+     * Parses label set starting right after '{'.
+     * @return position right after closing '}'
+     */
+    private static int parseLabels(String line, int pos, Map<String, String> labels) {
+        while (true) {
+            pos = skipWhitespace(line, pos);
+            if (pos >= line.length()) {
+                throw new IllegalArgumentException("unterminated label set");
+            }
+            if (line.charAt(pos) == '}') {
+                return pos + 1;
+            }
+            int nameStart = pos;
+            while (pos < line.length() && line.charAt(pos) != '=' && !Character.isWhitespace(line.charAt(pos))) {
+                pos++;
+            }
+            String labelName = line.substring(nameStart, pos);
+            pos = skipWhitespace(line, pos);
+            if (pos + 1 >= line.length() || line.charAt(pos) != '=') {
+                throw new IllegalArgumentException("expected '=' after label " + labelName);
+            }
+            pos = skipWhitespace(line, pos + 1);
+            if (pos >= line.length() || line.charAt(pos) != '"') {
+                throw new IllegalArgumentException("expected '\"' for value of label " + labelName);
+            }
+            pos++;
+            StringBuilder labelValue = new StringBuilder();
+            while (pos < line.length() && line.charAt(pos) != '"') {
+                char c = line.charAt(pos);
+                if (c == '\\' && pos + 1 < line.length()) {
+                    char escaped = line.charAt(++pos);
+                    labelValue.append(escaped == 'n' ? '\n' : escaped);
+                } else {
+                    labelValue.append(c);
+                }
+                pos++;
+            }
+            if (pos >= line.length()) {
+                throw new IllegalArgumentException("unterminated value of label " + labelName);
+            }
+            labels.put(labelName, labelValue.toString());
+            pos = skipWhitespace(line, pos + 1);
+            if (pos < line.length() && line.charAt(pos) == ',') {
+                pos++;
+            }
+        }
+    }
+
+    private static int skipWhitespace(String line, int pos) {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Prometheus text format uses integer milliseconds since epoch, OpenMetrics uses seconds (integer or fractional).
+     * @return timestamp in milliseconds since epoch
+     */
+    private static Long parseTimestamp(String timestamp, boolean openMetrics) {
+        if (openMetrics) {
+            return new BigDecimal(timestamp).movePointRight(3).longValue();
+        }
+        return Long.parseLong(timestamp);
+    }
+
+    private static MetricType resolveType(String name, Map<String, MetricType> types) {
+        MetricType type = types.get(name);
+        if (type != null) {
+            return type;
+        }
+        for (String suffix : TYPE_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                type = types.get(name.substring(0, name.length() - suffix.length()));
+                if (type != null) {
+                    return type;
+                }
+            }
+        }
+        return MetricType.UNKNOWN;
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Drives long-running (soak) test. Every checkpoint interval it collects values of all registered sources
+ * (e.g. client throughput and latency percentiles, broker heap, GC, journal size, open file descriptors),
+ * appends them to state file and evaluates drift thresholds:
+ * <ul>
+ *     <li>max slope - least-squares slope per hour of metric must stay below threshold (leak detection)</li>
+ *     <li>max decay - mean of last window of checkpoints must not drop below baseline (first window) by more
+ *     than given fraction (throughput decay)</li>
+ * </ul>
+ * First violated threshold stops the soak. State file is a JSON line per checkpoint, so interrupted soak can be
+ * resumed - already recorded checkpoints are loaded and soak continues for the remaining duration.
+ */
+public class SoakMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SoakMonitor.class);
+    private static final double MS_PER_HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private final String name;
+    private final Path stateFile;
+    private final long durationMs;
+    private final Map<String, Supplier<Map<String, Double>>> sources = new LinkedHashMap<>();
+    private final Map<String, Double> maxSlopes = new LinkedHashMap<>();
+    private final Map<String, Double> maxDecays = new LinkedHashMap<>();
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+    private final List<String> violations = new ArrayList<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private long checkpointIntervalMs = TimeUnit.MINUTES.toMillis(1);
+    private int warmupCheckpoints = 5;
+    private int driftWindow = 10;
+    private int resumedCount;
+
+    private static final class Checkpoint {
+        private final long elapsedMs;
+        private final long timestamp;
+        private final Map<String, Double> values;
+
+        private Checkpoint(long elapsedMs, long timestamp, Map<String, Double> values) {
+            this.elapsedMs = elapsedMs;
+            this.timestamp = timestamp;
+            this.values = values;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("elapsed_ms", elapsedMs);
+            data.put("timestamp", timestamp);
+            data.put("values", values);
+            return data;
+        }
+    }
+
+    /**
+     * @param stateFile file with recorded checkpoints, existing content is resumed
+     */
+    public SoakMonitor(String name, Path stateFile, Duration duration) {
+        this.name = name;
+        this.stateFile = stateFile;
+        this.durationMs = duration.toMillis();
+    }
+
+    public SoakMonitor withCheckpointInterval(long checkpointIntervalMs) {
+        this.checkpointIntervalMs = checkpointIntervalMs;
+        return this;
+    }
+
+    /**
+     * @param warmupCheckpoints number of first checkpoints ignored by drift detection
+     * @param driftWindow number of checkpoints averaged as baseline and current value for decay detection
+     */
+    public SoakMonitor withDriftWindow(int warmupCheckpoints, int driftWindow) {
+        this.warmupCheckpoints = warmupCheckpoints;
+        this.driftWindow = driftWindow;
+        return this;
+    }
+
+    /**
+     * Registers source of values, which are stored as {@code <prefix>_<key>}. Source is called once on soak start
+     * (values are discarded, so sources reporting values since previous call start fresh) and then on every checkpoint.
+     */
+    public SoakMonitor withSource(String prefix, Supplier<Map<String, Double>> source) {
+        sources.put(prefix, source);
+        return this;
+    }
+
+    /**
+     * Fails soak when metric grows faster than given value per hour.
+     */
+    public SoakMonitor withMaxSlope(String metric, double maxPerHour) {
+        maxSlopes.put(metric, maxPerHour);
+        return this;
+    }
+
+    /**
+     * Fails soak when mean of metric in last window drops by more than given fraction (0-1) of the baseline window.
+     */
+    public SoakMonitor withMaxDecay(String metric, double maxFraction) {
+        maxDecays.put(metric, maxFraction);
+        return this;
+    }
+
+    /**
+     * Runs soak for the remaining duration (whole duration, if state file does not exist) or until any drift
+     * threshold is violated.
+     */
+    public SoakMonitor run() {
+        loadState();
+        long previousElapsedMs = checkpoints.isEmpty() ? 0 : checkpoints.get(checkpoints.size() - 1).elapsedMs;
+        if (previousElapsedMs > 0) {
+            LOGGER.info("[Soak] {} resumed from {} with {} checkpoints ({} of {} elapsed)", name, stateFile,
+                    checkpoints.size(), formatDuration(previousElapsedMs), formatDuration(durationMs));
+        }
+        evaluateDrift();
+        if (previousElapsedMs >= durationMs || !violations.isEmpty()) {
+            return this;
+        }
+
+        collectValues();
+        long runStart = System.nanoTime();
+        long elapsedMs = previousElapsedMs;
+        while (elapsedMs < durationMs && violations.isEmpty()) {
+            long nextCheckpointMs = Math.min(durationMs, elapsedMs + checkpointIntervalMs);
+            long sleepMs = nextCheckpointMs - previousElapsedMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - runStart);
+            TestUtils.threadSleep(Math.max(0, sleepMs));
+            elapsedMs = previousElapsedMs + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - runStart);
+
+            Checkpoint checkpoint = new Checkpoint(elapsedMs, System.currentTimeMillis(), collectValues());
+            checkpoints.add(checkpoint);
+            appendState(checkpoint);
+            LOGGER.info("[Soak] {} checkpoint {} at {}: {}", name, checkpoints.size(), formatDuration(elapsedMs), checkpoint.values);
+            evaluateDrift();
+        }
+        LOGGER.info("[Soak] {} finished after {} with {} violations {}", name, formatDuration(elapsedMs), violations.size(), violations);
+        return this;
+    }
+
+    private Map<String, Double> collectValues() {
+        Map<String, Double> values = new TreeMap<>();
+        sources.forEach((prefix, source) -> {
+            try {
+                source.get().forEach((key, value) -> values.put(prefix + "_" + key, value));
+            } catch (RuntimeException e) {
+                LOGGER.warn("[Soak] {} failed to collect {} values: {}", name, prefix, e.getMessage());
+            }
+        });
+        return values;
+    }
+
+    private void evaluateDrift() {
+        violations.clear();
+        maxSlopes.forEach((metric, maxSlope) -> {
+            List<Checkpoint> evaluated = getEvaluatedCheckpoints(metric);
+            if (evaluated.size() >= driftWindow) {
+                double slope = getSlopePerHour(evaluated, metric);
+                if (slope > maxSlope) {
+                    violations.add(String.format(Locale.ROOT, "%s grows by %.2f per hour (max %.2f)", metric, slope, maxSlope));
+                }
+            }
+        });
+        maxDecays.forEach((metric, maxDecay) -> {
+            List<Checkpoint> evaluated = getEvaluatedCheckpoints(metric);
+            if (evaluated.size() >= 2 * driftWindow) {
+                double baseline = getMean(evaluated.subList(0, driftWindow), metric);
+                double current = getMean(evaluated.subList(evaluated.size() - driftWindow, evaluated.size()), metric);
+                double decay = baseline <= 0 ? 0 : 1 - current / baseline;
+                if (decay > maxDecay) {
+                    violations.add(String.format(Locale.ROOT, "%s decayed by %.1f%% from %.2f to %.2f (max %.1f%%)",
+                            metric, decay * 100, baseline, current, maxDecay * 100));
+                }
+            }
+        });
+    }
+
+    private List<Checkpoint> getEvaluatedCheckpoints(String metric) {
+        return checkpoints.stream()
+                .skip(warmupCheckpoints)
+                .filter(checkpoint -> checkpoint.values.containsKey(metric))
+                .toList();
+    }
+
+    private static double getMean(List<Checkpoint> window, String metric) {
+        return window.stream().mapToDouble(checkpoint -> checkpoint.values.get(metric)).average().orElse(0);
+    }
+
+    /**
+     * @return least-squares slope of metric value over elapsed hours
+     */
+    private static double getSlopePerHour(List<Checkpoint> evaluated, String metric) {
+        double meanX = evaluated.stream().mapToDouble(checkpoint -> checkpoint.elapsedMs / MS_PER_HOUR).average().orElse(0);
+        double meanY = getMean(evaluated, metric);
+        double covariance = 0;
+        double variance = 0;
+        for (Checkpoint checkpoint : evaluated) {
+            double x = checkpoint.elapsedMs / MS_PER_HOUR - meanX;
+            covariance += x * (checkpoint.values.get(metric) - meanY);
+            variance += x * x;
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+
+    private void loadState() {
+        checkpoints.clear();
+        if (!Files.exists(stateFile)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(stateFile, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Map<String, Object> data = objectMapper.readValue(line, new TypeReference<>() { });
+                Map<String, Double> values = objectMapper.convertValue(data.get("values"), new TypeReference<>() { });
+                checkpoints.add(new Checkpoint(((Number) data.get("elapsed_ms")).longValue(),
+                        ((Number) data.get("timestamp")).longValue(), new TreeMap<>(values)));
+            }
+            resumedCount = checkpoints.size();
+        } catch (IOException e) {
+            String errMsg = String.format("[Soak] Unable to load soak state from %s: %s", stateFile, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    private void appendState(Checkpoint checkpoint) {
+        try {
+            Files.writeString(stateFile, objectMapper.writeValueAsString(checkpoint.toMap()) + System.lineSeparator(),
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            String errMsg = String.format("[Soak] Unable to store soak state to %s: %s", stateFile, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    public int getCheckpointCount() {
+        return checkpoints.size();
+    }
+
+    public long getElapsedMs() {
+        return checkpoints.isEmpty() ? 0 : checkpoints.get(checkpoints.size() - 1).elapsedMs;
+    }
+
+    /**
+     * @return values of given metric in all checkpoints (missing values are skipped)
+     */
+    public List<Double> getValues(String metric) {
+        return checkpoints.stream()
+                .filter(checkpoint -> checkpoint.values.containsKey(metric))
+                .map(checkpoint -> checkpoint.values.get(metric))
+                .toList();
+    }
+
+    /**
+     * Writes single JSON report with soak summary, evaluated drift of all thresholds, violations and all checkpoints.
+     */
+    public void writeReport(String reportFile) {
+        Map<String, Object> drift = new LinkedHashMap<>();
+        maxSlopes.forEach((metric, maxSlope) -> drift.put(metric + "_slope_per_hour",
+                getSlopePerHour(getEvaluatedCheckpoints(metric), metric)));
+        maxDecays.forEach((metric, maxDecay) -> {
+            List<Checkpoint> evaluated = getEvaluatedCheckpoints(metric);
+            int window = Math.min(driftWindow, evaluated.size());
+            drift.put(metric + "_baseline", getMean(evaluated.subList(0, window), metric));
+            drift.put(metric + "_current", getMean(evaluated.subList(evaluated.size() - window, evaluated.size()), metric));
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("name", name);
+        report.put("passed", violations.isEmpty() && getElapsedMs() >= durationMs);
+        report.put("duration_ms", durationMs);
+        report.put("elapsed_ms", getElapsedMs());
+        report.put("checkpoint_interval_ms", checkpointIntervalMs);
+        report.put("checkpoints_count", checkpoints.size());
+        report.put("resumed_checkpoints_count", resumedCount);
+        report.put("max_slopes_per_hour", maxSlopes);
+        report.put("max_decays", maxDecays);
+        report.put("drift", drift);
+        report.put("violations", violations);
+        report.put("checkpoints", checkpoints.stream().map(Checkpoint::toMap).toList());
+        try {
+            TestUtils.createFile(reportFile, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        } catch (JsonProcessingException e) {
+            String errMsg = String.format("[Soak] Unable to create soak report %s: %s", reportFile, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+        LOGGER.info("[Soak] {} report stored in {}", name, reportFile);
+    }
+
+    private static String formatDuration(long ms) {
+        return Duration.ofMillis(ms).toString();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.security;
+
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import org.bouncycastle.asn1.x509.Extension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * On-disk cache of generated private keys and certificates (including CA certificates), stored as PKCS12 files.
+ * Entry is identified by certificate type, key algorithm, distinguished name, extensions, validity and issuer certificate,
+ * so whole CA chains are reused between test classes and test runs (until {@code target/} is cleaned). Keystores are
+ * always rebuilt from cached entries. Cache is opt-in by {@link Constants#EV_TLS_CERTS_CACHE}=true.
+ */
+public final class CertificateCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CertificateCache.class);
+    private static final String CACHE_ALIAS = "cached";
+    private static final char[] CACHE_PASSWORD = "claireCache".toCharArray();
+
+    private CertificateCache() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getenv().getOrDefault(Constants.EV_TLS_CERTS_CACHE, "false"));
+    }
+
+    /**
+     * @return cached or newly generated (and cached) private key with certificate
+     */
+    public static KeyStore.PrivateKeyEntry getOrCreate(String distinguishedName, List<Extension> extensions, int validityDays,
+                                                      CertificateData issuer, boolean certificateAuthority) {
+        return getOrCreate(KeyAlgorithm.getDefault(), distinguishedName, extensions, validityDays, issuer, certificateAuthority);
+    }
+
+    public static KeyStore.PrivateKeyEntry getOrCreate(KeyAlgorithm keyAlgorithm, String distinguishedName, List<Extension> extensions,
+                                                      int validityDays, CertificateData issuer, boolean certificateAuthority) {
+        return getOrCreate(isEnabled() ? Paths.get(Constants.CERTS_CACHE_DIR) : null, keyAlgorithm, distinguishedName, extensions,
+                validityDays, issuer, certificateAuthority);
+    }
+
+    /**
+     * @param cacheDir directory of cached entries, {@code null} disables cache
+     */
+    static KeyStore.PrivateKeyEntry getOrCreate(Path cacheDir, KeyAlgorithm keyAlgorithm, String distinguishedName, List<Extension> extensions,
+                                               int validityDays, CertificateData issuer, boolean certificateAuthority) {
+        Path cacheFile = null;
+        if (cacheDir != null) {
+            cacheFile = cacheDir.resolve(getCacheId(keyAlgorithm, distinguishedName, extensions, validityDays, issuer, certificateAuthority) + ".p12");
+            KeyStore.PrivateKeyEntry cached = load(cacheFile);
+            if (cached != null) {
+                LOGGER.debug("[TLS] Reusing cached certificate {} from {}", distinguishedName, cacheFile);
+                return cached;
+            }
+        }
+
+        KeyPair keyPair = KeyPairPool.take(keyAlgorithm);
+        String signatureAlgorithm = CertificateManager.getSignatureAlgorithm(issuer == null ? keyPair : issuer.getKeyPair());
+        Date validNotBefore = Date.from(Instant.now().minus(Duration.ofDays(1L)));
+        Date validNotAfter = Date.from(Instant.now().plus(Duration.ofDays(validityDays)));
+        X509Certificate certificate;
+        if (certificateAuthority) {
+            certificate = CertificateManager.generateCA(keyPair, signatureAlgorithm, distinguishedName, validNotBefore, validNotAfter, issuer);
+        } else {
+            certificate = CertificateManager.generate(keyPair, signatureAlgorithm, distinguishedName, validNotBefore, validNotAfter, extensions, issuer);
+        }
+        KeyStore.PrivateKeyEntry entry = new KeyStore.PrivateKeyEntry(keyPair.getPrivate(), new Certificate[]{certificate});
+        if (cacheFile != null) {
+            store(cacheFile, entry);
+        }
+        return entry;
+    }
+
+    static String getCacheId(KeyAlgorithm keyAlgorithm, String distinguishedName, List<Extension> extensions, int validityDays,
+                             CertificateData issuer, boolean certificateAuthority) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((certificateAuthority ? "ca" : "entity").getBytes(StandardCharsets.UTF_8));
+            digest.update(keyAlgorithm.name().getBytes(StandardCharsets.UTF_8));
+            digest.update(distinguishedName.getBytes(StandardCharsets.UTF_8));
+            digest.update(Integer.toString(validityDays).getBytes(StandardCharsets.UTF_8));
+            if (extensions != null) {
+                for (Extension extension : extensions) {
+                    digest.update(extension.getEncoded());
+                }
+            }
+            if (issuer != null) {
+                digest.update(issuer.getCertificate().getEncoded());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (GeneralSecurityException | IOException e) {
+            String errMsg = String.format("[TLS] Unable to compute cache id of certificate %s: %s", distinguishedName, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    private static KeyStore.PrivateKeyEntry load(Path cacheFile) {
+        if (!Files.exists(cacheFile)) {
+            return null;
+        }
+        try (InputStream inputStream = Files.newInputStream(cacheFile)) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(inputStream, CACHE_PASSWORD);
+            if (!(keyStore.getEntry(CACHE_ALIAS, new KeyStore.PasswordProtection(CACHE_PASSWORD)) instanceof KeyStore.PrivateKeyEntry entry)
+                    || !(entry.getCertificate() instanceof X509Certificate certificate)) {
+                return null;
+            }
+            // do not reuse certificates, which are (almost) expired
+            certificate.checkValidity(Date.from(Instant.now().plus(Duration.ofDays(1L))));
+            return entry;
+        } catch (IOException | GeneralSecurityException e) {
+            LOGGER.debug("[TLS] Ignoring unusable cached certificate {}: {}", cacheFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void store(Path cacheFile, KeyStore.PrivateKeyEntry entry) {
+        TestUtils.createDirectory(cacheFile.getParent().toString());
+        Path tmpFile = Paths.get(cacheFile + "." + ProcessHandle.current().pid() + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(tmpFile)) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(null, CACHE_PASSWORD);
+            keyStore.setEntry(CACHE_ALIAS, entry, new KeyStore.PasswordProtection(CACHE_PASSWORD));
+            keyStore.store(outputStream, CACHE_PASSWORD);
+        } catch (IOException | GeneralSecurityException e) {
+            LOGGER.warn("[TLS] Unable to cache certificate into {}: {}", cacheFile, e.getMessage());
+            deleteTmpFile(tmpFile);
+            return;
+        }
+        try {
+            // atomic move, so parallel test runs never read partially written file
+            Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("[TLS] Unable to cache certificate into {}: {}", cacheFile, e.getMessage());
+            deleteTmpFile(tmpFile);
+        }
+    }
+
+    private static void deleteTmpFile(Path tmpFile) {
+        try {
+            Files.deleteIfExists(tmpFile);
+        } catch (IOException e) {
+            LOGGER.warn("[TLS] Unable to delete temporary file {}: {}", tmpFile, e.getMessage());
+        }
+    }
+}
@@ -10,9 +10,8 @@ import org.bouncycastle.asn1.x509.Extension;
 import javax.security.auth.x500.X500PrivateCredential;
 import java.nio.file.Paths;
 import java.security.KeyPair;
+import java.security.KeyStore;
 import java.security.cert.X509Certificate;
-import java.time.Duration;
-import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 
@@ -33,33 +32,53 @@ public class CertificateData {
         this(alias, distinguishedName, extensions, 30, issuer);
     }
 
+    /**
+     * Certificate with relative validity. Key and certificate are reused from {@link CertificateCache} if possible.
+     */
     public CertificateData(String alias, String distinguishedName, List<Extension> extensions, int validityDays, CertificateData issuer) {
-        this(alias, distinguishedName, extensions,
-                Date.from(Instant.now().minus(Duration.ofDays(1L))),
-                Date.from(Instant.now().plus(Duration.ofDays(validityDays))), issuer);
+        this(alias, distinguishedName, CertificateCache.getOrCreate(distinguishedName, extensions, validityDays, issuer, false));
+    }
+
+    /**
+     * Certificate with relative validity and explicitly selected key algorithm (ignoring {@link Constants#EV_TLS_KEY_ALGORITHM}).
+     */
+    public CertificateData(String alias, String distinguishedName, List<Extension> extensions, int validityDays, CertificateData issuer,
+                           KeyAlgorithm keyAlgorithm) {
+        this(alias, distinguishedName, CertificateCache.getOrCreate(keyAlgorithm, distinguishedName, extensions, validityDays, issuer, false));
     }
 
     public CertificateData(String alias, String distinguishedName, List<Extension> extensions, Date validNotBefore, Date validNotAfter, CertificateData issuer) {
         this.alias = alias;
         this.keyPair = CertificateManager.createKeyPairGenerator();
         this.distinguishedName = distinguishedName;
-        this.certificate = CertificateManager.generate(keyPair, CertificateManager.SIGNATURE_ALGORITHM, distinguishedName, validNotBefore, validNotAfter, extensions, issuer);
+        this.certificate = CertificateManager.generate(keyPair, CertificateManager.getSignatureAlgorithm(issuer == null ? keyPair : issuer.getKeyPair()),
+                distinguishedName, validNotBefore, validNotAfter, extensions, issuer);
         this.privateCredential = CertificateManager.createPrivateCredential(certificate, keyPair, alias);
         this.fileName = Constants.CERTS_GENERATION_DIR + alias + ".crt";
         CertificateManager.writeCertificateToFile(certificate, fileName);
     }
 
-    /** Use this to generate CA certs **/
+    /** Use this to generate CA certs (reused from {@link CertificateCache} if possible) **/
     public CertificateData(String alias, String distinguishedName, CertificateData issuer) {
-        this(alias, distinguishedName, issuer,
-                Date.from(Instant.now().minus(Duration.ofDays(1L))),
-                Date.from(Instant.now().plus(Duration.ofDays(30))));
+        this(alias, distinguishedName, CertificateCache.getOrCreate(distinguishedName, null, 30, issuer, true));
     }
+
     public CertificateData(String alias, String distinguishedName, CertificateData issuer, Date validNotBefore, Date validNotAfter) {
         this.alias = alias;
         this.keyPair = CertificateManager.createKeyPairGenerator();
         this.distinguishedName = distinguishedName;
-        this.certificate = CertificateManager.generateCA(keyPair, CertificateManager.SIGNATURE_ALGORITHM, distinguishedName, validNotBefore, validNotAfter, issuer);
+        this.certificate = CertificateManager.generateCA(keyPair, CertificateManager.getSignatureAlgorithm(issuer == null ? keyPair : issuer.getKeyPair()),
+                distinguishedName, validNotBefore, validNotAfter, issuer);
+        this.privateCredential = CertificateManager.createPrivateCredential(certificate, keyPair, alias);
+        this.fileName = Constants.CERTS_GENERATION_DIR + alias + ".crt";
+        CertificateManager.writeCertificateToFile(certificate, fileName);
+    }
+
+    private CertificateData(String alias, String distinguishedName, KeyStore.PrivateKeyEntry keyEntry) {
+        this.alias = alias;
+        this.certificate = (X509Certificate) keyEntry.getCertificate();
+        this.keyPair = new KeyPair(certificate.getPublicKey(), keyEntry.getPrivateKey());
+        this.distinguishedName = distinguishedName;
         this.privateCredential = CertificateManager.createPrivateCredential(certificate, keyPair, alias);
         this.fileName = Constants.CERTS_GENERATION_DIR + alias + ".crt";
         CertificateManager.writeCertificateToFile(certificate, fileName);
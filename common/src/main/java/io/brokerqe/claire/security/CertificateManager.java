@@ -45,7 +45,6 @@ import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.KeyPair;
-import java.security.KeyPairGenerator;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
@@ -75,6 +74,7 @@ public class CertificateManager {
     public static final String DEFAULT_CLIENT_PASSWORD = "clientPass";
 
     static {
+        Security.addProvider(new BouncyCastleProvider());
         TestUtils.createDirectory(Constants.CERTS_GENERATION_DIR);
     }
 
@@ -204,16 +204,23 @@ public class CertificateManager {
         }
     }
 
+    /**
+     * @return keypair of {@link KeyAlgorithm#getDefault()} algorithm, pre-generated in {@link KeyPairPool} if available
+     */
     public static KeyPair createKeyPairGenerator() {
-        KeyPairGenerator keyPairGenerator;
-        try {
-            Security.addProvider(new BouncyCastleProvider());
-            keyPairGenerator = KeyPairGenerator.getInstance(KEY_PAIR_ALGORITHM);
-            keyPairGenerator.initialize(4096);
-            return keyPairGenerator.generateKeyPair();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
-        }
+        return createKeyPairGenerator(KeyAlgorithm.getDefault());
+    }
+
+    public static KeyPair createKeyPairGenerator(KeyAlgorithm keyAlgorithm) {
+        return KeyPairPool.take(keyAlgorithm);
+    }
+
+    /**
+     * @param signerKeyPair keypair of issuer (or of certificate itself, when self-signed)
+     * @return signature algorithm matching the signer key, e.g. SHA256withRSA or SHA256withECDSA
+     */
+    public static String getSignatureAlgorithm(KeyPair signerKeyPair) {
+        return KeyAlgorithm.fromKey(signerKeyPair.getPrivate()).getSignatureAlgorithm();
     }
 
     /**
@@ -374,8 +381,13 @@ public class CertificateManager {
     }
 
     public static Map<String, KeyStoreData> generateDefaultCertificateKeystores(String brokerDN, String clientDN, List<Extension> extensions, CertificateData issuer) {
-        LOGGER.info("[TLS] Generating Broker KeyPair, Certificates");
-        CertificateData brokerCertData = new CertificateData(DEFAULT_BROKER_ALIAS, brokerDN, extensions, 30, issuer);
+        return generateDefaultCertificateKeystores(brokerDN, clientDN, extensions, issuer, KeyAlgorithm.getDefault());
+    }
+
+    public static Map<String, KeyStoreData> generateDefaultCertificateKeystores(String brokerDN, String clientDN, List<Extension> extensions,
+                                                                            CertificateData issuer, KeyAlgorithm brokerKeyAlgorithm) {
+        LOGGER.info("[TLS] Generating Broker {} KeyPair, Certificates", brokerKeyAlgorithm);
+        CertificateData brokerCertData = new CertificateData(DEFAULT_BROKER_ALIAS, brokerDN, extensions, 30, issuer, brokerKeyAlgorithm);
         writeCertificateToFile(brokerCertData.getCertificate(), Constants.CERTS_GENERATION_DIR + DEFAULT_BROKER_ALIAS + ".crt");
 
         // Client cert + keypair
@@ -0,0 +1,80 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.security;
+
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+
+import java.security.InvalidAlgorithmParameterException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Locale;
+
+/**
+ * Key algorithms usable for generated certificates.
+ * EC keys are much faster to generate than RSA and are accepted by any broker JVM.
+ * Ed25519 certificates require TLSv1.3 capable JVM on both sides (JDK 15+).
+ */
+public enum KeyAlgorithm {
+    RSA_4096("RSA", 4096, null, "SHA256withRSA"),
+    RSA_2048("RSA", 2048, null, "SHA256withRSA"),
+    EC_P256("EC", 0, "secp256r1", "SHA256withECDSA"),
+    ED25519("Ed25519", 0, null, "Ed25519");
+
+    private final String algorithm;
+    private final int keySize;
+    private final String curve;
+    private final String signatureAlgorithm;
+
+    KeyAlgorithm(String algorithm, int keySize, String curve, String signatureAlgorithm) {
+        this.algorithm = algorithm;
+        this.keySize = keySize;
+        this.curve = curve;
+        this.signatureAlgorithm = signatureAlgorithm;
+    }
+
+    public String getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    public KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(algorithm);
+            if (keySize > 0) {
+                keyPairGenerator.initialize(keySize);
+            } else if (curve != null) {
+                keyPairGenerator.initialize(new ECGenParameterSpec(curve));
+            }
+            return keyPairGenerator.generateKeyPair();
+        } catch (NoSuchAlgorithmException | InvalidAlgorithmParameterException e) {
+            throw new ClaireRuntimeException("Unable to generate " + name() + " keypair", e);
+        }
+    }
+
+    /**
+     * @return algorithm configured by {@link Constants#EV_TLS_KEY_ALGORITHM}, {@link #RSA_4096} by default
+     */
+    public static KeyAlgorithm getDefault() {
+        String configured = System.getenv(Constants.EV_TLS_KEY_ALGORITHM);
+        if (configured == null || configured.isBlank()) {
+            return RSA_4096;
+        }
+        return valueOf(configured.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @return algorithm of provided (signing) key, used to select matching signature algorithm
+     */
+    public static KeyAlgorithm fromKey(Key key) {
+        return switch (key.getAlgorithm()) {
+            case "EC" -> EC_P256;
+            case "Ed25519", "EdDSA" -> ED25519;
+            default -> RSA_4096;
+        };
+    }
+}
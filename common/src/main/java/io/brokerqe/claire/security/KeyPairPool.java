@@ -0,0 +1,88 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.KeyPair;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pre-generates keypairs in background daemon threads, so certificate creation does not wait for (RSA) key generation.
+ * Pool of given algorithm is filled on its first use and refilled after every taken keypair.
+ */
+public final class KeyPairPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyPairPool.class);
+    private static final int POOL_SIZE = 4;
+    private static final Map<KeyAlgorithm, BlockingQueue<KeyPair>> KEY_PAIRS = new EnumMap<>(KeyAlgorithm.class);
+    private static final Map<KeyAlgorithm, AtomicInteger> PENDING = new EnumMap<>(KeyAlgorithm.class);
+    private static final ExecutorService GENERATOR = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+                Thread thread = new Thread(runnable, "keypair-pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    static {
+        for (KeyAlgorithm keyAlgorithm : KeyAlgorithm.values()) {
+            KEY_PAIRS.put(keyAlgorithm, new LinkedBlockingQueue<>());
+            PENDING.put(keyAlgorithm, new AtomicInteger());
+        }
+    }
+
+    private KeyPairPool() {
+    }
+
+    /**
+     * @return pre-generated keypair, or newly generated one if pool is (still) empty
+     */
+    public static KeyPair take(KeyAlgorithm keyAlgorithm) {
+        KeyPair keyPair = KEY_PAIRS.get(keyAlgorithm).poll();
+        if (keyPair == null) {
+            LOGGER.debug("[TLS] No pre-generated {} keypair available, generating it now", keyAlgorithm);
+            keyPair = keyAlgorithm.generateKeyPair();
+        }
+        refill(keyAlgorithm);
+        return keyPair;
+    }
+
+    /**
+     * Pool size and pending generations are checked and updated under the same per-algorithm lock (pending counter),
+     * so concurrent takes never schedule more than missing keypairs and generated keypair is never counted twice.
+     */
+    private static void refill(KeyAlgorithm keyAlgorithm) {
+        BlockingQueue<KeyPair> keyPairs = KEY_PAIRS.get(keyAlgorithm);
+        AtomicInteger pending = PENDING.get(keyAlgorithm);
+        synchronized (pending) {
+            while (keyPairs.size() + pending.get() < POOL_SIZE) {
+                pending.incrementAndGet();
+                GENERATOR.submit(() -> generate(keyAlgorithm, keyPairs, pending));
+            }
+        }
+    }
+
+    private static void generate(KeyAlgorithm keyAlgorithm, BlockingQueue<KeyPair> keyPairs, AtomicInteger pending) {
+        KeyPair keyPair = null;
+        try {
+            keyPair = keyAlgorithm.generateKeyPair();
+        } catch (RuntimeException e) {
+            LOGGER.warn("[TLS] Background generation of {} keypair failed: {}", keyAlgorithm, e.getMessage());
+        }
+        synchronized (pending) {
+            if (keyPair != null) {
+                keyPairs.add(keyPair);
+            }
+            pending.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.clients.mqtt;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MqttLoadClientTest {
+
+    @Test
+    void remainingLengthIsEncodedAsVariableLengthInteger() {
+        assertThat(MqttPackets.remainingLengthSize(127)).isEqualTo(1);
+        assertThat(MqttPackets.remainingLengthSize(128)).isEqualTo(2);
+        assertThat(MqttPackets.remainingLengthSize(16_384)).isEqualTo(3);
+
+        ByteBuffer packet = MqttPackets.publish("t", 1, true, 7, ByteBuffer.allocate(200));
+        assertThat(packet.get(0)).isEqualTo((byte) 0x33);
+        assertThat(MqttPackets.packetLength(packet)).isEqualTo(packet.remaining()).isEqualTo(1 + 2 + 2 + 1 + 2 + 200);
+        assertThat(MqttPackets.packetLength(packet.slice(0, 1))).isEqualTo(-1);
+
+        assertThat(MqttPackets.readFixedHeader(packet)).isEqualTo(MqttPackets.PUBLISH);
+        assertThat(packet.getShort()).isEqualTo((short) 1);
+    }
+
+    @Test
+    void connectPacketHasCredentialsFlags() {
+        ByteBuffer packet = MqttPackets.connect("client", "user", "pass", 30, true);
+        assertThat(MqttPackets.readFixedHeader(packet)).isEqualTo(MqttPackets.CONNECT);
+        // protocol name (2 + 4), level
+        assertThat(packet.get(packet.position() + 7)).isEqualTo((byte) 0xC2);
+        assertThat(packet.getShort(packet.position() + 8)).isEqualTo((short) 30);
+    }
+
+    @Test
+    void messagesAreFannedOutToAllSubscribers() throws Exception {
+        try (FakeBroker broker = new FakeBroker();
+             MqttLoadClient client = new MqttLoadClient("localhost", broker.getPort()).withIoThreads(2).withKeepAlive(0)) {
+            assertThat(client.connect(5, "device-", 5000)).isEqualTo(5);
+            assertThat(client.subscribe(0, 5, index -> "sensors/#", 0, 5000)).isZero();
+
+            client.publish(0, "sensors/1", 0, false, 100);
+            client.publish(1, "sensors/2", 0, false, 100);
+            client.awaitReceived(10, 5000);
+            assertThat(client.getFanoutLatency().getCount()).isEqualTo(10);
+            assertThat(client.getConnectLatency().getCount()).isEqualTo(5);
+            assertThat(client.getLostConnections()).isZero();
+        }
+    }
+
+    @Test
+    void largeMessagesAreReassembledFromPartialReads() throws Exception {
+        try (FakeBroker broker = new FakeBroker();
+             MqttLoadClient client = new MqttLoadClient("localhost", broker.getPort()).withIoThreads(1).withKeepAlive(0)) {
+            assertThat(client.connect(2, "device-", 5000)).isEqualTo(2);
+            assertThat(client.subscribe(0, 2, index -> "sensors/#", 1, 5000)).isZero();
+
+            // larger than inbound buffer and socket buffers, followed by small message in the same stream
+            client.publish(0, "sensors/1", 1, false, 1 << 20);
+            client.publish(0, "sensors/2", 1, false, 100);
+            client.awaitReceived(4, 10000);
+            assertThat(client.getReceived()).isEqualTo(4);
+            assertThat(client.getLostConnections()).isZero();
+        }
+    }
+
+    @Test
+    void redeliveredQos2MessagesAreNotCounted() throws Exception {
+        try (FakeBroker broker = new FakeBroker();
+             MqttLoadClient client = new MqttLoadClient("localhost", broker.getPort()).withIoThreads(2).withKeepAlive(0)) {
+            assertThat(client.connect(2, "device-", 5000)).isEqualTo(2);
+            assertThat(client.subscribe(0, 2, index -> "sensors/#", 2, 5000)).isZero();
+
+            client.publish(0, "sensors/1", 2, false, 100);
+            client.awaitReceived(2, 5000);
+            // QoS 0 message is forwarded after the redelivery, so both connections already handled it
+            client.publish(0, "sensors/2", 0, false, 100);
+            client.awaitReceived(4, 5000);
+            assertThat(client.getReceived()).isEqualTo(4);
+            assertThat(client.getFanoutLatency().getCount()).isEqualTo(4);
+        }
+    }
+
+    /**
+     * Accepts connections and forwards every PUBLISH to all subscribed connections. QoS 2 PUBLISH is forwarded twice
+     * (second time with DUP flag) before PUBREL.
+     */
+    private static final class FakeBroker implements AutoCloseable {
+        private final ServerSocket serverSocket = new ServerSocket(0);
+        private final List<OutputStream> subscribers = new CopyOnWriteArrayList<>();
+
+        private FakeBroker() throws IOException {
+            Thread acceptor = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        Thread handler = new Thread(() -> handle(socket));
+                        handler.setDaemon(true);
+                        handler.start();
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void handle(Socket socket) {
+            try (socket) {
+                DataInputStream input = new DataInputStream(socket.getInputStream());
+                OutputStream output = socket.getOutputStream();
+                while (true) {
+                    int header = input.readUnsignedByte();
+                    int remainingLength = 0;
+                    int multiplier = 1;
+                    int encodedByte;
+                    do {
+                        encodedByte = input.readUnsignedByte();
+                        remainingLength += (encodedByte & 0x7F) * multiplier;
+                        multiplier *= 128;
+                    } while ((encodedByte & 0x80) != 0);
+                    byte[] body = input.readNBytes(remainingLength);
+                    switch (header >> 4) {
+                        case MqttPackets.CONNECT -> write(output, new byte[] {0x20, 2, 0, 0});
+                        case MqttPackets.SUBSCRIBE -> {
+                            write(output, new byte[] {(byte) 0x90, 3, body[0], body[1], 0});
+                            subscribers.add(output);
+                        }
+                        case MqttPackets.PUBLISH -> {
+                            boolean qos2 = ((header >> 1) & 0x03) == 2;
+                            ByteBuffer packet = ByteBuffer.allocate(1 + MqttPackets.remainingLengthSize(remainingLength) + remainingLength);
+                            packet.put((byte) (qos2 ? 0x34 : 0x30));
+                            int length = remainingLength;
+                            do {
+                                int digit = length % 128;
+                                length /= 128;
+                                packet.put((byte) (length > 0 ? digit | 0x80 : digit));
+                            } while (length > 0);
+                            packet.put(body);
+                            for (OutputStream subscriber : subscribers) {
+                                write(subscriber, packet.array());
+                            }
+                            if (qos2) {
+                                int packetIdPosition = 2 + ((body[0] & 0xFF) << 8 | body[1] & 0xFF);
+                                byte[] packetId = {body[packetIdPosition], body[packetIdPosition + 1]};
+                                packet.put(0, (byte) 0x3C);
+                                for (OutputStream subscriber : subscribers) {
+                                    write(subscriber, packet.array());
+                                    write(subscriber, new byte[] {0x62, 2, packetId[0], packetId[1]});
+                                }
+                                write(output, new byte[] {0x50, 2, packetId[0], packetId[1]});
+                            }
+                        }
+                        case MqttPackets.PUBREL -> write(output, new byte[] {0x70, 2, body[0], body[1]});
+                        case MqttPackets.DISCONNECT -> {
+                            return;
+                        }
+                        default -> {
+                            // not needed by test
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                // connection closed
+            }
+        }
+
+        private static void write(OutputStream output, byte[] bytes) throws IOException {
+            synchronized (output) {
+                output.write(bytes);
+                output.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.clients.mqtt;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MqttPacketsTest {
+
+    @Test
+    void remainingLengthBoundaries() {
+        // MQTT 3.1.1 section 2.2.3
+        assertThat(MqttPackets.remainingLengthSize(0)).isEqualTo(1);
+        assertThat(MqttPackets.remainingLengthSize(127)).isEqualTo(1);
+        assertThat(MqttPackets.remainingLengthSize(128)).isEqualTo(2);
+        assertThat(MqttPackets.remainingLengthSize(16_383)).isEqualTo(2);
+        assertThat(MqttPackets.remainingLengthSize(16_384)).isEqualTo(3);
+        assertThat(MqttPackets.remainingLengthSize(2_097_151)).isEqualTo(3);
+        assertThat(MqttPackets.remainingLengthSize(2_097_152)).isEqualTo(4);
+        assertThat(MqttPackets.remainingLengthSize(268_435_455)).isEqualTo(4);
+        assertThatThrownBy(() -> MqttPackets.remainingLengthSize(268_435_456)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void remainingLengthIsEncodedLeastSignificantFirst() {
+        // topic (2 + 1) + packet id (2) + payload 316 = 321 = 0xC1 0x02
+        ByteBuffer packet = MqttPackets.publish("t", 1, false, 1, ByteBuffer.allocate(316));
+        assertThat(packet.get(1)).isEqualTo((byte) 0xC1);
+        assertThat(packet.get(2)).isEqualTo((byte) 0x02);
+        assertThat(MqttPackets.packetLength(packet)).isEqualTo(3 + 321);
+
+        assertThat(MqttPackets.readFixedHeader(packet)).isEqualTo(MqttPackets.PUBLISH);
+        assertThat(packet.position()).isEqualTo(3);
+    }
+
+    @Test
+    void incompleteOrMalformedFixedHeader() {
+        ByteBuffer packet = MqttPackets.publish("t", 0, false, 0, ByteBuffer.allocate(20_000));
+        assertThat(MqttPackets.packetLength(packet.slice(0, 1))).isEqualTo(-1);
+        assertThat(MqttPackets.packetLength(packet.slice(0, 2))).isEqualTo(-1);
+        assertThat(MqttPackets.packetLength(packet.slice(0, 3))).isEqualTo(-1);
+        assertThat(MqttPackets.packetLength(packet.slice(0, 4))).isEqualTo(packet.remaining());
+
+        ByteBuffer malformed = ByteBuffer.wrap(new byte[] {0x30, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01});
+        assertThatThrownBy(() -> MqttPackets.packetLength(malformed)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void packetLengthStartsAtBufferPosition() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.put(MqttPackets.pingReq()).put(MqttPackets.ack(MqttPackets.PUBACK, 1)).flip();
+        assertThat(MqttPackets.packetLength(buffer)).isEqualTo(2);
+        buffer.position(2);
+        assertThat(MqttPackets.packetLength(buffer)).isEqualTo(4);
+    }
+
+    @Test
+    void connectWithoutCredentials() {
+        ByteBuffer packet = MqttPackets.connect("id", null, null, 0, false);
+        assertThat(toBytes(packet)).containsExactly(
+                0x10, 14,
+                0, 4, 'M', 'Q', 'T', 'T',
+                4,
+                0,
+                0, 0,
+                0, 2, 'i', 'd');
+    }
+
+    @Test
+    void connectWithCredentialsAndCleanSession() {
+        ByteBuffer packet = MqttPackets.connect("id", "u", "p", 300, true);
+        assertThat(toBytes(packet)).containsExactly(
+                0x10, 20,
+                0, 4, 'M', 'Q', 'T', 'T',
+                4,
+                0xC2,
+                0x01, 0x2C,
+                0, 2, 'i', 'd',
+                0, 1, 'u',
+                0, 1, 'p');
+    }
+
+    @Test
+    void subscribeHasReservedFlags() {
+        ByteBuffer packet = MqttPackets.subscribe(0x1234, "a/#", 2);
+        assertThat(toBytes(packet)).containsExactly(0x82, 8, 0x12, 0x34, 0, 3, 'a', '/', '#', 2);
+    }
+
+    @Test
+    void publishFlagsAndPacketId() {
+        ByteBuffer payload = ByteBuffer.wrap("x".getBytes(StandardCharsets.UTF_8));
+        assertThat(toBytes(MqttPackets.publish("t", 0, false, 5, payload.duplicate()))).containsExactly(0x30, 4, 0, 1, 't', 'x');
+        assertThat(toBytes(MqttPackets.publish("t", 1, true, 5, payload.duplicate()))).containsExactly(0x33, 6, 0, 1, 't', 0, 5, 'x');
+        assertThat(toBytes(MqttPackets.publish("t", 2, false, 0xFFFF, payload.duplicate())))
+                .containsExactly(0x34, 6, 0, 1, 't', 0xFF, 0xFF, 'x');
+    }
+
+    @Test
+    void acknowledgementsAndControlPackets() {
+        assertThat(toBytes(MqttPackets.ack(MqttPackets.PUBACK, 1))).containsExactly(0x40, 2, 0, 1);
+        assertThat(toBytes(MqttPackets.ack(MqttPackets.PUBREC, 1))).containsExactly(0x50, 2, 0, 1);
+        // PUBREL has fixed header flags 0010
+        assertThat(toBytes(MqttPackets.ack(MqttPackets.PUBREL, 1))).containsExactly(0x62, 2, 0, 1);
+        assertThat(toBytes(MqttPackets.ack(MqttPackets.PUBCOMP, 0x0102))).containsExactly(0x70, 2, 1, 2);
+        assertThat(toBytes(MqttPackets.pingReq())).containsExactly(0xC0, 0);
+        assertThat(toBytes(MqttPackets.disconnect())).containsExactly(0xE0, 0);
+    }
+
+    private static int[] toBytes(ByteBuffer packet) {
+        int[] bytes = new int[packet.remaining()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = packet.get(packet.position() + i) & 0xFF;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeneratedInputStreamTest {
+
+    @Test
+    void streamHasExactLengthAndDeterministicContent() throws IOException {
+        long length = 3 * 1024 + 5;
+        byte[] first = new GeneratedInputStream(length, 42).readAllBytes();
+        byte[] second = new GeneratedInputStream(length, 42).readAllBytes();
+        byte[] otherSeed = new GeneratedInputStream(length, 43).readAllBytes();
+
+        assertThat(first).hasSize((int) length).isEqualTo(second).isNotEqualTo(otherSeed);
+    }
+
+    @Test
+    void singleByteAndBulkReadsProduceSameContent() throws IOException {
+        GeneratedInputStream bulk = new GeneratedInputStream(100, 7);
+        GeneratedInputStream single = new GeneratedInputStream(100, 7);
+        byte[] bulkBytes = bulk.readAllBytes();
+        byte[] singleBytes = new byte[100];
+        for (int i = 0; i < singleBytes.length; i++) {
+            singleBytes[i] = (byte) single.read();
+        }
+
+        assertThat(singleBytes).isEqualTo(bulkBytes);
+        assertThat(single.read()).isEqualTo(-1);
+        assertThat(bulk.read(new byte[10], 0, 10)).isEqualTo(-1);
+    }
+}
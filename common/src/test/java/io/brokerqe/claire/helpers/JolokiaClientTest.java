@@ -0,0 +1,80 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpServer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+class JolokiaClientTest {
+
+    private static final String BROKER_MBEAN = "org.apache.activemq.artemis:broker=\"amq-broker\"";
+
+    @Test
+    void serializeRequests() {
+        Assertions.assertThat(JolokiaRequest.read(BROKER_MBEAN, "Version").toString())
+                .isEqualTo("{\"type\":\"read\",\"mbean\":\"org.apache.activemq.artemis:broker=\\\"amq-broker\\\"\",\"attribute\":\"Version\"}");
+        Assertions.assertThat(JolokiaRequest.read(BROKER_MBEAN, "Version", "Uptime").toString())
+                .contains("\"attribute\":[\"Version\",\"Uptime\"]");
+        Assertions.assertThat(JolokiaRequest.exec(BROKER_MBEAN, "getAddressSettingsAsJSON", "someQueue").toString())
+                .contains("\"operation\":\"getAddressSettingsAsJSON\",\"arguments\":[\"someQueue\"]");
+    }
+
+    @Test
+    void bulkRequest() throws IOException {
+        List<String> requestBodies = new ArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/console/jolokia", exchange -> {
+            requestBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] response = ("[{\"request\":{\"mbean\":\"a\",\"type\":\"read\"},\"value\":\"2.29.0\",\"status\":200},"
+                    + "{\"request\":{\"mbean\":\"b\",\"type\":\"exec\"},\"error\":\"not found\",\"status\":404},"
+                    + "{\"request\":{\"mbean\":\"c\",\"type\":\"read\"},\"value\":{"
+                    + "\"org.apache.activemq.artemis:broker=\\\"amq-broker\\\",queue=\\\"q1\\\"\":{\"MessageCount\":5}},\"status\":200}]")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+        try {
+            JolokiaClient client = JolokiaClient.forBroker("http", "127.0.0.1:" + server.getAddress().getPort(), "admin", "admin");
+            List<JolokiaResponse> responses = client.bulk(List.of(
+                    JolokiaRequest.read(BROKER_MBEAN, "Version"),
+                    JolokiaRequest.exec(BROKER_MBEAN, "unknown"),
+                    JolokiaRequest.read(JolokiaClient.getAllQueuesMBeanPattern("amq-broker"), "MessageCount")));
+
+            Assertions.assertThat(requestBodies).hasSize(1);
+            Assertions.assertThat(requestBodies.get(0)).startsWith("[{\"type\":\"read\"");
+            Assertions.assertThat(responses).hasSize(3);
+            Assertions.assertThat(responses.get(0).isSuccess()).isTrue();
+            Assertions.assertThat(responses.get(0).getValueAsText()).isEqualTo("2.29.0");
+            Assertions.assertThat(responses.get(1).isSuccess()).isFalse();
+            Assertions.assertThat(responses.get(1).getError()).isEqualTo("not found");
+            JsonNode queues = responses.get(2).getValue();
+            Assertions.assertThat(queues.fields().next().getValue().path("MessageCount").asInt()).isEqualTo(5);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void parseSingleResponse() throws IOException {
+        List<JolokiaResponse> responses = new ArrayList<>();
+        JolokiaClient.parseResponses(new ByteArrayInputStream(
+                "{\"value\":{\"a\":1},\"status\":200}".getBytes(StandardCharsets.UTF_8)), responses::add);
+        Assertions.assertThat(responses).hasSize(1);
+        Assertions.assertThat(responses.get(0).getValue().path("a").asInt()).isEqualTo(1);
+    }
+}
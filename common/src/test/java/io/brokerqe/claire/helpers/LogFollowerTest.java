@@ -0,0 +1,69 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helpers;
+
+import io.brokerqe.claire.exception.WaitException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogFollowerTest {
+
+    @Test
+    void partialChunksAreJoinedIntoLines() {
+        LogFollower follower = new LogFollower("chunks");
+        follower.accept("first li");
+        follower.accept("ne\r\nsecond line\nthi");
+        assertThat(follower.getLines()).containsExactly("first line", "second line");
+
+        follower.accept("rd line\n");
+        assertThat(follower.awaitPattern("^third", 0)).isEqualTo("third line");
+    }
+
+    @Test
+    void awaitPatternIsTriggeredByNewLine() throws Exception {
+        LogFollower follower = new LogFollower("await");
+        follower.accept("AMQ221007: Server is now live\n");
+        long mark = follower.mark();
+
+        CompletableFuture<String> found = CompletableFuture.supplyAsync(() -> follower.awaitPattern("AMQ2210\\d+", mark, 5000));
+        Thread.sleep(50);
+        assertThat(found).isNotDone();
+        follower.accept("AMQ221001: Apache ActiveMQ Artemis Message Broker started\n");
+        assertThat(found.get(1, TimeUnit.SECONDS)).startsWith("AMQ221001");
+
+        assertThatThrownBy(() -> follower.awaitPattern("AMQ224000", mark, 10))
+                .isInstanceOf(WaitException.class).hasMessageContaining("timeout");
+    }
+
+    @Test
+    void bufferKeepsOnlyLastLines() {
+        LogFollower follower = new LogFollower("ring", 3);
+        for (int i = 0; i < 5; i++) {
+            follower.accept("line " + i + "\n");
+        }
+        assertThat(follower.getLines()).containsExactly("line 2", "line 3", "line 4");
+        assertThat(follower.getDroppedLines()).isEqualTo(2);
+        assertThat(follower.containsPattern("line 0")).isFalse();
+        assertThat(follower.awaitPattern("line", 0)).isEqualTo("line 2");
+    }
+
+    @Test
+    void followedStreamEndClosesFollower() {
+        byte[] log = "one\ntwo\nlast without new line".getBytes(StandardCharsets.UTF_8);
+        LogFollower follower = LogFollower.follow("stream", new ByteArrayInputStream(log), null);
+
+        assertThat(follower.awaitPattern("without", 5000)).isEqualTo("last without new line");
+        assertThatThrownBy(() -> follower.awaitPattern("missing", 5000))
+                .isInstanceOf(WaitException.class).hasMessageContaining("log stream ended");
+        assertThat(follower.isClosed()).isTrue();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+class ClientJvmMonitorTest {
+
+    @Test
+    void taskRecordsAllocationsAndGcPauses() {
+        ClientTaskMetrics metrics = ClientJvmMonitor.get().startTask("task-1", "send", ClientJvmMonitor.DEFAULT_MAX_PAUSE_MS);
+        byte[][] garbage = new byte[1024][];
+        for (int i = 0; i < 16 * 1024; i++) {
+            garbage[i % garbage.length] = new byte[1024];
+        }
+        metrics.recordLatency(2, TimeUnit.MILLISECONDS);
+        System.gc();
+        metrics.stop();
+
+        Assertions.assertThat(metrics.getAllocatedBytes()).isGreaterThanOrEqualTo(16L * 1024 * 1024);
+        Assertions.assertThat(metrics.getGcPauseCount()).isPositive();
+        Map<String, String> data = metrics.toMap();
+        Assertions.assertThat(data)
+                .containsKeys("client_thread_cpu_ms", "client_process_cpu_ms", "client_allocation_rate_bytes_per_s", "client_gc_pause_max_ms")
+                .containsEntry("send_count", "1")
+                .containsEntry("send_us_50.00", "2000");
+    }
+
+    @Test
+    void taskWithLongerPauseIsInvalid() {
+        ClientTaskMetrics strict = ClientJvmMonitor.get().startTask("task-2", "end_to_end", -1);
+        ClientTaskMetrics lenient = ClientJvmMonitor.get().startTask("task-3", "end_to_end", Long.MAX_VALUE);
+        System.gc();
+        strict.stop();
+        lenient.stop();
+
+        Assertions.assertThat(strict.isValid()).isFalse();
+        Assertions.assertThat(strict.toMap()).containsEntry("client_valid", "false");
+        Assertions.assertThat(lenient.isValid()).isTrue();
+    }
+}
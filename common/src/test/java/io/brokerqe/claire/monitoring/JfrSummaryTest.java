@@ -0,0 +1,81 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class JfrSummaryTest {
+
+    private static final Object LOCK = new Object();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void summarizesRecordingOfCurrentJvm() throws Exception {
+        Path file = tempDir.resolve("test.jfr");
+        try (Recording recording = new Recording(Configuration.getConfiguration("profile"))) {
+            recording.start();
+            busyWork();
+            contendLock();
+            System.gc();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        JfrSummary summary = JfrSummary.parse(file);
+        Assertions.assertThat(summary.getDuration()).isPositive();
+        Assertions.assertThat(summary.getAllocatedBytes()).isPositive();
+        Assertions.assertThat(summary.getGcCount()).isPositive();
+        Assertions.assertThat(summary.getHotMethods(3)).isNotEmpty().hasSizeLessThanOrEqualTo(3);
+        Assertions.assertThat(summary.getContendedMonitors(JfrSummary.DEFAULT_TOP)).containsKey(Object.class.getName());
+
+        Map<String, String> data = summary.toMap();
+        Assertions.assertThat(data).containsKeys("jfr_allocation_rate_bytes_per_s", "jfr_gc_pause_max_ms", "jfr_hot_method_01",
+                "jfr_contended_monitor_01");
+    }
+
+    private static void busyWork() {
+        List<byte[]> garbage = new ArrayList<>();
+        long end = System.currentTimeMillis() + 1000;
+        while (System.currentTimeMillis() < end) {
+            garbage.add(new byte[1024]);
+            if (garbage.size() > 10_000) {
+                garbage.clear();
+            }
+        }
+    }
+
+    private static void contendLock() throws InterruptedException {
+        Thread holder = new Thread(() -> {
+            synchronized (LOCK) {
+                sleep(200);
+            }
+        });
+        holder.start();
+        sleep(50);
+        synchronized (LOCK) {
+            Assertions.assertThat(holder.isAlive()).isFalse();
+        }
+        holder.join();
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
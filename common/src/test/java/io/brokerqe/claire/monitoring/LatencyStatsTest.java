@@ -0,0 +1,41 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+class LatencyStatsTest {
+
+    @Test
+    void nearestRankPercentiles() {
+        LatencyStats stats = new LatencyStats();
+        for (int i = 2000; i >= 1; i--) {
+            stats.record(i, TimeUnit.MILLISECONDS);
+        }
+        Assertions.assertThat(stats.getCount()).isEqualTo(2000);
+        Assertions.assertThat(stats.getPercentile(50)).isEqualTo(1_000_000L);
+        Assertions.assertThat(stats.getPercentile(99.9)).isEqualTo(1_998_000L);
+        Assertions.assertThat(stats.getPercentile(0)).isEqualTo(1_000L);
+        Assertions.assertThat(stats.getMax()).isEqualTo(2_000_000L);
+    }
+
+    @Test
+    void mapUsesPerfClientKeys() {
+        LatencyStats stats = new LatencyStats();
+        Assertions.assertThat(stats.getPercentile(99)).isZero();
+        stats.recordNanos(1_500_000L);
+
+        Map<String, String> data = stats.toMap("handshake");
+        Assertions.assertThat(data)
+                .containsEntry("handshake_count", "1")
+                .containsEntry("handshake_us_50.00", "1500")
+                .containsEntry("handshake_us_99.90", "1500")
+                .containsEntry("handshake_us_max", "1500");
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.Map;
+
+class PrometheusParserTest {
+
+    private static final String METRICS = """
+            # HELP artemis_message_count number of messages in this queue
+            # TYPE artemis_message_count gauge
+            artemis_message_count{address="DLQ",broker="amq-broker",queue="DLQ",} 0.0
+            artemis_message_count{address="prometheus",broker="amq-broker",queue="tests",} 1.0
+            # TYPE artemis_messages_added gauge
+            artemis_messages_added{address="prometheus",broker="amq-broker",queue="tests",} 42.0 1686235000000
+            # TYPE jvm_gc_memory_allocated_bytes counter
+            jvm_gc_memory_allocated_bytes_total 1.2E7
+            # TYPE http_request_duration_seconds histogram
+            http_request_duration_seconds_bucket{le="+Inf"} 3
+            labels_with_spaces{path="/a b,c}",quote="say \\"hi\\""} NaN
+            broken{label="unterminated 1.0
+            """;
+
+    @Test
+    void parseSamples() {
+        PrometheusMetrics metrics = PrometheusParser.parse(METRICS);
+
+        Assertions.assertThat(metrics.getSamples()).hasSize(6);
+        Assertions.assertThat(metrics.getSamples("artemis_message_count")).hasSize(2);
+        Assertions.assertThat(metrics.getValue("artemis_message_count", Map.of("address", "prometheus", "broker", "amq-broker", "queue", "tests")))
+                .isEqualTo(1.0);
+        Assertions.assertThat(metrics.findSamples("artemis_message_count", Map.of("queue", "DLQ"))).hasSize(1);
+        Assertions.assertThat(metrics.sum("artemis_message_count", Map.of("broker", "amq-broker"))).isEqualTo(1.0);
+        Assertions.assertThat(metrics.getHelp("artemis_message_count")).isEqualTo("number of messages in this queue");
+
+        MetricSample added = metrics.getSamples("artemis_messages_added").get(0);
+        Assertions.assertThat(added.getTimestamp()).isEqualTo(1686235000000L);
+        Assertions.assertThat(added.getType()).isEqualTo(MetricType.GAUGE);
+
+        Assertions.assertThat(metrics.getSamples("jvm_gc_memory_allocated_bytes_total").get(0).getType()).isEqualTo(MetricType.COUNTER);
+        Assertions.assertThat(metrics.getSamples("http_request_duration_seconds_bucket").get(0).getType()).isEqualTo(MetricType.HISTOGRAM);
+        Assertions.assertThat(metrics.getSamples("http_request_duration_seconds_bucket").get(0).getLabel("le")).isEqualTo("+Inf");
+
+        MetricSample spaces = metrics.getSamples("labels_with_spaces").get(0);
+        Assertions.assertThat(spaces.getLabel("path")).isEqualTo("/a b,c}");
+        Assertions.assertThat(spaces.getLabel("quote")).isEqualTo("say \"hi\"");
+        Assertions.assertThat(spaces.getValue()).isNaN();
+        Assertions.assertThat(metrics.containsMetric("broken")).isFalse();
+    }
+
+    @Test
+    void openMetricsTimestampsAreSeconds() {
+        String openMetrics = """
+                # TYPE messages_added counter
+                messages_added_total{queue="a"} 42 1686235000
+                messages_added_total{queue="b"} 43 1686235000.25 # {trace_id="abc"} 1.0 1686234999.5
+                # EOF
+                """;
+        Assertions.assertThat(PrometheusParser.isOpenMetrics("application/openmetrics-text; version=1.0.0; charset=utf-8")).isTrue();
+        Assertions.assertThat(PrometheusParser.isOpenMetrics("text/plain; version=0.0.4; charset=utf-8")).isFalse();
+
+        PrometheusMetrics metrics = PrometheusParser.parse(new StringReader(openMetrics), 0, true);
+        Assertions.assertThat(metrics.findSamples("messages_added_total", Map.of("queue", "a")).get(0).getTimestamp())
+                .isEqualTo(1686235000000L);
+        Assertions.assertThat(metrics.findSamples("messages_added_total", Map.of("queue", "b")).get(0).getTimestamp())
+                .isEqualTo(1686235000250L);
+    }
+
+    @Test
+    void seriesMapKeepsPublishedKeys() {
+        Map<String, String> seriesMap = PrometheusParser.parse(METRICS).toSeriesMap();
+        Assertions.assertThat(seriesMap)
+                .containsEntry("artemis_message_count{address=\"DLQ\",broker=\"amq-broker\",queue=\"DLQ\",}", "0.0")
+                .containsEntry("jvm_gc_memory_allocated_bytes_total", "1.2E7");
+    }
+
+    @Test
+    void scraperRates() {
+        String[] scrapes = {"messages_added 10\n", "messages_added 30\n", "messages_added 5\n"};
+        long[] times = {1000, 3000, 4000};
+        int[] index = {0};
+        MetricsScraper scraper = new MetricsScraper(() -> {
+            int i = index[0]++;
+            return PrometheusParser.parse(new StringReader(scrapes[i]), times[i]);
+        }, 1000);
+        scraper.scrape();
+        scraper.scrape();
+        scraper.scrape();
+
+        Assertions.assertThat(scraper.getDelta("messages_added", Map.of())).isEqualTo(-5.0);
+        // 20 before reset + 5 after reset
+        Assertions.assertThat(scraper.getIncrease("messages_added", Map.of())).isEqualTo(25.0);
+        Assertions.assertThat(scraper.getRates("messages_added", Map.of())).containsExactly(10.0, 5.0);
+        Assertions.assertThat(scraper.getRate("messages_added", Map.of())).isEqualTo(25.0 / 3);
+    }
+}
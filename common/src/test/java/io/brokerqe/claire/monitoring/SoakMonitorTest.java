@@ -0,0 +1,77 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SoakMonitorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void stableMetricsPassAndSoakIsResumable() throws IOException {
+        Path stateFile = tempDir.resolve("state.jsonl");
+        SoakMonitor first = new SoakMonitor("stable", stateFile, Duration.ofMillis(200))
+                .withCheckpointInterval(20)
+                .withDriftWindow(1, 3)
+                .withSource("client", () -> Map.of("throughput", 100.0))
+                .withMaxDecay("client_throughput", 0.1)
+                .run();
+        assertThat(first.getViolations()).isEmpty();
+        assertThat(first.getElapsedMs()).isGreaterThanOrEqualTo(200);
+        int recorded = first.getCheckpointCount();
+        assertThat(Files.readAllLines(stateFile)).hasSize(recorded);
+
+        SoakMonitor resumed = new SoakMonitor("stable", stateFile, Duration.ofMillis(300))
+                .withCheckpointInterval(20)
+                .withSource("client", () -> Map.of("throughput", 100.0))
+                .run();
+        assertThat(resumed.getCheckpointCount()).isGreaterThan(recorded);
+        assertThat(resumed.getElapsedMs()).isGreaterThanOrEqualTo(300);
+        assertThat(resumed.getValues("client_throughput")).containsOnly(100.0);
+
+        String reportFile = tempDir.resolve("report.json").toString();
+        resumed.writeReport(reportFile);
+        assertThat(Files.readString(Path.of(reportFile))).contains("\"passed\" : true", "\"resumed_checkpoints_count\" : " + recorded);
+    }
+
+    @Test
+    void growingMetricViolatesSlopeAndStopsSoak() {
+        AtomicInteger heap = new AtomicInteger();
+        SoakMonitor monitor = new SoakMonitor("leak", tempDir.resolve("leak.jsonl"), Duration.ofMinutes(1))
+                .withCheckpointInterval(10)
+                .withDriftWindow(0, 5)
+                .withSource("broker", () -> Map.of("heap_used_bytes", (double) heap.addAndGet(1024)))
+                .withMaxSlope("broker_heap_used_bytes", 1024)
+                .run();
+
+        assertThat(monitor.getViolations()).singleElement().asString().startsWith("broker_heap_used_bytes grows by");
+        assertThat(monitor.getElapsedMs()).isLessThan(Duration.ofMinutes(1).toMillis());
+    }
+
+    @Test
+    void decayingThroughputViolatesDecay() {
+        AtomicInteger checkpoint = new AtomicInteger();
+        SoakMonitor monitor = new SoakMonitor("decay", tempDir.resolve("decay.jsonl"), Duration.ofMinutes(1))
+                .withCheckpointInterval(10)
+                .withDriftWindow(0, 3)
+                .withSource("client", () -> Map.of("throughput", checkpoint.incrementAndGet() > 4 ? 50.0 : 100.0))
+                .withMaxDecay("client_throughput", 0.2)
+                .run();
+
+        assertThat(monitor.getViolations()).singleElement().asString().startsWith("client_throughput decayed by 50.0%");
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.security;
+
+import org.assertj.core.api.Assertions;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+class CertificateCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void ecCertificateChain() throws GeneralSecurityException {
+        Date notBefore = Date.from(Instant.now().minus(Duration.ofDays(1L)));
+        Date notAfter = Date.from(Instant.now().plus(Duration.ofDays(1L)));
+        KeyPair caKeyPair = CertificateManager.createKeyPairGenerator(KeyAlgorithm.EC_P256);
+        X509Certificate caCertificate = CertificateManager.generateCA(caKeyPair, CertificateManager.getSignatureAlgorithm(caKeyPair),
+                CertificateManager.generateArtemisCloudDN("unit-tests", "ec-ca"), notBefore, notAfter, null);
+        caCertificate.verify(caKeyPair.getPublic());
+        Assertions.assertThat(caCertificate.getSigAlgName()).isEqualTo("SHA256WITHECDSA");
+
+        // EC entity certificate signed by (default) CA uses signature algorithm of the CA key
+        CertificateData issuer = new CertificateData("ecIssuer", CertificateManager.generateArtemisCloudDN("unit-tests", "ec-issuer"), null, notBefore, notAfter);
+        KeyPair keyPair = CertificateManager.createKeyPairGenerator(KeyAlgorithm.EC_P256);
+        X509Certificate certificate = CertificateManager.generate(keyPair, CertificateManager.getSignatureAlgorithm(issuer.getKeyPair()),
+                CertificateManager.generateArtemisCloudDN("unit-tests", "ec-entity"), notBefore, notAfter, null, issuer);
+        certificate.verify(issuer.getCertificate().getPublicKey());
+        Assertions.assertThat(certificate.getPublicKey().getAlgorithm()).isEqualTo("EC");
+    }
+
+    @Test
+    void enabledCacheReusesCertificate() {
+        String distinguishedName = CertificateManager.generateArtemisCloudDN("unit-tests", "cached");
+        KeyStore.PrivateKeyEntry first = CertificateCache.getOrCreate(tempDir, KeyAlgorithm.EC_P256, distinguishedName, null, 30, null, false);
+        KeyStore.PrivateKeyEntry second = CertificateCache.getOrCreate(tempDir, KeyAlgorithm.EC_P256, distinguishedName, null, 30, null, false);
+        Assertions.assertThat(second.getCertificate()).isEqualTo(first.getCertificate());
+        Assertions.assertThat(second.getPrivateKey()).isEqualTo(first.getPrivateKey());
+        Assertions.assertThat(tempDir.toFile().list()).hasSize(1);
+    }
+
+    @Test
+    void disabledCacheGeneratesNewCertificate() {
+        String distinguishedName = CertificateManager.generateArtemisCloudDN("unit-tests", "not-cached");
+        KeyStore.PrivateKeyEntry first = CertificateCache.getOrCreate(null, KeyAlgorithm.EC_P256, distinguishedName, null, 30, null, false);
+        KeyStore.PrivateKeyEntry second = CertificateCache.getOrCreate(null, KeyAlgorithm.EC_P256, distinguishedName, null, 30, null, false);
+        Assertions.assertThat(second.getCertificate()).isNotEqualTo(first.getCertificate());
+        Assertions.assertThat(second.getPrivateKey()).isNotEqualTo(first.getPrivateKey());
+        Assertions.assertThat(tempDir.toFile().list()).isEmpty();
+    }
+
+    @Test
+    void failedCacheWriteLeavesNoTemporaryFile() throws IOException {
+        String distinguishedName = CertificateManager.generateArtemisCloudDN("unit-tests", "not-writable");
+        String cacheId = CertificateCache.getCacheId(KeyAlgorithm.EC_P256, distinguishedName, null, 30, null, false);
+        // non-empty directory in place of cache file makes the final move fail
+        Files.createDirectories(tempDir.resolve(cacheId + ".p12").resolve("blocker"));
+        KeyStore.PrivateKeyEntry entry = CertificateCache.getOrCreate(tempDir, KeyAlgorithm.EC_P256, distinguishedName, null, 30, null, false);
+        Assertions.assertThat(entry.getCertificate()).isNotNull();
+        Assertions.assertThat(tempDir.toFile().list()).containsExactly(cacheId + ".p12");
+    }
+
+    @Test
+    void cacheIdDependsOnExtensionsAndIssuer() throws IOException {
+        String distinguishedName = CertificateManager.generateArtemisCloudDN("unit-tests", "cache-id");
+        Extension san = new Extension(Extension.subjectAlternativeName, false,
+                new GeneralNames(new GeneralName(GeneralName.dNSName, "broker.example.com")).getEncoded());
+        CertificateData issuer = new CertificateData("cacheIdIssuer", CertificateManager.generateArtemisCloudDN("unit-tests", "cache-id-ca"), null);
+
+        String plain = CertificateCache.getCacheId(KeyAlgorithm.RSA_4096, distinguishedName, null, 30, null, false);
+        Assertions.assertThat(CertificateCache.getCacheId(KeyAlgorithm.RSA_4096, distinguishedName, null, 30, null, false)).isEqualTo(plain);
+        Assertions.assertThat(CertificateCache.getCacheId(KeyAlgorithm.RSA_4096, distinguishedName, List.of(san), 30, null, false)).isNotEqualTo(plain);
+        Assertions.assertThat(CertificateCache.getCacheId(KeyAlgorithm.RSA_4096, distinguishedName, null, 30, issuer, false)).isNotEqualTo(plain);
+        Assertions.assertThat(CertificateCache.getCacheId(KeyAlgorithm.EC_P256, distinguishedName, null, 30, null, false)).isNotEqualTo(plain);
+        Assertions.assertThat(CertificateCache.getCacheId(KeyAlgorithm.RSA_4096, distinguishedName, null, 30, null, true)).isNotEqualTo(plain);
+    }
+}
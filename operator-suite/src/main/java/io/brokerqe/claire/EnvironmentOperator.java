@@ -43,6 +43,12 @@ public class EnvironmentOperator extends Environment {
     private final KubeClient kubeClient;
     private final boolean collectTestData;
     private final int customExtraDelay;
+    private final int namespacePoolSize;
+    private final int perfBrokerSize;
+    private final String perfBrokerCpuLimit;
+    private final String perfBrokerMemoryLimit;
+    private final String perfStorageClass;
+    private final int perfClientPods;
 
     public EnvironmentOperator() {
         this.set(this);
@@ -55,6 +61,12 @@ public class EnvironmentOperator extends Environment {
         kubeClient = new KubeClient("default");
         disabledRandomNs = Boolean.parseBoolean(System.getenv(Constants.EV_DISABLE_RANDOM_NAMESPACES));
         customExtraDelay = Integer.parseInt(System.getenv().getOrDefault(Constants.EV_CUSTOM_EXTRA_DELAY, "0"));
+        namespacePoolSize = Integer.parseInt(System.getenv().getOrDefault(Constants.EV_NAMESPACE_POOL_SIZE, "0"));
+        perfBrokerSize = Integer.parseInt(System.getenv().getOrDefault(Constants.EV_PERF_BROKER_SIZE, "1"));
+        perfBrokerCpuLimit = System.getenv(Constants.EV_PERF_BROKER_CPU_LIMIT);
+        perfBrokerMemoryLimit = System.getenv(Constants.EV_PERF_BROKER_MEMORY_LIMIT);
+        perfStorageClass = System.getenv(Constants.EV_PERF_STORAGE_CLASS);
+        perfClientPods = Integer.parseInt(System.getenv().getOrDefault(Constants.EV_PERF_CLIENT_PODS, "1"));
 
         projectManagedClusterOperator = Boolean.parseBoolean(System.getenv().getOrDefault(Constants.EV_CLUSTER_OPERATOR_MANAGED, "true"));
 
@@ -144,6 +156,18 @@ public class EnvironmentOperator extends Environment {
             envVarsSB.append(Constants.EV_CUSTOM_EXTRA_DELAY).append("=").append(customExtraDelay).append(Constants.LINE_SEPARATOR);
             LOGGER.warn("Detected {}. All non-kubernetes default waits will be prolonged by {}s", Constants.EV_CUSTOM_EXTRA_DELAY, customExtraDelay);
         }
+        if (namespacePoolSize != 0) {
+            envVarsSB.append(Constants.EV_NAMESPACE_POOL_SIZE).append("=").append(namespacePoolSize).append(Constants.LINE_SEPARATOR);
+        }
+        if (perfBrokerCpuLimit != null) {
+            envVarsSB.append(Constants.EV_PERF_BROKER_CPU_LIMIT).append("=").append(perfBrokerCpuLimit).append(Constants.LINE_SEPARATOR);
+        }
+        if (perfBrokerMemoryLimit != null) {
+            envVarsSB.append(Constants.EV_PERF_BROKER_MEMORY_LIMIT).append("=").append(perfBrokerMemoryLimit).append(Constants.LINE_SEPARATOR);
+        }
+        if (perfStorageClass != null) {
+            envVarsSB.append(Constants.EV_PERF_STORAGE_CLASS).append("=").append(perfStorageClass).append(Constants.LINE_SEPARATOR);
+        }
 
         LOGGER.info(envVarsSB.toString());
     }
@@ -221,6 +245,30 @@ public class EnvironmentOperator extends Environment {
         return disabledRandomNs;
     }
 
+    public int getNamespacePoolSize() {
+        return namespacePoolSize;
+    }
+
+    public int getPerfBrokerSize() {
+        return perfBrokerSize;
+    }
+
+    public String getPerfBrokerCpuLimit() {
+        return perfBrokerCpuLimit;
+    }
+
+    public String getPerfBrokerMemoryLimit() {
+        return perfBrokerMemoryLimit;
+    }
+
+    public String getPerfStorageClass() {
+        return perfStorageClass;
+    }
+
+    public int getPerfClientPods() {
+        return perfClientPods;
+    }
+
     public String getArtemisOperatorName() {
         return artemisOperatorName;
     }
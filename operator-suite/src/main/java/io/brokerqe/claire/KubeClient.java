@@ -5,6 +5,8 @@
 package io.brokerqe.claire;
 
 import io.brokerqe.claire.executor.ExecutorOperator;
+import io.brokerqe.claire.helpers.LogFollower;
+import io.brokerqe.claire.monitoring.JfrRecorder;
 import io.brokerqe.claire.operator.ArtemisCloudClusterOperator;
 import io.brokerqe.claire.security.CertificateManager;
 import io.brokerqe.claire.security.KeyStoreData;
@@ -30,6 +32,7 @@ import io.fabric8.kubernetes.client.Config;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientBuilder;
 import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.LogWatch;
 import io.fabric8.kubernetes.client.dsl.RollableScalableResource;
 import io.fabric8.openshift.api.model.Route;
 import io.fabric8.openshift.api.model.RouteBuilder;
@@ -321,6 +324,19 @@ public class KubeClient {
         getKubernetesClient().pods().inNamespace(namespace).withName(pod.getMetadata().getName()).file(podDestinationPath).upload(Paths.get(localSourcePath));
     }
 
+    public void downloadFileFromPod(Pod pod, String podSourcePath, String localDestinationPath) {
+        getKubernetesClient().pods().inNamespace(pod.getMetadata().getNamespace()).withName(pod.getMetadata().getName())
+                .file(podSourcePath).copy(Paths.get(localDestinationPath));
+    }
+
+    /**
+     * Starts Java Flight Recorder in broker pod. Stop it by {@link JfrRecorder#stop(String)} after workload.
+     */
+    public JfrRecorder startJfrRecording(Pod pod, String recordingName) {
+        return new JfrRecorder(recordingName, new ExecutorOperator(pod),
+                (podFile, localFile) -> downloadFileFromPod(pod, podFile, localFile)).start();
+    }
+
     // ==================================
     // ---------> STATEFUL SET <---------
     // ==================================
@@ -692,6 +708,29 @@ public class KubeClient {
         }
     }
 
+    /**
+     * Follows pod log incrementally (single streaming request) instead of downloading whole log on every check.
+     * Returned follower has to be closed.
+     */
+    public LogFollower followLogsFromPod(Pod pod) {
+        return followLogsFromPod(pod, null);
+    }
+
+    /**
+     * @param sinceInstant follow only log since provided time (whole log if null)
+     */
+    public LogFollower followLogsFromPod(Pod pod, Instant sinceInstant) {
+        LogWatch logWatch;
+        if (sinceInstant == null) {
+            logWatch = getKubernetesClient().pods().inNamespace(pod.getMetadata().getNamespace()).resource(pod).watchLog();
+        } else {
+            logWatch = getKubernetesClient().pods().inNamespace(pod.getMetadata().getNamespace()).resource(pod)
+                    .sinceTime(sinceInstant.atOffset(ZoneOffset.UTC).toString()).watchLog();
+        }
+        LOGGER.debug("[{}] Following log of pod {}", pod.getMetadata().getNamespace(), pod.getMetadata().getName());
+        return LogFollower.follow(pod.getMetadata().getName(), logWatch.getOutput(), logWatch);
+    }
+
     public void setOperatorLogLevel(ArtemisCloudClusterOperator operator, String logLevel) {
         if (ArtemisCloudClusterOperator.ZAP_LOG_LEVELS.contains(logLevel)) {
             Deployment deployment = getDeployment(namespace, operator.getOperatorName());
@@ -0,0 +1,249 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire;
+
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.operator.ArtemisCloudClusterOperator;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.openshift.client.OpenShiftClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of namespaces with already deployed (namespaced) Artemis Cluster Operator.
+ * Namespaces are pre-created in background and handed out to test classes. Released namespaces are scrubbed
+ * (Artemis CRs, client deployments, services, routes/ingresses, config maps, secrets and PVCs) and reused, or deleted
+ * in background if pool is full or scrubbing fails. Resources of Cluster Operator itself and the ones created by
+ * platform (service account tokens, image pull secrets, CA bundles) are kept. Pool is enabled by {@link Constants#EV_NAMESPACE_POOL_SIZE} greater than 0.
+ */
+public class NamespacePool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NamespacePool.class);
+    private static final String POOL_NAMESPACE_PREFIX = "claire-pool";
+    private static final List<String> KEEP_SECRET_TYPES = List.of("kubernetes.io/service-account-token", "kubernetes.io/dockercfg",
+        "kubernetes.io/dockerconfigjson");
+    private static final List<String> KEEP_CONFIG_MAPS = List.of("kube-root-ca.crt", "openshift-service-ca.crt");
+    private static final String LEADER_ELECTION_ANNOTATION = "control-plane.alpha.kubernetes.io/leader";
+
+    private static final BlockingQueue<String> AVAILABLE_NAMESPACES = new LinkedBlockingQueue<>();
+    private static final Map<String, ArtemisCloudClusterOperator> POOLED_NAMESPACES = new ConcurrentHashMap<>();
+    private static final AtomicInteger PENDING_NAMESPACES = new AtomicInteger(0);
+    private static ExecutorService executorService;
+
+    public static boolean isEnabled() {
+        return ResourceManager.getEnvironment().getNamespacePoolSize() > 0 && ResourceManager.isClusterOperatorManaged();
+    }
+
+    public static boolean isPooled(String namespace) {
+        return POOLED_NAMESPACES.containsKey(namespace);
+    }
+
+    public static ArtemisCloudClusterOperator getOperator(String namespace) {
+        return POOLED_NAMESPACES.get(namespace);
+    }
+
+    /**
+     * Hands out namespace with deployed Cluster Operator. Waits for namespace being prepared in background,
+     * or creates new one (over pool size) in place if there is none in progress. Pool is refilled in background only
+     * when it has fewer than pool size namespaces (e.g. preparation of some failed).
+     * @return name of namespace owned by caller until {@link #release(String)}
+     */
+    public static String acquire() {
+        startPool();
+        String namespace = AVAILABLE_NAMESPACES.poll();
+        try {
+            if (namespace == null && PENDING_NAMESPACES.get() > 0) {
+                LOGGER.info("[NamespacePool] Waiting for namespace to be prepared");
+                namespace = AVAILABLE_NAMESPACES.poll(Constants.DURATION_5_MINUTES, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClaireRuntimeException("Interrupted while waiting for pooled namespace", e);
+        }
+        if (namespace == null) {
+            LOGGER.warn("[NamespacePool] No prepared namespace available, creating new one");
+            namespace = createNamespace();
+        }
+        refillPool();
+        LOGGER.info("[{}] Acquired namespace from pool", namespace);
+        return namespace;
+    }
+
+    /**
+     * Scrubs namespace and returns it to the pool. If pool is over its size (namespace was created in place) or
+     * scrubbing fails, namespace is deleted in background.
+     * @param namespace previously acquired namespace
+     */
+    public static void release(String namespace) {
+        try {
+            scrubNamespace(namespace);
+        } catch (RuntimeException e) {
+            LOGGER.warn("[{}] Unable to scrub namespace, it won't be reused: {}", namespace, e.getMessage());
+            retireNamespace(namespace);
+            refillPool();
+            return;
+        }
+        synchronized (NamespacePool.class) {
+            if (POOLED_NAMESPACES.size() + PENDING_NAMESPACES.get() <= ResourceManager.getEnvironment().getNamespacePoolSize()) {
+                LOGGER.info("[{}] Returned namespace to pool", namespace);
+                AVAILABLE_NAMESPACES.offer(namespace);
+                return;
+            }
+        }
+        retireNamespace(namespace);
+    }
+
+    /**
+     * Deletes all idle pooled namespaces and waits for all background operations to finish.
+     */
+    public static synchronized void shutdown() {
+        if (executorService == null) {
+            return;
+        }
+        String namespace;
+        while ((namespace = AVAILABLE_NAMESPACES.poll()) != null) {
+            retireNamespace(namespace);
+        }
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(Constants.DURATION_5_MINUTES, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("[NamespacePool] Background namespace operations did not finish in time");
+                executorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executorService.shutdownNow();
+        }
+        executorService = null;
+    }
+
+    private static synchronized void startPool() {
+        if (executorService == null) {
+            int poolSize = ResourceManager.getEnvironment().getNamespacePoolSize();
+            LOGGER.info("[NamespacePool] Pre-creating {} namespaces with Cluster Operator", poolSize);
+            executorService = Executors.newFixedThreadPool(poolSize);
+            for (int i = 0; i < poolSize; i++) {
+                submitNamespaceCreation();
+            }
+        }
+    }
+
+    /**
+     * Pool counts idle, in use and pending namespaces, so it is refilled only when some namespace was retired.
+     */
+    private static synchronized void refillPool() {
+        if (executorService == null || executorService.isShutdown()) {
+            return;
+        }
+        int poolSize = ResourceManager.getEnvironment().getNamespacePoolSize();
+        for (int i = POOLED_NAMESPACES.size() + PENDING_NAMESPACES.get(); i < poolSize; i++) {
+            submitNamespaceCreation();
+        }
+    }
+
+    private static void submitNamespaceCreation() {
+        PENDING_NAMESPACES.incrementAndGet();
+        executorService.submit(() -> {
+            try {
+                AVAILABLE_NAMESPACES.offer(createNamespace());
+            } catch (RuntimeException e) {
+                LOGGER.error("[NamespacePool] Failed to prepare namespace: {}", e.getMessage());
+            } finally {
+                PENDING_NAMESPACES.decrementAndGet();
+            }
+        });
+    }
+
+    private static String createNamespace() {
+        String namespace = POOL_NAMESPACE_PREFIX + "-" + TestUtils.getRandomString(5);
+        ResourceManager.getKubeClient().createNamespace(namespace);
+        ArtemisCloudClusterOperator operator = ResourceManager.deployArtemisClusterOperator(namespace);
+        POOLED_NAMESPACES.put(namespace, operator);
+        LOGGER.info("[{}] Prepared pooled namespace", namespace);
+        return namespace;
+    }
+
+    private static void retireNamespace(String namespace) {
+        ArtemisCloudClusterOperator operator = POOLED_NAMESPACES.remove(namespace);
+        Runnable deletion = () -> {
+            LOGGER.info("[{}] Deleting pooled namespace in background", namespace);
+            ResourceManager.undeployArtemisClusterOperator(operator);
+            ResourceManager.getKubeClient().deleteNamespace(namespace);
+        };
+        if (executorService != null && !executorService.isShutdown()) {
+            executorService.submit(deletion);
+        } else {
+            deletion.run();
+        }
+    }
+
+    private static void scrubNamespace(String namespace) {
+        LOGGER.info("[{}] Scrubbing namespace for reuse", namespace);
+        KubernetesClient client = ResourceManager.getKubeClient().getKubernetesClient();
+        String operatorName = POOLED_NAMESPACES.get(namespace).getOperatorName();
+
+        ResourceManager.getArtemisScaledownClient().inNamespace(namespace).delete();
+        ResourceManager.getArtemisSecurityClient().inNamespace(namespace).delete();
+        ResourceManager.getArtemisAddressClient().inNamespace(namespace).delete();
+        ResourceManager.getArtemisClient().inNamespace(namespace).delete();
+        TestUtils.waitFor("ActiveMQArtemis statefulSets to be removed", Constants.DURATION_2_SECONDS, Constants.DURATION_2_MINUTES,
+            () -> client.apps().statefulSets().inNamespace(namespace).list().getItems().isEmpty());
+
+        for (Deployment deployment : client.apps().deployments().inNamespace(namespace).list().getItems()) {
+            if (!deployment.getMetadata().getName().startsWith(operatorName)) {
+                LOGGER.debug("[{}] Deleting deployment {}", namespace, deployment.getMetadata().getName());
+                client.apps().deployments().inNamespace(namespace).resource(deployment).delete();
+            }
+        }
+
+        for (Service service : client.services().inNamespace(namespace).list().getItems()) {
+            if (!service.getMetadata().getName().startsWith(operatorName)) {
+                LOGGER.debug("[{}] Deleting service {}", namespace, service.getMetadata().getName());
+                client.services().inNamespace(namespace).resource(service).delete();
+            }
+        }
+
+        if (ResourceManager.getKubeClient().isOpenshiftPlatform()) {
+            ((OpenShiftClient) client).routes().inNamespace(namespace).delete();
+        } else {
+            client.network().v1().ingresses().inNamespace(namespace).delete();
+        }
+
+        for (ConfigMap configMap : client.configMaps().inNamespace(namespace).list().getItems()) {
+            String name = configMap.getMetadata().getName();
+            Map<String, String> annotations = configMap.getMetadata().getAnnotations();
+            boolean leaderElection = annotations != null && annotations.containsKey(LEADER_ELECTION_ANNOTATION);
+            if (!KEEP_CONFIG_MAPS.contains(name) && !name.startsWith(operatorName) && !leaderElection) {
+                LOGGER.debug("[{}] Deleting configMap {}", namespace, name);
+                client.configMaps().inNamespace(namespace).resource(configMap).delete();
+            }
+        }
+
+        for (Secret secret : client.secrets().inNamespace(namespace).list().getItems()) {
+            if (!KEEP_SECRET_TYPES.contains(secret.getType())) {
+                LOGGER.debug("[{}] Deleting secret {}", namespace, secret.getMetadata().getName());
+                client.secrets().inNamespace(namespace).resource(secret).delete();
+            }
+        }
+
+        client.persistentVolumeClaims().inNamespace(namespace).delete();
+        TestUtils.waitFor("PersistentVolumeClaims to be removed", Constants.DURATION_2_SECONDS, Constants.DURATION_2_MINUTES,
+            () -> client.persistentVolumeClaims().inNamespace(namespace).list().getItems().isEmpty());
+    }
+}
@@ -35,6 +35,7 @@ import io.brokerqe.claire.clients.container.MqttV5Client;
 import io.brokerqe.claire.db.Postgres;
 import io.brokerqe.claire.exception.ClaireNotImplementedException;
 import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.exception.WaitException;
 import io.brokerqe.claire.operator.ArtemisCloudClusterOperator;
 import io.brokerqe.claire.operator.ArtemisCloudClusterOperatorFile;
 import io.brokerqe.claire.operator.ArtemisCloudClusterOperatorOlm;
@@ -47,8 +48,11 @@ import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetStatus;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
 import org.bouncycastle.asn1.ASN1EncodableVector;
 import org.bouncycastle.asn1.DERSequence;
 import org.bouncycastle.asn1.x509.Extension;
@@ -63,9 +67,15 @@ import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @SuppressWarnings({"checkstyle:ClassDataAbstractionCoupling", "checkstyle:ClassFanOutComplexity"})
 public class ResourceManager {
@@ -77,9 +87,9 @@ public class ResourceManager {
     private static MixedOperation<ActiveMQArtemisSecurity, KubernetesResourceList<ActiveMQArtemisSecurity>, Resource<ActiveMQArtemisSecurity>> artemisSecurityClient;
     private static MixedOperation<ActiveMQArtemisScaledown, KubernetesResourceList<ActiveMQArtemisScaledown>, Resource<ActiveMQArtemisScaledown>> artemisScaledownClient;
 
-    private static List<ArtemisCloudClusterOperator> deployedOperators = new ArrayList<>();
+    private static List<ArtemisCloudClusterOperator> deployedOperators = new CopyOnWriteArrayList<>();
     private static Map<Deployment, String> deployedContainers = new HashMap<>();
-    private static List<String> deployedNamespaces = new ArrayList<>();
+    private static List<String> deployedNamespaces = new CopyOnWriteArrayList<>();
     private static List<ActiveMQArtemis> deployedBrokers = new ArrayList<>();
     private static List<ActiveMQArtemisAddress> deployedAddresses = new ArrayList<>();
     private static List<ActiveMQArtemisSecurity> deployedSecurity = new ArrayList<>();
@@ -281,6 +291,112 @@ public class ResourceManager {
         return artemisBroker;
     }
 
+    /**
+     * Submits all provided ActiveMQArtemis and ActiveMQArtemisAddress CRs at once and waits for all brokers using
+     * single shared StatefulSet informer in given namespace (instead of polling each broker one after another).
+     * Each returned future is completed once operator reconciled current generation of given broker and its StatefulSet
+     * has all replicas updated and ready, or completed exceptionally after maxTimeout.
+     * @param namespace where to deploy all CRs
+     * @param brokers ActiveMQArtemis CRs to be deployed
+     * @param addresses ActiveMQArtemisAddress CRs to be deployed (may be empty)
+     * @param maxTimeout how long to wait for all brokers in milliseconds
+     * @return map of broker name with related future (in order of provided brokers)
+     */
+    public static Map<String, CompletableFuture<ActiveMQArtemis>> createArtemisBatch(String namespace, List<ActiveMQArtemis> brokers,
+                                                                                    List<ActiveMQArtemisAddress> addresses, long maxTimeout) {
+        Map<String, CompletableFuture<ActiveMQArtemis>> brokerFutures = new LinkedHashMap<>();
+        Map<String, ActiveMQArtemis> createdBrokers = new HashMap<>();
+        for (ActiveMQArtemis broker : brokers) {
+            ActiveMQArtemis createdBroker = ResourceManager.getArtemisClient().inNamespace(namespace).resource(broker).createOrReplace();
+            ResourceManager.addArtemisBroker(createdBroker);
+            createdBrokers.put(createdBroker.getMetadata().getName(), createdBroker);
+            brokerFutures.put(createdBroker.getMetadata().getName(), new CompletableFuture<ActiveMQArtemis>().orTimeout(maxTimeout, TimeUnit.MILLISECONDS));
+            LOGGER.info("[{}] Submitted ActiveMQArtemis {}", namespace, createdBroker.getMetadata().getName());
+        }
+        createArtemisAddresses(namespace, addresses);
+
+        LOGGER.info("[{}] Waiting {}s for creation of brokers {}", namespace, Duration.ofMillis(maxTimeout).toSeconds(), brokerFutures.keySet());
+        SharedIndexInformer<StatefulSet> informer = kubeClient.getKubernetesClient().apps().statefulSets().inNamespace(namespace)
+                // resync re-checks StatefulSets, which are ready before operator reconciled replaced broker
+                .inform(new ResourceEventHandler<>() {
+                    @Override
+                    public void onAdd(StatefulSet ss) {
+                        checkStatefulSet(ss);
+                    }
+
+                    @Override
+                    public void onUpdate(StatefulSet oldSs, StatefulSet newSs) {
+                        checkStatefulSet(newSs);
+                    }
+
+                    @Override
+                    public void onDelete(StatefulSet ss, boolean deletedFinalStateUnknown) {
+                    }
+
+                    private void checkStatefulSet(StatefulSet ss) {
+                        String brokerName = ss.getMetadata().getName().replaceFirst("-ss$", "");
+                        CompletableFuture<ActiveMQArtemis> brokerFuture = brokerFutures.get(brokerName);
+                        if (brokerFuture != null && !brokerFuture.isDone() && isStatefulSetReady(ss)
+                                && isArtemisReconciled(namespace, createdBrokers.get(brokerName))) {
+                            LOGGER.info("[{}] Broker {} is ready", namespace, brokerName);
+                            brokerFuture.complete(createdBrokers.get(brokerName));
+                        }
+                    }
+                }, Constants.DURATION_5_SECONDS);
+        CompletableFuture.allOf(brokerFutures.values().toArray(new CompletableFuture[0])).whenComplete((result, throwable) -> informer.close());
+        return brokerFutures;
+    }
+
+    /**
+     * Blocking variant of {@link #createArtemisBatch(String, List, List, long)}.
+     * @return deployed brokers once all of them are ready
+     */
+    public static List<ActiveMQArtemis> createArtemisBatchAndWait(String namespace, List<ActiveMQArtemis> brokers,
+                                                                   List<ActiveMQArtemisAddress> addresses, long maxTimeout) {
+        Map<String, CompletableFuture<ActiveMQArtemis>> brokerFutures = createArtemisBatch(namespace, brokers, addresses, maxTimeout);
+        List<ActiveMQArtemis> readyBrokers = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<ActiveMQArtemis>> brokerFuture : brokerFutures.entrySet()) {
+            try {
+                readyBrokers.add(brokerFuture.getValue().get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof TimeoutException) {
+                    String errMsg = String.format("[%s] Timeout %sms reached while waiting for broker %s to be ready", namespace, maxTimeout, brokerFuture.getKey());
+                    LOGGER.error(errMsg);
+                    throw new WaitException(errMsg);
+                }
+                throw new ClaireRuntimeException(e.getMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ClaireRuntimeException(e.getMessage(), e);
+            }
+        }
+        waitForArtemisAddresses(namespace, readyBrokers, addresses, maxTimeout);
+        return readyBrokers;
+    }
+
+    /**
+     * Waits until every address is present on some pod of given brokers.
+     */
+    public static void waitForArtemisAddresses(String namespace, List<ActiveMQArtemis> brokers, List<ActiveMQArtemisAddress> addresses, long maxTimeout) {
+        if (addresses.isEmpty()) {
+            return;
+        }
+        List<Pod> brokerPods = new ArrayList<>();
+        for (ActiveMQArtemis broker : brokers) {
+            brokerPods.addAll(kubeClient.listPodsByPrefixName(namespace, broker.getMetadata().getName() + "-ss"));
+        }
+        LOGGER.info("[{}] Waiting {}s for {} addresses on brokers", namespace, Duration.ofMillis(maxTimeout).toSeconds(), addresses.size());
+        TestUtils.waitFor("ActiveMQArtemisAddresses to be created on brokers", Constants.DURATION_2_SECONDS, maxTimeout, () -> {
+            StringBuilder addressesOutput = new StringBuilder();
+            for (Pod brokerPod : brokerPods) {
+                String command = "amq-broker/bin/artemis address show --url tcp://" + brokerPod.getMetadata().getName() + ":61616";
+                addressesOutput.append(kubeClient.executeCommandInPod(brokerPod, command, Constants.DURATION_1_MINUTE));
+            }
+            String output = addressesOutput.toString();
+            return addresses.stream().allMatch(address -> output.contains(address.getSpec().getAddressName()));
+        });
+    }
+
     public static void deleteArtemis(String namespace, ActiveMQArtemis broker) {
         deleteArtemis(namespace, broker, true, Constants.DURATION_1_MINUTE);
     }
@@ -295,6 +411,22 @@ public class ResourceManager {
         LOGGER.info("[{}] Deleted ActiveMQArtemis {}", namespace, broker.getMetadata().getName());
     }
 
+    /**
+     * Submits all provided ActiveMQArtemisAddress CRs without waiting for operator to reconcile them.
+     * @return created CRs (in order of provided addresses)
+     */
+    public static List<ActiveMQArtemisAddress> createArtemisAddresses(String namespace, List<ActiveMQArtemisAddress> addresses) {
+        List<ActiveMQArtemisAddress> createdAddresses = new ArrayList<>();
+        for (ActiveMQArtemisAddress address : addresses) {
+            ActiveMQArtemisAddress createdAddress = ResourceManager.getArtemisAddressClient().inNamespace(namespace).resource(address).createOrReplace();
+            ResourceManager.addArtemisAddress(createdAddress);
+            createdAddresses.add(createdAddress);
+            LOGGER.debug("[{}] Submitted ActiveMQArtemisAddress {}", namespace, createdAddress.getMetadata().getName());
+        }
+        LOGGER.info("[{}] Submitted {} ActiveMQArtemisAddress CRs", namespace, createdAddresses.size());
+        return createdAddresses;
+    }
+
     public static ActiveMQArtemisAddress createArtemisAddress(String namespace, Path filePath) {
         ActiveMQArtemisAddress artemisAddress = TestUtils.configFromYaml(filePath.toFile(), ActiveMQArtemisAddress.class);
         artemisAddress = ResourceManager.getArtemisAddressClient().inNamespace(namespace).resource(artemisAddress).createOrReplace();
@@ -475,6 +607,31 @@ public class ResourceManager {
         });
     }
 
+    private static boolean isStatefulSetReady(StatefulSet ss) {
+        StatefulSetStatus status = ss.getStatus();
+        if (status == null || status.getObservedGeneration() == null || status.getObservedGeneration() < ss.getMetadata().getGeneration()) {
+            return false;
+        }
+        // Kubernetes defaults unset replicas to 1
+        int replicas = ss.getSpec().getReplicas() == null ? 1 : ss.getSpec().getReplicas();
+        int updatedReplicas = status.getUpdatedReplicas() == null ? 0 : status.getUpdatedReplicas();
+        int readyReplicas = status.getReadyReplicas() == null ? 0 : status.getReadyReplicas();
+        return updatedReplicas == replicas && readyReplicas == replicas;
+    }
+
+    /**
+     * @return true when operator reported status of current (or newer) generation of given broker
+     */
+    private static boolean isArtemisReconciled(String namespace, ActiveMQArtemis broker) {
+        ActiveMQArtemis currentBroker = getArtemisClient().inNamespace(namespace).withName(broker.getMetadata().getName()).get();
+        if (currentBroker == null || currentBroker.getStatus() == null || currentBroker.getStatus().getConditions() == null) {
+            return false;
+        }
+        long generation = broker.getMetadata().getGeneration() == null ? 0L : broker.getMetadata().getGeneration();
+        return currentBroker.getStatus().getConditions().stream()
+                .anyMatch(condition -> condition.getObservedGeneration() != null && condition.getObservedGeneration() >= generation);
+    }
+
     public static void waitForBrokerDeletion(String namespace, String brokerName, long maxTimeout) {
         LOGGER.info("[{}] Waiting {}s for deletion of broker {}", namespace, Duration.ofMillis(maxTimeout).toSeconds(), brokerName);
         TestUtils.waitFor("ActiveMQArtemis statefulSet & related pods to be removed", Constants.DURATION_5_SECONDS, maxTimeout, () -> {
@@ -0,0 +1,129 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.clients;
+
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.clients.bundled.ArtemisCommand;
+import io.brokerqe.claire.clients.bundled.BundledArtemisClient;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.fabric8.kubernetes.api.model.Pod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs {@link ArtemisCommand#PERF_CLIENT} in parallel from multiple pods containing Artemis distribution
+ * (e.g. pods of dedicated ActiveMQArtemis deployment used only as clients).
+ * Output of each pod is parsed by {@link BundledArtemisClient}, so results are the same as from standalone PerformanceTests.
+ */
+public class PerfClientRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PerfClientRunner.class);
+    public static final String RESULT = "result";
+    public static final String TOTAL_SENT = "total_sent";
+    public static final String TOTAL_RECEIVED = "total_received";
+    public static final String CLIENTS = "clients";
+
+    private final String namespace;
+    private final List<Pod> clientPods;
+
+    public PerfClientRunner(String namespace, List<Pod> clientPods) {
+        if (clientPods.isEmpty()) {
+            throw new IllegalArgumentException("At least one client pod is required for perf client");
+        }
+        this.namespace = namespace;
+        this.clientPods = clientPods;
+    }
+
+    public List<Pod> getClientPods() {
+        return clientPods;
+    }
+
+    /**
+     * Executes perf client from all client pods at once and waits for all of them to finish.
+     * @param commandOptions perf client options, {@code url} option is set per client pod
+     * @param brokerUrls urls assigned to client pods in round-robin fashion
+     * @param destination perf client destination, e.g. {@code queue://TEST}
+     * @param maxTimeout maximal time of single perf client execution
+     * @return parsed output of each client pod, in order of client pods
+     */
+    public List<Map<String, String>> run(Map<String, String> commandOptions, List<String> brokerUrls, String destination, long maxTimeout) {
+        ExecutorService executorService = Executors.newFixedThreadPool(clientPods.size());
+        List<Future<Map<String, String>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < clientPods.size(); i++) {
+                Pod clientPod = clientPods.get(i);
+                Map<String, String> clientOptions = new HashMap<>(commandOptions);
+                clientOptions.put("url", brokerUrls.get(i % brokerUrls.size()));
+                LOGGER.info("[{}] [PERF] Starting perf client in {} against {}", namespace, clientPod.getMetadata().getName(), clientOptions.get("url"));
+                BundledArtemisClient perfClient = new BundledArtemisClient(new BundledClientDeployment(namespace, clientPod),
+                        ArtemisCommand.PERF_CLIENT, clientOptions, destination);
+                futures.add(executorService.submit(() -> (Map<String, String>) perfClient.executeCommand(maxTimeout)));
+            }
+
+            List<Map<String, String>> results = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                Map<String, String> result = futures.get(i).get(maxTimeout + Constants.DURATION_1_MINUTE, TimeUnit.MILLISECONDS);
+                LOGGER.debug("[{}] [PERF] {} finished: {}", namespace, clientPods.get(i).getMetadata().getName(), result);
+                results.add(result);
+            }
+            return results;
+        } catch (ExecutionException | TimeoutException e) {
+            String errMsg = String.format("[%s] Perf client execution failed: %s", namespace, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClaireRuntimeException("Interrupted while waiting for perf clients", e);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Aggregates results of parallel perf clients. Message totals are summed, latency percentiles
+     * use the worst value reported by any client. Result is {@code success} only if all clients succeeded.
+     */
+    public static Map<String, String> aggregate(List<Map<String, String>> results) {
+        Map<String, String> aggregated = new HashMap<>();
+        long totalSent = 0;
+        long totalReceived = 0;
+        boolean success = true;
+        for (Map<String, String> result : results) {
+            success &= "success".equals(result.get(RESULT));
+            totalSent += Long.parseLong(result.getOrDefault(TOTAL_SENT, "0"));
+            totalReceived += Long.parseLong(result.getOrDefault(TOTAL_RECEIVED, "0"));
+            for (Map.Entry<String, String> entry : result.entrySet()) {
+                if (entry.getKey().contains("_us_")) {
+                    aggregated.merge(entry.getKey(), entry.getValue(), PerfClientRunner::maxLatency);
+                }
+            }
+        }
+        aggregated.put(RESULT, success ? "success" : "failure");
+        aggregated.put(TOTAL_SENT, String.valueOf(totalSent));
+        aggregated.put(TOTAL_RECEIVED, String.valueOf(totalReceived));
+        aggregated.put(CLIENTS, String.valueOf(results.size()));
+        return aggregated;
+    }
+
+    private static String maxLatency(String previous, String current) {
+        try {
+            return Double.parseDouble(current.trim()) > Double.parseDouble(previous.trim()) ? current : previous;
+        } catch (NumberFormatException e) {
+            LOGGER.warn("[PERF] Unable to compare latencies {} and {}", previous, current);
+            return previous;
+        }
+    }
+}
@@ -4,6 +4,7 @@
  */
 package io.brokerqe.claire.junit;
 
+import io.brokerqe.claire.NamespacePool;
 import io.brokerqe.claire.ResourceManager;
 import io.brokerqe.claire.EnvironmentOperator;
 import okhttp3.OkHttpClient;
@@ -35,6 +36,7 @@ public class OperatorExecutionListener extends ClaireExecutionListener {
     @Override
     public void testPlanExecutionFinished(TestPlan testPlan) {
         LOGGER.debug("Teardown environment started");
+        NamespacePool.shutdown();
         ResourceManager.undeployAllResources();
         if (!testEnvironmentOperator.isOlmInstallation()) {
             ResourceManager.undeployArtemisClusterOperatorCRDs();
@@ -20,13 +20,13 @@ import io.fabric8.openshift.api.model.monitoring.v1.ServiceMonitorBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class Prometheus {
     private static final Logger LOGGER = LoggerFactory.getLogger(Prometheus.class);
@@ -105,25 +105,57 @@ public class Prometheus {
     }
 
     public HashMap<String, String> getMetrics(int index, String brokerName) {
+        return scrapeMetrics(index, brokerName).toSeriesMap();
+    }
+
+    /**
+     * Scrapes and parses metrics of given broker pod.
+     * @return typed samples indexed by metric name and labels
+     */
+    public PrometheusMetrics scrapeMetrics(int index, String brokerName) {
         try {
             HttpURLConnection con = (HttpURLConnection) TestUtils.makeHttpRequest(getMetricsUrl(index, brokerName), Constants.GET);
-            BufferedReader in = new BufferedReader(new InputStreamReader(con.getInputStream()));
-            String inputLine;
-            HashMap<String, String> result = new HashMap<>();
-            while ((inputLine = in.readLine()) != null) {
-                if (!inputLine.startsWith("#")) {
-                    String[] data = inputLine.split(" ");
-                    result.put(data[0], data[1]);
-                }
-            }
-            in.close();
-            return result;
+            long scrapeTime = System.currentTimeMillis();
+            return PrometheusParser.parse(new InputStreamReader(con.getInputStream(), StandardCharsets.UTF_8), scrapeTime,
+                    PrometheusParser.isOpenMetrics(con.getContentType()));
         } catch (Exception e) {
             LOGGER.info("Failed to retrieve metrics from {}: {}", brokerName, e.getMessage());
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Creates (not started) scraper periodically collecting metrics of given broker pod.
+     */
+    public MetricsScraper createScraper(int index, String brokerName, long scrapeIntervalMs) {
+        return new MetricsScraper(() -> scrapeMetrics(index, brokerName), scrapeIntervalMs);
+    }
+
+    /**
+     * Broker JVM statistics for soak tests, named same as standalone JMX statistics (heap_used_bytes, gc_count,
+     * gc_time_ms, threads, open_fds). Statistics not published by metrics plugin (JVM GC, threads and file descriptors
+     * metrics have to be enabled) are omitted.
+     */
+    public Map<String, Double> getJvmStats(int index, String brokerName) {
+        PrometheusMetrics metrics = scrapeMetrics(index, brokerName);
+        Map<String, String> noLabels = Map.of();
+        Map<String, Double> stats = new LinkedHashMap<>();
+        if (metrics.containsMetric("jvm_memory_used_bytes")) {
+            stats.put("heap_used_bytes", metrics.sum("jvm_memory_used_bytes", Map.of("area", "heap")));
+        }
+        if (metrics.containsMetric("jvm_gc_pause_seconds_count")) {
+            stats.put("gc_count", metrics.sum("jvm_gc_pause_seconds_count", noLabels));
+            stats.put("gc_time_ms", metrics.sum("jvm_gc_pause_seconds_sum", noLabels) * 1000);
+        }
+        if (metrics.containsMetric("jvm_threads_live_threads")) {
+            stats.put("threads", metrics.sum("jvm_threads_live_threads", noLabels));
+        }
+        if (metrics.containsMetric("process_files_open_files")) {
+            stats.put("open_fds", metrics.sum("process_files_open_files", noLabels));
+        }
+        return stats;
+    }
+
     public String getMetricsUrl(String brokerName) {
         return getMetricsUrl(0, brokerName);
     }
@@ -137,24 +169,21 @@ public class Prometheus {
         waitForPrometheusPodsDeletion();
     }
 
-    public boolean metricsContainKey(Map<String, String> metrics, String expectedKey) {
-        for (String key : metrics.keySet()) {
-            if (key.contains(expectedKey)) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * @return true if at least one sample of given metric was published
+     */
+    public boolean metricsContainKey(PrometheusMetrics metrics, String metricName) {
+        return metrics.containsMetric(metricName);
     }
 
-    public boolean metricsContainKeyValue(Map<String, String> metrics, String expectedRegexKey) {
-        Pattern pattern = Pattern.compile(expectedRegexKey);
-        for (String key : metrics.keySet()) {
-            Matcher matcher = pattern.matcher(key);
-            if (matcher.find()) {
-                LOGGER.debug("[metrics] Found pattern {} in key {}", expectedRegexKey, key);
-                LOGGER.debug("matcher group={}", matcher.group());
-                return true;
-            }
+    /**
+     * @return true if at least one sample of given metric has all provided labels (other labels are ignored)
+     */
+    public boolean metricsContainKeyValue(PrometheusMetrics metrics, String metricName, Map<String, String> labels) {
+        List<MetricSample> samples = metrics.findSamples(metricName, labels);
+        if (!samples.isEmpty()) {
+            LOGGER.debug("[metrics] Found {}{} in series {}", metricName, labels, samples.get(0).getSeries());
+            return true;
         }
         return false;
     }
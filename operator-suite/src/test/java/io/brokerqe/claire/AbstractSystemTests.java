@@ -14,6 +14,7 @@ import io.brokerqe.claire.clients.MessagingClient;
 import io.brokerqe.claire.clients.bundled.ArtemisCommand;
 import io.brokerqe.claire.clients.bundled.BundledArtemisClient;
 import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.helpers.LogFollower;
 import io.brokerqe.claire.junit.TestSeparator;
 import io.brokerqe.claire.operator.ArtemisCloudClusterOperator;
 import io.fabric8.kubernetes.api.model.Pod;
@@ -33,7 +34,6 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -124,6 +124,33 @@ public abstract class AbstractSystemTests implements TestSeparator {
         getClient().deleteNamespace(testNamespace);
     }
 
+    /**
+     * Acquires namespace with deployed Cluster Operator from {@link NamespacePool}.
+     * If pool is disabled, new random namespace with given prefix is created using {@link #setupDefaultClusterOperator(String)}.
+     * @param nsPrefix namespace name prefix used when pool is disabled
+     * @return name of namespace to be used by test class
+     */
+    protected String setupPooledClusterOperator(String nsPrefix) {
+        getClient();
+        if (NamespacePool.isEnabled()) {
+            String testNamespace = NamespacePool.acquire();
+            operator = NamespacePool.getOperator(testNamespace);
+            return testNamespace;
+        } else {
+            String testNamespace = getRandomNamespaceName(nsPrefix, 3);
+            setupDefaultClusterOperator(testNamespace);
+            return testNamespace;
+        }
+    }
+
+    protected void teardownPooledClusterOperator(String testNamespace) {
+        if (NamespacePool.isPooled(testNamespace)) {
+            NamespacePool.release(testNamespace);
+        } else {
+            teardownDefaultClusterOperator(testNamespace);
+        }
+    }
+
     /******************************************************************************************************************
      *  Helper methods
      ******************************************************************************************************************/
@@ -223,24 +250,17 @@ public abstract class AbstractSystemTests implements TestSeparator {
         int expectedDrainPodsCount = previousSize - newSize;
         Instant now = Instant.now().minus(Duration.ofSeconds(5));
         Pod operatorPod = getClient().getFirstPodByPrefixName(namespace, operatorName);
-        Pattern pattern = Pattern.compile("Drain pod " + brokerName + ".* finished");
+        long deadline = System.currentTimeMillis() + maxTimeout;
 
-        TestUtils.waitFor("Drain pod to finish", Constants.DURATION_5_SECONDS, maxTimeout, () -> {
-            String log = getClient().getLogsFromPod(operatorPod, now);
-            Matcher matcher = pattern.matcher(log);
+        try (LogFollower operatorLog = getClient().followLogsFromPod(operatorPod, now)) {
             int count = 0;
-            while (matcher.find()) {
-                for (int i = previousSize - 1; i >= newSize; i--) {
-                    if (matcher.group().contains(String.valueOf(i))) {
-                        count++;
-                        LOGGER.debug("Found drain: " + matcher.group());
-                        break;
-                    }
-                }
+            for (int i = previousSize - 1; i >= newSize; i--) {
+                String drainLine = operatorLog.awaitPattern("Drain pod " + Pattern.quote(brokerName) + ".*-" + i + " finished",
+                        Math.max(0, deadline - System.currentTimeMillis()));
+                LOGGER.debug("Found drain: " + drainLine);
+                LOGGER.info("[{}] Scaledown in progress. Finished Drainer {}/{}", namespace, ++count, expectedDrainPodsCount);
             }
-            LOGGER.info("[{}] Scaledown in progress. Finished Drainer {}/{}", namespace, count, expectedDrainPodsCount);
-            return count == expectedDrainPodsCount;
-        });
+        }
         // Wait for drainPods to disappear
 
     }
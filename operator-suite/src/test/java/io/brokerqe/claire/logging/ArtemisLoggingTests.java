@@ -12,6 +12,7 @@ import io.brokerqe.claire.Constants;
 import io.brokerqe.claire.ResourceManager;
 import io.brokerqe.claire.TestUtils;
 import io.brokerqe.claire.exception.WaitException;
+import io.brokerqe.claire.helpers.LogFollower;
 import io.brokerqe.claire.junit.TestValidSince;
 import io.fabric8.kubernetes.api.model.Pod;
 import org.junit.jupiter.api.AfterAll;
@@ -26,6 +27,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -66,9 +68,10 @@ public class ArtemisLoggingTests extends AbstractSystemTests {
         ActiveMQArtemis artemis = ResourceManager.createArtemis(testNamespace, artemisName);
         Pod artemisPod = getClient().getFirstPodByPrefixName(testNamespace, artemisName);
 
-        String artemisLogs = getClient().getLogsFromPod(artemisPod);
         LOGGER.info("[{}] Ensure artemis pod logs contains INFO level", testNamespace);
-        assertThat(artemisLogs, containsString(Constants.ARTEMIS_IS_LIVE_LOG_MSG));
+        try (LogFollower artemisLog = getClient().followLogsFromPod(artemisPod)) {
+            artemisLog.awaitPattern(Pattern.quote(Constants.ARTEMIS_IS_LIVE_LOG_MSG), Constants.DURATION_1_MINUTE);
+        }
 
         assertLogIsNotInFilesystem(artemisPod);
 
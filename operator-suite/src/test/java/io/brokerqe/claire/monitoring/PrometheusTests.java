@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -62,18 +63,15 @@ public class PrometheusTests extends AbstractSystemTests {
 
     List<String> keysGc = List.of("jvm_gc_live_data_size_bytes", "jvm_gc_max_data_size_bytes", "jvm_gc_memory_allocated_bytes_total", "jvm_gc_memory_promoted_bytes_total");
 
-    List<String> keysThreads = new ArrayList<>(List.of("jvm_threads_daemon_threads", "jvm_threads_live_threads", "jvm_threads_peak_threads"));
+    List<String> keysThreads = List.of("jvm_threads_daemon_threads", "jvm_threads_live_threads", "jvm_threads_peak_threads");
+
+    List<String> threadStates = List.of("runnable", "blocked", "terminated", "waiting", "timed-waiting", "new");
 
     @BeforeAll
     void setup() {
         prometheus = new Prometheus(testNamespace);
         setupDefaultClusterOperator(testNamespace);
         prometheus.enablePrometheusUserMonitoring();
-        String[] threadStates = {"runnable", "blocked", "terminated", "waiting", "timed-waiting", "new"};
-        for (String item : threadStates) {
-            String key = "jvm_threads_states_threads\\{.*state=\"" + item + "\",.*\\}";
-            keysThreads.add(key);
-        }
     }
 
     @AfterAll
@@ -83,11 +81,31 @@ public class PrometheusTests extends AbstractSystemTests {
     }
 
     HashMap<String, String> getPluginMetrics(String brokerName) {
+        return scrapePluginMetrics(brokerName).toSeriesMap();
+    }
+
+    PrometheusMetrics scrapePluginMetrics(String brokerName) {
         TestUtils.waitFor("Broker Prometheus plugin to initialize", Constants.DURATION_5_SECONDS, Constants.DURATION_1_MINUTE, () -> {
-            HashMap<String, String> metrics = prometheus.getMetrics(0, brokerName);
+            PrometheusMetrics metrics = prometheus.scrapeMetrics(0, brokerName);
             return metrics != null;
         });
-        return prometheus.getMetrics(0, brokerName);
+        return prometheus.scrapeMetrics(0, brokerName);
+    }
+
+    private void assertJvmMetrics(PrometheusMetrics metrics, boolean gcExpected, boolean threadsExpected) {
+        LOGGER.trace("[{}] Got metrics: {}", testNamespace, metrics.getMetricNames());
+        for (String item : keysGc) {
+            assertThat(String.format("%s metric published in GC metrics (expected %s)", item, gcExpected),
+                    prometheus.metricsContainKey(metrics, item), is(gcExpected));
+        }
+        for (String item : keysThreads) {
+            assertThat(String.format("%s metric published in JVM Thread metrics (expected %s)", item, threadsExpected),
+                    prometheus.metricsContainKey(metrics, item), is(threadsExpected));
+        }
+        for (String state : threadStates) {
+            assertThat(String.format("jvm_threads_states_threads{state=%s} metric published in JVM Thread metrics (expected %s)", state, threadsExpected),
+                    prometheus.metricsContainKeyValue(metrics, "jvm_threads_states_threads", Map.of("state", state)), is(threadsExpected));
+        }
     }
 
     private boolean checkPrometheusMetrics(Pod prometheusPod, String curlCmd) {
@@ -240,11 +258,57 @@ public class PrometheusTests extends AbstractSystemTests {
         ResourceManager.deleteArtemis(testNamespace, broker);
     }
 
+    @Test
+    @TestValidSince(ArtemisVersion.VERSION_2_28)
+    void messagesAddedRateTest() {
+        int msgsExpected = 1000;
+        Map<String, String> queueLabels = Map.of("address", ADDRESS_NAME, "queue", QUEUE_NAME);
+        Acceptors amqpAcceptors = createAcceptor(MSG_ACCEPTOR_NAME, "amqp", 5672, true, false, null, true);
+        ActiveMQArtemis broker = new ActiveMQArtemisBuilder()
+                .editOrNewMetadata()
+                    .withName(MONITORING_BROKER_NAME)
+                    .withNamespace(testNamespace)
+                .endMetadata()
+                .editOrNewSpec()
+                    .editOrNewDeploymentPlan()
+                        .withSize(1)
+                        .withEnableMetricsPlugin(true)
+                        .endDeploymentPlan()
+                    .editOrNewConsole()
+                        .withExpose(true)
+                    .endConsole()
+                    .withAcceptors(amqpAcceptors)
+                .endSpec().build();
+        ResourceManager.createArtemis(testNamespace, broker);
+        getPluginMetrics(broker.getMetadata().getName());
+
+        Pod brokerPod = getClient().getFirstPodByPrefixName(testNamespace, MONITORING_BROKER_NAME);
+        Service amqp = getClient().getFirstServiceBrokerAcceptor(testNamespace, MONITORING_BROKER_NAME, MSG_ACCEPTOR_NAME);
+        MessagingClient messagingClientAmqp = ResourceManager.createMessagingClient(ClientType.BUNDLED_AMQP, brokerPod,
+                amqp.getSpec().getPorts().get(0).getPort().toString(), ADDRESS_NAME, QUEUE_NAME, msgsExpected);
+
+        MetricsScraper scraper = prometheus.createScraper(0, broker.getMetadata().getName(), Constants.DURATION_2_SECONDS).start();
+        messagingClientAmqp.sendMessages();
+        TestUtils.waitFor("messages_added metric to be updated", Constants.DURATION_2_SECONDS, Constants.DURATION_1_MINUTE,
+            () -> scraper.getLatest() != null && scraper.getLatest().sum("artemis_messages_added", queueLabels) >= msgsExpected);
+        scraper.stop();
+
+        LOGGER.info("[{}] messages_added increase {}, average rate {}/s, max rate {}/s", testNamespace,
+                scraper.getIncrease("artemis_messages_added", queueLabels), scraper.getRate("artemis_messages_added", queueLabels),
+                scraper.getMaxRate("artemis_messages_added", queueLabels));
+        assertThat("messages_added increase does not match sent messages",
+                scraper.getIncrease("artemis_messages_added", queueLabels), equalTo((double) msgsExpected));
+        assertThat("messages_added rate was not positive", scraper.getMaxRate("artemis_messages_added", queueLabels) > 0, is(true));
+
+        messagingClientAmqp.receiveMessages();
+        ResourceManager.deleteArtemis(testNamespace, broker);
+    }
+
     @Test
     @TestValidSince(ArtemisVersion.VERSION_2_28)
     void jvmMetricsTest() {
         LOGGER.info("[{}] Expected keys for GC metrics: {}", testNamespace, keysGc);
-        LOGGER.info("[{}] Expected keys for JVM Thread metrics: {}", testNamespace, keysThreads);
+        LOGGER.info("[{}] Expected keys for JVM Thread metrics: {} and thread states {}", testNamespace, keysThreads, threadStates);
 
         List<String> brokerProperties = new ArrayList<>();
         brokerProperties.add("metricsConfiguration.jvmThread=true");
@@ -267,14 +331,7 @@ public class PrometheusTests extends AbstractSystemTests {
             .endSpec().build();
 
         ResourceManager.createArtemis(testNamespace, broker);
-        HashMap<String, String> metrics = getPluginMetrics(broker.getMetadata().getName());
-        LOGGER.trace("[{}] Got metrics: {}", testNamespace, metrics);
-        for (String item : keysGc) {
-            assertThat(String.format("%s metric was not published in GC metrics", item), prometheus.metricsContainKey(metrics, item), is(true));
-        }
-        for (String item : keysThreads) {
-            assertThat(String.format("%s metric was not published in JVM Thread metrics", item), prometheus.metricsContainKeyValue(metrics, item), is(true));
-        }
+        assertJvmMetrics(scrapePluginMetrics(broker.getMetadata().getName()), true, true);
         ResourceManager.deleteArtemis(testNamespace, broker);
     }
 
@@ -283,7 +340,7 @@ public class PrometheusTests extends AbstractSystemTests {
     @Disabled("ENTMQBR-7811")
     void jvmMetricsBrokerConfigurationUpdateTest() {
         LOGGER.info("[{}] Expected keys for GC metrics: {}", testNamespace, keysGc);
-        LOGGER.info("[{}] Expected keys for JVM Thread metrics: {}", testNamespace, keysThreads);
+        LOGGER.info("[{}] Expected keys for JVM Thread metrics: {} and thread states {}", testNamespace, keysThreads, threadStates);
 
         ActiveMQArtemis broker = new ActiveMQArtemisBuilder()
             .editOrNewMetadata()
@@ -301,15 +358,7 @@ public class PrometheusTests extends AbstractSystemTests {
             .endSpec().build();
 
         broker = ResourceManager.createArtemis(testNamespace, broker);
-        HashMap<String, String> metrics = getPluginMetrics(broker.getMetadata().getName());
-        for (String item : keysGc) {
-            assertThat(String.format("%s was published by GC metrics when its not expected to be", item),
-                    prometheus.metricsContainKey(metrics, item), is(false));
-        }
-        for (String item : keysThreads) {
-            assertThat(String.format("%s  was published by JVM Thread metrics when its not expected to be", item),
-                    prometheus.metricsContainKeyValue(metrics, item), is(false));
-        }
+        assertJvmMetrics(scrapePluginMetrics(broker.getMetadata().getName()), false, false);
 
         List<String> brokerProperties = new ArrayList<>();
         brokerProperties.add("metricsConfiguration.jvmThread=true");
@@ -319,16 +368,7 @@ public class PrometheusTests extends AbstractSystemTests {
         // DateTime needs to be measured before call to createOrReplace due to timing issues otherwise
         ActiveMQArtemis initialArtemis = ResourceManager.createArtemis(testNamespace, broker);
         ResourceManager.waitForArtemisStatusUpdate(testNamespace, initialArtemis, Constants.CONDITION_TYPE_BROKER_PROPERTIES_APPLIED, Constants.CONDITION_REASON_APPLIED, Constants.DURATION_5_MINUTES);
-        metrics = prometheus.getMetrics(0, broker.getMetadata().getName());
-        LOGGER.trace("[{}] Got metrics: {}", testNamespace, metrics);
-        for (String item : keysGc) {
-            assertThat(String.format("%s was published by GC metrics when its not expected to be", item),
-                    prometheus.metricsContainKey(metrics, item), is(false));
-        }
-        for (String item : keysThreads) {
-            assertThat(String.format("%s was not published by JVM Thread metrics when its expected to be", item),
-                    prometheus.metricsContainKeyValue(metrics, item), is(true));
-        }
+        assertJvmMetrics(prometheus.scrapeMetrics(0, broker.getMetadata().getName()), false, true);
 
         brokerProperties.add("metricsConfiguration.jvmGc=true");
         broker.getSpec().setBrokerProperties(brokerProperties);
@@ -338,16 +378,7 @@ public class PrometheusTests extends AbstractSystemTests {
         ResourceManager.waitForArtemisStatusUpdate(testNamespace, initialArtemis, Constants.CONDITION_TYPE_BROKER_PROPERTIES_APPLIED, Constants.CONDITION_REASON_APPLIED, Constants.DURATION_5_MINUTES);
         LOGGER.info("[{}] waiting for Broker pod {} to reload BrokerProperties configuration", testNamespace, broker.getMetadata().getName());
         TestUtils.threadSleep(Constants.DURATION_5_SECONDS);
-        metrics = prometheus.getMetrics(0, broker.getMetadata().getName());
-        LOGGER.trace("[{}] Got metrics: {}", testNamespace, metrics);
-        for (String item : keysGc) {
-            assertThat(String.format("%s was not published by GC metrics when its expected to be", item),
-                    prometheus.metricsContainKey(metrics, item), is(true));
-        }
-        for (String item : keysThreads) {
-            assertThat(String.format("%s was not published by JVM Thread metrics when its expected to be", item),
-                    prometheus.metricsContainKeyValue(metrics, item), is(true));
-        }
+        assertJvmMetrics(prometheus.scrapeMetrics(0, broker.getMetadata().getName()), true, true);
         ResourceManager.deleteArtemis(testNamespace, broker);
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.amq.broker.v1beta1.ActiveMQArtemis;
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.clients.mqtt.MqttFanoutBenchmark;
+import io.brokerqe.claire.helpers.JolokiaHelper;
+import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.ServicePortBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * MQTT connection storm and subscription fan-out benchmark (see {@link MqttFanoutBenchmark}) against broker deployed
+ * by operator, for every QoS level. Routes and Ingresses can not carry plain MQTT, so broker pod is reached from test
+ * JVM via NodePort service pointing to its default acceptor (all protocols) and broker heap is read over jolokia.
+ */
+public class MqttLoadTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MqttLoadTests.class);
+    private static final String BROKER_NAME = "mqtt-load";
+    private static final String SERVICE_NAME = BROKER_NAME + "-mqtt-nodeport";
+    private static final int ACCEPTOR_PORT = 61616;
+    /** cumulative number of device connections in every step */
+    private static final int[] CONNECTIONS = {5_000, 10_000, 20_000};
+
+    private final String testNamespace = getRandomNamespaceName("mqtt-perf", 3);
+    private ActiveMQArtemis broker;
+    private Service service;
+    private String resultsDir;
+
+    @BeforeAll
+    void setupClusterOperator() {
+        setupDefaultClusterOperator(testNamespace);
+        resultsDir = Constants.PERFORMANCE_DIR + "/mqtt";
+        TestUtils.createDirectory(resultsDir);
+        broker = ResourceManager.createArtemis(testNamespace, BROKER_NAME, 1, false, false, true);
+        Pod brokerPod = getClient().getFirstPodByPrefixName(testNamespace, BROKER_NAME);
+        service = new ServiceBuilder()
+            .editOrNewMetadata()
+                .withName(SERVICE_NAME)
+            .endMetadata()
+            .editOrNewSpec()
+                .withType("NodePort")
+                .withPorts(new ServicePortBuilder()
+                    .withName("all")
+                    .withPort(ACCEPTOR_PORT)
+                    .withTargetPort(new IntOrString(ACCEPTOR_PORT))
+                    .build())
+                .withSelector(Map.of("statefulset.kubernetes.io/pod-name", brokerPod.getMetadata().getName()))
+            .endSpec()
+            .build();
+        service = getKubernetesClient().services().inNamespace(testNamespace).resource(service).createOrReplace();
+    }
+
+    @AfterAll
+    void teardownClusterOperator() {
+        getKubernetesClient().resource(service).inNamespace(testNamespace).delete();
+        ResourceManager.deleteArtemis(testNamespace, broker);
+        teardownDefaultClusterOperator(testNamespace);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2})
+    void connectionStormFanoutTest(int qos) {
+        String artemisVersion = Environment.get().getArtemisVersion();
+        String consoleHost = getClient().getExternalAccessServiceUrl(testNamespace, BROKER_NAME + "-" + Constants.WEBCONSOLE_URI_PREFIX + "-0-svc-rte");
+        String nodeHost = getClient().getFirstPodByPrefixName(testNamespace, BROKER_NAME).getStatus().getHostIP();
+        int nodePort = service.getSpec().getPorts().get(0).getNodePort();
+        LOGGER.info("[{}] Using MQTT endpoint {}:{}", testNamespace, nodeHost, nodePort);
+
+        MqttFanoutBenchmark benchmark = new MqttFanoutBenchmark(nodeHost, nodePort, () -> JolokiaHelper.getRetainedHeap(consoleHost))
+                .withCredentials(Constants.ARTEMIS_INSTANCE_USER_NAME, Constants.ARTEMIS_INSTANCE_USER_PASS)
+                .withConnectionSteps(CONNECTIONS)
+                .withQos(qos);
+        Map<String, String> results = benchmark.run();
+        results.put("profile_artemis_version", artemisVersion);
+        LOGGER.info("[{}] MQTT QoS {} results: {}", testNamespace, qos, results);
+
+        String resultsFile = String.format("%s/results_qos%d_%s", resultsDir, qos, artemisVersion);
+        TestUtils.createFile(resultsFile + ".json", TestUtils.convertMapToJson(results));
+        TestUtils.createFile(resultsFile + "_series.csv", benchmark.getSeriesCsv());
+        assertThat(results.get("failed_connections"), equalTo("0"));
+        assertThat(results.get("lost_connections"), equalTo("0"));
+    }
+}
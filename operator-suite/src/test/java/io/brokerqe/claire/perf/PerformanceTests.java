@@ -0,0 +1,268 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.amq.broker.v1beta1.ActiveMQArtemis;
+import io.amq.broker.v1beta1.ActiveMQArtemisBuilder;
+import io.amq.broker.v1beta1.activemqartemisspec.Acceptors;
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.EnvironmentOperator;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.clients.PerfClientRunner;
+import io.brokerqe.claire.monitoring.JfrRecorder;
+import io.brokerqe.claire.security.CertificateManager;
+import io.brokerqe.claire.security.KeyStoreData;
+import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.Pod;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Runs `artemis perf client` from pods of dedicated client deployment against broker acceptors.
+ * Broker size, resource limits, storage class and number of client pods are taken from PERF_* environment variables
+ * and stored together with results, so runs with different settings can be compared.
+ */
+public class PerformanceTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PerformanceTests.class);
+    private static final String BROKER_NAME = "perf-broker";
+    private static final String CLIENTS_NAME = "perf-clients";
+    private static final String PLAIN_ACCEPTOR = "perf-plain";
+    private static final String TLS_ACCEPTOR = "perf-tls";
+    private static final int PLAIN_PORT = 61626;
+    private static final int TLS_PORT = 61627;
+    private static final String BROKER_SECRET = "perf-broker-tls";
+    private static final String CLIENT_SECRET = "perf-client-tls";
+    private static final String DESTINATION = "queue://PERF_QUEUE";
+
+    private String testNamespace;
+    private String testNameDir;
+    private ActiveMQArtemis broker;
+    private ActiveMQArtemis clients;
+    private PerfClientRunner perfClientRunner;
+    private String clientTrustStorePath;
+    private String clientTrustStorePassword;
+    private final Map<String, String> profile = new HashMap<>();
+
+    @BeforeAll
+    void setupEnv() {
+        testNamespace = setupPooledClusterOperator("perf-tests");
+        EnvironmentOperator environment = ResourceManager.getEnvironment();
+        int brokerSize = environment.getPerfBrokerSize();
+        int clientPods = environment.getPerfClientPods();
+        Map<String, IntOrString> limits = new HashMap<>();
+        if (environment.getPerfBrokerCpuLimit() != null) {
+            limits.put("cpu", new IntOrString(environment.getPerfBrokerCpuLimit()));
+        }
+        if (environment.getPerfBrokerMemoryLimit() != null) {
+            limits.put("memory", new IntOrString(environment.getPerfBrokerMemoryLimit()));
+        }
+
+        profile.put("broker_size", String.valueOf(brokerSize));
+        profile.put("broker_cpu_limit", String.valueOf(environment.getPerfBrokerCpuLimit()));
+        profile.put("broker_memory_limit", String.valueOf(environment.getPerfBrokerMemoryLimit()));
+        profile.put("storage_class", String.valueOf(environment.getPerfStorageClass()));
+        profile.put("client_pods", String.valueOf(clientPods));
+        profile.put("artemis_version", String.valueOf(environment.getArtemisVersion()));
+        LOGGER.info("[{}] Performance profile {}", testNamespace, profile);
+
+        Acceptors plainAcceptor = createAcceptor(PLAIN_ACCEPTOR, "CORE,AMQP", PLAIN_PORT);
+        Acceptors tlsAcceptor = createAcceptor(TLS_ACCEPTOR, "CORE,AMQP", TLS_PORT, true, true, BROKER_SECRET, false);
+        broker = new ActiveMQArtemisBuilder()
+            .editOrNewMetadata()
+                .withName(BROKER_NAME)
+                .withNamespace(testNamespace)
+            .endMetadata()
+            .editOrNewSpec()
+                .editOrNewDeploymentPlan()
+                    .withSize(brokerSize)
+                    .withPersistenceEnabled()
+                    .editOrNewStorage()
+                        .withStorageClassName(environment.getPerfStorageClass())
+                    .endStorage()
+                    .editOrNewResources()
+                        .withLimits(limits.isEmpty() ? null : limits)
+                    .endDeploymentplanResources()
+                .endDeploymentPlan()
+                .withAcceptors(List.of(plainAcceptor, tlsAcceptor))
+            .endSpec()
+            .build();
+
+        Map<String, KeyStoreData> keystores = CertificateManager.generateDefaultCertificateKeystores(
+                ResourceManager.generateDefaultBrokerDN(),
+                ResourceManager.generateDefaultClientDN(),
+                List.of(ResourceManager.generateSanDnsNames(broker, List.of(TLS_ACCEPTOR))),
+                null
+        );
+        getClient().createSecretEncodedData(testNamespace, BROKER_SECRET, CertificateManager.createBrokerKeystoreSecret(keystores));
+        getClient().createSecretEncodedData(testNamespace, CLIENT_SECRET, CertificateManager.createClientKeystoreSecret(keystores));
+        // secrets from spec.deploymentPlan.extraMounts are mounted into /amq/extra/secrets/<secret name>/
+        clientTrustStorePath = "/amq/extra/secrets/" + CLIENT_SECRET + "/" + Constants.CLIENT_TRUSTSTORE_ID;
+        clientTrustStorePassword = keystores.get(Constants.CLIENT_TRUSTSTORE_ID).getPassword();
+
+        // Client pods are regular broker pods, only their Artemis distribution is used to run perf client
+        clients = new ActiveMQArtemisBuilder()
+            .editOrNewMetadata()
+                .withName(CLIENTS_NAME)
+                .withNamespace(testNamespace)
+            .endMetadata()
+            .editOrNewSpec()
+                .editOrNewDeploymentPlan()
+                    .withSize(clientPods)
+                    .editOrNewExtraMounts()
+                        .withSecrets(CLIENT_SECRET)
+                    .endExtraMounts()
+                .endDeploymentPlan()
+            .endSpec()
+            .build();
+
+        broker = ResourceManager.createArtemis(testNamespace, broker, true, Constants.DURATION_5_MINUTES);
+        clients = ResourceManager.createArtemis(testNamespace, clients, true, Constants.DURATION_5_MINUTES);
+        perfClientRunner = new PerfClientRunner(testNamespace, getClient().listPodsByPrefixName(testNamespace, CLIENTS_NAME));
+        TestUtils.createDirectory(Constants.PERFORMANCE_DIR);
+    }
+
+    @AfterAll
+    void teardownEnv() {
+        ResourceManager.deleteArtemis(testNamespace, clients);
+        ResourceManager.deleteArtemis(testNamespace, broker);
+        getClient().deleteSecret(testNamespace, BROKER_SECRET);
+        getClient().deleteSecret(testNamespace, CLIENT_SECRET);
+        teardownPooledClusterOperator(testNamespace);
+    }
+
+    @BeforeEach
+    void init(TestInfo testInfo) {
+        this.testInfo = testInfo;
+        String testName = testInfo.getTestMethod().orElseThrow().getName().toLowerCase(Locale.ROOT);
+        testNameDir = Constants.PERFORMANCE_DIR + "/" + testName;
+        TestUtils.createDirectory(testNameDir);
+    }
+
+    private String getProfileId() {
+        return String.format("size%s_cpu%s_mem%s_sc%s_clients%s", profile.get("broker_size"), profile.get("broker_cpu_limit"),
+                profile.get("broker_memory_limit"), profile.get("storage_class"), profile.get("client_pods"));
+    }
+
+    /**
+     * @return in-cluster hostnames of all broker pods (through headless service)
+     */
+    private List<String> getBrokerPodHosts() {
+        List<String> hosts = new ArrayList<>();
+        for (int i = 0; i < broker.getSpec().getDeploymentPlan().getSize(); i++) {
+            hosts.add(String.format("%s-ss-%d.%s-hdls-svc.%s.svc.cluster.local", BROKER_NAME, i, BROKER_NAME, testNamespace));
+        }
+        return hosts;
+    }
+
+    private String getBrokerUrl(String protocol, String host, int port, boolean tls) {
+        if (protocol.equals("amqp")) {
+            if (tls) {
+                return String.format("amqps://%s:%d?transport.trustStoreLocation=%s&transport.trustStorePassword=%s&transport.verifyHost=false",
+                        host, port, clientTrustStorePath, clientTrustStorePassword);
+            }
+            return String.format("amqp://%s:%d", host, port);
+        } else {
+            if (tls) {
+                return String.format("tcp://%s:%d?sslEnabled=true&trustStorePath=%s&trustStorePassword=%s&sniHost=%s",
+                        host, port, clientTrustStorePath, clientTrustStorePassword, host);
+            }
+            return String.format("tcp://%s:%d", host, port);
+        }
+    }
+
+    /**
+     * With enabled {@link Constants#EV_PERF_PROFILING} starts JFR recording in every broker pod.
+     */
+    private Map<String, JfrRecorder> startJfrRecordings(String recordingName) {
+        Map<String, JfrRecorder> recorders = new HashMap<>();
+        if (ResourceManager.getEnvironment().isPerfProfiling()) {
+            for (Pod brokerPod : getClient().listPodsByPrefixName(testNamespace, BROKER_NAME)) {
+                recorders.put(brokerPod.getMetadata().getName(), getClient().startJfrRecording(brokerPod, recordingName));
+            }
+        }
+        return recorders;
+    }
+
+    private void runPerfClient(String protocol, String acceptorType, List<String> brokerUrls) {
+        LOGGER.info("[{}] Test Performance of {} messaging via {} acceptor", testNamespace, protocol, acceptorType);
+        Map<String, String> perfClientOptions = Map.of(
+                "duration", "120",
+                "protocol", protocol,
+                "producers", "1",
+                "consumers", "1",
+                "threads", "1",
+                "warmup", "10",
+                "persistent", "",
+                "show-latency", ""
+        );
+        String recordingName = acceptorType + "_" + protocol;
+        Map<String, JfrRecorder> recorders = startJfrRecordings(recordingName);
+        List<Map<String, String>> clientResults;
+        Map<String, String> profiling = new HashMap<>();
+        try {
+            clientResults = perfClientRunner.run(perfClientOptions, brokerUrls, DESTINATION, Constants.DURATION_5_MINUTES);
+        } finally {
+            recorders.forEach((podName, recorder) -> recorder.stop(testNameDir + "/jfr_" + podName).toMap()
+                    .forEach((key, value) -> profiling.put(podName + "_" + key, value)));
+        }
+        Map<String, String> perfOutput = PerfClientRunner.aggregate(clientResults);
+        LOGGER.info("[{}] {}", testNamespace, perfOutput);
+
+        Map<String, String> results = new HashMap<>(perfOutput);
+        results.putAll(profiling);
+        profile.forEach((key, value) -> results.put("profile_" + key, value));
+        results.put("profile_acceptor", acceptorType);
+        results.put("profile_protocol", protocol);
+        TestUtils.createFile(testNameDir + "/results_" + protocol + "_" + getProfileId() + ".json", TestUtils.convertMapToJson(results));
+        for (int i = 0; i < clientResults.size(); i++) {
+            TestUtils.createFile(testNameDir + "/results_" + protocol + "_" + getProfileId() + "_client" + i + ".json",
+                    TestUtils.convertMapToJson(clientResults.get(i)));
+        }
+
+        assertThat("performance test ended successfully", perfOutput.get(PerfClientRunner.RESULT), equalTo("success"));
+        assertThat("total send = total received", perfOutput.get(PerfClientRunner.TOTAL_SENT), equalTo(perfOutput.get(PerfClientRunner.TOTAL_RECEIVED)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"core", "amqp"})
+    public void testPlainAcceptor(String protocol) {
+        List<String> brokerUrls = getBrokerPodHosts().stream().map(host -> getBrokerUrl(protocol, host, PLAIN_PORT, false)).toList();
+        runPerfClient(protocol, "plain", brokerUrls);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"core", "amqp"})
+    public void testTlsAcceptor(String protocol) {
+        List<String> brokerUrls = getBrokerPodHosts().stream().map(host -> getBrokerUrl(protocol, host, TLS_PORT, true)).toList();
+        runPerfClient(protocol, "tls", brokerUrls);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"core", "amqp"})
+    public void testExternalAcceptor(String protocol) {
+        // TLS acceptor is exposed by passthrough Route (or Ingress with ssl-passthrough) on port 443
+        List<String> hosts = getClient().getExternalAccessServiceUrlPrefixName(testNamespace, BROKER_NAME + "-" + TLS_ACCEPTOR);
+        List<String> brokerUrls = hosts.stream().map(host -> getBrokerUrl(protocol, host, 443, true)).toList();
+        runPerfClient(protocol, "external", brokerUrls);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.amq.broker.v1beta1.ActiveMQArtemis;
+import io.amq.broker.v1beta1.ActiveMQArtemisBuilder;
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.clients.BundledClientDeployment;
+import io.brokerqe.claire.clients.bundled.RedistributionBenchmark;
+import io.fabric8.kubernetes.api.model.Pod;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures message redistribution between pods of N-replica ActiveMQArtemis with growing size, for combinations of
+ * message load balancing policy and redistribution delay (set by broker properties). Perf client runs in the first
+ * broker pod, producer is connected to the first pod and consumer to the last pod ({@link RedistributionBenchmark}),
+ * measurement starts after cluster topology of every pod has all pods.
+ */
+public class RedistributionPerformanceTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedistributionPerformanceTests.class);
+    private static final String BROKER_NAME = "redistribution";
+    private static final String CLUSTER_CONNECTION = "my-cluster";
+    private static final String DESTINATION = "queue://REDISTRIBUTION_QUEUE";
+
+    /** message load balancing type and redistribution delay (ms) */
+    private static final String[][] SCENARIOS = {
+        {"ON_DEMAND", "0"},
+        {"ON_DEMAND", "5000"},
+        {"OFF_WITH_REDISTRIBUTION", "0"},
+    };
+
+    private final String testNamespace = getRandomNamespaceName("redistribution-perf", 3);
+    private String resultsDir;
+
+    @BeforeAll
+    void setupClusterOperator() {
+        setupDefaultClusterOperator(testNamespace);
+        resultsDir = Constants.PERFORMANCE_DIR + "/redistribution";
+        TestUtils.createDirectory(resultsDir);
+    }
+
+    @AfterAll
+    void teardownClusterOperator() {
+        teardownDefaultClusterOperator(testNamespace);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 4})
+    void testRedistribution(int clusterSize) {
+        String artemisVersion = Environment.get().getArtemisVersion();
+        for (String[] scenario : SCENARIOS) {
+            String loadBalancing = scenario[0];
+            String redistributionDelay = scenario[1];
+            String scenarioId = String.format("%s_delay%s", loadBalancing.toLowerCase(Locale.ROOT), redistributionDelay);
+            ActiveMQArtemis broker = new ActiveMQArtemisBuilder()
+                .editOrNewMetadata()
+                    .withName(BROKER_NAME)
+                    .withNamespace(testNamespace)
+                .endMetadata()
+                .editOrNewSpec()
+                    .editOrNewDeploymentPlan()
+                        .withSize(clusterSize)
+                        .withPersistenceEnabled()
+                    .endDeploymentPlan()
+                    .withBrokerProperties(List.of(
+                        "clusterConfigurations." + CLUSTER_CONNECTION + ".messageLoadBalancingType=" + loadBalancing,
+                        "addressSettings.\"#\".redistributionDelay=" + redistributionDelay
+                    ))
+                .endSpec()
+                .build();
+            broker = ResourceManager.createArtemis(testNamespace, broker, true, Constants.DURATION_5_MINUTES);
+            try {
+                Map<String, String> results = measureScenario(clusterSize);
+                results.put("profile_cluster_size", String.valueOf(clusterSize));
+                results.put("profile_message_load_balancing", loadBalancing);
+                results.put("profile_redistribution_delay", redistributionDelay);
+                results.put("profile_rate", RedistributionBenchmark.RATE);
+                results.put("profile_artemis_version", artemisVersion);
+                LOGGER.info("[{}] Redistribution {} of {} pods: {}", testNamespace, scenarioId, clusterSize, results);
+                TestUtils.createFile(String.format("%s/results_operator_%s_pods%d_%s.json", resultsDir, scenarioId, clusterSize, artemisVersion),
+                        TestUtils.convertMapToJson(results));
+            } finally {
+                ResourceManager.deleteArtemis(testNamespace, broker, true, Constants.DURATION_2_MINUTES);
+            }
+        }
+    }
+
+    private Map<String, String> measureScenario(int clusterSize) {
+        Pod firstPod = getClient().getFirstPodByPrefixName(testNamespace, BROKER_NAME + "-ss-0");
+        waitForClusterTopology(clusterSize);
+        RedistributionBenchmark benchmark = new RedistributionBenchmark(new BundledClientDeployment(testNamespace, firstPod), DESTINATION);
+        return benchmark.measure(getBrokerUrl(0), getBrokerUrl(clusterSize - 1));
+    }
+
+    /**
+     * Waits until cluster bridges of every broker pod are formed, i.e. topology of every pod has all cluster members.
+     */
+    private void waitForClusterTopology(int clusterSize) {
+        List<Pod> brokerPods = getClient().listPodsByPrefixName(testNamespace, BROKER_NAME + "-ss");
+        TestUtils.waitFor("cluster topology of " + clusterSize + " brokers", Constants.DURATION_2_SECONDS, Constants.DURATION_2_MINUTES, () -> {
+            for (Pod brokerPod : brokerPods) {
+                String command = String.format("amq-broker/bin/artemis check node --peers %d --url tcp://%s:61616",
+                        clusterSize, brokerPod.getMetadata().getName());
+                String output = getClient().executeCommandInPod(brokerPod, command, Constants.DURATION_1_MINUTE);
+                if (output == null || !output.contains("Failures: 0") || !output.contains("Errors: 0")) {
+                    LOGGER.debug("[{}] Cluster topology of {} not formed yet: {}", testNamespace, brokerPod.getMetadata().getName(), output);
+                    return false;
+                }
+            }
+            return true;
+        });
+        LOGGER.info("[{}] Cluster of {} broker pods formed", testNamespace, clusterSize);
+    }
+
+    /**
+     * @return url of default acceptor of given broker pod (through headless service)
+     */
+    private String getBrokerUrl(int podIndex) {
+        return String.format("tcp://%s-ss-%d.%s-hdls-svc.%s.svc.cluster.local:61616", BROKER_NAME, podIndex, BROKER_NAME, testNamespace);
+    }
+}
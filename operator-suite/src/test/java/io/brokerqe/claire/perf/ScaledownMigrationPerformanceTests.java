@@ -0,0 +1,189 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.amq.broker.v1beta1.ActiveMQArtemis;
+import io.amq.broker.v1beta1.ActiveMQArtemisAddress;
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.clients.BundledClientDeployment;
+import io.brokerqe.claire.clients.bundled.ArtemisCommand;
+import io.brokerqe.claire.clients.bundled.BundledArtemisClient;
+import io.fabric8.kubernetes.api.model.Pod;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Measures message migration on scaledown (see {@link io.brokerqe.claire.messaging.MessageMigrationTests} for
+ * functional coverage). Messages are preloaded evenly to all pods, broker is scaled down to single pod and recorded is
+ * time until drain controller finishes all drain pods, migration throughput and time until all messages are
+ * consumable on the remaining pod. Non-persistent messages are not migrated, so only the surviving count is recorded
+ * for them.
+ */
+public class ScaledownMigrationPerformanceTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScaledownMigrationPerformanceTests.class);
+    private static final String QUEUE = "migration-perf";
+    private static final String DESTINATION = "queue://" + QUEUE;
+    private static final int SCALED_DOWN_SIZE = 1;
+    /** total number of preloaded messages (divided by message kind divider) */
+    private static final long[] MESSAGES = {1_000_000, 2_000_000};
+    /** name, persistent, message size (bytes) and divider of preloaded messages count */
+    private static final String[][] MESSAGE_KINDS = {
+        {"persistent", "true", "1024", "1"},
+        {"non-persistent", "false", "1024", "1"},
+        {"large", "true", "204800", "500"},
+    };
+    private static final long CLIENT_TIMEOUT = TimeUnit.MINUTES.toMillis(30);
+
+    private final String testNamespace = getRandomNamespaceName("migration-perf", 3);
+    private String resultsDir;
+
+    @BeforeAll
+    void setupClusterOperator() {
+        setupDefaultClusterOperator(testNamespace);
+        resultsDir = Constants.PERFORMANCE_DIR + "/migration";
+        TestUtils.createDirectory(resultsDir);
+    }
+
+    @AfterAll
+    void teardownClusterOperator() {
+        teardownDefaultClusterOperator(testNamespace);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 4})
+    void testScaledownMigration(int initialSize) {
+        String artemisVersion = Environment.get().getArtemisVersion();
+        for (long messages : MESSAGES) {
+            for (String[] messageKind : MESSAGE_KINDS) {
+                String kind = messageKind[0];
+                boolean persistent = Boolean.parseBoolean(messageKind[1]);
+                String messageSize = messageKind[2];
+                long kindMessages = messages / Long.parseLong(messageKind[3]);
+                Map<String, String> results = measureScaledown(initialSize, kind, persistent, messageSize, kindMessages);
+                results.put("profile_initial_size", String.valueOf(initialSize));
+                results.put("profile_scaled_down_size", String.valueOf(SCALED_DOWN_SIZE));
+                results.put("profile_message_kind", kind);
+                results.put("profile_message_size", messageSize);
+                results.put("profile_messages", String.valueOf(kindMessages));
+                results.put("profile_artemis_version", artemisVersion);
+                LOGGER.info("[{}] Scaledown {} -> {} with {} {} messages: {}", testNamespace, initialSize, SCALED_DOWN_SIZE,
+                        kindMessages, kind, results);
+                TestUtils.createFile(String.format("%s/results_%s_%d_pods%d_%s.json", resultsDir, kind, kindMessages, initialSize, artemisVersion),
+                        TestUtils.convertMapToJson(results));
+            }
+        }
+    }
+
+    private Map<String, String> measureScaledown(int initialSize, String kind, boolean persistent, String messageSize, long messages) {
+        // unique name, PVCs with journal of previous broker are not removed together with it
+        String brokerName = String.format("mm%d-%s-%dk", initialSize, kind, messages / 1000);
+        ActiveMQArtemisAddress address = ResourceManager.createArtemisAddress(testNamespace, QUEUE, QUEUE);
+        ActiveMQArtemis broker = ResourceManager.createArtemis(testNamespace, brokerName, initialSize);
+        Map<String, String> results = new HashMap<>();
+
+        List<Pod> brokerPods = getClient().listPodsByPrefixName(testNamespace, brokerName);
+        long messagesPerPod = messages / initialSize;
+        long start = System.nanoTime();
+        for (Pod pod : brokerPods) {
+            preload(pod, persistent, messageSize, messagesPerPod);
+        }
+        results.put("preload_ms", toMillis(System.nanoTime() - start));
+        long preloaded = messagesPerPod * initialSize;
+        long remainingPodMessages = getMessageCount(brokerPods.get(0));
+        long migrating = persistent ? preloaded - remainingPodMessages : 0;
+
+        LOGGER.info("[{}] Starting measured scaledown {} -> {}", testNamespace, initialSize, SCALED_DOWN_SIZE);
+        start = System.nanoTime();
+        broker.getSpec().getDeploymentPlan().setSize(SCALED_DOWN_SIZE);
+        broker = ResourceManager.getArtemisClient().inNamespace(testNamespace).resource(broker).createOrReplace();
+        // every drained pod gets 5 minutes per million of migrated messages
+        long drainTimeout = (initialSize - SCALED_DOWN_SIZE) * Constants.DURATION_5_MINUTES * Math.max(1, messagesPerPod / 1_000_000);
+        waitForScaleDownDrainer(testNamespace, operator.getOperatorName(), brokerName, drainTimeout, initialSize, SCALED_DOWN_SIZE);
+        double drainSeconds = toSeconds(System.nanoTime() - start);
+        results.put("drain_ms", toMillis(System.nanoTime() - start));
+        results.put("migrated_messages", String.valueOf(migrating));
+        results.put("migration_rate", String.format(Locale.ROOT, "%.1f", migrating / drainSeconds));
+
+        Pod remainingPod = getClient().listPodsByPrefixName(testNamespace, brokerName).get(0);
+        long expectedMessages = remainingPodMessages + migrating;
+        TestUtils.waitFor("all migrated messages to be consumable on " + remainingPod.getMetadata().getName(),
+                Constants.DURATION_1_SECOND, drainTimeout, () -> getMessageCount(remainingPod) >= expectedMessages);
+        results.put("consumable_ms", toMillis(System.nanoTime() - start));
+
+        Map<String, String> consumerOptions = Map.of(
+                "url", getPodUrl(remainingPod),
+                "message-count", String.valueOf(expectedMessages)
+        );
+        start = System.nanoTime();
+        Map<String, String> consumerOutput = (Map<String, String>) new BundledArtemisClient(new BundledClientDeployment(testNamespace, remainingPod),
+                ArtemisCommand.PERF_CONSUMER, consumerOptions, DESTINATION).executeCommand(CLIENT_TIMEOUT);
+        results.put("consume_rate", String.format(Locale.ROOT, "%.1f", expectedMessages / toSeconds(System.nanoTime() - start)));
+        consumerOutput.forEach((key, value) -> results.put("consumer_" + key, value));
+        results.put("preloaded_messages", String.valueOf(preloaded));
+        results.put("consumed_messages", String.valueOf(expectedMessages));
+        assertThat("Messages left on remaining pod after consuming all migrated messages", getMessageCount(remainingPod), equalTo(0L));
+
+        ResourceManager.deleteArtemisAddress(testNamespace, address);
+        ResourceManager.deleteArtemis(testNamespace, broker);
+        return results;
+    }
+
+    private void preload(Pod pod, boolean persistent, String messageSize, long messages) {
+        Map<String, String> producerOptions = new HashMap<>(Map.of(
+                "url", getPodUrl(pod),
+                "message-count", String.valueOf(messages),
+                "message-size", messageSize,
+                "max-pending", "1000"
+        ));
+        if (persistent) {
+            producerOptions.put("persistent", "");
+        }
+        LOGGER.info("[{}] Preloading {} messages to {}", testNamespace, messages, pod.getMetadata().getName());
+        new BundledArtemisClient(new BundledClientDeployment(testNamespace, pod), ArtemisCommand.PERF_PRODUCER, producerOptions, DESTINATION)
+                .executeCommand(CLIENT_TIMEOUT);
+    }
+
+    private long getMessageCount(Pod pod) {
+        Map<String, String> queueStatOptions = Map.of(
+                "queueName", QUEUE,
+                "maxColumnSize", "-1",
+                "url", getPodUrl(pod)
+        );
+        Map<String, Map<String, String>> queueStats = (Map<String, Map<String, String>>) new BundledArtemisClient(
+                new BundledClientDeployment(testNamespace, pod), ArtemisCommand.QUEUE_STAT, queueStatOptions).executeCommand();
+        Map<String, String> queueStat = queueStats.get(QUEUE);
+        return queueStat == null ? 0 : Long.parseLong(queueStat.get("message_count"));
+    }
+
+    private static String getPodUrl(Pod pod) {
+        return "tcp://" + pod.getMetadata().getName() + ":61616";
+    }
+
+    private static String toMillis(long nanos) {
+        return String.valueOf(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.scalability;
+
+import io.amq.broker.v1beta1.ActiveMQArtemis;
+import io.amq.broker.v1beta1.ActiveMQArtemisAddress;
+import io.amq.broker.v1beta1.ActiveMQArtemisAddressBuilder;
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.helpers.JolokiaHelper;
+import io.fabric8.kubernetes.api.model.Pod;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Address cardinality scale test of operator. ActiveMQArtemisAddress CRs are submitted in bulk in cumulative steps
+ * and time until operator reconciles all of them to broker (queue count read over jolokia) is recorded, together with
+ * retained broker heap per queue and time until restarted broker pod has all queues deployed again.
+ */
+public class AddressScaleTests extends AbstractSystemTests {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AddressScaleTests.class);
+    /** cumulative number of ActiveMQArtemisAddress CRs in every step */
+    private static final int[] ADDRESSES = {100, 500, 1_000};
+    private static final long RECONCILE_TIMEOUT = Duration.ofMinutes(30).toMillis();
+    private final String testNamespace = getRandomNamespaceName("address-scale-tests", 3);
+
+    @BeforeAll
+    void setupClusterOperator() {
+        setupDefaultClusterOperator(testNamespace);
+        TestUtils.createDirectory(Constants.PERFORMANCE_DIR + "/scale");
+    }
+
+    @AfterAll
+    void teardownClusterOperator() {
+        teardownDefaultClusterOperator(testNamespace);
+    }
+
+    @Test
+    void addressCrScaleTest() {
+        String brokerName = "scale-addresses";
+        ActiveMQArtemis broker = ResourceManager.createArtemis(testNamespace, brokerName, 1, false, false, true);
+        String host = getClient().getExternalAccessServiceUrl(testNamespace, brokerName + "-" + Constants.WEBCONSOLE_URI_PREFIX + "-0-svc-rte");
+        int baselineQueues = JolokiaHelper.getQueueCount(host);
+        long baselineHeap = JolokiaHelper.getRetainedHeap(host);
+        LOGGER.info("[{}] Baseline heap {} bytes with {} queues", testNamespace, baselineHeap, baselineQueues);
+
+        List<Map<String, String>> series = new ArrayList<>();
+        int addresses = 0;
+        for (int stepAddresses : ADDRESSES) {
+            List<ActiveMQArtemisAddress> addressCrs = new ArrayList<>();
+            for (int i = addresses; i < stepAddresses; i++) {
+                addressCrs.add(new ActiveMQArtemisAddressBuilder()
+                        .editOrNewMetadata()
+                            .withName("scale-address-" + i)
+                        .endMetadata()
+                        .editOrNewSpec()
+                            .withAddressName("scale.address." + i)
+                            .withQueueName("scale.address." + i)
+                            .withRoutingType(Constants.ROUTING_TYPE_ANYCAST)
+                        .endSpec()
+                        .build());
+            }
+            int expectedQueues = baselineQueues + stepAddresses;
+            Map<String, String> point = new HashMap<>();
+            long start = System.nanoTime();
+            ResourceManager.createArtemisAddresses(testNamespace, addressCrs);
+            point.put("submit_ms", toMillis(System.nanoTime() - start));
+            awaitQueueCount(host, expectedQueues);
+            double reconcileSeconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+            point.put("reconcile_ms", toMillis(System.nanoTime() - start));
+            point.put("reconcile_rate", String.format(Locale.ROOT, "%.1f", addressCrs.size() / reconcileSeconds));
+            addresses = stepAddresses;
+
+            long heap = JolokiaHelper.getRetainedHeap(host);
+            point.put("addresses", String.valueOf(addresses));
+            point.put("heap_used_bytes", String.valueOf(heap));
+            point.put("heap_bytes_per_queue", String.format(Locale.ROOT, "%.1f", (heap - baselineHeap) / (double) addresses));
+
+            Pod brokerPod = getClient().getFirstPodByPrefixName(testNamespace, brokerName);
+            start = System.nanoTime();
+            getClient().reloadPodWithWait(testNamespace, brokerPod, brokerName);
+            point.put("pod_ready_ms", toMillis(System.nanoTime() - start));
+            awaitQueueCount(host, expectedQueues);
+            point.put("startup_ms", toMillis(System.nanoTime() - start));
+            LOGGER.info("[{}] {}", testNamespace, point);
+            series.add(point);
+        }
+
+        Map<String, String> lastPoint = series.get(series.size() - 1);
+        Map<String, String> results = new HashMap<>(lastPoint);
+        String artemisVersion = Environment.get().getArtemisVersion();
+        results.put("profile_artemis_version", artemisVersion);
+        String resultsFile = String.format("%s/scale/results_address_crs_%s", Constants.PERFORMANCE_DIR, artemisVersion);
+        TestUtils.createFile(resultsFile + ".json", TestUtils.convertMapToJson(results));
+        TestUtils.createFile(resultsFile + "_series.csv", toCsv(series));
+
+        ResourceManager.deleteArtemis(testNamespace, broker, true, Constants.DURATION_2_MINUTES);
+    }
+
+    private void awaitQueueCount(String host, int expectedQueues) {
+        TestUtils.waitFor("operator to reconcile " + expectedQueues + " queues", Constants.DURATION_1_SECOND, RECONCILE_TIMEOUT,
+                () -> JolokiaHelper.getQueueCount(host) >= expectedQueues);
+    }
+
+    private static String toMillis(long nanos) {
+        return String.valueOf(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    private static String toCsv(List<Map<String, String>> series) {
+        StringBuilder csv = new StringBuilder("addresses,submit_ms,reconcile_ms,reconcile_rate,heap_bytes_per_queue,pod_ready_ms,startup_ms\n");
+        for (Map<String, String> point : series) {
+            csv.append(String.join(",", point.get("addresses"), point.get("submit_ms"), point.get("reconcile_ms"), point.get("reconcile_rate"),
+                    point.get("heap_bytes_per_queue"), point.get("pod_ready_ms"), point.get("startup_ms"))).append('\n');
+        }
+        return csv.toString();
+    }
+}
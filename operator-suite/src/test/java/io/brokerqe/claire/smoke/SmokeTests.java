@@ -11,6 +11,7 @@ import io.amq.broker.v1beta1.activemqartemisspec.Acceptors;
 import io.brokerqe.claire.AbstractSystemTests;
 import io.brokerqe.claire.Constants;
 import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
 import io.brokerqe.claire.clients.ClientType;
 import io.brokerqe.claire.clients.MessagingClient;
 import io.brokerqe.claire.operator.ArtemisFileProvider;
@@ -25,6 +26,7 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -39,16 +41,16 @@ import static org.junit.jupiter.api.Assumptions.assumeFalse;
 public class SmokeTests extends AbstractSystemTests {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SmokeTests.class);
-    private final String testNamespace = getRandomNamespaceName("smoke-tests", 3);
+    private String testNamespace;
 
     @BeforeAll
     void setupClusterOperator() {
-        setupDefaultClusterOperator(testNamespace);
+        testNamespace = setupPooledClusterOperator("smoke-tests");
     }
 
     @AfterAll
     void teardownClusterOperator() {
-        teardownDefaultClusterOperator(testNamespace);
+        teardownPooledClusterOperator(testNamespace);
     }
 
     @Test
@@ -301,6 +303,40 @@ public class SmokeTests extends AbstractSystemTests {
         ResourceManager.deleteArtemis(testNamespace, artemisBroker);
     }
 
+    @Test
+    void sendReceiveMultipleBrokersBatchDeploymentTest() {
+        List<ActiveMQArtemis> brokers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            brokers.add(new ActiveMQArtemisBuilder()
+                .editOrNewMetadata()
+                    .withName("batch-artemis-" + i)
+                    .withNamespace(testNamespace)
+                .endMetadata()
+                .editOrNewSpec()
+                    .editOrNewDeploymentPlan()
+                        .withSize(1)
+                        .withImage("placeholder")
+                    .endDeploymentPlan()
+                .endSpec()
+                .build());
+        }
+        ActiveMQArtemisAddress address = TestUtils.configFromYaml(ArtemisFileProvider.getAddressQueueExampleFile().toFile(), ActiveMQArtemisAddress.class);
+
+        brokers = ResourceManager.createArtemisBatchAndWait(testNamespace, brokers, List.of(address), Constants.DURATION_3_MINUTES);
+        assertThat(brokers.size(), is(3));
+        ActiveMQArtemisAddress myAddress = ResourceManager.getArtemisAddressClient().inNamespace(testNamespace).resource(address).get();
+
+        for (ActiveMQArtemis broker : brokers) {
+            Pod brokerPod = getClient().getFirstPodByPrefixName(testNamespace, broker.getMetadata().getName());
+            testMessaging(testNamespace, brokerPod, myAddress, 10);
+        }
+
+        ResourceManager.deleteArtemisAddress(testNamespace, myAddress);
+        for (ActiveMQArtemis broker : brokers) {
+            ResourceManager.deleteArtemis(testNamespace, broker);
+        }
+    }
+
     @Test
     @Tag(Constants.TAG_SMOKE)
     void testDefaultBrokerVersion() {
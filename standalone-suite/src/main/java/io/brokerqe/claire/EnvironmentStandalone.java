@@ -326,10 +326,16 @@ public class EnvironmentStandalone extends Environment {
     }
 
     public void setupDatabase() {
+        setDatabase(createDatabase(databaseFile));
+    }
+
+    /**
+     * @param databaseFile database key-name (e.g. {@link Database#POSTGRESQL}) or path to provided database yaml file
+     */
+    public Database createDatabase(String databaseFile) {
         // Deploy actual DB based on key-name
-        Database database;
         String name = TestUtils.generateRandomName();
-        database = switch (databaseFile.toLowerCase(Locale.ROOT)) {
+        return switch (databaseFile.toLowerCase(Locale.ROOT)) {
             case Database.MARIADB -> new MariadbContainer(Database.MARIADB + "-db1-" + name);
             case Database.MYSQL -> new MysqlContainer(Database.MYSQL + "-db1-" + name);
             case Database.MSSQL -> new MssqlContainer(Database.MSSQL + "-db1-" + name);
@@ -339,7 +345,6 @@ public class EnvironmentStandalone extends Environment {
                 // Load data from provided DB
                 new ProvidedDatabase(new JdbcData(databaseFile));
         };
-        setDatabase(database);
     }
 
     public String getProvidedArtemisConfig() {
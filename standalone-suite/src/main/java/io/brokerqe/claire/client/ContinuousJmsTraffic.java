@@ -0,0 +1,311 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.client;
+
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.helper.TimeHelper;
+import io.brokerqe.claire.monitoring.LatencyStats;
+import org.apache.qpid.jms.JmsConnection;
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.JmsConnectionListener;
+import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.jms.DeliveryMode;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import java.net.URI;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Producer and consumer continuously exchanging sequenced persistent messages over single (failover) AMQP connection.
+ * Records connection interruption/restore times reported by qpid-jms failover transport, the longest pauses between
+ * successful sends and receives, end-to-end latency, and lost and duplicated messages.
+ * All times are {@link System#nanoTime()} values. Send interval 0 means sending as fast as possible.
+ * Only received sequences ahead of the first missing one are kept, at most {@value #MAX_RECEIVED_AHEAD} of them. When
+ * the limit is exceeded, missing sequences below the oldest kept one are counted as lost (and as duplicates, when they
+ * arrive later).
+ */
+public class ContinuousJmsTraffic implements JmsConnectionListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContinuousJmsTraffic.class);
+    private static final String SEQUENCE_PROPERTY = "sequence";
+    private static final String SENT_AT_PROPERTY = "sentAt";
+    private static final int MAX_RECEIVED_AHEAD = 100_000;
+
+    private final String clientId;
+    private final JmsConnectionFactory connectionFactory;
+    private final String queueName;
+    private final long sendIntervalMs;
+    private String username;
+    private String password;
+
+    private JmsConnection connection;
+    private ExecutorService executorService;
+    private Future<?> producerFuture;
+    private Future<?> consumerFuture;
+    private volatile boolean producing;
+    private volatile boolean consuming;
+    private volatile long sentCount;
+    // all sequences lower than receivedContiguous were received, receivedAhead holds received sequences above it
+    private final Object receivedLock = new Object();
+    private long receivedContiguous;
+    private final NavigableSet<Long> receivedAhead = new TreeSet<>();
+    // missing sequences given up when receivedAhead exceeded its limit
+    private long abandoned;
+    private long duplicates;
+    private volatile long interruptedAt = -1;
+    private volatile long restoredAt = -1;
+    private volatile long lastSendAt = -1;
+    private volatile long lastReceiveAt = -1;
+    private volatile long maxSendGap;
+    private volatile long maxReceiveGap;
+    private final Object latencyLock = new Object();
+    private LatencyStats latencyWindow = new LatencyStats();
+
+    public ContinuousJmsTraffic(String clientId, JmsConnectionFactory connectionFactory, String queueName, long sendIntervalMs) {
+        this.clientId = clientId;
+        this.connectionFactory = connectionFactory;
+        this.queueName = queueName;
+        this.sendIntervalMs = sendIntervalMs;
+    }
+
+    public ContinuousJmsTraffic withCredentials(String username, String password) {
+        this.username = username;
+        this.password = password;
+        return this;
+    }
+
+    public ContinuousJmsTraffic start() {
+        try {
+            connection = (JmsConnection) connectionFactory.createConnection(username, password);
+            connection.addConnectionListener(this);
+            connection.start();
+        } catch (JMSException e) {
+            String errMsg = String.format("[Failover] Error on create connection for client %s: %s", clientId, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+        producing = true;
+        consuming = true;
+        executorService = Executors.newFixedThreadPool(2);
+        consumerFuture = executorService.submit(this::consume);
+        producerFuture = executorService.submit(this::produce);
+        LOGGER.debug("[Failover] Started continuous traffic of client {} on queue {}", clientId, queueName);
+        return this;
+    }
+
+    private void produce() {
+        try (Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+             MessageProducer producer = session.createProducer(session.createQueue(queueName))) {
+            producer.setDeliveryMode(DeliveryMode.PERSISTENT);
+            long sequence = 0;
+            while (producing) {
+                TextMessage message = session.createTextMessage(clientId + "-" + sequence);
+                message.setLongProperty(SEQUENCE_PROPERTY, sequence);
+                message.setLongProperty(SENT_AT_PROPERTY, System.nanoTime());
+                try {
+                    // failover transport blocks (persistent) send until connection is restored
+                    producer.send(message);
+                    sequence++;
+                    sentCount = sequence;
+                    long now = System.nanoTime();
+                    if (lastSendAt > 0) {
+                        maxSendGap = Math.max(maxSendGap, now - lastSendAt);
+                    }
+                    lastSendAt = now;
+                } catch (JMSException e) {
+                    LOGGER.debug("[Failover] Client {} failed to send message {}: {}", clientId, sequence, e.getMessage());
+                }
+                TimeHelper.waitFor(sendIntervalMs);
+            }
+        } catch (JMSException e) {
+            String errMsg = String.format("[Failover] Producer of client %s failed: %s", clientId, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    private void consume() {
+        try (Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+             MessageConsumer consumer = session.createConsumer(session.createQueue(queueName))) {
+            while (consuming) {
+                Message message = consumer.receive(Constants.DURATION_100_MILLISECONDS);
+                if (message != null) {
+                    recordReceived(message.getLongProperty(SEQUENCE_PROPERTY));
+                    long now = System.nanoTime();
+                    synchronized (latencyLock) {
+                        latencyWindow.recordNanos(now - message.getLongProperty(SENT_AT_PROPERTY));
+                    }
+                    if (lastReceiveAt > 0) {
+                        maxReceiveGap = Math.max(maxReceiveGap, now - lastReceiveAt);
+                    }
+                    lastReceiveAt = now;
+                }
+            }
+        } catch (JMSException e) {
+            String errMsg = String.format("[Failover] Consumer of client %s failed: %s", clientId, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    private void recordReceived(long sequence) {
+        synchronized (receivedLock) {
+            if (sequence < receivedContiguous || !receivedAhead.add(sequence)) {
+                duplicates++;
+            } else {
+                if (receivedAhead.size() > MAX_RECEIVED_AHEAD) {
+                    long oldest = receivedAhead.first();
+                    abandoned += oldest - receivedContiguous;
+                    receivedContiguous = oldest;
+                }
+                while (!receivedAhead.isEmpty() && receivedAhead.first() == receivedContiguous) {
+                    receivedAhead.pollFirst();
+                    receivedContiguous++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops producer and waits until all sent messages are received (or timeout exceeds), then stops consumer.
+     */
+    public void stop(long drainTimeoutMs) {
+        producing = false;
+        awaitTask(producerFuture, Constants.DURATION_1_MINUTE);
+        TimeHelper.waitFor(e -> getLostCount() == 0, Constants.DURATION_100_MILLISECONDS, drainTimeoutMs);
+        consuming = false;
+        awaitTask(consumerFuture, Constants.DURATION_1_MINUTE);
+        executorService.shutdownNow();
+        try {
+            connection.close();
+        } catch (JMSException e) {
+            LOGGER.warn("[Failover] Error on closing connection of client {}: {}", clientId, e.getMessage());
+        }
+        LOGGER.debug("[Failover] Client {} sent {} and received {} messages", clientId, getSentCount(), getReceivedCount());
+    }
+
+    private void awaitTask(Future<?> future, long timeoutMs) {
+        try {
+            future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            String errMsg = String.format("[Failover] Traffic of client %s did not finish: %s", clientId, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    public long getInterruptedAt() {
+        return interruptedAt;
+    }
+
+    public long getRestoredAt() {
+        return restoredAt;
+    }
+
+    public long getLastReceiveAt() {
+        return lastReceiveAt;
+    }
+
+    public long getMaxSendGap() {
+        return maxSendGap;
+    }
+
+    public long getMaxReceiveGap() {
+        return maxReceiveGap;
+    }
+
+    /**
+     * @return end-to-end latencies of messages received since previous call (or start)
+     */
+    public LatencyStats swapLatencyWindow() {
+        synchronized (latencyLock) {
+            LatencyStats window = latencyWindow;
+            latencyWindow = new LatencyStats();
+            return window;
+        }
+    }
+
+    public int getSentCount() {
+        return (int) sentCount;
+    }
+
+    /**
+     * @return number of distinct messages received
+     */
+    public int getReceivedCount() {
+        synchronized (receivedLock) {
+            return (int) (receivedContiguous - abandoned + receivedAhead.size());
+        }
+    }
+
+    /**
+     * @return number of messages successfully sent, but never received
+     */
+    public long getLostCount() {
+        long sent = sentCount;
+        synchronized (receivedLock) {
+            return sent - Math.min(sent, receivedContiguous) - receivedAhead.headSet(sent).size() + abandoned;
+        }
+    }
+
+    public long getDuplicateCount() {
+        synchronized (receivedLock) {
+            return duplicates;
+        }
+    }
+
+    @Override
+    public void onConnectionEstablished(URI remoteURI) {
+        LOGGER.debug("[Failover] Client {} connected to {}", clientId, remoteURI);
+    }
+
+    @Override
+    public void onConnectionFailure(Throwable error) {
+        LOGGER.warn("[Failover] Client {} connection failed: {}", clientId, error.getMessage());
+    }
+
+    @Override
+    public void onConnectionInterrupted(URI remoteURI) {
+        interruptedAt = System.nanoTime();
+        LOGGER.debug("[Failover] Client {} connection to {} interrupted", clientId, remoteURI);
+    }
+
+    @Override
+    public void onConnectionRestored(URI remoteURI) {
+        restoredAt = System.nanoTime();
+        LOGGER.debug("[Failover] Client {} connection restored to {}", clientId, remoteURI);
+    }
+
+    @Override
+    public void onInboundMessage(JmsInboundMessageDispatch envelope) {
+    }
+
+    @Override
+    public void onSessionClosed(Session session, Throwable cause) {
+    }
+
+    @Override
+    public void onConsumerClosed(MessageConsumer consumer, Throwable cause) {
+    }
+
+    @Override
+    public void onProducerClosed(MessageProducer producer, Throwable cause) {
+    }
+}
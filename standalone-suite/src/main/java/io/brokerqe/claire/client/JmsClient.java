@@ -9,6 +9,8 @@ import io.brokerqe.claire.TestUtils;
 import io.brokerqe.claire.helper.TimeHelper;
 import io.brokerqe.claire.ResourceManager;
 import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.monitoring.ClientJvmMonitor;
+import io.brokerqe.claire.monitoring.ClientTaskMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +32,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class JmsClient {
 
@@ -48,8 +51,10 @@ public class JmsClient {
     private Connection connection;
     private final Map<String, Future<Map<String, Message>>> producedMsgs;
     private final Map<String, Future<Map<String, Message>>> consumedMsgs;
+    private final Map<String, ClientTaskMetrics> taskMetrics;
     private long producerIdCounter;
     private long consumerIdCounter;
+    private long maxClientPauseMs;
 
     public JmsClient(String clientId, ConnectionFactory cf) {
         this.clientId = clientId;
@@ -58,8 +63,10 @@ public class JmsClient {
         sessionAckMode = Session.SESSION_TRANSACTED;
         producedMsgs = new ConcurrentHashMap<>();
         consumedMsgs = new ConcurrentHashMap<>();
+        taskMetrics = new ConcurrentHashMap<>();
         producerIdCounter = 1;
         consumerIdCounter = 1;
+        maxClientPauseMs = ClientJvmMonitor.DEFAULT_MAX_PAUSE_MS;
     }
 
     public JmsClient withCredentials(String username, String password) {
@@ -80,6 +87,14 @@ public class JmsClient {
         return this;
     }
 
+    /**
+     * @param maxClientPauseMs longest GC pause of test JVM during produce/consume task, with which task is still valid
+     */
+    public JmsClient withMaxClientPause(long maxClientPauseMs) {
+        this.maxClientPauseMs = maxClientPauseMs;
+        return this;
+    }
+
     public JmsClient connect() {
         if (connection == null) {
             LOGGER.debug("Trying to open connection for client {}", clientId);
@@ -179,6 +194,28 @@ public class JmsClient {
         consumedMsgs.clear();
     }
 
+    /**
+     * @return client JVM metrics and send latencies of given producer task
+     */
+    public ClientTaskMetrics getProducerMetrics(long producerId) {
+        return taskMetrics.get("producer-" + producerId);
+    }
+
+    /**
+     * @return client JVM metrics and end-to-end latencies of given consumer task
+     */
+    public ClientTaskMetrics getConsumerMetrics(long consumerId) {
+        return taskMetrics.get("consumer-" + consumerId);
+    }
+
+    /**
+     * @return false when client GC pause exceeded allowed maximum during any produce/consume task, so measured latencies
+     * are affected by the test JVM itself
+     */
+    public boolean isClientRunValid() {
+        return taskMetrics.values().stream().allMatch(ClientTaskMetrics::isValid);
+    }
+
     public long produce(long numOfMsgs) {
         return produce(numOfMsgs, -1, null, 1, 0, false);
     }
@@ -205,6 +242,7 @@ public class JmsClient {
         this.producerIdCounter++;
         String producerId = "producer-" + producerIdCounter;
         Callable<Map<String, Message>> callableProducer = () -> {
+            ClientTaskMetrics metrics = startTaskMetrics(producerId, "send");
             try (Session session = openSession()) {
                 Map<String, Message> msgsProduced = new HashMap<>();
                 LOGGER.debug("Producing messages for client id {} and producer id {}", clientId, producerId);
@@ -214,7 +252,9 @@ public class JmsClient {
                         String randomText = TestUtils.generateRandomText(sizeOfMsg);
                         TextMessage message = generateTextMessage(session, randomText);
                         populateMsgProperties(message, msgProperties);
+                        long sendStart = System.nanoTime();
                         producer.send(message);
+                        metrics.recordLatencyNanos(System.nanoTime() - sendStart);
                         String messageId = message.getJMSMessageID();
                         LOGGER.trace("Sent message with id {} for client id {} and producer id {}", messageId, clientId,
                                 producerId);
@@ -233,6 +273,8 @@ public class JmsClient {
                     LOGGER.error(errMsg);
                     throw new ClaireRuntimeException(errMsg, e);
                 }
+            } finally {
+                stopTaskMetrics(metrics);
             }
         };
         ExecutorService executorService = ResourceManager.getExecutorService();
@@ -267,6 +309,7 @@ public class JmsClient {
         Callable<Map<String, Message>> callableConsumer = () -> {
             Map<String, Message> msgsConsumed = new HashMap<>();
             long commitCounter = 1;
+            ClientTaskMetrics metrics = startTaskMetrics(consumerId, "end_to_end");
             try (Session session = openSession()) {
                 LOGGER.debug("Consuming messages for client id {} and consumer id {}", clientId, consumerId);
                 try (MessageConsumer consumer = createConsumer(session, consumerId, msgSelector)) {
@@ -286,6 +329,9 @@ public class JmsClient {
                             throw new ClaireRuntimeException(errMsg);
                         }
 
+                        if (message.getJMSTimestamp() > 0) {
+                            metrics.recordLatency(System.currentTimeMillis() - message.getJMSTimestamp(), TimeUnit.MILLISECONDS);
+                        }
                         String messageId = message.getJMSMessageID();
                         LOGGER.trace("Received message with id {} for client id {} and consumer id {}", messageId, clientId,
                                 consumerId);
@@ -304,6 +350,8 @@ public class JmsClient {
                     LOGGER.error(errMsg);
                     throw new ClaireRuntimeException(errMsg, e);
                 }
+            } finally {
+                stopTaskMetrics(metrics);
             }
         };
         ExecutorService executorService = ResourceManager.getExecutorService();
@@ -318,6 +366,21 @@ public class JmsClient {
         return consumerIdCounter;
     }
 
+    private ClientTaskMetrics startTaskMetrics(String taskId, String latencyKey) {
+        ClientTaskMetrics metrics = ClientJvmMonitor.get().startTask(clientId + "/" + taskId, latencyKey, maxClientPauseMs);
+        taskMetrics.put(taskId, metrics);
+        return metrics;
+    }
+
+    private void stopTaskMetrics(ClientTaskMetrics metrics) {
+        metrics.stop();
+        if (metrics.isValid()) {
+            LOGGER.debug("[JVM] {}", metrics);
+        } else {
+            LOGGER.warn("[JVM] Client GC pause exceeded {}ms, measured latencies are not valid. {}", maxClientPauseMs, metrics);
+        }
+    }
+
     private Session openSession() {
         if (connection == null) {
             connect();
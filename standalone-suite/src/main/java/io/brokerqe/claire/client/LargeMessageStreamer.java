@@ -0,0 +1,243 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.client;
+
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.helpers.GeneratedInputStream;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.jms.BytesMessage;
+import javax.jms.Connection;
+import javax.jms.DeliveryMode;
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Sends and receives large messages over core JMS client without materializing payload in memory. Payload is streamed
+ * from {@link InputStream} ({@code JMS_AMQ_InputStream}) and received into {@link OutputStream}
+ * ({@code JMS_AMQ_SaveStream}), so client memory stays the same regardless of message size.
+ * CRC32 of every sent payload is remembered and verified on receive.
+ */
+public class LargeMessageStreamer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LargeMessageStreamer.class);
+    private static final String INPUT_STREAM_PROPERTY = "JMS_AMQ_InputStream";
+    private static final String SAVE_STREAM_PROPERTY = "JMS_AMQ_SaveStream";
+    private static final String SEQUENCE_PROPERTY = "sequence";
+
+    private final String queueName;
+    private final Connection connection;
+    private final Map<Long, Long> sentChecksums = new HashMap<>();
+    private long sequence;
+
+    public LargeMessageStreamer(String url, String username, String password, String queueName) {
+        this.queueName = queueName;
+        try {
+            connection = new ActiveMQConnectionFactory(url).createConnection(username, password);
+            connection.start();
+        } catch (JMSException e) {
+            String errMsg = String.format("[LargeMessage] Error on creating connection to %s: %s", url, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    /**
+     * Sends given number of messages with generated payload of given size.
+     * @return number of sent payload bytes
+     */
+    public long sendGenerated(int count, long payloadSize) {
+        long seedBase = System.nanoTime();
+        long sent = 0;
+        for (int i = 0; i < count; i++) {
+            long seed = seedBase + i;
+            sent += send(() -> new GeneratedInputStream(payloadSize, seed));
+        }
+        return sent;
+    }
+
+    /**
+     * Sends single message with content of given file.
+     * @return number of sent payload bytes
+     */
+    public long sendFile(Path file) {
+        return send(() -> {
+            try {
+                return Files.newInputStream(file);
+            } catch (IOException e) {
+                String errMsg = String.format("[LargeMessage] Unable to read %s: %s", file, e.getMessage());
+                LOGGER.error(errMsg);
+                throw new ClaireRuntimeException(errMsg, e);
+            }
+        });
+    }
+
+    private long send(Supplier<InputStream> payload) {
+        try (Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+             MessageProducer producer = session.createProducer(session.createQueue(queueName));
+             CountingInputStream inputStream = new CountingInputStream(new CheckedInputStream(payload.get(), new CRC32()))) {
+            producer.setDeliveryMode(DeliveryMode.PERSISTENT);
+            BytesMessage message = session.createBytesMessage();
+            message.setLongProperty(SEQUENCE_PROPERTY, sequence);
+            message.setObjectProperty(INPUT_STREAM_PROPERTY, inputStream);
+            producer.send(message);
+            sentChecksums.put(sequence, inputStream.getChecksum());
+            sequence++;
+            // streamed body is not part of message buffer, so getBodyLength() does not report it
+            return inputStream.getCount();
+        } catch (JMSException | IOException e) {
+            String errMsg = String.format("[LargeMessage] Error on sending message %d to %s: %s", sequence, queueName, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    /**
+     * Receives given number of messages, discarding payload (only checksum is computed).
+     * @return number of received payload bytes
+     */
+    public long receive(int count, long timeoutMs) {
+        return receive(count, timeoutMs, null);
+    }
+
+    /**
+     * Receives given number of messages and saves payload of each message to file {@code <sequence>.bin} in given
+     * directory (or discards it, when directory is null).
+     * @return number of received payload bytes
+     */
+    public long receive(int count, long timeoutMs, Path directory) {
+        long received = 0;
+        try (Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+             MessageConsumer consumer = session.createConsumer(session.createQueue(queueName))) {
+            for (int i = 0; i < count; i++) {
+                BytesMessage message = (BytesMessage) consumer.receive(timeoutMs);
+                if (message == null) {
+                    String errMsg = String.format("[LargeMessage] Received only %d of %d messages from %s", i, count, queueName);
+                    LOGGER.error(errMsg);
+                    throw new ClaireRuntimeException(errMsg);
+                }
+                long messageSequence = message.getLongProperty(SEQUENCE_PROPERTY);
+                OutputStream target = directory == null ? OutputStream.nullOutputStream()
+                        : Files.newOutputStream(directory.resolve(messageSequence + ".bin"));
+                try (CountingOutputStream outputStream = new CountingOutputStream(new CheckedOutputStream(target, new CRC32()))) {
+                    // blocks until whole body is written to stream
+                    message.setObjectProperty(SAVE_STREAM_PROPERTY, outputStream);
+                    verifyChecksum(messageSequence, outputStream.getChecksum());
+                    received += outputStream.getCount();
+                }
+            }
+        } catch (JMSException | IOException e) {
+            String errMsg = String.format("[LargeMessage] Error on receiving messages from %s: %s", queueName, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+        return received;
+    }
+
+    private void verifyChecksum(long messageSequence, long checksum) {
+        Long expected = sentChecksums.get(messageSequence);
+        if (expected != null && expected != checksum) {
+            String errMsg = String.format("[LargeMessage] Payload of message %d from %s is corrupted (crc %d, expected %d)",
+                    messageSequence, queueName, checksum, expected);
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            connection.close();
+        } catch (JMSException e) {
+            LOGGER.warn("[LargeMessage] Error on closing connection: {}", e.getMessage());
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(CheckedInputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        private long getCount() {
+            return count;
+        }
+
+        private long getChecksum() {
+            return ((CheckedInputStream) in).getChecksum().getValue();
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(CheckedOutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        private long getCount() {
+            return count;
+        }
+
+        private long getChecksum() {
+            return ((CheckedOutputStream) out).getChecksum().getValue();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.client;
+
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.helper.TimeHelper;
+import io.brokerqe.claire.monitoring.LatencyStats;
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.jms.Connection;
+import javax.jms.DeliveryMode;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.jms.Topic;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mixed long-running AMQP workload - producer and consumer pair for each of queue, topic (non-durable subscriber),
+ * durable subscription and transacted queue flows. Each flow uses its own connection.
+ * {@link #checkpoint()} reports per-flow rates and end-to-end latency percentiles since previous checkpoint.
+ * Durable subscription is kept on stop, so interrupted workload can be resumed with the same client id.
+ */
+public class MixedJmsWorkload {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MixedJmsWorkload.class);
+    private static final String SENT_AT_PROPERTY = "sentAt";
+    private static final String RUN_PROPERTY = "run";
+    private static final double[] PERCENTILES = {50.0, 99.0, 99.9};
+
+    public enum FlowType {
+        QUEUE, TOPIC, DURABLE, TRANSACTED
+    }
+
+    private final String clientId;
+    private final JmsConnectionFactory connectionFactory;
+    private final long sendIntervalMs;
+    private final String runId = UUID.randomUUID().toString();
+    private final List<Flow> flows = new ArrayList<>();
+    private String username;
+    private String password;
+    private int transactionSize = 10;
+    private int messageSize = 1024;
+    private ExecutorService executorService;
+    private volatile boolean producing;
+    private volatile boolean consuming;
+    private long lastCheckpointAt;
+
+    private final class Flow {
+        private final FlowType type;
+        private final String name;
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private long lastSent;
+        private long lastReceived;
+        private volatile LatencyStats latencyWindow = new LatencyStats();
+        private Connection connection;
+
+        private Flow(FlowType type) {
+            this.type = type;
+            this.name = type.name().toLowerCase(Locale.ROOT);
+        }
+
+        private boolean isTransacted() {
+            return type == FlowType.TRANSACTED;
+        }
+
+        private Destination getDestination(Session session) throws JMSException {
+            String destinationName = "soak." + name;
+            return type == FlowType.TOPIC || type == FlowType.DURABLE ? session.createTopic(destinationName) : session.createQueue(destinationName);
+        }
+
+        private MessageConsumer createConsumer(Session session) throws JMSException {
+            Destination destination = getDestination(session);
+            if (type == FlowType.DURABLE) {
+                return session.createDurableSubscriber((Topic) destination, clientId + "-" + name);
+            }
+            return session.createConsumer(destination);
+        }
+    }
+
+    public MixedJmsWorkload(String clientId, JmsConnectionFactory connectionFactory, long sendIntervalMs) {
+        this.clientId = clientId;
+        this.connectionFactory = connectionFactory;
+        this.sendIntervalMs = sendIntervalMs;
+        for (FlowType type : FlowType.values()) {
+            flows.add(new Flow(type));
+        }
+    }
+
+    public MixedJmsWorkload withCredentials(String username, String password) {
+        this.username = username;
+        this.password = password;
+        return this;
+    }
+
+    public MixedJmsWorkload withTransactionSize(int transactionSize) {
+        this.transactionSize = transactionSize;
+        return this;
+    }
+
+    public MixedJmsWorkload withMessageSize(int messageSize) {
+        this.messageSize = messageSize;
+        return this;
+    }
+
+    public MixedJmsWorkload start() {
+        producing = true;
+        consuming = true;
+        executorService = Executors.newFixedThreadPool(flows.size() * 2);
+        for (Flow flow : flows) {
+            try {
+                flow.connection = connectionFactory.createConnection(username, password);
+                // durable subscription is identified by client id and subscription name
+                flow.connection.setClientID(clientId + "-" + flow.name);
+                flow.connection.start();
+            } catch (JMSException e) {
+                String errMsg = String.format("[Soak] Error on creating %s connection of client %s: %s", flow.name, clientId, e.getMessage());
+                LOGGER.error(errMsg);
+                throw new ClaireRuntimeException(errMsg, e);
+            }
+            executorService.submit(() -> consume(flow));
+            executorService.submit(() -> produce(flow));
+        }
+        lastCheckpointAt = System.nanoTime();
+        LOGGER.info("[Soak] Started mixed workload of client {} with flows {}", clientId, flows.stream().map(flow -> flow.name).toList());
+        return this;
+    }
+
+    private void produce(Flow flow) {
+        String body = "x".repeat(messageSize);
+        try (Session session = flow.connection.createSession(flow.isTransacted(), flow.isTransacted() ? Session.SESSION_TRANSACTED : Session.AUTO_ACKNOWLEDGE);
+             MessageProducer producer = session.createProducer(flow.getDestination(session))) {
+            producer.setDeliveryMode(DeliveryMode.PERSISTENT);
+            int uncommitted = 0;
+            while (producing) {
+                try {
+                    TextMessage message = session.createTextMessage(body);
+                    message.setStringProperty(RUN_PROPERTY, runId);
+                    message.setLongProperty(SENT_AT_PROPERTY, System.nanoTime());
+                    producer.send(message);
+                    if (flow.isTransacted() && ++uncommitted >= transactionSize) {
+                        session.commit();
+                        flow.sent.addAndGet(uncommitted);
+                        uncommitted = 0;
+                    } else if (!flow.isTransacted()) {
+                        flow.sent.incrementAndGet();
+                    }
+                } catch (JMSException e) {
+                    flow.errors.incrementAndGet();
+                    uncommitted = 0;
+                    LOGGER.debug("[Soak] Client {} failed to send {} message: {}", clientId, flow.name, e.getMessage());
+                }
+                TimeHelper.waitFor(sendIntervalMs);
+            }
+            if (uncommitted > 0) {
+                session.commit();
+                flow.sent.addAndGet(uncommitted);
+            }
+        } catch (JMSException e) {
+            String errMsg = String.format("[Soak] %s producer of client %s failed: %s", flow.name, clientId, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    private void consume(Flow flow) {
+        try (Session session = flow.connection.createSession(flow.isTransacted(), flow.isTransacted() ? Session.SESSION_TRANSACTED : Session.AUTO_ACKNOWLEDGE);
+             MessageConsumer consumer = flow.createConsumer(session)) {
+            int uncommitted = 0;
+            while (consuming) {
+                try {
+                    Message message = consumer.receive(Constants.DURATION_100_MILLISECONDS);
+                    if (message != null) {
+                        // messages left over from interrupted run have sent time of another JVM
+                        if (runId.equals(message.getStringProperty(RUN_PROPERTY))) {
+                            flow.latencyWindow.recordNanos(System.nanoTime() - message.getLongProperty(SENT_AT_PROPERTY));
+                        }
+                        uncommitted++;
+                    }
+                    if (uncommitted > 0 && (!flow.isTransacted() || uncommitted >= transactionSize || message == null)) {
+                        if (flow.isTransacted()) {
+                            session.commit();
+                        }
+                        flow.received.addAndGet(uncommitted);
+                        uncommitted = 0;
+                    }
+                } catch (JMSException e) {
+                    flow.errors.incrementAndGet();
+                    uncommitted = 0;
+                    LOGGER.debug("[Soak] Client {} failed to receive {} message: {}", clientId, flow.name, e.getMessage());
+                }
+            }
+        } catch (JMSException e) {
+            String errMsg = String.format("[Soak] %s consumer of client %s failed: %s", flow.name, clientId, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    /**
+     * @return per-flow {@code <flow>_sent_rate}, {@code <flow>_received_rate} (messages per second),
+     * {@code <flow>_latency_us_<percentile>} and {@code <flow>_errors} since previous checkpoint,
+     * and {@code received_rate} and {@code backlog} of all flows
+     */
+    public synchronized Map<String, Double> checkpoint() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1, now - lastCheckpointAt) / (double) TimeUnit.SECONDS.toNanos(1);
+        lastCheckpointAt = now;
+        Map<String, Double> values = new TreeMap<>();
+        double receivedRate = 0;
+        double backlog = 0;
+        for (Flow flow : flows) {
+            long sent = flow.sent.get();
+            long received = flow.received.get();
+            LatencyStats latency = flow.latencyWindow;
+            flow.latencyWindow = new LatencyStats();
+            double flowReceivedRate = (received - flow.lastReceived) / seconds;
+            values.put(flow.name + "_sent_rate", (sent - flow.lastSent) / seconds);
+            values.put(flow.name + "_received_rate", flowReceivedRate);
+            for (double percentile : PERCENTILES) {
+                values.put(String.format(Locale.ROOT, "%s_latency_us_%.2f", flow.name, percentile), (double) latency.getPercentile(percentile));
+            }
+            values.put(flow.name + "_errors", (double) flow.errors.getAndSet(0));
+            flow.lastSent = sent;
+            flow.lastReceived = received;
+            receivedRate += flowReceivedRate;
+            // topic messages sent while non-durable subscriber is disconnected are not delivered
+            if (flow.type != FlowType.TOPIC) {
+                backlog += sent - received;
+            }
+        }
+        values.put("received_rate", receivedRate);
+        values.put("backlog", backlog);
+        return values;
+    }
+
+    /**
+     * Stops producers, lets consumers drain for up to given time and closes all connections.
+     */
+    public void stop(long drainTimeoutMs) {
+        producing = false;
+        TimeHelper.waitFor(e -> flows.stream().filter(flow -> flow.type != FlowType.TOPIC)
+                .allMatch(flow -> flow.received.get() >= flow.sent.get()), Constants.DURATION_100_MILLISECONDS, drainTimeoutMs);
+        consuming = false;
+        executorService.shutdown();
+        try {
+            executorService.awaitTermination(Constants.DURATION_1_MINUTE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Flow flow : flows) {
+            try {
+                flow.connection.close();
+            } catch (JMSException e) {
+                LOGGER.warn("[Soak] Error on closing {} connection of client {}: {}", flow.name, clientId, e.getMessage());
+            }
+            LOGGER.info("[Soak] Client {} {} flow sent {} and received {} messages", clientId, flow.name, flow.sent.get(), flow.received.get());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.client;
+
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.monitoring.LatencyStats;
+import io.brokerqe.claire.security.KeyStoreData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opens plain TLS connections (without any messaging protocol on top) from test JVM to broker acceptor and measures
+ * TCP connect and TLS handshake latency and connection establishment rate.
+ * Without session resumption, every session is invalidated after handshake, so each connection performs a full handshake.
+ * With session resumption, TLS 1.3 session ticket arrives only after the handshake, so every connection reads from the
+ * socket until the ticket is processed (at most {@link #TICKET_WAIT_MS}). This wait is excluded from handshake latency
+ * and connection rate. Handshake is counted as resumed, when the negotiated session was created before the handshake
+ * started (resumed session keeps creation time of the original session).
+ */
+public class TlsHandshakeBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TlsHandshakeBenchmark.class);
+    public static final int TICKET_WAIT_MS = 50;
+
+    private final String host;
+    private final int port;
+    private final KeyStoreData trustStore;
+    private String tlsProtocol = "TLSv1.3";
+    private boolean sessionResumption = false;
+    private int concurrency = 1;
+
+    public TlsHandshakeBenchmark(String host, int port, KeyStoreData trustStore) {
+        this.host = host;
+        this.port = port;
+        this.trustStore = trustStore;
+    }
+
+    public TlsHandshakeBenchmark withTlsProtocol(String tlsProtocol) {
+        this.tlsProtocol = tlsProtocol;
+        return this;
+    }
+
+    public TlsHandshakeBenchmark withSessionResumption(boolean sessionResumption) {
+        this.sessionResumption = sessionResumption;
+        return this;
+    }
+
+    public TlsHandshakeBenchmark withConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * @param connections total number of connections opened by all threads
+     * @return results with {@code connect_us_*}, {@code handshake_us_*} (also split into {@code handshake_full_us_*} and
+     * {@code handshake_resumed_us_*}), {@code connection_rate} (per second), resumed handshake and failure counts
+     */
+    public Map<String, String> run(int connections) {
+        SSLContext sslContext = createSslContext();
+        LatencyStats connectStats = new LatencyStats();
+        LatencyStats handshakeStats = new LatencyStats();
+        LatencyStats fullHandshakeStats = new LatencyStats();
+        LatencyStats resumedHandshakeStats = new LatencyStats();
+        AtomicLong ticketWaitNanos = new AtomicLong();
+        AtomicInteger remaining = new AtomicInteger(connections);
+        AtomicInteger failures = new AtomicInteger();
+        Map<String, Integer> cipherSuites = new ConcurrentHashMap<>();
+        LOGGER.info("[TLS] Opening {} {} connections to {}:{} from {} threads (session resumption {})",
+                connections, tlsProtocol, host, port, concurrency, sessionResumption);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(executorService.submit(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    String cipherSuite = connect(sslContext, connectStats, handshakeStats, fullHandshakeStats, resumedHandshakeStats,
+                            ticketWaitNanos);
+                    if (cipherSuite == null) {
+                        failures.incrementAndGet();
+                    } else {
+                        cipherSuites.merge(cipherSuite, 1, Integer::sum);
+                    }
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            String errMsg = String.format("[TLS] Handshake benchmark against %s:%d failed: %s", host, port, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        } finally {
+            executorService.shutdownNow();
+        }
+        // ticket waits of parallel threads overlap
+        double elapsedSeconds = (System.nanoTime() - start - ticketWaitNanos.get() / concurrency) / 1_000_000_000.0;
+
+        Map<String, String> results = new HashMap<>();
+        results.put("tls_protocol", tlsProtocol);
+        results.put("session_resumption", String.valueOf(sessionResumption));
+        results.put("concurrency", String.valueOf(concurrency));
+        results.put("connections", String.valueOf(connections));
+        results.put("failed_connections", String.valueOf(failures.get()));
+        results.put("resumed_handshakes", String.valueOf(resumedHandshakeStats.getCount()));
+        results.put("full_handshakes", String.valueOf(fullHandshakeStats.getCount()));
+        results.put("cipher_suites", cipherSuites.keySet().toString());
+        results.put("connection_rate", String.format(Locale.ROOT, "%.2f", (connections - failures.get()) / elapsedSeconds));
+        results.putAll(connectStats.toMap("connect"));
+        results.putAll(handshakeStats.toMap("handshake"));
+        results.putAll(fullHandshakeStats.toMap("handshake_full"));
+        results.putAll(resumedHandshakeStats.toMap("handshake_resumed"));
+        LOGGER.info("[TLS] {}:{} {} handshake {}, resumed {}/{}, rate {}/s, failed {}", host, port, tlsProtocol, handshakeStats,
+                resumedHandshakeStats.getCount(), handshakeStats.getCount(), results.get("connection_rate"), failures.get());
+        return results;
+    }
+
+    private String connect(SSLContext sslContext, LatencyStats connectStats, LatencyStats handshakeStats, LatencyStats fullHandshakeStats,
+                           LatencyStats resumedHandshakeStats, AtomicLong ticketWaitNanos) {
+        try (SSLSocket socket = (SSLSocket) sslContext.getSocketFactory().createSocket()) {
+            SSLParameters sslParameters = socket.getSSLParameters();
+            sslParameters.setProtocols(new String[]{tlsProtocol});
+            socket.setSSLParameters(sslParameters);
+            socket.setSoTimeout((int) Constants.DURATION_10_SECONDS);
+
+            long connectStart = System.nanoTime();
+            socket.connect(new InetSocketAddress(host, port), (int) Constants.DURATION_10_SECONDS);
+            long handshakeStartMillis = System.currentTimeMillis();
+            long handshakeStart = System.nanoTime();
+            socket.startHandshake();
+            long handshakeEnd = System.nanoTime();
+            connectStats.recordNanos(handshakeStart - connectStart);
+            handshakeStats.recordNanos(handshakeEnd - handshakeStart);
+            SSLSession session = socket.getSession();
+            if (session.getCreationTime() < handshakeStartMillis) {
+                resumedHandshakeStats.recordNanos(handshakeEnd - handshakeStart);
+            } else {
+                fullHandshakeStats.recordNanos(handshakeEnd - handshakeStart);
+            }
+
+            String cipherSuite = session.getCipherSuite();
+            if (!sessionResumption) {
+                session.invalidate();
+            } else if ("TLSv1.3".equals(session.getProtocol())) {
+                ticketWaitNanos.addAndGet(awaitSessionTicket(socket));
+            }
+            return cipherSuite;
+        } catch (IOException e) {
+            LOGGER.debug("[TLS] Connection to {}:{} failed: {}", host, port, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Broker never sends application data on plain TLS connection, so read processes post-handshake NewSessionTicket
+     * and then times out.
+     * @return time spent waiting in nanoseconds
+     */
+    private static long awaitSessionTicket(SSLSocket socket) throws IOException {
+        long start = System.nanoTime();
+        socket.setSoTimeout(TICKET_WAIT_MS);
+        try {
+            if (socket.getInputStream().read() == -1) {
+                LOGGER.trace("[TLS] Connection closed by broker while waiting for session ticket");
+            }
+        } catch (SocketTimeoutException e) {
+            LOGGER.trace("[TLS] Session ticket processed");
+        }
+        return System.nanoTime() - start;
+    }
+
+    private SSLContext createSslContext() {
+        try {
+            TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagerFactory.init(trustStore.getKeyStore());
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, trustManagerFactory.getTrustManagers(), null);
+            return sslContext;
+        } catch (GeneralSecurityException e) {
+            String errMsg = String.format("[TLS] Unable to create SSLContext from %s: %s", trustStore.getKeyStorePath(), e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+}
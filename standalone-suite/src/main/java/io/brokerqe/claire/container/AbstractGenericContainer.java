@@ -12,6 +12,8 @@ import com.github.dockerjava.api.command.PauseContainerCmd;
 import com.github.dockerjava.api.command.UnpauseContainerCmd;
 import com.github.dockerjava.api.exception.NotFoundException;
 import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.BlkioRateDevice;
+import com.github.dockerjava.api.model.HostConfig;
 import io.brokerqe.claire.Constants;
 import io.brokerqe.claire.EnvironmentStandalone;
 import io.brokerqe.claire.ResourceManager;
@@ -20,12 +22,14 @@ import io.brokerqe.claire.exception.ClaireRuntimeException;
 import io.brokerqe.claire.executor.Executor;
 import io.brokerqe.claire.executor.ExecutorStandalone;
 import io.brokerqe.claire.helper.TimeHelper;
+import io.brokerqe.claire.helpers.LogFollower;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.DockerClientFactory;
 import org.testcontainers.containers.BindMode;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.Network;
+import org.testcontainers.containers.output.OutputFrame;
 import org.testcontainers.containers.output.Slf4jLogConsumer;
 import org.testcontainers.containers.wait.strategy.Wait;
 import org.testcontainers.images.ImagePullPolicy;
@@ -35,21 +39,30 @@ import org.testcontainers.utility.MountableFile;
 
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public abstract class AbstractGenericContainer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractGenericContainer.class);
     private static final String ETC_LOCALTIME = "/etc/localtime";
+    private static final long CPU_PERIOD_US = 100_000;
 
     protected static final EnvironmentStandalone ENVIRONMENT_STANDALONE = EnvironmentStandalone.getInstance();
 
     private final Slf4jLogConsumer logConsumer;
+    private LogFollower logFollower;
     protected GenericContainer<?> container;
     protected String name;
     protected ContainerType type;
     private String userId;
+    private Long cpuQuota;
+    private String cpuset;
+    private Long memoryLimit;
+    private final List<BlkioRateDevice> blkioReadBps = new ArrayList<>();
+    private final List<BlkioRateDevice> blkioWriteBps = new ArrayList<>();
     protected DockerClient dockerClient = DockerClientFactory.lazyClient();
 
     protected AbstractGenericContainer(String name, String dockerImage) {
@@ -80,10 +93,57 @@ public abstract class AbstractGenericContainer {
         container.withNetworkAliases(name);
     }
 
+    public void withExposedPorts(int... ports) {
+        LOGGER.debug("[Container {}] - With additional exposed ports: {}", name, ports);
+        container.addExposedPorts(ports);
+    }
+
     public void withUserId(String userId) {
         this.userId = userId;
     }
 
+    /**
+     * Limits container to given number of CPUs using CFS quota (the same way as Kubernetes CPU limit).
+     */
+    public void withCpuLimit(double cpus) {
+        LOGGER.debug("[Container {}] - With CPU limit {}", name, cpus);
+        cpuQuota = Math.round(cpus * CPU_PERIOD_US);
+    }
+
+    /**
+     * Pins container to given CPUs, e.g. {@code 0-3} or {@code 0,2}.
+     */
+    public void withCpuset(String cpus) {
+        LOGGER.debug("[Container {}] - With cpuset {}", name, cpus);
+        cpuset = cpus;
+    }
+
+    /**
+     * Limits memory of container, swap is not allowed (as on Kubernetes nodes).
+     */
+    public void withMemoryLimit(long bytes) {
+        LOGGER.debug("[Container {}] - With memory limit {} bytes", name, bytes);
+        memoryLimit = bytes;
+    }
+
+    public Long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    /**
+     * Throttles read and write throughput of container on given host block device (e.g. {@code /dev/sda}).
+     * Throttling is not applied for value 0.
+     */
+    public void withBlkioThrottle(String device, long readBytesPerSecond, long writeBytesPerSecond) {
+        LOGGER.debug("[Container {}] - With blkio throttle on {} read {} B/s write {} B/s", name, device, readBytesPerSecond, writeBytesPerSecond);
+        if (readBytesPerSecond > 0) {
+            blkioReadBps.add(new BlkioRateDevice().withPath(device).withRate(readBytesPerSecond));
+        }
+        if (writeBytesPerSecond > 0) {
+            blkioWriteBps.add(new BlkioRateDevice().withPath(device).withRate(writeBytesPerSecond));
+        }
+    }
+
     public void start() {
         LOGGER.trace("[Container {}] - With hostname: {}", name, name);
         container.withCreateContainerCmdModifier(cmd -> {
@@ -91,6 +151,7 @@ public abstract class AbstractGenericContainer {
                 cmd.withUser(userId);
             }
             cmd.withHostName(name);
+            withResourceLimits(cmd.getHostConfig());
         });
         LOGGER.trace("[Container {}] - With network alias: {}", name, name);
         container.withNetworkAliases(name);
@@ -103,6 +164,24 @@ public abstract class AbstractGenericContainer {
         container.start();
     }
 
+    private void withResourceLimits(HostConfig hostConfig) {
+        if (cpuQuota != null) {
+            hostConfig.withCpuPeriod(CPU_PERIOD_US).withCpuQuota(cpuQuota);
+        }
+        if (cpuset != null) {
+            hostConfig.withCpusetCpus(cpuset);
+        }
+        if (memoryLimit != null) {
+            hostConfig.withMemory(memoryLimit).withMemorySwap(memoryLimit);
+        }
+        if (!blkioReadBps.isEmpty()) {
+            hostConfig.withBlkioDeviceReadBps(blkioReadBps);
+        }
+        if (!blkioWriteBps.isEmpty()) {
+            hostConfig.withBlkioDeviceWriteBps(blkioWriteBps);
+        }
+    }
+
     public boolean isRunning() {
         return container.isRunning();
     }
@@ -195,6 +274,25 @@ public abstract class AbstractGenericContainer {
         return container.getLogs();
     }
 
+    /**
+     * Follows container log incrementally (also over container restarts) instead of fetching whole log with
+     * {@link #getLogs()}, so waits for log message are triggered by the line itself.
+     * @return log follower of this container, created on first call
+     */
+    public LogFollower followLogs() {
+        if (logFollower == null) {
+            LOGGER.debug("[Container {}] - Following log", name);
+            logFollower = new LogFollower(name);
+            Consumer<OutputFrame> frameConsumer = frame -> logFollower.accept(frame.getUtf8String());
+            // attached on every (re)start of container
+            container.withLogConsumer(frameConsumer);
+            if (container.isRunning()) {
+                container.followOutput(frameConsumer);
+            }
+        }
+        return logFollower;
+    }
+
     private void withStdOutLog() {
         LOGGER.debug("[Container {}] - With stdout logging", name);
         if (container.getLogConsumers().contains(logConsumer)) {
@@ -215,6 +313,14 @@ public abstract class AbstractGenericContainer {
         }
     }
 
+    /**
+     * Mounts memory backed tmpfs, writable by any container user, to given container directory.
+     */
+    public void withTmpFs(String destination) {
+        LOGGER.debug("[Container {}] - Mounting tmpfs to {}", name, destination);
+        container.withTmpFs(Map.of(destination, "rw,mode=1777"));
+    }
+
     public void withEnvVar(Map<String, String> envVars) {
         container.withEnv(envVars);
     }
@@ -272,6 +378,14 @@ public abstract class AbstractGenericContainer {
         return getExecutor().executeCommand(command);
     }
 
+    /**
+     * @return apparent size in bytes of given directory (including subdirectories) inside container
+     */
+    public long getDirectorySize(String containerDir) {
+        String output = ((String) executeCommand("du", "-sb", containerDir)).trim();
+        return Long.parseLong(output.split("\\s+")[0]);
+    }
+
     public Executor getExecutor() {
         return new ExecutorStandalone(container);
     }
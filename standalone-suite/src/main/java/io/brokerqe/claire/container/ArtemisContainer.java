@@ -10,6 +10,7 @@ import io.brokerqe.claire.Constants;
 import io.brokerqe.claire.TestUtils;
 import io.brokerqe.claire.exception.ClaireRuntimeException;
 import io.brokerqe.claire.helper.TimeHelper;
+import io.brokerqe.claire.monitoring.JfrRecorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.BindMode;
@@ -45,6 +46,9 @@ public final class ArtemisContainer extends AbstractGenericContainer {
             Constants.FILE_SEPARATOR + Constants.ARTEMIS_INSTANCE_STRING;
     public static final String ARTEMIS_INSTANCE_DATA_DIR = ARTEMIS_INSTANCE_DIR + Constants.DATA_DIR;
     private static final String ARTEMIS_INSTANCE_CONTROLLER_CMD = "/usr/local/bin/artemis-controller.sh";
+    private static final String JAVA_ARGS_APPEND = "JAVA_ARGS_APPEND";
+    /** part of container memory limit used for broker heap, the rest is left for direct memory, metaspace and threads */
+    private static final double HEAP_MEMORY_LIMIT_RATIO = 0.5;
     private boolean secured = false;
 
     public ArtemisContainer(String name) {
@@ -127,9 +131,27 @@ public final class ArtemisContainer extends AbstractGenericContainer {
         long uid = new UnixSystem().getUid();
         long gid = new UnixSystem().getGid();
         withEnvVar(Map.of("ARTEMIS_GROUP_GID", String.valueOf(gid), "ARTEMIS_USER_UID", String.valueOf(uid)));
+        if (getMemoryLimit() != null) {
+            withHeapFromMemoryLimit();
+        }
         super.start();
     }
 
+    /**
+     * Sizes broker heap from container memory limit, as on Kubernetes, instead of fixed heap from artemis.profile.
+     * Heap arguments are appended, so they take precedence over those from artemis.profile.
+     */
+    private void withHeapFromMemoryLimit() {
+        long heapMb = (long) (getMemoryLimit() * HEAP_MEMORY_LIMIT_RATIO) / (1024 * 1024);
+        String heapArgs = String.format(Locale.ROOT, "-Xms%dM -Xmx%dM", heapMb, heapMb);
+        String javaArgsAppend = container.getEnvMap().get(JAVA_ARGS_APPEND);
+        if (javaArgsAppend != null && javaArgsAppend.contains(heapArgs)) {
+            return;
+        }
+        LOGGER.debug("[Container {}] - Using heap {} MB for memory limit {} bytes", name, heapMb, getMemoryLimit());
+        withEnvVar(Map.of(JAVA_ARGS_APPEND, javaArgsAppend == null ? heapArgs : javaArgsAppend + " " + heapArgs));
+    }
+
     public String getConsoleUrl() {
         if (secured) {
             return getHttpsConsoleUrl();
@@ -215,6 +237,15 @@ public final class ArtemisContainer extends AbstractGenericContainer {
         }
     }
 
+    /**
+     * Starts Java Flight Recorder in broker JVM. Stop it by {@link JfrRecorder#stop(String)} after workload.
+     */
+    public JfrRecorder startJfrRecording(String recordingName) {
+        return new JfrRecorder(recordingName, getExecutor(), this::copyFileFrom)
+                .withJcmd(getArtemisJavaHomeDir() + "/bin/jcmd")
+                .start();
+    }
+
     public enum ArtemisProcessControllerActions {
         START, STOP, FORCE_STOP
     }
@@ -15,6 +15,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.BindMode;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
 
 public abstract class DatabaseContainer extends AbstractGenericContainer implements Database {
 
@@ -110,4 +115,33 @@ public abstract class DatabaseContainer extends AbstractGenericContainer impleme
         this.jdbcData = jdbcData;
     }
 
+    /**
+     * Shell command executed in database container, which prints one {@code <counter name> <value>} pair per line.
+     * @return command or null, if database does not provide statistics
+     */
+    protected String getStatisticsCommand() {
+        return null;
+    }
+
+    /**
+     * @return cumulative server-side counters (rows, IO operations, commits) since database start, empty if not supported
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        String statisticsCommand = getStatisticsCommand();
+        if (statisticsCommand == null) {
+            return statistics;
+        }
+        String output = (String) executeCommand("sh", "-c", statisticsCommand);
+        for (String line : output.split("\\R")) {
+            String[] columns = line.trim().split("\\s+");
+            if (columns.length >= 2 && columns[columns.length - 1].matches("-?\\d+")) {
+                String counterName = String.join("_", Arrays.copyOf(columns, columns.length - 1)).toLowerCase(Locale.ROOT);
+                statistics.put(counterName, Long.parseLong(columns[columns.length - 1]));
+            }
+        }
+        LOGGER.debug("[{}] Database statistics {}", name, statistics);
+        return statistics;
+    }
+
 }
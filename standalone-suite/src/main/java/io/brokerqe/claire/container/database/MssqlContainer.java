@@ -68,4 +68,18 @@ public class MssqlContainer extends DatabaseContainer {
         String setupCommand = String.format("/opt/mssql-tools/bin/sqlcmd -S localhost -U sa -P %s -i %s", adminPassword, sqlStartupFilename);
         executeCommand(setupCommand.split(" "));
     }
+
+    @Override
+    protected String getStatisticsCommand() {
+        String indexStats = "FROM sys.dm_db_index_operational_stats(DB_ID(), NULL, NULL, NULL)";
+        String ioStats = "FROM sys.dm_io_virtual_file_stats(DB_ID(), NULL)";
+        String query = "SET NOCOUNT ON; SELECT 'rows_inserted', ISNULL(SUM(leaf_insert_count), 0) " + indexStats
+                + " UNION ALL SELECT 'rows_updated', ISNULL(SUM(leaf_update_count), 0) " + indexStats
+                + " UNION ALL SELECT 'rows_deleted', ISNULL(SUM(leaf_delete_count), 0) " + indexStats
+                + " UNION ALL SELECT 'io_reads', SUM(num_of_reads) " + ioStats
+                + " UNION ALL SELECT 'io_writes', SUM(num_of_writes) " + ioStats
+                + " UNION ALL SELECT 'io_bytes_written', SUM(num_of_bytes_written) " + ioStats;
+        return String.format("/opt/mssql-tools/bin/sqlcmd -S localhost -U sa -P '%s' -d %s -h -1 -W -Q \"%s\"",
+                adminPassword, databaseName, query);
+    }
 }
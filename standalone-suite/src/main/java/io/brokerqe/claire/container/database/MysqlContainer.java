@@ -47,4 +47,11 @@ public class MysqlContainer extends DatabaseContainer {
         TestUtils.createFile(tmpConfig, customConfig);
         container.withFileSystemBind(tmpConfig, "/opt/bitnami/mysql/conf/my_custom.cnf");
     }
+
+    @Override
+    protected String getStatisticsCommand() {
+        String query = "SHOW GLOBAL STATUS WHERE Variable_name IN ('Innodb_rows_inserted', 'Innodb_rows_updated', 'Innodb_rows_deleted',"
+                + " 'Innodb_data_reads', 'Innodb_data_writes', 'Innodb_data_written', 'Innodb_os_log_written', 'Com_commit')";
+        return String.format("mysql -h 127.0.0.1 -u'%s' -p'%s' -N -B -e \"%s\"", getUsername(), getPassword(), query);
+    }
 }
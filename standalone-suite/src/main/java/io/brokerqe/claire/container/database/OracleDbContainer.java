@@ -56,5 +56,11 @@ public class OracleDbContainer extends DatabaseContainer {
         executeCommand("sh", "-c", setupCommand);
     }
 
-
+    @Override
+    protected String getStatisticsCommand() {
+        String query = "SELECT name || ' ' || TO_CHAR(value) FROM v\\$sysstat WHERE name IN ('user commits', 'physical reads',"
+                + " 'physical writes', 'physical write bytes', 'redo size', 'db block changes');";
+        return String.format("echo \"SET HEADING OFF FEEDBACK OFF PAGESIZE 0%n%s\" | sqlplus -s %s/%s@FREEPDB1",
+                query, databaseName, userPassword);
+    }
 }
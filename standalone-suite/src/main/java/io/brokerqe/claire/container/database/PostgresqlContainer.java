@@ -31,4 +31,17 @@ public class PostgresqlContainer extends DatabaseContainer {
         container.addExposedPort(port);
         withLogWait(".*database system is ready to accept connections.*");
     }
+
+    @Override
+    protected String getStatisticsCommand() {
+        String query = "SELECT 'rows_inserted', COALESCE(SUM(n_tup_ins), 0) FROM pg_stat_user_tables"
+                + " UNION ALL SELECT 'rows_updated', COALESCE(SUM(n_tup_upd), 0) FROM pg_stat_user_tables"
+                + " UNION ALL SELECT 'rows_deleted', COALESCE(SUM(n_tup_del), 0) FROM pg_stat_user_tables"
+                + " UNION ALL SELECT 'commits', xact_commit FROM pg_stat_database WHERE datname = current_database()"
+                + " UNION ALL SELECT 'blocks_read', blks_read FROM pg_stat_database WHERE datname = current_database()"
+                + " UNION ALL SELECT 'blocks_hit', blks_hit FROM pg_stat_database WHERE datname = current_database()"
+                + " UNION ALL SELECT 'wal_bytes', wal_bytes FROM pg_stat_wal";
+        return String.format("PGPASSWORD='%s' psql -h localhost -U '%s' -d '%s' -t -A -F ' ' -c \"%s\"",
+                getPassword(), getUsername(), getDatabaseName(), query);
+    }
 }
@@ -13,21 +13,35 @@ import org.apache.activemq.artemis.api.core.RoutingType;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.management.ActiveMQServerControl;
 import org.apache.activemq.artemis.api.core.management.AddressControl;
+import org.apache.activemq.artemis.api.core.management.ClusterConnectionControl;
 import org.apache.activemq.artemis.api.core.management.ObjectNameBuilder;
 import org.apache.activemq.artemis.api.core.management.QueueControl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.JMException;
+import javax.management.MBeanServerConnection;
 import javax.management.MBeanServerInvocationHandler;
 import javax.management.ObjectName;
 import javax.management.remote.JMXConnector;
 import javax.management.remote.JMXConnectorFactory;
 import javax.management.remote.JMXServiceURL;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.net.MalformedURLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.LongConsumer;
 
 /**
  * This class was based on
@@ -93,6 +107,172 @@ public final class ArtemisJmxHelper {
         }
     }
 
+    /**
+     * Reads paging state of single (anycast) address using single JMX connection.
+     * @return message count of queue of the same name, paging state (1 when paging, 0 otherwise), number of page files
+     * and address size
+     */
+    public static Map<String, Long> getPagingStats(ArtemisContainer artemisContainer, String address) {
+        LOGGER.debug("[Container {}] - Getting paging statistics of address {}", artemisContainer.getName(), address);
+        JMXServiceURL serviceURI = getJmxUrl(artemisContainer);
+        try (JMXConnector jmx = JMXConnectorFactory.connect(serviceURI)) {
+            MBeanServerConnection connection = jmx.getMBeanServerConnection();
+            ObjectNameBuilder objectBuilder = getObjectBuilder(artemisContainer);
+            QueueControl queueControl = MBeanServerInvocationHandler.newProxyInstance(connection,
+                    objectBuilder.getQueueObjectName(SimpleString.toSimpleString(address), SimpleString.toSimpleString(address),
+                            RoutingType.ANYCAST), QueueControl.class, false);
+            AddressControl addressControl = MBeanServerInvocationHandler.newProxyInstance(connection,
+                    objectBuilder.getAddressObjectName(SimpleString.toSimpleString(address)), AddressControl.class, false);
+            Map<String, Long> stats = new LinkedHashMap<>();
+            stats.put("message_count", queueControl.getMessageCount());
+            stats.put("paging", addressControl.isPaging() ? 1L : 0L);
+            stats.put("page_count", addressControl.getNumberOfPages());
+            stats.put("address_size", addressControl.getAddressSize());
+            return stats;
+        } catch (Exception e) {
+            Throwable ex = e instanceof UndeclaredThrowableException ? ((UndeclaredThrowableException) e).getUndeclaredThrowable() : e;
+            String errMsg = String.format("[Container %s] Error on getting paging statistics of %s: %s", artemisContainer.getName(),
+                    address, ex.getMessage());
+            LOGGER.debug(errMsg);
+            throw new ClaireRuntimeException(errMsg, ex);
+        }
+    }
+
+    /**
+     * @return broker JVM statistics - used heap, old generation usage after last GC, GC count and time, live threads
+     * and open file descriptors
+     */
+    public static Map<String, Double> getJvmStats(ArtemisContainer artemisContainer) {
+        LOGGER.debug("[Container {}] - Getting JVM statistics", artemisContainer.getName());
+        JMXServiceURL serviceURI = getJmxUrl(artemisContainer);
+        try (JMXConnector jmx = JMXConnectorFactory.connect(serviceURI)) {
+            MBeanServerConnection connection = jmx.getMBeanServerConnection();
+            Map<String, Double> stats = new LinkedHashMap<>();
+            MemoryMXBean memory = ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.MEMORY_MXBEAN_NAME,
+                    MemoryMXBean.class);
+            stats.put("heap_used_bytes", (double) memory.getHeapMemoryUsage().getUsed());
+
+            double oldGenAfterGc = 0;
+            for (ObjectName poolName : connection.queryNames(new ObjectName(ManagementFactory.MEMORY_POOL_MXBEAN_DOMAIN_TYPE + ",*"), null)) {
+                MemoryPoolMXBean pool = ManagementFactory.newPlatformMXBeanProxy(connection, poolName.toString(), MemoryPoolMXBean.class);
+                boolean oldGen = pool.getName().contains("Old") || pool.getName().contains("Tenured");
+                if (pool.getType() == MemoryType.HEAP && oldGen && pool.getCollectionUsage() != null) {
+                    oldGenAfterGc += pool.getCollectionUsage().getUsed();
+                }
+            }
+            stats.put("old_gen_after_gc_bytes", oldGenAfterGc);
+
+            double gcCount = 0;
+            double gcTime = 0;
+            for (ObjectName gcName : connection.queryNames(new ObjectName(ManagementFactory.GARBAGE_COLLECTOR_MXBEAN_DOMAIN_TYPE + ",*"), null)) {
+                GarbageCollectorMXBean gc = ManagementFactory.newPlatformMXBeanProxy(connection, gcName.toString(), GarbageCollectorMXBean.class);
+                gcCount += gc.getCollectionCount();
+                gcTime += gc.getCollectionTime();
+            }
+            stats.put("gc_count", gcCount);
+            stats.put("gc_time_ms", gcTime);
+
+            ThreadMXBean threads = ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.THREAD_MXBEAN_NAME,
+                    ThreadMXBean.class);
+            stats.put("threads", (double) threads.getThreadCount());
+            Object openFds = connection.getAttribute(new ObjectName(ManagementFactory.OPERATING_SYSTEM_MXBEAN_NAME), "OpenFileDescriptorCount");
+            stats.put("open_fds", ((Number) openFds).doubleValue());
+            return stats;
+        } catch (IOException | JMException e) {
+            String errMsg = String.format("[Container %s] Error on getting JVM statistics: %s", artemisContainer.getName(), e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    /**
+     * Triggers full GC in broker JVM, so following {@link #getJvmStats(ArtemisContainer)} reports retained heap.
+     */
+    public static void runGc(ArtemisContainer artemisContainer) {
+        LOGGER.debug("[Container {}] - Running GC", artemisContainer.getName());
+        JMXServiceURL serviceURI = getJmxUrl(artemisContainer);
+        try (JMXConnector jmx = JMXConnectorFactory.connect(serviceURI)) {
+            ManagementFactory.newPlatformMXBeanProxy(jmx.getMBeanServerConnection(), ManagementFactory.MEMORY_MXBEAN_NAME,
+                    MemoryMXBean.class).gc();
+        } catch (IOException e) {
+            String errMsg = String.format("[Container %s] Error on running GC: %s", artemisContainer.getName(), e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    /**
+     * Creates durable queues, each on address of the same name, using single JMX connection.
+     * Already existing queues are ignored.
+     * @param latencyConsumer gets duration of every single management call in nanoseconds
+     */
+    public static void createQueues(ArtemisContainer artemisContainer, List<String> queueNames, RoutingType routingType,
+                                    LongConsumer latencyConsumer) {
+        LOGGER.debug("[Container {}] - Creating {} {} queues", artemisContainer.getName(), queueNames.size(), routingType);
+        JMXServiceURL serviceURI = getJmxUrl(artemisContainer);
+        ObjectName objectName = getArtemisObjectName(artemisContainer);
+        try (JMXConnector jmx = JMXConnectorFactory.connect(serviceURI)) {
+            ActiveMQServerControl control = MBeanServerInvocationHandler.newProxyInstance(jmx.getMBeanServerConnection(),
+                    objectName, ActiveMQServerControl.class, false);
+            for (String queueName : queueNames) {
+                String queueConfiguration = String.format("{\"name\":\"%s\",\"address\":\"%s\",\"routing-type\":\"%s\","
+                        + "\"durable\":true,\"auto-create-address\":true}", queueName, queueName, routingType);
+                long start = System.nanoTime();
+                control.createQueue(queueConfiguration, true);
+                latencyConsumer.accept(System.nanoTime() - start);
+            }
+        } catch (Exception e) {
+            Throwable ex = e instanceof UndeclaredThrowableException ? ((UndeclaredThrowableException) e).getUndeclaredThrowable() : e;
+            String errMsg = String.format("[Container %s] Error on creating queues: %s", artemisContainer.getName(), ex.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, ex);
+        }
+    }
+
+    /**
+     * @return number of all queues deployed on broker
+     */
+    public static int getTotalQueueCount(ArtemisContainer artemisContainer) {
+        LOGGER.debug("[Container {}] - Getting number of queues", artemisContainer.getName());
+        return queryControl(getJmxUrl(artemisContainer), getArtemisObjectName(artemisContainer), ActiveMQServerControl::getQueueCount,
+                ActiveMQServerControl.class, throwable -> null).orElse(0);
+    }
+
+    /**
+     * @return number of other cluster members connected by given cluster connection
+     */
+    public static int getClusterNodeCount(ArtemisContainer artemisContainer, String clusterConnectionName) {
+        LOGGER.debug("[Container {}] - Getting number of nodes of cluster connection {}", artemisContainer.getName(), clusterConnectionName);
+        JMXServiceURL serviceURI = getJmxUrl(artemisContainer);
+        try {
+            ObjectName objectName = getObjectBuilder(artemisContainer).getClusterConnectionObjectName(clusterConnectionName);
+            return queryControl(serviceURI, objectName, control -> control.getNodes().size(), ClusterConnectionControl.class,
+                    throwable -> null).orElse(0);
+        } catch (Exception e) {
+            throw new ClaireRuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return journal configuration effectively used by broker (broker switches ASYNCIO to NIO, when libaio or
+     * direct IO is not supported by journal directory)
+     */
+    public static Map<String, String> getJournalConfiguration(ArtemisContainer artemisContainer) {
+        LOGGER.debug("[Container {}] - Getting journal configuration", artemisContainer.getName());
+        return queryControl(getJmxUrl(artemisContainer), getArtemisObjectName(artemisContainer), control -> {
+            Map<String, String> journal = new LinkedHashMap<>();
+            journal.put("journal_type", control.getJournalType());
+            journal.put("journal_directory", control.getJournalDirectory());
+            journal.put("journal_buffer_timeout_ns", String.valueOf(control.getJournalBufferTimeout()));
+            journal.put("journal_buffer_size", String.valueOf(control.getJournalBufferSize()));
+            journal.put("journal_max_io", String.valueOf(control.getJournalMaxIO()));
+            journal.put("journal_sync_transactional", String.valueOf(control.isJournalSyncTransactional()));
+            journal.put("journal_sync_non_transactional", String.valueOf(control.isJournalSyncNonTransactional()));
+            return journal;
+        }, ActiveMQServerControl.class, throwable -> null).orElseThrow(() ->
+                new ClaireRuntimeException(String.format("[Container %s] Unable to get journal configuration", artemisContainer.getName())));
+    }
+
     private static ObjectName getArtemisObjectName(ArtemisContainer artemisContainer) {
         ObjectName objectName;
         try {
@@ -0,0 +1,175 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helper;
+
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.client.ContinuousJmsTraffic;
+import io.brokerqe.claire.monitoring.LatencyStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Applies scheduled {@link NetworkFault}s one by one while continuous traffic is running and compares traffic with
+ * baseline measured before first fault. Traffic is sampled in fixed windows (1 s by default), every window provides
+ * received message rate and p99 of end-to-end latency.
+ * For every fault following is recorded:
+ * <ul>
+ *     <li>degraded_* - throughput and latency while fault is applied</li>
+ *     <li>recovery_ms - time from fault removal to first window with throughput at least 90 % of baseline and p99
+ *     latency at most twice of baseline (-1 if traffic did not recover within recovery timeout)</li>
+ * </ul>
+ */
+public class ChaosRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChaosRunner.class);
+    private static final double RECOVERED_THROUGHPUT_RATIO = 0.9;
+    private static final double RECOVERED_LATENCY_RATIO = 2.0;
+
+    private final ContinuousJmsTraffic traffic;
+    private long baselineDuration = Constants.DURATION_30_SECONDS;
+    private long sampleInterval = Constants.DURATION_1_SECOND;
+    private long recoveryTimeout = Constants.DURATION_2_MINUTES;
+    private double baselineThroughput;
+    private long baselineLatencyP99;
+    private int lastReceivedCount;
+
+    public ChaosRunner(ContinuousJmsTraffic traffic) {
+        this.traffic = traffic;
+    }
+
+    public ChaosRunner withBaselineDuration(long baselineDuration) {
+        this.baselineDuration = baselineDuration;
+        return this;
+    }
+
+    public ChaosRunner withSampleInterval(long sampleInterval) {
+        this.sampleInterval = sampleInterval;
+        return this;
+    }
+
+    public ChaosRunner withRecoveryTimeout(long recoveryTimeout) {
+        this.recoveryTimeout = recoveryTimeout;
+        return this;
+    }
+
+    /**
+     * Measures baseline, then applies faults in given order, each followed by recovery period.
+     * Traffic has to be started already, it is not stopped by this method.
+     * @return baseline (with {@code fault=baseline}) followed by results of every fault
+     */
+    public List<Map<String, String>> run(List<NetworkFault> faults) {
+        List<Map<String, String>> results = new ArrayList<>();
+        lastReceivedCount = traffic.getReceivedCount();
+        traffic.swapLatencyWindow();
+
+        LOGGER.info("[Chaos] Measuring baseline for {} ms", baselineDuration);
+        List<Sample> baselineSamples = sample(baselineDuration);
+        baselineThroughput = baselineSamples.stream().mapToDouble(Sample::throughput).average().orElse(0);
+        baselineLatencyP99 = (long) baselineSamples.stream().mapToLong(Sample::latencyP99).average().orElse(0);
+        Map<String, String> baseline = new LinkedHashMap<>();
+        baseline.put("fault", "baseline");
+        baseline.put("duration_ms", String.valueOf(baselineDuration));
+        baseline.put("throughput", formatRate(baselineThroughput));
+        baseline.put("latency_us_99.00", String.valueOf(baselineLatencyP99));
+        LOGGER.info("[Chaos] Baseline {}", baseline);
+        results.add(baseline);
+
+        for (NetworkFault fault : faults) {
+            results.add(runFault(fault));
+        }
+        return results;
+    }
+
+    private Map<String, String> runFault(NetworkFault fault) {
+        fault.apply();
+        List<Sample> degradedSamples;
+        try {
+            degradedSamples = sample(fault.getDurationMs());
+        } finally {
+            fault.remove();
+        }
+        long removedAt = System.nanoTime();
+        long recoveryMs = -1;
+        long deadline = removedAt + recoveryTimeout * 1_000_000;
+        while (System.nanoTime() < deadline) {
+            Sample sample = sample();
+            if (sample.throughput() >= baselineThroughput * RECOVERED_THROUGHPUT_RATIO
+                    && sample.latencyP99() <= baselineLatencyP99 * RECOVERED_LATENCY_RATIO) {
+                recoveryMs = (System.nanoTime() - removedAt) / 1_000_000;
+                break;
+            }
+        }
+
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("fault", fault.getName());
+        result.put("type", fault.getType().name());
+        result.put("proxy", fault.getProxyName());
+        result.put("value", String.valueOf(fault.getValue()));
+        result.put("duration_ms", String.valueOf(fault.getDurationMs()));
+        result.put("baseline_throughput", formatRate(baselineThroughput));
+        result.put("baseline_latency_us_99.00", String.valueOf(baselineLatencyP99));
+        result.put("degraded_throughput", formatRate(degradedSamples.stream().mapToDouble(Sample::throughput).average().orElse(0)));
+        result.put("degraded_throughput_min", formatRate(degradedSamples.stream().mapToDouble(Sample::throughput).min().orElse(0)));
+        result.put("degraded_latency_us_99.00", String.valueOf(degradedSamples.stream().mapToLong(Sample::latencyP99).max().orElse(0)));
+        result.put("recovery_ms", String.valueOf(recoveryMs));
+        result.put("recovered", String.valueOf(recoveryMs >= 0));
+        LOGGER.info("[Chaos] {}", result);
+        return result;
+    }
+
+    private List<Sample> sample(long durationMs) {
+        List<Sample> samples = new ArrayList<>();
+        long deadline = System.nanoTime() + durationMs * 1_000_000;
+        while (System.nanoTime() < deadline) {
+            samples.add(sample());
+        }
+        return samples;
+    }
+
+    private Sample sample() {
+        long start = System.nanoTime();
+        TimeHelper.waitFor(sampleInterval);
+        int receivedCount = traffic.getReceivedCount();
+        LatencyStats latencyWindow = traffic.swapLatencyWindow();
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        Sample sample = new Sample((receivedCount - lastReceivedCount) / elapsedSeconds, latencyWindow.getPercentile(99));
+        lastReceivedCount = receivedCount;
+        LOGGER.debug("[Chaos] {}", sample);
+        return sample;
+    }
+
+    private static String formatRate(double rate) {
+        return String.format(Locale.ROOT, "%.2f", rate);
+    }
+
+    private static final class Sample {
+        private final double throughput;
+        private final long latencyP99;
+
+        private Sample(double throughput, long latencyP99) {
+            this.throughput = throughput;
+            this.latencyP99 = latencyP99;
+        }
+
+        private double throughput() {
+            return throughput;
+        }
+
+        private long latencyP99() {
+            return latencyP99;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "throughput=%.2f/s p99=%dus", throughput, latencyP99);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helper;
+
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.client.AmqpUtil;
+import io.brokerqe.claire.client.ContinuousJmsTraffic;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.monitoring.LatencyStats;
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Measures failover of primary/backup pair in repeated cycles of fault injection and failback.
+ * In every cycle, continuous traffic runs through failover connection while primary is stopped, killed or paused and
+ * following times (from the fault injection) are recorded:
+ * <ul>
+ *     <li>detect - client connection interrupted</li>
+ *     <li>activation - backup reported as live by JMX (polled every 100 ms)</li>
+ *     <li>reconnect - client connection restored to backup</li>
+ *     <li>producer_stall, consumer_gap - the longest pause between successful sends and receives</li>
+ * </ul>
+ * Results are aggregated as percentiles over all cycles, together with lost and duplicated messages.
+ */
+public class FailoverTimer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FailoverTimer.class);
+    private static final long SEND_INTERVAL_MS = 10;
+    private static final long POLL_MS = Constants.DURATION_100_MILLISECONDS;
+    private static final String FAILOVER_OPTIONS = "failover.amqpOpenServerListAction=IGNORE&failover.initialReconnectDelay=0"
+            + "&failover.reconnectDelay=100&failover.useReconnectBackOff=false&failover.nested.amqp.idleTimeout=2000";
+
+    public enum Fault {
+        /** graceful shutdown of primary broker process */
+        STOP,
+        /** SIGKILL of primary broker process */
+        KILL,
+        /** freeze of whole primary container, broker process is restarted afterwards */
+        PAUSE
+    }
+
+    private final ArtemisContainer primary;
+    private final ArtemisContainer backup;
+    private final boolean replicated;
+    private long failoverTimeout = Constants.DURATION_2_MINUTES;
+    private final List<Map<String, String>> cycleResults = new ArrayList<>();
+
+    public FailoverTimer(ArtemisContainer primary, ArtemisContainer backup, boolean replicated) {
+        this.primary = primary;
+        this.backup = backup;
+        this.replicated = replicated;
+    }
+
+    public FailoverTimer withFailoverTimeout(long failoverTimeout) {
+        this.failoverTimeout = failoverTimeout;
+        return this;
+    }
+
+    /**
+     * @return results of all cycles measured by this instance
+     */
+    public List<Map<String, String>> getCycleResults() {
+        return cycleResults;
+    }
+
+    /**
+     * Runs given number of fault-failover-failback cycles.
+     * @return percentiles of measured times (in microseconds) and total counts of lost and duplicated messages
+     */
+    public Map<String, String> measure(Fault fault, int cycles, String queueName) {
+        LatencyStats detect = new LatencyStats();
+        LatencyStats activation = new LatencyStats();
+        LatencyStats reconnect = new LatencyStats();
+        LatencyStats producerStall = new LatencyStats();
+        LatencyStats consumerGap = new LatencyStats();
+        long lost = 0;
+        long duplicates = 0;
+        long sent = 0;
+
+        for (int cycle = 1; cycle <= cycles; cycle++) {
+            LOGGER.info("[Failover] {} of primary {}, cycle {}/{}", fault, primary.getName(), cycle, cycles);
+            ContinuousJmsTraffic traffic = new ContinuousJmsTraffic("failover-" + cycle, createConnectionFactory(), queueName, SEND_INTERVAL_MS)
+                    .withCredentials(Constants.ARTEMIS_INSTANCE_USER_NAME, Constants.ARTEMIS_INSTANCE_USER_PASS)
+                    .start();
+            TimeHelper.waitFor(Constants.DURATION_2_SECONDS);
+
+            long faultAt = System.nanoTime();
+            injectFault(fault);
+            long activatedAt = awaitBackupActivation(faultAt);
+            TimeHelper.waitFor(e -> traffic.getRestoredAt() > 0 && traffic.getLastReceiveAt() > traffic.getRestoredAt(),
+                    POLL_MS, failoverTimeout);
+            traffic.stop(Constants.DURATION_30_SECONDS);
+
+            if (traffic.getInterruptedAt() < faultAt) {
+                String errMsg = String.format("[Failover] Client did not detect %s of primary %s", fault, primary.getName());
+                LOGGER.error(errMsg);
+                throw new ClaireRuntimeException(errMsg);
+            }
+            if (traffic.getRestoredAt() < 0) {
+                String errMsg = String.format("[Failover] Client did not reconnect to backup %s within %d ms", backup.getName(), failoverTimeout);
+                LOGGER.error(errMsg);
+                throw new ClaireRuntimeException(errMsg);
+            }
+            Map<String, String> cycleResult = new HashMap<>();
+            cycleResult.put("fault", fault.name());
+            cycleResult.put("cycle", String.valueOf(cycle));
+            cycleResult.put("detect_ms", toMillis(traffic.getInterruptedAt() - faultAt));
+            cycleResult.put("activation_ms", toMillis(activatedAt - faultAt));
+            cycleResult.put("reconnect_ms", toMillis(traffic.getRestoredAt() - faultAt));
+            cycleResult.put("producer_stall_ms", toMillis(traffic.getMaxSendGap()));
+            cycleResult.put("consumer_gap_ms", toMillis(traffic.getMaxReceiveGap()));
+            cycleResult.put("sent", String.valueOf(traffic.getSentCount()));
+            cycleResult.put("lost", String.valueOf(traffic.getLostCount()));
+            cycleResult.put("duplicates", String.valueOf(traffic.getDuplicateCount()));
+            LOGGER.info("[Failover] {}", cycleResult);
+            cycleResults.add(cycleResult);
+
+            detect.recordNanos(traffic.getInterruptedAt() - faultAt);
+            activation.recordNanos(activatedAt - faultAt);
+            reconnect.recordNanos(traffic.getRestoredAt() - faultAt);
+            producerStall.recordNanos(traffic.getMaxSendGap());
+            consumerGap.recordNanos(traffic.getMaxReceiveGap());
+            lost += traffic.getLostCount();
+            duplicates += traffic.getDuplicateCount();
+            sent += traffic.getSentCount();
+
+            failback(fault);
+        }
+
+        Map<String, String> results = new HashMap<>();
+        results.put("fault", fault.name());
+        results.put("ha_policy", replicated ? "replication" : "shared-store");
+        results.put("cycles", String.valueOf(cycles));
+        results.put("sent", String.valueOf(sent));
+        results.put("lost", String.valueOf(lost));
+        results.put("duplicates", String.valueOf(duplicates));
+        results.putAll(detect.toMap("detect"));
+        results.putAll(activation.toMap("activation"));
+        results.putAll(reconnect.toMap("reconnect"));
+        results.putAll(producerStall.toMap("producer_stall"));
+        results.putAll(consumerGap.toMap("consumer_gap"));
+        LOGGER.info("[Failover] {} of {}: detect {}, activation {}, reconnect {}, lost {}, duplicates {}",
+                fault, primary.getName(), detect, activation, reconnect, lost, duplicates);
+        return results;
+    }
+
+    private JmsConnectionFactory createConnectionFactory() {
+        String url = AmqpUtil.buildAmqFailoverUrl(FAILOVER_OPTIONS,
+                primary.getHostAndPort(ArtemisContainer.DEFAULT_ALL_PROTOCOLS_PORT),
+                backup.getHostAndPort(ArtemisContainer.DEFAULT_ALL_PROTOCOLS_PORT));
+        return new JmsConnectionFactory(url);
+    }
+
+    private void injectFault(Fault fault) {
+        switch (fault) {
+            case STOP -> primary.artemisProcessController(ArtemisContainer.ArtemisProcessControllerActions.STOP);
+            case KILL -> primary.artemisProcessController(ArtemisContainer.ArtemisProcessControllerActions.FORCE_STOP);
+            case PAUSE -> primary.pause();
+            default -> throw new ClaireRuntimeException("Unsupported fault " + fault);
+        }
+    }
+
+    private long awaitBackupActivation(long faultAt) {
+        long activatedAt = awaitCondition(() -> ArtemisJmxHelper.isLive(backup, true, 1, 0), faultAt);
+        if (activatedAt < 0) {
+            String errMsg = String.format("[Failover] Backup %s did not become live within %d ms", backup.getName(), failoverTimeout);
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg);
+        }
+        return activatedAt;
+    }
+
+    /**
+     * Polls condition until it holds or failover timeout (counted from start) exceeds. JMX errors of (re)starting broker
+     * are considered as not fulfilled condition.
+     * @return {@link System#nanoTime()} when condition was fulfilled, -1 on timeout
+     */
+    private long awaitCondition(BooleanSupplier condition, long start) {
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(failoverTimeout);
+        while (System.nanoTime() < deadline) {
+            try {
+                if (condition.getAsBoolean()) {
+                    return System.nanoTime();
+                }
+            } catch (ClaireRuntimeException e) {
+                LOGGER.trace("[Failover] Condition not fulfilled yet: {}", e.getMessage());
+            }
+            TimeHelper.waitFor(POLL_MS);
+        }
+        return -1;
+    }
+
+    /**
+     * Restarts primary broker and waits until it is live again and backup is back in backup role.
+     */
+    private void failback(Fault fault) {
+        if (fault == Fault.PAUSE) {
+            primary.unpause();
+            try {
+                // primary may still run as (isolated) live after unpause, it has to lose its role before failback
+                primary.artemisProcessController(ArtemisContainer.ArtemisProcessControllerActions.FORCE_STOP);
+            } catch (ClaireRuntimeException e) {
+                LOGGER.debug("[Failover] Primary {} process already stopped after pause: {}", primary.getName(), e.getMessage());
+            }
+        }
+        primary.artemisProcessController(ArtemisContainer.ArtemisProcessControllerActions.START);
+        long failedBackAt = awaitCondition(() -> ArtemisJmxHelper.isLive(primary, true, 1, 0)
+                && ArtemisJmxHelper.isBackup(backup, true, 1, 0)
+                && (!replicated || ArtemisJmxHelper.isReplicaInSync(backup, true, 1, 0)), System.nanoTime());
+        if (failedBackAt < 0) {
+            String errMsg = String.format("[Failover] Failback to primary %s did not finish within %d ms", primary.getName(), failoverTimeout);
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg);
+        }
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helper;
+
+import eu.rekawek.toxiproxy.Proxy;
+import eu.rekawek.toxiproxy.model.Toxic;
+import eu.rekawek.toxiproxy.model.ToxicDirection;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Toxic applied to a toxiproxy {@link Proxy} for given duration. Value meaning depends on type:
+ * <ul>
+ *     <li>LATENCY - added latency in ms</li>
+ *     <li>BANDWIDTH - rate limit in KB/s</li>
+ *     <li>SLICER - average size of slices in bytes (sent with 1 ms delay)</li>
+ *     <li>TIMEOUT - time in ms after which data stops flowing and connection is closed (0 = never closed)</li>
+ * </ul>
+ */
+public final class NetworkFault {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NetworkFault.class);
+    private static final long SLICER_DELAY_US = 1000;
+
+    public enum Type {
+        LATENCY,
+        BANDWIDTH,
+        SLICER,
+        TIMEOUT
+    }
+
+    private final Type type;
+    private final Proxy proxy;
+    private final ToxicDirection direction;
+    private final long value;
+    private final long durationMs;
+    private Toxic toxic;
+
+    private NetworkFault(Type type, Proxy proxy, ToxicDirection direction, long value, long durationMs) {
+        this.type = type;
+        this.proxy = proxy;
+        this.direction = direction;
+        this.value = value;
+        this.durationMs = durationMs;
+    }
+
+    public static NetworkFault latency(Proxy proxy, ToxicDirection direction, long latencyMs, long durationMs) {
+        return new NetworkFault(Type.LATENCY, proxy, direction, latencyMs, durationMs);
+    }
+
+    public static NetworkFault bandwidth(Proxy proxy, ToxicDirection direction, long rateKBps, long durationMs) {
+        return new NetworkFault(Type.BANDWIDTH, proxy, direction, rateKBps, durationMs);
+    }
+
+    public static NetworkFault slicer(Proxy proxy, ToxicDirection direction, long averageSizeBytes, long durationMs) {
+        return new NetworkFault(Type.SLICER, proxy, direction, averageSizeBytes, durationMs);
+    }
+
+    public static NetworkFault timeout(Proxy proxy, ToxicDirection direction, long timeoutMs, long durationMs) {
+        return new NetworkFault(Type.TIMEOUT, proxy, direction, timeoutMs, durationMs);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public String getProxyName() {
+        return proxy.getName();
+    }
+
+    /**
+     * @return unique name of fault, e.g. {@code acceptorProxy_latency_downstream_100}
+     */
+    public String getName() {
+        return String.format("%s_%s_%s_%d", proxy.getName(), type.name().toLowerCase(Locale.ROOT),
+                direction.name().toLowerCase(Locale.ROOT), value);
+    }
+
+    public void apply() {
+        LOGGER.info("[Chaos] Applying {} for {} ms", getName(), durationMs);
+        try {
+            toxic = switch (type) {
+                case LATENCY -> proxy.toxics().latency(getName(), direction, value);
+                case BANDWIDTH -> proxy.toxics().bandwidth(getName(), direction, value);
+                case SLICER -> proxy.toxics().slicer(getName(), direction, value, SLICER_DELAY_US);
+                case TIMEOUT -> proxy.toxics().timeout(getName(), direction, value);
+            };
+        } catch (IOException e) {
+            String errMsg = String.format("[Chaos] Error on applying %s: %s", getName(), e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    public void remove() {
+        if (toxic == null) {
+            return;
+        }
+        LOGGER.info("[Chaos] Removing {}", getName());
+        try {
+            toxic.remove();
+            toxic = null;
+        } catch (IOException e) {
+            String errMsg = String.format("[Chaos] Error on removing %s: %s", getName(), e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helper;
+
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.monitoring.LatencyStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically samples message count, paging state, number of page files and size of single (anycast) address over JMX.
+ * Samples are labeled by current phase (e.g. produce, consume) set by test, so throughput of each phase can be split
+ * to intervals, when address was and was not paging.
+ */
+public class PagingMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PagingMonitor.class);
+    private static final String CSV_HEADER = "time_ms,phase,message_count,paging,page_count,address_size";
+
+    private final ArtemisContainer artemis;
+    private final String address;
+    private long sampleInterval = Constants.DURATION_1_SECOND;
+    private final List<Sample> samples = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+    private volatile String phase = "idle";
+    private long startedAt;
+
+    public static final class Sample {
+        private final long timeMs;
+        private final String phase;
+        private final long messageCount;
+        private final boolean paging;
+        private final long pageCount;
+        private final long addressSize;
+
+        private Sample(long timeMs, String phase, long messageCount, boolean paging, long pageCount, long addressSize) {
+            this.timeMs = timeMs;
+            this.phase = phase;
+            this.messageCount = messageCount;
+            this.paging = paging;
+            this.pageCount = pageCount;
+            this.addressSize = addressSize;
+        }
+
+        public long getTimeMs() {
+            return timeMs;
+        }
+
+        public String getPhase() {
+            return phase;
+        }
+
+        public long getMessageCount() {
+            return messageCount;
+        }
+
+        public boolean isPaging() {
+            return paging;
+        }
+
+        public long getPageCount() {
+            return pageCount;
+        }
+
+        public long getAddressSize() {
+            return addressSize;
+        }
+
+        private String toCsvLine() {
+            return String.format(Locale.ROOT, "%d,%s,%d,%b,%d,%d", timeMs, phase, messageCount, paging, pageCount, addressSize);
+        }
+    }
+
+    public PagingMonitor(ArtemisContainer artemis, String address) {
+        this.artemis = artemis;
+        this.address = address;
+    }
+
+    public PagingMonitor withSampleInterval(long sampleInterval) {
+        this.sampleInterval = sampleInterval;
+        return this;
+    }
+
+    public void setPhase(String phase) {
+        LOGGER.info("[Paging] Address {} entering phase {}", address, phase);
+        this.phase = phase;
+    }
+
+    public void start() {
+        startedAt = System.nanoTime();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleAtFixedRate(this::sample, 0, sampleInterval, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(Constants.DURATION_30_SECONDS, TimeUnit.MILLISECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            String errMsg = String.format("[Paging] Interrupted while stopping monitor of %s: %s", address, e.getMessage());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg, e);
+        }
+        // final sample with settled state
+        sample();
+    }
+
+    private void sample() {
+        try {
+            long timeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            Map<String, Long> stats = ArtemisJmxHelper.getPagingStats(artemis, address);
+            Sample sample = new Sample(timeMs, phase, stats.get("message_count"), stats.get("paging") == 1,
+                    stats.get("page_count"), stats.get("address_size"));
+            synchronized (samples) {
+                samples.add(sample);
+            }
+            LOGGER.debug("[Paging] {}", sample.toCsvLine());
+        } catch (RuntimeException e) {
+            // address might not exist yet or broker is busy, sample is skipped
+            LOGGER.debug("[Paging] Unable to sample address {}: {}", address, e.getMessage());
+        }
+    }
+
+    public List<Sample> getSamples() {
+        synchronized (samples) {
+            return new ArrayList<>(samples);
+        }
+    }
+
+    /**
+     * @return average rate (messages per second) of message count change in given phase over intervals, when address
+     * was paging (or not paging) at both interval ends, 0 if there is no such interval
+     */
+    public double getThroughput(String phase, boolean paging) {
+        List<Sample> phaseSamples = getSamples().stream().filter(sample -> sample.getPhase().equals(phase)).toList();
+        long messages = 0;
+        long timeMs = 0;
+        for (int i = 1; i < phaseSamples.size(); i++) {
+            Sample previous = phaseSamples.get(i - 1);
+            Sample current = phaseSamples.get(i);
+            if (previous.isPaging() == paging && current.isPaging() == paging) {
+                messages += Math.abs(current.getMessageCount() - previous.getMessageCount());
+                timeMs += current.getTimeMs() - previous.getTimeMs();
+            }
+        }
+        return timeMs == 0 ? 0 : messages * 1000.0 / timeMs;
+    }
+
+    /**
+     * @return time between consecutive decrements of page file count in given phase, i.e. time to depage single page file
+     */
+    public LatencyStats getDepageIntervals(String phase) {
+        LatencyStats depageIntervals = new LatencyStats();
+        Sample lastDecrement = null;
+        Sample previous = null;
+        for (Sample sample : getSamples()) {
+            if (sample.getPhase().equals(phase) && previous != null && sample.getPageCount() < previous.getPageCount()) {
+                if (lastDecrement != null) {
+                    long pages = lastDecrement.getPageCount() - sample.getPageCount();
+                    depageIntervals.record((sample.getTimeMs() - lastDecrement.getTimeMs()) / pages, TimeUnit.MILLISECONDS);
+                }
+                lastDecrement = sample;
+            }
+            previous = sample;
+        }
+        return depageIntervals;
+    }
+
+    /**
+     * @return time (ms since monitor start) of first sample in given phase with given paging state, -1 if there is none
+     */
+    public long getFirstTime(String phase, boolean paging) {
+        return getSamples().stream()
+                .filter(sample -> sample.getPhase().equals(phase) && sample.isPaging() == paging)
+                .mapToLong(Sample::getTimeMs)
+                .findFirst().orElse(-1);
+    }
+
+    /**
+     * @return time (ms since monitor start) of first sample in given phase, -1 if there is none
+     */
+    public long getPhaseStart(String phase) {
+        return getSamples().stream()
+                .filter(sample -> sample.getPhase().equals(phase))
+                .mapToLong(Sample::getTimeMs)
+                .findFirst().orElse(-1);
+    }
+
+    /**
+     * @return time (ms) from start of given phase to its first sample with given paging state, empty if the phase
+     * has no such sample (e.g. address never started paging)
+     */
+    public OptionalLong getTimeToPagingState(String phase, boolean paging) {
+        long firstTime = getFirstTime(phase, paging);
+        return firstTime == -1 ? OptionalLong.empty() : OptionalLong.of(firstTime - getPhaseStart(phase));
+    }
+
+    public long getMaxPageCount() {
+        return getSamples().stream().mapToLong(Sample::getPageCount).max().orElse(0);
+    }
+
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder(CSV_HEADER).append(System.lineSeparator());
+        getSamples().forEach(sample -> csv.append(sample.toCsvLine()).append(System.lineSeparator()));
+        return csv.toString();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helper;
+
+import io.brokerqe.claire.client.deployment.BundledClientDeployment;
+import io.brokerqe.claire.clients.DeployableClient;
+import io.brokerqe.claire.container.ArtemisContainer;
+
+import java.util.Map;
+
+/**
+ * Shared pieces of performance tests running `artemis perf` commands by bundled client.
+ */
+public final class PerfClientHelper {
+
+    private PerfClientHelper() {
+        super();
+    }
+
+    /**
+     * @return bundled client executing commands in given container
+     */
+    public static DeployableClient createDeployableClient(ArtemisContainer artemis) {
+        DeployableClient deployableClient = new BundledClientDeployment();
+        deployableClient.setContainer(artemis.getGenericContainer());
+        return deployableClient;
+    }
+
+    /**
+     * @param perfOutput parsed output of `artemis perf client`
+     * @param percentile formatted as in perf output, e.g. {@code 99.00}
+     * @return end-to-end latency percentile in microseconds, or empty string when it is not in the output
+     */
+    public static String findEndToEndLatency(Map<String, String> perfOutput, String percentile) {
+        return perfOutput.entrySet().stream()
+                .filter(entry -> entry.getKey().contains("end_to_end") && entry.getKey().endsWith("_us_" + percentile))
+                .map(Map.Entry::getValue)
+                .findFirst().orElse("");
+    }
+}
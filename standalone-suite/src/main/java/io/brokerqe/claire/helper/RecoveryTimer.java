@@ -0,0 +1,136 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.helper;
+
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Measures how long it takes broker to become live:
+ * <ul>
+ *     <li>cold start - container start until broker reports itself live over JMX (polled every 100 ms)</li>
+ *     <li>recovery - broker process is killed (SIGKILL) and started again in the same container, so journal has to be
+ *     recovered; time from process start until broker is live</li>
+ *     <li>shared-store recovery - primary is killed and backup activates by loading journal from shared store; time
+ *     from kill until backup is live, followed by failback time (primary start until primary is live again)</li>
+ * </ul>
+ */
+public class RecoveryTimer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecoveryTimer.class);
+    private static final long POLL_MS = Constants.DURATION_100_MILLISECONDS;
+
+    private final ArtemisContainer artemis;
+    private ArtemisContainer backup;
+    private long timeoutMs = TimeUnit.MINUTES.toMillis(30);
+
+    public RecoveryTimer(ArtemisContainer artemis) {
+        this.artemis = artemis;
+    }
+
+    /**
+     * Measure activation of given shared-store backup instead of restart of killed broker.
+     */
+    public RecoveryTimer withBackup(ArtemisContainer backup) {
+        this.backup = backup;
+        return this;
+    }
+
+    public RecoveryTimer withTimeout(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+        return this;
+    }
+
+    /**
+     * Starts (not yet started) broker container.
+     * @return {@code container_start_ms} (until container wait strategy is satisfied) and {@code cold_start_ms}
+     * (until broker is live)
+     */
+    public Map<String, String> measureColdStart() {
+        long start = System.nanoTime();
+        artemis.start(Duration.ofMillis(timeoutMs));
+        long containerStartedAt = System.nanoTime();
+        long liveAt = awaitLive(artemis, start);
+
+        Map<String, String> results = new HashMap<>();
+        results.put("container_start_ms", toMillis(containerStartedAt - start));
+        results.put("cold_start_ms", toMillis(liveAt - start));
+        LOGGER.info("[Recovery] {} cold start {}", artemis.getName(), results);
+        return results;
+    }
+
+    /**
+     * Kills broker process and measures recovery of its journal.
+     * @return {@code recovery_ms}, with backup also {@code failback_ms}
+     */
+    public Map<String, String> measureRecovery() {
+        Map<String, String> results = new HashMap<>();
+        artemis.artemisProcessController(ArtemisContainer.ArtemisProcessControllerActions.FORCE_STOP);
+        long killedAt = System.nanoTime();
+        if (backup == null) {
+            long start = System.nanoTime();
+            artemis.artemisProcessController(ArtemisContainer.ArtemisProcessControllerActions.START);
+            results.put("recovery_ms", toMillis(awaitLive(artemis, start) - start));
+        } else {
+            results.put("recovery_ms", toMillis(awaitLive(backup, killedAt) - killedAt));
+            long start = System.nanoTime();
+            artemis.artemisProcessController(ArtemisContainer.ArtemisProcessControllerActions.START);
+            long failedBackAt = awaitCondition(() -> ArtemisJmxHelper.isLive(artemis, true, 1, 0)
+                    && ArtemisJmxHelper.isBackup(backup, true, 1, 0), start);
+            if (failedBackAt < 0) {
+                String errMsg = String.format("[Recovery] Failback to %s did not finish within %d ms", artemis.getName(), timeoutMs);
+                LOGGER.error(errMsg);
+                throw new ClaireRuntimeException(errMsg);
+            }
+            results.put("failback_ms", toMillis(failedBackAt - start));
+        }
+        LOGGER.info("[Recovery] {} recovery {}", artemis.getName(), results);
+        return results;
+    }
+
+    private long awaitLive(ArtemisContainer broker, long start) {
+        long liveAt = awaitCondition(() -> ArtemisJmxHelper.isLive(broker, true, 1, 0), start);
+        if (liveAt < 0) {
+            String errMsg = String.format("[Recovery] Broker %s did not become live within %d ms", broker.getName(), timeoutMs);
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg);
+        }
+        return liveAt;
+    }
+
+    /**
+     * Polls condition until it holds or timeout (counted from start) exceeds. JMX errors of starting broker are
+     * considered as not fulfilled condition.
+     * @return {@link System#nanoTime()} when condition was fulfilled, -1 on timeout
+     */
+    private long awaitCondition(BooleanSupplier condition, long start) {
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (System.nanoTime() < deadline) {
+            try {
+                if (condition.getAsBoolean()) {
+                    return System.nanoTime();
+                }
+            } catch (ClaireRuntimeException e) {
+                LOGGER.trace("[Recovery] Condition not fulfilled yet: {}", e.getMessage());
+            }
+            TimeHelper.waitFor(POLL_MS);
+        }
+        return -1;
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -38,6 +38,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -161,13 +162,24 @@ public class AbstractSystemTests implements TestSeparator {
     }
 
     private String getPkgClassAsDir() {
-        String pkgAndClass = this.getClass().getName().replaceAll(Constants.CLAIRE_TEST_PKG_REGEX, "");
+        return getPkgClassAsDir(this.getClass());
+    }
+
+    private static String getPkgClassAsDir(Class<?> testClass) {
+        String pkgAndClass = testClass.getName().replaceAll(Constants.CLAIRE_TEST_PKG_REGEX, "");
         return pkgAndClass.replaceAll("\\.", Constants.FILE_SEPARATOR);
     }
 
     protected String generateYacfgProfilesContainerTestDir(String file) {
+        return generateYacfgProfilesContainerTestDir(this.getClass(), file);
+    }
+
+    /**
+     * @return container path of yacfg profile file of another test class, so tests can share profiles
+     */
+    protected String generateYacfgProfilesContainerTestDir(Class<?> testClass, String file) {
         return YacfgArtemisContainer.YACFG_CONTAINER_CLAIRE_STANDALONE_DIR + Constants.FILE_SEPARATOR + "tests"
-                + Constants.FILE_SEPARATOR + getPkgClassAsDir() + Constants.FILE_SEPARATOR + file;
+                + Constants.FILE_SEPARATOR + getPkgClassAsDir(testClass) + Constants.FILE_SEPARATOR + file;
     }
 
     private String getTestConfigDir() {
@@ -317,7 +329,8 @@ public class AbstractSystemTests implements TestSeparator {
     }
 
     public static void ensureBrokerUsesJdbc(ArtemisContainer artemisInstance, Database database) {
-        assertThat(artemisInstance.getLogs()).containsAnyOf(database.getJdbcUrl(), database.getConnectionUrl());
+        artemisInstance.followLogs().awaitPattern(Pattern.quote(database.getJdbcUrl()) + "|" + Pattern.quote(database.getConnectionUrl()),
+                Constants.DURATION_10_SECONDS);
     }
 
     protected NfsServerContainer getNfsServerInstance(String exportDirName) {
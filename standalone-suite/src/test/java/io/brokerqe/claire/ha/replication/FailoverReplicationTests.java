@@ -7,25 +7,38 @@ package io.brokerqe.claire.ha.replication;
 import io.brokerqe.claire.Constants;
 import io.brokerqe.claire.AbstractSystemTests;
 import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
 import io.brokerqe.claire.client.JmsClient;
 import io.brokerqe.claire.client.AmqpUtil;
 import io.brokerqe.claire.container.ArtemisContainer;
 import io.brokerqe.claire.container.ZookeeperContainerCluster;
+import io.brokerqe.claire.helper.FailoverTimer;
 import org.apache.activemq.artemis.api.core.RoutingType;
 import org.apache.qpid.jms.JmsConnectionFactory;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.jms.Message;
 import javax.jms.Queue;
+import java.util.Locale;
 import java.util.Map;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class FailoverReplicationTests extends AbstractSystemTests {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FailoverReplicationTests.class);
+    private static final int FAILOVER_CYCLES = 5;
     private ArtemisContainer artemisPrimary;
     private ArtemisContainer artemisBackup;
 
@@ -46,6 +59,24 @@ public class FailoverReplicationTests extends AbstractSystemTests {
         artemisBackup = getArtemisInstance(artemisBackupName, backupTuneFile, true);
     }
 
+    // runs before produceOnPrimaryConsumeOnBackup, which leaves primary container stopped
+    @Order(1)
+    @ParameterizedTest(name = "{index} => fault=''{0}''")
+    @EnumSource(FailoverTimer.Fault.class)
+    void measureFailoverTime(FailoverTimer.Fault fault) {
+        String queueName = "FailoverTimeQueue";
+        FailoverTimer failoverTimer = new FailoverTimer(artemisPrimary, artemisBackup, true);
+        Map<String, String> results = failoverTimer.measure(fault, FAILOVER_CYCLES, queueName);
+
+        String resultsFile = Constants.PERFORMANCE_DIR + "/failover/replication_" + fault.name().toLowerCase(Locale.ROOT);
+        TestUtils.createDirectory(Constants.PERFORMANCE_DIR + "/failover");
+        TestUtils.createFile(resultsFile + ".json", TestUtils.convertMapToJson(results));
+        for (Map<String, String> cycleResult : failoverTimer.getCycleResults()) {
+            TestUtils.createFile(resultsFile + "_cycle" + cycleResult.get("cycle") + ".json", TestUtils.convertMapToJson(cycleResult));
+        }
+        assertThat("no message sent during failover is lost", results.get("lost"), equalTo("0"));
+    }
+
     @Test
     @Tag(Constants.TAG_SMOKE)
     void produceOnPrimaryConsumeOnBackup() {
@@ -8,6 +8,7 @@ import eu.rekawek.toxiproxy.Proxy;
 import io.brokerqe.claire.AbstractSystemTests;
 import io.brokerqe.claire.Constants;
 import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
 import io.brokerqe.claire.clients.DeployableClient;
 import io.brokerqe.claire.clients.MessagingClient;
 import io.brokerqe.claire.clients.container.AmqpQpidClient;
@@ -15,6 +16,7 @@ import io.brokerqe.claire.client.deployment.StJavaClientDeployment;
 import io.brokerqe.claire.container.ArtemisContainer;
 import io.brokerqe.claire.container.NfsServerContainer;
 import io.brokerqe.claire.container.ToxiProxyContainer;
+import io.brokerqe.claire.helper.FailoverTimer;
 import org.apache.activemq.artemis.api.core.RoutingType;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -24,6 +26,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -34,6 +37,7 @@ public class FailoverSharedStoreTests extends AbstractSystemTests {
     private static final Logger LOGGER = LoggerFactory.getLogger(FailoverSharedStoreTests.class);
     private static final int SEND_CHUNK = 10;
     private static final int RECEIVE_CHUNK = 5;
+    private static final int FAILOVER_CYCLES = 5;
 
     private NfsServerContainer nfsServer;
     private Proxy artemisPrimaryNfsProxy;
@@ -129,4 +133,21 @@ public class FailoverSharedStoreTests extends AbstractSystemTests {
 
         ensureQueueCount(artemisPrimary, addressName, addressName, RoutingType.ANYCAST, 0);
     }
+
+    // paused primary keeps its NFS lock (held by kernel NFS client), so backup would not activate
+    @ParameterizedTest(name = "{index} => fault=''{0}''")
+    @EnumSource(value = FailoverTimer.Fault.class, names = {"STOP", "KILL"})
+    void measureFailoverTime(FailoverTimer.Fault fault) {
+        String queueName = "FailoverTimeQueue";
+        FailoverTimer failoverTimer = new FailoverTimer(artemisPrimary, artemisBackup, false);
+        Map<String, String> results = failoverTimer.measure(fault, FAILOVER_CYCLES, queueName);
+
+        String resultsFile = Constants.PERFORMANCE_DIR + "/failover/sharedstore_" + fault.name().toLowerCase(Locale.ROOT);
+        TestUtils.createDirectory(Constants.PERFORMANCE_DIR + "/failover");
+        TestUtils.createFile(resultsFile + ".json", TestUtils.convertMapToJson(results));
+        for (Map<String, String> cycleResult : failoverTimer.getCycleResults()) {
+            TestUtils.createFile(resultsFile + "_cycle" + cycleResult.get("cycle") + ".json", TestUtils.convertMapToJson(cycleResult));
+        }
+        assertThat("no message sent during failover is lost", results.get("lost"), equalTo("0"));
+    }
 }
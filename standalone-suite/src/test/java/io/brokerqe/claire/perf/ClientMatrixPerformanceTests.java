@@ -0,0 +1,268 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.client.deployment.StCppClientDeployment;
+import io.brokerqe.claire.client.deployment.StJavaClientDeployment;
+import io.brokerqe.claire.client.deployment.StProtonDotnetClientDeployment;
+import io.brokerqe.claire.client.deployment.StProtonPythonClientDeployment;
+import io.brokerqe.claire.client.deployment.StRheaClientDeployment;
+import io.brokerqe.claire.clients.DeployableClient;
+import io.brokerqe.claire.clients.MessagingClient;
+import io.brokerqe.claire.clients.bundled.ArtemisCommand;
+import io.brokerqe.claire.clients.bundled.BundledArtemisClient;
+import io.brokerqe.claire.clients.container.AmqpProtonCppClient;
+import io.brokerqe.claire.clients.container.AmqpProtonDotnetClient;
+import io.brokerqe.claire.clients.container.AmqpProtonPythonClient;
+import io.brokerqe.claire.clients.container.AmqpQpidClient;
+import io.brokerqe.claire.clients.container.AmqpRheaClient;
+import io.brokerqe.claire.clients.container.CoreArtemisClient;
+import io.brokerqe.claire.clients.container.OpenWireActiveMQClient;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.helper.PerfClientHelper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Runs identical workload (message size x acknowledge mode x durability) by every client stack against the same broker
+ * and stores throughput and latency of all of them in one table, so client stacks and protocol handlers of broker can
+ * be compared across versions.
+ * <ul>
+ *     <li>{@code perf-*} rows - `artemis perf client` with core, AMQP and OpenWire protocol, producer and consumer
+ *     run concurrently for fixed duration (after warmup), rates are computed from messages sent and received within
+ *     that duration and end-to-end latency percentiles are available</li>
+ *     <li>{@code cli-*} rows - systemtest CLI clients (qpid-jms, artemis core, activemq openwire, proton dotnet, proton
+ *     python, rhea and proton cpp) send and then receive all messages, rates are computed from command duration
+ *     without client startup (measured by single message run)</li>
+ * </ul>
+ * Failure of any client is recorded in the table instead of failing the whole matrix.
+ */
+public class ClientMatrixPerformanceTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientMatrixPerformanceTests.class);
+    private static final int MESSAGES = 10_000;
+    private static final int[] MESSAGE_SIZES = {128, 1024, 10240};
+    private static final String[] ACK_MODES = {"auto", "transacted"};
+    private static final boolean[] DURABLE = {false, true};
+    private static final String TX_SIZE = "100";
+    private static final String PERF_DURATION = "30";
+    private static final String PERF_WARMUP = "5";
+    private static final String[] PERF_PROTOCOLS = {"core", "amqp", "openwire"};
+    private static final List<String> COLUMNS = List.of("client", "protocol", "message_size", "ack_mode", "durable",
+            "send_rate", "receive_rate", "latency_us_50.00", "latency_us_99.00", "result");
+    private static final long CLIENT_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+    private final String username = Constants.ARTEMIS_INSTANCE_USER_NAME;
+    private final String password = Constants.ARTEMIS_INSTANCE_USER_PASS;
+    private final Map<String, CliClient> cliClients = new LinkedHashMap<>();
+    private ArtemisContainer artemis;
+    private String artemisVersion;
+    private int queueIndex;
+
+    /** all systemtest CLI clients share constructor with sender and receiver options */
+    @FunctionalInterface
+    private interface CliClientFactory {
+        MessagingClient create(DeployableClient deployableClient, String brokerUri, Map<String, String> senderOptions, Map<String, String> receiverOptions);
+    }
+
+    private static final class CliClient {
+        private final String protocol;
+        private final String brokerUri;
+        private final DeployableClient deployableClient;
+        private final CliClientFactory factory;
+
+        private CliClient(String protocol, String brokerUri, DeployableClient deployableClient, CliClientFactory factory) {
+            this.protocol = protocol;
+            this.brokerUri = brokerUri;
+            this.deployableClient = deployableClient;
+            this.factory = factory;
+        }
+    }
+
+    @BeforeAll
+    void setupEnv() {
+        artemis = getArtemisInstance("artemis");
+        artemisVersion = Environment.get().getArtemisVersion();
+        TestUtils.createDirectory(Constants.PERFORMANCE_DIR + "/client-matrix");
+
+        String amqpUri = Constants.AMQP_URL_PREFIX + artemis.getName() + ":" + DEFAULT_ALL_PORT;
+        String tcpUri = "tcp://" + artemis.getName() + ":" + DEFAULT_ALL_PORT;
+        DeployableClient javaClients = new StJavaClientDeployment();
+        cliClients.put("cli-qpid-jms", new CliClient("amqp", amqpUri, javaClients, AmqpQpidClient::new));
+        cliClients.put("cli-artemis", new CliClient("core", tcpUri, javaClients, CoreArtemisClient::new));
+        cliClients.put("cli-activemq", new CliClient("openwire", tcpUri, javaClients, OpenWireActiveMQClient::new));
+        cliClients.put("cli-proton-dotnet", new CliClient("amqp", amqpUri, new StProtonDotnetClientDeployment(), AmqpProtonDotnetClient::new));
+        cliClients.put("cli-proton-python", new CliClient("amqp", amqpUri, new StProtonPythonClientDeployment(), AmqpProtonPythonClient::new));
+        cliClients.put("cli-rhea", new CliClient("amqp", amqpUri, new StRheaClientDeployment(), AmqpRheaClient::new));
+        cliClients.put("cli-proton-cpp", new CliClient("amqp", amqpUri, new StCppClientDeployment(), AmqpProtonCppClient::new));
+    }
+
+    @AfterAll
+    void teardownClients() {
+        cliClients.values().stream().map(cliClient -> cliClient.deployableClient).distinct().forEach(DeployableClient::undeployContainer);
+    }
+
+    @Test
+    void testClientMatrix() {
+        List<Map<String, String>> table = new ArrayList<>();
+        for (int messageSize : MESSAGE_SIZES) {
+            for (String ackMode : ACK_MODES) {
+                for (boolean durable : DURABLE) {
+                    for (String protocol : PERF_PROTOCOLS) {
+                        Map<String, String> row = createRow("perf-" + protocol, protocol, messageSize, ackMode, durable);
+                        try {
+                            runPerfClient(row, protocol, messageSize, ackMode, durable);
+                        } catch (Exception | AssertionError e) {
+                            LOGGER.warn("[MATRIX] {} failed: {}", row, e.getMessage());
+                            row.put("result", "error");
+                        }
+                        table.add(row);
+                    }
+                    for (Map.Entry<String, CliClient> cliClient : cliClients.entrySet()) {
+                        Map<String, String> row = createRow(cliClient.getKey(), cliClient.getValue().protocol, messageSize, ackMode, durable);
+                        try {
+                            runCliClient(row, cliClient.getValue(), messageSize, ackMode, durable);
+                        } catch (Exception | AssertionError e) {
+                            LOGGER.warn("[MATRIX] {} failed: {}", row, e.getMessage());
+                            row.put("result", "error");
+                        }
+                        table.add(row);
+                    }
+                }
+            }
+        }
+
+        StringBuilder csv = new StringBuilder(String.join(",", COLUMNS)).append('\n');
+        for (Map<String, String> row : table) {
+            csv.append(String.join(",", COLUMNS.stream().map(column -> row.getOrDefault(column, "")).toList())).append('\n');
+        }
+        LOGGER.info("[MATRIX] Client matrix results:\n{}", csv);
+        TestUtils.createFile(String.format("%s/client-matrix/results_%s.csv", Constants.PERFORMANCE_DIR, artemisVersion), csv.toString());
+    }
+
+    private void runPerfClient(Map<String, String> row, String protocol, int messageSize, String ackMode, boolean durable) {
+        Map<String, String> perfOptions = new HashMap<>(Map.of(
+                "protocol", protocol,
+                "duration", PERF_DURATION,
+                "warmup", PERF_WARMUP,
+                "message-size", String.valueOf(messageSize),
+                "show-latency", ""
+        ));
+        if (durable) {
+            perfOptions.put("persistent", "");
+        }
+        if (ackMode.equals("transacted")) {
+            perfOptions.put("tx-size", TX_SIZE);
+        }
+        String destination = "queue://" + createQueue();
+        Map<String, String> perfOutput = (Map<String, String>) new BundledArtemisClient(PerfClientHelper.createDeployableClient(artemis),
+                ArtemisCommand.PERF_CLIENT, perfOptions, destination).executeCommand(CLIENT_TIMEOUT);
+        LOGGER.info("[MATRIX] {}: {}", row, perfOutput);
+        assertThat("performance test ended successfully", perfOutput.get("result"), equalTo("success"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(PERF_DURATION));
+        row.put("send_rate", formatRate((long) Double.parseDouble(perfOutput.getOrDefault("total_sent", "0")), durationNanos));
+        row.put("receive_rate", formatRate((long) Double.parseDouble(perfOutput.getOrDefault("total_received", "0")), durationNanos));
+        row.put("latency_us_50.00", PerfClientHelper.findEndToEndLatency(perfOutput, "50.00"));
+        row.put("latency_us_99.00", PerfClientHelper.findEndToEndLatency(perfOutput, "99.00"));
+        row.put("result", perfOutput.get("result"));
+    }
+
+    private void runCliClient(Map<String, String> row, CliClient cliClient, int messageSize, String ackMode, boolean durable) {
+        String queue = createQueue();
+        // startup of client process (and JVM/runtime) is not part of the workload
+        long[] startup = sendAndReceive(cliClient, queue, 1, messageSize, ackMode, durable);
+
+        long[] elapsed = sendAndReceive(cliClient, queue, MESSAGES, messageSize, ackMode, durable);
+        row.put("send_rate", formatRate(MESSAGES, Math.max(1, elapsed[0] - startup[0])));
+        row.put("receive_rate", formatRate(MESSAGES, Math.max(1, elapsed[1] - startup[1])));
+        row.put("result", "success");
+    }
+
+    /**
+     * @return nanoseconds spent by sender and receiver command
+     */
+    private long[] sendAndReceive(CliClient cliClient, String queue, int messages, int messageSize, String ackMode, boolean durable) {
+        Map<String, String> senderOptions = createCliOptions(queue, messages, ackMode);
+        senderOptions.put("msg-content", "x".repeat(messageSize));
+        senderOptions.put("msg-durable", String.valueOf(durable));
+        Map<String, String> receiverOptions = createCliOptions(queue, messages, ackMode);
+        MessagingClient messagingClient = cliClient.factory.create(cliClient.deployableClient, cliClient.brokerUri, senderOptions, receiverOptions);
+
+        long start = System.nanoTime();
+        int sent = messagingClient.sendMessages();
+        long sendNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        int received = messagingClient.receiveMessages();
+        long receiveNanos = System.nanoTime() - start;
+        assertThat("Sent different amount of messages than expected", sent, equalTo(messages));
+        assertThat("Received different amount of messages than sent", received, equalTo(sent));
+        return new long[] {sendNanos, receiveNanos};
+    }
+
+    private Map<String, String> createCliOptions(String queue, int messages, String ackMode) {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "conn-username", username,
+                "conn-password", password,
+                "address", queue,
+                "count", String.valueOf(messages)
+        ));
+        if (ackMode.equals("transacted")) {
+            options.put("tx-size", TX_SIZE);
+            options.put("tx-action", "commit");
+            options.put("tx-endloop-action", "commit");
+        }
+        return options;
+    }
+
+    /**
+     * Every row uses its own durable anycast queue, so failed row can not influence the next one.
+     * (Non-java clients would auto create multicast address otherwise.)
+     */
+    private String createQueue() {
+        String queue = "client.matrix." + queueIndex++;
+        Map<String, String> commandOptions = Map.of(
+                "name", queue,
+                "address", queue,
+                "anycast", "",
+                "durable", "",
+                "preserve-on-no-consumers", "",
+                "auto-create-address", ""
+        );
+        new BundledArtemisClient(PerfClientHelper.createDeployableClient(artemis), ArtemisCommand.QUEUE_CREATE, commandOptions).executeCommand();
+        return queue;
+    }
+
+    private static Map<String, String> createRow(String client, String protocol, int messageSize, String ackMode, boolean durable) {
+        Map<String, String> row = new HashMap<>();
+        row.put("client", client);
+        row.put("protocol", protocol);
+        row.put("message_size", String.valueOf(messageSize));
+        row.put("ack_mode", ackMode);
+        row.put("durable", String.valueOf(durable));
+        return row;
+    }
+
+    private static String formatRate(long messages, long nanos) {
+        return String.format(Locale.ROOT, "%.1f", messages / (nanos / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.clients.bundled.ArtemisCommand;
+import io.brokerqe.claire.clients.bundled.BundledArtemisClient;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.helper.ArtemisJmxHelper;
+import io.brokerqe.claire.helper.PerfClientHelper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Broker scaling curve over CPU cores. Broker container is limited like Kubernetes pod - CPU quota and cpuset pinning
+ * to the given number of cores and memory limit, from which broker heap is derived. The same workload is generated by
+ * perf client running in separate (unlimited) container pinned to the upper half of host CPUs, so broker is measured
+ * only with core counts fitting into the lower half. Broker process of the client container is stopped, so only the
+ * perf client uses its CPUs. Throughput, latency, speedup and parallel efficiency against
+ * single core are recorded for every number of cores.
+ */
+public class CoreScalingTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoreScalingTests.class);
+    private static final int[] CORES = {1, 2, 4, 8};
+    private static final long MEMORY_LIMIT = 4L * 1024 * 1024 * 1024;
+    private static final String CLIENTS = "8";
+    private static final String DURATION = "60";
+    private static final String WARMUP = "10";
+    private static final String MESSAGE_SIZE = "1024";
+    private static final long CLIENT_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+    private static final List<String> COLUMNS = List.of("cores", "throughput", "speedup", "efficiency", "latency_us_50.00",
+            "latency_us_99.00", "broker_heap_used_bytes", "broker_gc_time_ms", "result");
+
+    private final int hostCpus = Runtime.getRuntime().availableProcessors();
+    private ArtemisContainer client;
+    private String artemisVersion;
+    private String resultsDir;
+
+    @BeforeAll
+    void setupEnv() {
+        artemisVersion = Environment.get().getArtemisVersion();
+        resultsDir = Constants.PERFORMANCE_DIR + "/core-scaling";
+        TestUtils.createDirectory(resultsDir);
+        client = getArtemisInstance("perf-client", null, new ArrayList<>(), new HashMap<>(), false, false);
+        client.withCpuset(String.format("%d-%d", hostCpus / 2, hostCpus - 1));
+        client.start();
+        ensureBrokerStarted(client);
+        // container is needed only for artemis CLI, idle broker would compete with perf client for CPUs
+        client.artemisProcessController(ArtemisContainer.ArtemisProcessControllerActions.STOP);
+    }
+
+    @AfterAll
+    void teardownClient() {
+        client.stop();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testCoreScaling(boolean persistent) {
+        String workload = persistent ? "persistent" : "non-persistent";
+        List<Map<String, String>> curve = new ArrayList<>();
+        for (int cores : CORES) {
+            Map<String, String> point = new HashMap<>();
+            point.put("cores", String.valueOf(cores));
+            if (cores > hostCpus / 2) {
+                // broker would share CPUs with the client
+                LOGGER.warn("[SCALING] Skipping {} cores, host has only {} CPUs", cores, hostCpus);
+                point.put("result", "skipped");
+            } else {
+                point.putAll(measure(cores, persistent, workload));
+            }
+            curve.add(point);
+        }
+
+        double baseline = curve.get(0).containsKey("throughput") ? Double.parseDouble(curve.get(0).get("throughput")) : Double.NaN;
+        StringBuilder csv = new StringBuilder(String.join(",", COLUMNS)).append('\n');
+        for (Map<String, String> point : curve) {
+            if (point.containsKey("throughput")) {
+                double speedup = Double.parseDouble(point.get("throughput")) / baseline;
+                point.put("speedup", String.format(Locale.ROOT, "%.2f", speedup));
+                point.put("efficiency", String.format(Locale.ROOT, "%.2f", speedup / Integer.parseInt(point.get("cores"))));
+            }
+            csv.append(String.join(",", COLUMNS.stream().map(column -> point.getOrDefault(column, "")).toList())).append('\n');
+        }
+        LOGGER.info("[SCALING] {} scaling curve:\n{}", workload, csv);
+        TestUtils.createFile(String.format("%s/results_%s_%s.csv", resultsDir, workload, artemisVersion), csv.toString());
+    }
+
+    private Map<String, String> measure(int cores, boolean persistent, String workload) {
+        ArtemisContainer artemis = ResourceManager.getArtemisContainerInstance(String.format("scaling-%s-%d", workload, cores));
+        artemis.withCpuLimit(cores);
+        artemis.withCpuset(String.format("0-%d", cores - 1));
+        artemis.withMemoryLimit(MEMORY_LIMIT);
+        generateArtemisCfg(artemis);
+        artemis.start();
+        ensureBrokerStarted(artemis);
+        ensureBrokerIsLive(artemis);
+        try {
+            Map<String, String> perfOutput = runWorkload(artemis, persistent);
+            Map<String, Double> jvmStats = ArtemisJmxHelper.getJvmStats(artemis);
+            Map<String, String> results = new HashMap<>(perfOutput);
+            results.put("throughput", String.format(Locale.ROOT, "%.1f",
+                    Double.parseDouble(perfOutput.get("total_received")) / Double.parseDouble(DURATION)));
+            results.put("latency_us_50.00", PerfClientHelper.findEndToEndLatency(perfOutput, "50.00"));
+            results.put("latency_us_99.00", PerfClientHelper.findEndToEndLatency(perfOutput, "99.00"));
+            results.put("broker_heap_used_bytes", String.format(Locale.ROOT, "%.0f", jvmStats.get("heap_used_bytes")));
+            results.put("broker_gc_time_ms", String.format(Locale.ROOT, "%.0f", jvmStats.get("gc_time_ms")));
+            results.put("profile_cores", String.valueOf(cores));
+            results.put("profile_memory_limit", String.valueOf(MEMORY_LIMIT));
+            results.put("profile_workload", workload);
+            results.put("profile_artemis_version", artemisVersion);
+            LOGGER.info("[SCALING] {} on {} cores: {}", workload, cores, results);
+            TestUtils.createFile(String.format("%s/results_%s_cores%d_%s.json", resultsDir, workload, cores, artemisVersion),
+                    TestUtils.convertMapToJson(results));
+            assertThat("performance test ended successfully", perfOutput.get("result"), equalTo("success"));
+            return results;
+        } finally {
+            artemis.stop();
+        }
+    }
+
+    private Map<String, String> runWorkload(ArtemisContainer artemis, boolean persistent) {
+        Map<String, String> perfOptions = new HashMap<>(Map.of(
+                "url", "tcp://" + artemis.getName() + ":" + ArtemisContainer.DEFAULT_ALL_PROTOCOLS_PORT,
+                "duration", DURATION,
+                "warmup", WARMUP,
+                "protocol", "core",
+                "producers", CLIENTS,
+                "consumers", CLIENTS,
+                "threads", CLIENTS,
+                "message-size", MESSAGE_SIZE,
+                "show-latency", ""
+        ));
+        if (persistent) {
+            perfOptions.put("persistent", "");
+        }
+        return (Map<String, String>) new BundledArtemisClient(PerfClientHelper.createDeployableClient(client), ArtemisCommand.PERF_CLIENT, perfOptions,
+                "queue://SCALING_QUEUE").executeCommand(CLIENT_TIMEOUT);
+    }
+}
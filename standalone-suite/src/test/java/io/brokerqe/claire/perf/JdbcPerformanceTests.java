@@ -0,0 +1,163 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.EnvironmentStandalone;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.clients.DeployableClient;
+import io.brokerqe.claire.clients.bundled.ArtemisCommand;
+import io.brokerqe.claire.clients.bundled.BundledArtemisClient;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.container.database.DatabaseContainer;
+import io.brokerqe.claire.database.Database;
+import io.brokerqe.claire.helper.PerfClientHelper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Runs identical persistent workloads by `artemis perf client` against broker using file journal and JDBC store backed by
+ * every {@link DatabaseContainer}. Database server counters (rows, IO, commits) are collected before and after every
+ * workload and stored as {@code db_<counter>} differences together with perf client results.
+ * When JDBC_DATA is provided, only file journal and given database are measured.
+ */
+@Tag(Constants.TAG_JDBC)
+public class JdbcPerformanceTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JdbcPerformanceTests.class);
+    private static final String FILE_JOURNAL = "file";
+    private static final String DURATION = "60";
+    private static final String WARMUP = "10";
+
+    private String artemisVersion;
+    private String resultsDir;
+
+    @BeforeAll
+    void setupEnv() {
+        artemisVersion = Environment.get().getArtemisVersion();
+        resultsDir = Constants.PERFORMANCE_DIR + "/jdbc";
+        TestUtils.createDirectory(resultsDir);
+    }
+
+    Stream<String> stores() {
+        String jdbcDatabaseFile = getEnvironment().getJdbcDatabaseFile();
+        if (jdbcDatabaseFile != null) {
+            return Stream.of(FILE_JOURNAL, jdbcDatabaseFile);
+        }
+        return Stream.of(FILE_JOURNAL, Database.POSTGRESQL, Database.MYSQL, Database.MARIADB, Database.MSSQL, Database.ORACLE);
+    }
+
+    /**
+     * Workloads share default perf client options (1 producer, 1 consumer, persistent, show-latency), values here are added.
+     */
+    private static Map<String, Map<String, String>> workloads() {
+        Map<String, Map<String, String>> workloads = new LinkedHashMap<>();
+        workloads.put("durable", Map.of());
+        workloads.put("transacted", Map.of("tx-size", "100"));
+        // bigger than default min-large-message-size (100K), stored in large messages table/directory
+        workloads.put("large", Map.of("message-size", "204800"));
+        // producer gets ahead of consumer and JDBC_PAGING address pages above 100 messages
+        workloads.put("paging", Map.of("max-pending", "5000"));
+        return workloads;
+    }
+
+    @ParameterizedTest(name = "store={0}")
+    @MethodSource("stores")
+    void testPersistentWorkloads(String store) {
+        DatabaseContainer databaseContainer = null;
+        Database storeDatabase = null;
+        if (!store.equals(FILE_JOURNAL)) {
+            storeDatabase = ((EnvironmentStandalone) getEnvironment()).createDatabase(store);
+            if (storeDatabase instanceof DatabaseContainer) {
+                databaseContainer = (DatabaseContainer) storeDatabase;
+                databaseContainer.start();
+            }
+        }
+        ArtemisContainer artemis = createArtemis(storeDatabase);
+        String storeName = storeDatabase == null ? FILE_JOURNAL : storeDatabase.getName().split("-")[0];
+
+        try {
+            for (Map.Entry<String, Map<String, String>> workload : workloads().entrySet()) {
+                Map<String, Long> statsBefore = databaseContainer == null ? Map.of() : databaseContainer.getStatistics();
+                Map<String, String> perfOutput = runWorkload(artemis, workload.getKey(), workload.getValue());
+                Map<String, Long> statsAfter = databaseContainer == null ? Map.of() : databaseContainer.getStatistics();
+
+                Map<String, String> results = new HashMap<>(perfOutput);
+                statsAfter.forEach((counter, value) -> results.put("db_" + counter, String.valueOf(value - statsBefore.getOrDefault(counter, 0L))));
+                results.put("profile_store", storeName);
+                results.put("profile_workload", workload.getKey());
+                results.put("profile_artemis_version", artemisVersion);
+                TestUtils.createFile(String.format("%s/results_%s_%s_%s.json", resultsDir, storeName, workload.getKey(), artemisVersion),
+                        TestUtils.convertMapToJson(results));
+
+                assertThat("performance test ended successfully", perfOutput.get("result"), equalTo("success"));
+                assertThat("total send = total received", perfOutput.get("total_sent"), equalTo(perfOutput.get("total_received")));
+            }
+        } finally {
+            artemis.stop();
+            if (databaseContainer != null) {
+                databaseContainer.stop();
+            }
+        }
+    }
+
+    private ArtemisContainer createArtemis(Database storeDatabase) {
+        ArtemisContainer artemis = ResourceManager.getArtemisContainerInstance(Constants.ARTEMIS_STRING);
+        List<String> yacfgOpts = new ArrayList<>(List.of("--tune", generateYacfgProfilesContainerTestDir("tune.yaml.jinja2")));
+        if (storeDatabase != null) {
+            LOGGER.info("[{}] Setting up database {}", artemis.getName(), storeDatabase.getName());
+            yacfgOpts.add("tune_file=" + storeDatabase.getTuneFile());
+            artemis.withLibFile(storeDatabase.getDriverFile(), storeDatabase.getDriverFilename());
+        }
+        generateArtemisCfg(artemis, yacfgOpts);
+        artemis.start(Duration.ofMinutes(10));
+        ensureBrokerStarted(artemis);
+        ensureBrokerIsLive(artemis);
+        if (storeDatabase != null) {
+            ensureBrokerUsesJdbc(artemis, storeDatabase);
+        }
+        return artemis;
+    }
+
+    private Map<String, String> runWorkload(ArtemisContainer artemis, String workload, Map<String, String> workloadOptions) {
+        LOGGER.info("[PERF] Running {} workload on {}", workload, artemis.getName());
+        DeployableClient deployableClient = PerfClientHelper.createDeployableClient(artemis);
+        Map<String, String> perfClientOptions = new HashMap<>(Map.of(
+                "duration", DURATION,
+                "warmup", WARMUP,
+                "protocol", "core",
+                "producers", "1",
+                "consumers", "1",
+                "threads", "1",
+                "persistent", "",
+                "show-latency", ""
+        ));
+        perfClientOptions.putAll(workloadOptions);
+        String destination = "queue://JDBC_" + workload.toUpperCase(Locale.ROOT);
+        BundledArtemisClient artemisClient = new BundledArtemisClient(deployableClient, ArtemisCommand.PERF_CLIENT, perfClientOptions, destination);
+        Map<String, String> perfOutput = (Map<String, String>) artemisClient.executeCommand();
+        LOGGER.info("[PERF] {} {}", workload, perfOutput);
+        return perfOutput;
+    }
+}
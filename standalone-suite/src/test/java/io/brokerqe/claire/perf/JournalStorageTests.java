@@ -0,0 +1,213 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.clients.bundled.ArtemisCommand;
+import io.brokerqe.claire.clients.bundled.BundledArtemisClient;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.container.NfsServerContainer;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.helper.ArtemisJmxHelper;
+import io.brokerqe.claire.helper.PerfClientHelper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Compares journal implementations (NIO, ASYNCIO, MAPPED) on different storage of broker data directory - tmpfs,
+ * local disk (bind mounted instance directory) and NFS mount (as used by shared store). For every combination is
+ * recorded
+ * <ul>
+ *     <li>effective journal configuration read over JMX (ASYNCIO falls back to NIO where direct IO is unsupported)</li>
+ *     <li>sync latency of journal device measured by {@code artemis perf-journal} inside broker container on the same
+ *     storage</li>
+ *     <li>throughput and end-to-end latency of persistent perf workload</li>
+ * </ul>
+ * Throughput relative to local disk with the same journal type quantifies the cost of storage. Failure of single
+ * combination is recorded in the table ({@code result=error}) instead of failing the whole comparison.
+ */
+public class JournalStorageTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalStorageTests.class);
+    private static final String[] JOURNAL_TYPES = {"NIO", "ASYNCIO", "MAPPED"};
+    private static final String TMPFS = "tmpfs";
+    private static final String DISK = "disk";
+    private static final String NFS = "nfs";
+    private static final String[] STORAGES = {TMPFS, DISK, NFS};
+    private static final String NFS_EXPORT_DIR = "journalData";
+    private static final String NFS_MOUNT_DIR = ArtemisContainer.ARTEMIS_INSTANCE_DIR + Constants.FILE_SEPARATOR + "nfs_data_dir";
+    private static final String DURATION = "60";
+    private static final String WARMUP = "10";
+    private static final String MESSAGE_SIZE = "1024";
+    private static final long CLIENT_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+    private static final List<String> COLUMNS = List.of("storage", "journal_type", "effective_journal_type", "sync_latency_us",
+            "syncs_per_ms", "throughput", "throughput_vs_disk", "latency_us_50.00", "latency_us_99.00", "result");
+
+    private String artemisVersion;
+    private String resultsDir;
+
+    @BeforeAll
+    void setupEnv() {
+        artemisVersion = Environment.get().getArtemisVersion();
+        resultsDir = Constants.PERFORMANCE_DIR + "/journal";
+        TestUtils.createDirectory(resultsDir);
+    }
+
+    @Test
+    void testJournalTypesOnStorages() {
+        List<Map<String, String>> table = new ArrayList<>();
+        NfsServerContainer nfsServer = getNfsServerInstance(NFS_EXPORT_DIR);
+        try {
+            for (String storage : STORAGES) {
+                for (String journalType : JOURNAL_TYPES) {
+                    table.add(measure(storage, journalType, nfsServer));
+                }
+            }
+        } finally {
+            nfsServer.stop();
+        }
+
+        for (Map<String, String> row : table) {
+            if (!row.containsKey("throughput")) {
+                continue;
+            }
+            table.stream()
+                    .filter(diskRow -> diskRow.get("storage").equals(DISK) && diskRow.get("journal_type").equals(row.get("journal_type"))
+                            && diskRow.containsKey("throughput"))
+                    .findFirst()
+                    .ifPresent(diskRow -> row.put("throughput_vs_disk", String.format(Locale.ROOT, "%.2f",
+                            Double.parseDouble(row.get("throughput")) / Double.parseDouble(diskRow.get("throughput")))));
+        }
+        StringBuilder csv = new StringBuilder(String.join(",", COLUMNS)).append('\n');
+        for (Map<String, String> row : table) {
+            csv.append(String.join(",", COLUMNS.stream().map(column -> row.getOrDefault(column, "")).toList())).append('\n');
+        }
+        LOGGER.info("[JOURNAL] Journal types on storages:\n{}", csv);
+        TestUtils.createFile(String.format("%s/results_%s.csv", resultsDir, artemisVersion), csv.toString());
+    }
+
+    private Map<String, String> measure(String storage, String journalType, NfsServerContainer nfsServer) {
+        String name = String.format("journal-%s-%s", storage, journalType.toLowerCase(Locale.ROOT));
+        ArtemisContainer artemis = ResourceManager.getArtemisContainerInstance(name);
+        String dataDir = ArtemisContainer.ARTEMIS_INSTANCE_DATA_DIR;
+        List<String> yacfgOpts = new ArrayList<>();
+        switch (storage) {
+            case TMPFS -> artemis.withTmpFs(dataDir);
+            case NFS -> {
+                // every broker gets its own directory on the shared export, so no journal is loaded from previous run
+                dataDir = NFS_MOUNT_DIR + Constants.FILE_SEPARATOR + name;
+                artemis.withEnvVar(Map.of("NFS_MOUNTS", nfsServer.getNfsMountString(NFS_EXPORT_DIR, NFS_MOUNT_DIR,
+                        NfsServerContainer.DEFAULT_CLIENT_OPTIONS)));
+                yacfgOpts.addAll(List.of("--opt", "journal_base_data_dir=" + dataDir));
+            }
+            default -> {
+                // local disk - data directory is part of bind mounted instance directory
+            }
+        }
+        String propertiesFile = String.format("%s/%s.properties", resultsDir, name);
+        TestUtils.createFile(propertiesFile, "journalType=" + journalType + "\n");
+        generateArtemisCfg(artemis, yacfgOpts);
+        artemis.withConfigFile(propertiesFile, "broker.properties");
+
+        Map<String, String> results = new HashMap<>();
+        results.put("storage", storage);
+        try {
+            artemis.start();
+            ensureBrokerStarted(artemis);
+            ensureBrokerIsLive(artemis);
+            Map<String, String> journal = ArtemisJmxHelper.getJournalConfiguration(artemis);
+            results.putAll(journal);
+
+            Map<String, String> syncTest = runPerfJournal(artemis, journal.get("journal_type"), dataDir + "/perf-journal");
+            syncTest.forEach((key, value) -> results.put("perf_journal_" + key, value));
+            Map<String, String> perfOutput = runWorkload(artemis);
+            results.putAll(perfOutput);
+
+            // JMX journal configuration has also journal_type key
+            results.put("journal_type", journalType);
+            results.put("effective_journal_type", journal.get("journal_type"));
+            results.put("syncs_per_ms", syncTest.get("syncs_per_ms"));
+            results.put("sync_latency_us", String.format(Locale.ROOT, "%.1f",
+                    Long.parseLong(syncTest.get("journal_buffer_timeout_ns")) / 1000.0));
+            results.put("throughput", String.format(Locale.ROOT, "%.1f",
+                    Double.parseDouble(perfOutput.get("total_received")) / Double.parseDouble(DURATION)));
+            results.put("latency_us_50.00", PerfClientHelper.findEndToEndLatency(perfOutput, "50.00"));
+            results.put("latency_us_99.00", PerfClientHelper.findEndToEndLatency(perfOutput, "99.00"));
+            results.put("profile_message_size", MESSAGE_SIZE);
+            results.put("profile_artemis_version", artemisVersion);
+            LOGGER.info("[JOURNAL] {} on {}: {}", journalType, storage, results);
+            TestUtils.createFile(String.format("%s/results_%s_%s.json", resultsDir, name, artemisVersion), TestUtils.convertMapToJson(results));
+
+            assertThat("performance test ended successfully", perfOutput.get("result"), equalTo("success"));
+            assertThat("total send = total received", perfOutput.get("total_sent"), equalTo(perfOutput.get("total_received")));
+        } catch (Exception | AssertionError e) {
+            // combination unsupported by storage (e.g. direct IO on NFS) must not stop the comparison
+            LOGGER.warn("[JOURNAL] {} on {} failed: {}", journalType, storage, e.getMessage());
+            results.remove("throughput");
+            results.put("journal_type", journalType);
+            results.put("result", "error");
+        } finally {
+            artemis.stop();
+        }
+        return results;
+    }
+
+    /**
+     * Every write is synced, so the reported buffer timeout is average sync time of journal device. perf-journal runs
+     * next to running broker on its own journal directory, so lock of broker instance is ignored ({@code --f}).
+     * @throws ClaireRuntimeException when perf-journal did not report sync rate, so combination is recorded as error
+     */
+    private Map<String, String> runPerfJournal(ArtemisContainer artemis, String journalType, String journalDir) {
+        Map<String, String> options = Map.of(
+                "journal-type", journalType,
+                "journal", journalDir,
+                "sync-writes", "",
+                "writes", "1000",
+                "tries", "3",
+                "f", ""
+        );
+        // perf-journal is offline tool without authentication options
+        Map<String, String> syncTest = (Map<String, String>) new BundledArtemisClient(PerfClientHelper.createDeployableClient(artemis),
+                ArtemisCommand.PERF_JOURNAL, null, null, options).executeCommand(CLIENT_TIMEOUT);
+        if (!syncTest.containsKey("syncs_per_ms") || !syncTest.containsKey("journal_buffer_timeout_ns")) {
+            String errMsg = String.format("[JOURNAL] perf-journal on %s did not report sync rate: %s", journalDir, syncTest);
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg);
+        }
+        return syncTest;
+    }
+
+    private Map<String, String> runWorkload(ArtemisContainer artemis) {
+        Map<String, String> perfOptions = Map.of(
+                "duration", DURATION,
+                "warmup", WARMUP,
+                "protocol", "core",
+                "producers", "1",
+                "consumers", "1",
+                "threads", "1",
+                "message-size", MESSAGE_SIZE,
+                "persistent", "",
+                "show-latency", ""
+        );
+        return (Map<String, String>) new BundledArtemisClient(PerfClientHelper.createDeployableClient(artemis), ArtemisCommand.PERF_CLIENT, perfOptions,
+                "queue://JOURNAL_QUEUE").executeCommand(CLIENT_TIMEOUT);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.client.LargeMessageStreamer;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.monitoring.HeapMonitor;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streams large messages (10 MB - 2 GB) through broker with payload generated on the fly on producer side and
+ * discarded (only checksum is computed) on consumer side, so no payload is ever held in client memory.
+ * Measures send and receive throughput, growth of broker large-messages directory and heap of client (test) JVM,
+ * which has to stay flat regardless of message size.
+ */
+public class LargeMessagePerformanceTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LargeMessagePerformanceTests.class);
+    private static final String LARGE_MESSAGES_DIR = ArtemisContainer.ARTEMIS_INSTANCE_DATA_DIR + "/large-messages";
+    private static final long MAX_OLD_GEN_GROWTH = 128L * 1024 * 1024;
+    private static final long HEAP_SAMPLE_INTERVAL_MS = 200;
+    private static final long RECEIVE_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+    private static final long MB = 1024L * 1024;
+
+    private ArtemisContainer artemis;
+    private String artemisVersion;
+    private String resultsDir;
+
+    @BeforeAll
+    void setupEnv() {
+        artemisVersion = Environment.get().getArtemisVersion();
+        resultsDir = Constants.PERFORMANCE_DIR + "/large-messages";
+        TestUtils.createDirectory(resultsDir);
+
+        artemis = ResourceManager.getArtemisContainerInstance(Constants.ARTEMIS_STRING);
+        artemis.start();
+        ensureBrokerStarted(artemis);
+        ensureBrokerIsLive(artemis);
+    }
+
+    static Stream<Arguments> messageSizes() {
+        return Stream.of(
+                Arguments.of(10 * MB, 20),
+                Arguments.of(100 * MB, 5),
+                Arguments.of(1024 * MB, 1),
+                Arguments.of(2048 * MB, 1)
+        );
+    }
+
+    @ParameterizedTest(name = "size={0} count={1}")
+    @MethodSource("messageSizes")
+    void testLargeMessageStreaming(long messageSize, int messageCount) {
+        String queueName = String.format(Locale.ROOT, "LARGE_%dMB", messageSize / MB);
+        String url = "tcp://" + artemis.getHostAndPort(ArtemisContainer.DEFAULT_ALL_PROTOCOLS_PORT);
+        long largeMessagesDirBefore = artemis.getDirectorySize(LARGE_MESSAGES_DIR);
+
+        HeapMonitor heapMonitor = new HeapMonitor().start(HEAP_SAMPLE_INTERVAL_MS);
+        long sentBytes;
+        long receivedBytes;
+        long sendTimeMs;
+        long receiveTimeMs;
+        long largeMessagesDirSent;
+        try (LargeMessageStreamer streamer = new LargeMessageStreamer(url, Constants.ARTEMIS_INSTANCE_USER_NAME,
+                Constants.ARTEMIS_INSTANCE_USER_PASS, queueName)) {
+            long start = System.nanoTime();
+            sentBytes = streamer.sendGenerated(messageCount, messageSize);
+            sendTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            largeMessagesDirSent = artemis.getDirectorySize(LARGE_MESSAGES_DIR);
+
+            start = System.nanoTime();
+            receivedBytes = streamer.receive(messageCount, RECEIVE_TIMEOUT);
+            receiveTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            heapMonitor.stop();
+        }
+        long largeMessagesDirConsumed = artemis.getDirectorySize(LARGE_MESSAGES_DIR);
+
+        Map<String, String> results = new HashMap<>();
+        results.put("sent_bytes", String.valueOf(sentBytes));
+        results.put("received_bytes", String.valueOf(receivedBytes));
+        results.put("send_time_ms", String.valueOf(sendTimeMs));
+        results.put("receive_time_ms", String.valueOf(receiveTimeMs));
+        results.put("send_throughput_mb_s", formatThroughput(sentBytes, sendTimeMs));
+        results.put("receive_throughput_mb_s", formatThroughput(receivedBytes, receiveTimeMs));
+        results.put("large_messages_dir_growth_bytes", String.valueOf(largeMessagesDirSent - largeMessagesDirBefore));
+        results.put("large_messages_dir_after_consume_bytes", String.valueOf(largeMessagesDirConsumed));
+        results.putAll(heapMonitor.toMap("client_heap"));
+        results.put("profile_message_size", String.valueOf(messageSize));
+        results.put("profile_message_count", String.valueOf(messageCount));
+        results.put("profile_artemis_version", artemisVersion);
+        LOGGER.info("[LargeMessage] {}MB x {}: {} {}", messageSize / MB, messageCount, heapMonitor, results);
+
+        String resultsFile = String.format(Locale.ROOT, "%s/results_%dMB_%s.json", resultsDir, messageSize / MB, artemisVersion);
+        TestUtils.createFile(resultsFile, TestUtils.convertMapToJson(results));
+
+        assertThat(sentBytes).as("sent payload bytes").isEqualTo(messageSize * messageCount);
+        assertThat(receivedBytes).as("received payload bytes").isEqualTo(messageSize * messageCount);
+        assertThat(heapMonitor.getOldGenGrowth()).as("client old generation growth").isLessThan(MAX_OLD_GEN_GROWTH);
+        ensureQueueCount(artemis, queueName, queueName, RoutingType.ANYCAST, 0);
+    }
+
+    private static String formatThroughput(long bytes, long timeMs) {
+        return String.format(Locale.ROOT, "%.2f", timeMs == 0 ? 0 : bytes * 1000.0 / MB / timeMs);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.clients.mqtt.MqttFanoutBenchmark;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.helper.ArtemisJmxHelper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MQTT connection storm and subscription fan-out benchmark (see {@link MqttFanoutBenchmark}) against standalone
+ * broker for every QoS level. All connections go from single host to single broker port, so the largest step is kept
+ * below the ephemeral port range.
+ */
+public class MqttLoadTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MqttLoadTests.class);
+    /** cumulative number of device connections in every step */
+    private static final int[] CONNECTIONS = {5_000, 10_000, 20_000};
+
+    private ArtemisContainer artemis;
+    private String artemisVersion;
+    private String resultsDir;
+
+    @BeforeAll
+    void setupEnv() {
+        artemisVersion = Environment.get().getArtemisVersion();
+        resultsDir = Constants.PERFORMANCE_DIR + "/mqtt";
+        TestUtils.createDirectory(resultsDir);
+        artemis = ResourceManager.getArtemisContainerInstance(Constants.ARTEMIS_STRING);
+        generateArtemisCfg(artemis);
+        artemis.start();
+        ensureBrokerStarted(artemis);
+        ensureBrokerIsLive(artemis);
+    }
+
+    @AfterAll
+    void teardownEnv() {
+        artemis.stop();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2})
+    void connectionStormFanoutTest(int qos) {
+        MqttFanoutBenchmark benchmark = new MqttFanoutBenchmark(artemis.getHost(), artemis.getPort(ArtemisContainer.DEFAULT_MQTT_PORT), () -> {
+            ArtemisJmxHelper.runGc(artemis);
+            return ArtemisJmxHelper.getJvmStats(artemis).get("heap_used_bytes").longValue();
+        })
+                .withCredentials(Constants.ARTEMIS_INSTANCE_USER_NAME, Constants.ARTEMIS_INSTANCE_USER_PASS)
+                .withConnectionSteps(CONNECTIONS)
+                .withQos(qos);
+        Map<String, String> results = benchmark.run();
+        results.put("profile_artemis_version", artemisVersion);
+        LOGGER.info("[MQTT] QoS {} results: {}", qos, results);
+
+        String resultsFile = String.format("%s/results_qos%d_%s", resultsDir, qos, artemisVersion);
+        TestUtils.createFile(resultsFile + ".json", TestUtils.convertMapToJson(results));
+        TestUtils.createFile(resultsFile + "_series.csv", benchmark.getSeriesCsv());
+        assertThat(results.get("failed_connections")).as("failed MQTT connections").isEqualTo("0");
+        assertThat(results.get("lost_connections")).as("lost MQTT connections").isEqualTo("0");
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import eu.rekawek.toxiproxy.Proxy;
+import eu.rekawek.toxiproxy.model.ToxicDirection;
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.client.AmqpUtil;
+import io.brokerqe.claire.client.ContinuousJmsTraffic;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.container.ToxiProxyContainer;
+import io.brokerqe.claire.container.ZookeeperContainerCluster;
+import io.brokerqe.claire.container.database.DatabaseContainer;
+import io.brokerqe.claire.exception.ClaireRuntimeException;
+import io.brokerqe.claire.helper.ChaosRunner;
+import io.brokerqe.claire.helper.NetworkFault;
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs steady producer/consumer load while toxics are applied on toxiproxy placed in front of broker acceptor,
+ * replication link between primary and backup, or broker connection to database.
+ * Throughput and latency degradation and recovery time of every fault are stored in {@code PERFORMANCE_DIR/chaos}.
+ */
+public class NetworkChaosTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NetworkChaosTests.class);
+    // unpaced, so throughput is limited by broker and faults, not by the producer
+    private static final long SEND_INTERVAL_MS = 0;
+    private static final long FAULT_DURATION_MS = Constants.DURATION_30_SECONDS;
+    private static final String FAILOVER_OPTIONS = "failover.amqpOpenServerListAction=IGNORE&failover.initialReconnectDelay=0"
+            + "&failover.reconnectDelay=100&failover.useReconnectBackOff=false&failover.nested.amqp.idleTimeout=5000";
+    private static final int ACCEPTOR_PROXY_PORT = 8666;
+    private static final int REPLICATION_PROXY_PORT = 8667;
+    private static final int DATABASE_PROXY_PORT = 8668;
+
+    private ToxiProxyContainer toxiProxy;
+
+    @BeforeAll
+    void setupEnv() {
+        toxiProxy = ResourceManager.getToxiProxyContainerInstance("toxiProxy");
+        toxiProxy.start();
+    }
+
+    @AfterAll
+    void teardownEnv() {
+        toxiProxy.stop();
+    }
+
+    @Test
+    void acceptorChaos() {
+        assumeFalse(useArtemisWithDB(), "Acceptor chaos is measured with file journal only");
+        ArtemisContainer artemis = getArtemisInstance("artemis");
+        try {
+            Proxy proxy = toxiProxy.getProxy("acceptorProxy", "0.0.0.0:" + ACCEPTOR_PROXY_PORT,
+                    artemis.getName() + ":" + ArtemisContainer.DEFAULT_ALL_PROTOCOLS_PORT);
+
+            // client connects through proxy only, timeout toxic has to be survived by reconnect to the same address
+            String url = AmqpUtil.buildAmqFailoverUrl(FAILOVER_OPTIONS, toxiProxy.getHostAndPort(ACCEPTOR_PROXY_PORT));
+            List<NetworkFault> faults = List.of(
+                    NetworkFault.latency(proxy, ToxicDirection.DOWNSTREAM, 100, FAULT_DURATION_MS),
+                    NetworkFault.latency(proxy, ToxicDirection.UPSTREAM, 100, FAULT_DURATION_MS),
+                    NetworkFault.bandwidth(proxy, ToxicDirection.UPSTREAM, 64, FAULT_DURATION_MS),
+                    NetworkFault.slicer(proxy, ToxicDirection.DOWNSTREAM, 16, FAULT_DURATION_MS),
+                    NetworkFault.timeout(proxy, ToxicDirection.DOWNSTREAM, Constants.DURATION_5_SECONDS, FAULT_DURATION_MS));
+            runChaos("acceptor", url, faults);
+        } finally {
+            artemis.stop();
+        }
+    }
+
+    @Test
+    void replicationLinkChaos() {
+        assumeFalse(useArtemisWithDB(), "Replication link chaos is measured with file journal only");
+        ZookeeperContainerCluster zkCluster = new ZookeeperContainerCluster(3, "zk");
+        zkCluster.start();
+        ArtemisContainer artemisPrimary = null;
+        ArtemisContainer artemisBackup = null;
+        try {
+            artemisPrimary = ResourceManager.getArtemisContainerInstance("artemisPrimary");
+            Proxy proxy = toxiProxy.getProxy("replicationProxy", "0.0.0.0:" + REPLICATION_PROXY_PORT,
+                    artemisPrimary.getName() + ":" + ArtemisContainer.DEFAULT_ALL_PROTOCOLS_PORT);
+            // primary announces connector pointing to proxy, so backup replicates through it
+            String connectorHost = String.format("""
+                        host: '%s'
+                        port: %d
+                    """, toxiProxy.getName(), REPLICATION_PROXY_PORT);
+            generateArtemisCfg(artemisPrimary, new ArrayList<>(List.of("tune_file=" + createReplicationTuneFile("primary", connectorHost))));
+            artemisPrimary.start();
+            ensureBrokerStarted(artemisPrimary);
+            ensureBrokerIsLive(artemisPrimary);
+
+            artemisBackup = ResourceManager.getArtemisContainerInstance("artemisBackup");
+            generateArtemisCfg(artemisBackup, new ArrayList<>(List.of("tune_file=" + createReplicationTuneFile("backup", ""))));
+            artemisBackup.withLogWait(ArtemisContainer.BACKUP_ANNOUNCED_LOG_REGEX);
+            artemisBackup.start();
+            ensureBrokerStarted(artemisBackup);
+            ensureBrokerIsBackup(artemisBackup);
+            ensureBrokerReplicaIsInSync(artemisBackup);
+
+            // client connects directly to primary, only synchronous replication of durable sends is affected
+            String url = AmqpUtil.buildAmqFailoverUrl(FAILOVER_OPTIONS, artemisPrimary.getHostAndPort(ArtemisContainer.DEFAULT_ALL_PROTOCOLS_PORT));
+            List<NetworkFault> faults = List.of(
+                    NetworkFault.latency(proxy, ToxicDirection.UPSTREAM, 50, FAULT_DURATION_MS),
+                    NetworkFault.bandwidth(proxy, ToxicDirection.UPSTREAM, 256, FAULT_DURATION_MS),
+                    NetworkFault.slicer(proxy, ToxicDirection.UPSTREAM, 64, FAULT_DURATION_MS),
+                    NetworkFault.timeout(proxy, ToxicDirection.UPSTREAM, Constants.DURATION_5_SECONDS, FAULT_DURATION_MS));
+            runChaos("replication", url, faults);
+        } finally {
+            if (artemisBackup != null) {
+                artemisBackup.stop();
+            }
+            if (artemisPrimary != null) {
+                artemisPrimary.stop();
+            }
+            zkCluster.stop();
+        }
+    }
+
+    @Test
+    void databaseChaos() {
+        assumeTrue(useArtemisWithDB() && database instanceof DatabaseContainer, "Database chaos requires database container");
+        DatabaseContainer databaseContainer = (DatabaseContainer) database;
+        databaseContainer.start();
+        Matcher matcher = Pattern.compile(Pattern.quote(database.getName()) + ":(\\d+)").matcher(database.getJdbcUrl());
+        if (!matcher.find()) {
+            String errMsg = String.format("Unable to find host and port of %s in %s", database.getName(), database.getJdbcUrl());
+            LOGGER.error(errMsg);
+            throw new ClaireRuntimeException(errMsg);
+        }
+        String databaseHostAndPort = matcher.group();
+        Proxy proxy = toxiProxy.getProxy("databaseProxy", "0.0.0.0:" + DATABASE_PROXY_PORT, databaseHostAndPort);
+
+        ArtemisContainer artemis = ResourceManager.getArtemisContainerInstance(Constants.ARTEMIS_STRING);
+        try {
+            String tuneFileName = TestUtils.getProjectRelativeFile("chaos_jdbc_tune.yaml");
+            try {
+                String tuneFileContent = Files.readString(Paths.get(database.getTuneFile()))
+                        .replace(databaseHostAndPort, toxiProxy.getName() + ":" + DATABASE_PROXY_PORT);
+                TestUtils.createFile(tuneFileName, tuneFileContent);
+            } catch (IOException e) {
+                String errMsg = String.format("Unable to read database tune file %s: %s", database.getTuneFile(), e.getMessage());
+                LOGGER.error(errMsg);
+                throw new ClaireRuntimeException(errMsg, e);
+            }
+            generateArtemisCfg(artemis, new ArrayList<>(List.of("tune_file=" + tuneFileName)));
+            artemis.withLibFile(database.getDriverFile(), database.getDriverFilename());
+            artemis.start(Duration.ofMinutes(10));
+            ensureBrokerStarted(artemis);
+            ensureBrokerIsLive(artemis);
+            ensureBrokerUsesJdbc(artemis, database);
+
+            // no timeout toxic, broken JDBC connection is critical IO error which shuts the broker down
+            String url = AmqpUtil.buildAmqFailoverUrl(FAILOVER_OPTIONS, artemis.getHostAndPort(ArtemisContainer.DEFAULT_ALL_PROTOCOLS_PORT));
+            List<NetworkFault> faults = List.of(
+                    NetworkFault.latency(proxy, ToxicDirection.UPSTREAM, 20, FAULT_DURATION_MS),
+                    NetworkFault.latency(proxy, ToxicDirection.DOWNSTREAM, 20, FAULT_DURATION_MS),
+                    NetworkFault.bandwidth(proxy, ToxicDirection.UPSTREAM, 128, FAULT_DURATION_MS),
+                    NetworkFault.slicer(proxy, ToxicDirection.DOWNSTREAM, 64, FAULT_DURATION_MS));
+            runChaos("database_" + database.getName().split("-")[0], url, faults);
+        } finally {
+            artemis.stop();
+        }
+    }
+
+    private void runChaos(String scenario, String url, List<NetworkFault> faults) {
+        LOGGER.info("[Chaos] Running {} faults of scenario {}", faults.size(), scenario);
+        ContinuousJmsTraffic traffic = new ContinuousJmsTraffic("chaos-" + scenario, new JmsConnectionFactory(url), "ChaosQueue", SEND_INTERVAL_MS)
+                .withCredentials(Constants.ARTEMIS_INSTANCE_USER_NAME, Constants.ARTEMIS_INSTANCE_USER_PASS)
+                .start();
+        List<Map<String, String>> results;
+        try {
+            results = new ChaosRunner(traffic).run(faults);
+        } finally {
+            traffic.stop(Constants.DURATION_1_MINUTE);
+        }
+
+        String resultsDir = Constants.PERFORMANCE_DIR + "/chaos";
+        TestUtils.createDirectory(resultsDir);
+        for (Map<String, String> result : results) {
+            TestUtils.createFile(resultsDir + "/" + scenario + "_" + result.get("fault") + ".json", TestUtils.convertMapToJson(result));
+        }
+        LOGGER.info("[Chaos] Scenario {} sent {} messages, lost {}, duplicates {}", scenario, traffic.getSentCount(),
+                traffic.getLostCount(), traffic.getDuplicateCount());
+        assertThat("no message is lost during network faults", traffic.getLostCount(), equalTo(0L));
+    }
+
+    private String createReplicationTuneFile(String role, String connectorHost) {
+        String tuneFileName = TestUtils.getProjectRelativeFile("chaos_" + role + "_tune.yaml");
+        String tuneFileContent = String.format("""
+                user_connectors:
+                  - name: 'cluster-connector'
+                %s
+                user_broadcast_groups:
+                  - name: 'cluster-broadcast-group'
+                    connectors_ref:
+                      - 'cluster-connector'
+
+                user_discovery_groups:
+                  - name: 'cluster-discovery-group'
+
+                user_cluster:
+                  user: 'clusterUser'
+                  password: 'clusterPassword'
+
+                user_cluster_connections:
+                  - name: 'artemis-cluster'
+                    connector_ref: 'cluster-connector'
+                    discovery_group_ref: 'cluster-discovery-group'
+
+                user_ha:
+                  policy: replication
+                  role: %s
+                  properties:
+                    allow_failback: true
+                    manager:
+                      properties:
+                        - key: 'connect-string'
+                          value: 'zk1:2181,zk2:2181,zk3:2181'
+                        - key: 'namespace'
+                          value: 'chaos'
+                """, connectorHost, role);
+        TestUtils.createFile(tuneFileName, tuneFileContent);
+        return tuneFileName;
+    }
+}
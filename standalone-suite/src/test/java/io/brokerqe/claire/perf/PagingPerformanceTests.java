@@ -0,0 +1,229 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.ArtemisVersion;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.clients.DeployableClient;
+import io.brokerqe.claire.clients.bundled.ArtemisCommand;
+import io.brokerqe.claire.clients.bundled.BundledArtemisClient;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.helper.PagingMonitor;
+import io.brokerqe.claire.helper.PerfClientHelper;
+import io.brokerqe.claire.junit.TestValidSince;
+import io.brokerqe.claire.monitoring.LatencyStats;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives addresses deep into paging with millions of messages and measures, for every combination of page size,
+ * max-read-page-messages/bytes and consumer prefetch (consumerWindowSize):
+ * <ul>
+ *     <li>produce and consume throughput while address was and was not paging</li>
+ *     <li>time to start paging (from produce start) and to stop paging (from consume start)</li>
+ *     <li>depage latency - time to consume single page file</li>
+ *     <li>time series of message count, paging state, page file count and address size (csv)</li>
+ * </ul>
+ * Address settings are based on {@code MaxReadMessagesAndBytesTests} tune, every profile uses its own address.
+ */
+@TestValidSince(ArtemisVersion.VERSION_2_28)
+public class PagingPerformanceTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PagingPerformanceTests.class);
+    private static final int MESSAGES = 1_000_000;
+    private static final int MESSAGE_SIZE = 1024;
+    private static final String MAX_SIZE_BYTES = "10M";
+    private static final long CLIENT_TIMEOUT = TimeUnit.HOURS.toMillis(1);
+    private static final String PRODUCE = "produce";
+    private static final String CONSUME = "consume";
+
+    private static final List<PagingProfile> PROFILES = List.of(
+            new PagingProfile("100K", "-1", "20M", 1048576),
+            new PagingProfile("1M", "-1", "20M", 1048576),
+            new PagingProfile("10M", "-1", "20M", 1048576),
+            new PagingProfile("1M", "1000", "-1", 1048576),
+            new PagingProfile("1M", "-1", "1M", 1048576),
+            new PagingProfile("1M", "-1", "20M", 65536),
+            new PagingProfile("1M", "-1", "20M", 10485760)
+    );
+
+    private ArtemisContainer artemis;
+    private String artemisVersion;
+    private String resultsDir;
+
+    private static final class PagingProfile {
+        private final String pageSizeBytes;
+        private final String maxReadPageMessages;
+        private final String maxReadPageBytes;
+        private final int consumerWindowSize;
+
+        private PagingProfile(String pageSizeBytes, String maxReadPageMessages, String maxReadPageBytes, int consumerWindowSize) {
+            this.pageSizeBytes = pageSizeBytes;
+            this.maxReadPageMessages = maxReadPageMessages;
+            this.maxReadPageBytes = maxReadPageBytes;
+            this.consumerWindowSize = consumerWindowSize;
+        }
+
+        private String getName() {
+            return String.format("page%s_msgs%s_bytes%s_window%d", pageSizeBytes, maxReadPageMessages, maxReadPageBytes,
+                    consumerWindowSize).replace("-1", "unlimited");
+        }
+
+        private String getAddress() {
+            return "PAGING_" + getName().toUpperCase(Locale.ROOT);
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+
+    @BeforeAll
+    void setupEnv() {
+        artemisVersion = Environment.get().getArtemisVersion();
+        resultsDir = Constants.PERFORMANCE_DIR + "/paging";
+        TestUtils.createDirectory(resultsDir);
+
+        StringBuilder tuneFileContent = new StringBuilder("""
+                user_address_settings:
+                  - match: activemq.management#
+                    dead_letter_address: DLQ
+                    expiry_address: ExpiryQueue
+                    redelivery_delay: 0
+                    max_size_bytes: -1
+                    message_counter_history_day_limit: 10
+                    address_full_policy: PAGE
+                    auto_create_queues: true
+                    auto_create_addresses: true
+                  - match: '#'
+                    dead_letter_address: DLQ
+                    expiry_address: ExpiryQueue
+                    redelivery_delay: 0
+                    max_size_bytes: -1
+                    message_counter_history_day_limit: 10
+                    address_full_policy: PAGE
+                    auto_create_queues: true
+                    auto_create_addresses: true
+                    auto_delete_queues: false
+                    auto_delete_addresses: false
+                """);
+        for (PagingProfile profile : PROFILES) {
+            tuneFileContent.append(String.format("""
+                      - match: '%s'
+                        address_full_policy: PAGE
+                        max_size_bytes: %s
+                        max_size_messages: -1
+                        page_size_bytes: %s
+                        max_read_page_messages: %s
+                        max_read_page_bytes: %s
+                    """, profile.getAddress(), MAX_SIZE_BYTES, profile.pageSizeBytes, profile.maxReadPageMessages,
+                    profile.maxReadPageBytes));
+        }
+        String tuneFileName = TestUtils.getProjectRelativeFile("paging_perf_tune.yaml");
+        TestUtils.createFile(tuneFileName, tuneFileContent.toString());
+
+        artemis = ResourceManager.getArtemisContainerInstance(Constants.ARTEMIS_STRING);
+        generateArtemisCfg(artemis, new ArrayList<>(List.of("tune_file=" + tuneFileName)));
+        artemis.start();
+        ensureBrokerStarted(artemis);
+        ensureBrokerIsLive(artemis);
+    }
+
+    static List<PagingProfile> pagingProfiles() {
+        return PROFILES;
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("pagingProfiles")
+    void testPagingThroughput(PagingProfile profile) {
+        String address = profile.getAddress();
+        PagingMonitor monitor = new PagingMonitor(artemis, address);
+        monitor.start();
+
+        monitor.setPhase(PRODUCE);
+        Map<String, String> producerOptions = Map.of(
+                "protocol", "core",
+                "message-count", String.valueOf(MESSAGES),
+                "message-size", String.valueOf(MESSAGE_SIZE),
+                "persistent", "",
+                "max-pending", "1000"
+        );
+        Map<String, String> producerOutput = runPerfCommand(ArtemisCommand.PERF_PRODUCER, producerOptions, address);
+
+        monitor.setPhase(CONSUME);
+        Map<String, String> consumerOptions = Map.of(
+                "protocol", "core",
+                "message-count", String.valueOf(MESSAGES),
+                "url", "tcp://localhost:" + ArtemisContainer.DEFAULT_ALL_PROTOCOLS_PORT + "?consumerWindowSize=" + profile.consumerWindowSize
+        );
+        Map<String, String> consumerOutput = runPerfCommand(ArtemisCommand.PERF_CONSUMER, consumerOptions, address);
+        monitor.stop();
+
+        Map<String, String> results = new HashMap<>();
+        producerOutput.forEach((key, value) -> results.put("producer_" + key, value));
+        consumerOutput.forEach((key, value) -> results.put("consumer_" + key, value));
+        results.put("produce_throughput_not_paging", formatRate(monitor.getThroughput(PRODUCE, false)));
+        results.put("produce_throughput_paging", formatRate(monitor.getThroughput(PRODUCE, true)));
+        results.put("consume_throughput_paging", formatRate(monitor.getThroughput(CONSUME, true)));
+        results.put("consume_throughput_not_paging", formatRate(monitor.getThroughput(CONSUME, false)));
+        results.put("paging_start_ms", formatTime(monitor.getTimeToPagingState(PRODUCE, true)));
+        results.put("paging_end_ms", formatTime(monitor.getTimeToPagingState(CONSUME, false)));
+        results.put("max_page_count", String.valueOf(monitor.getMaxPageCount()));
+        LatencyStats depageIntervals = monitor.getDepageIntervals(CONSUME);
+        results.putAll(depageIntervals.toMap("depage"));
+        results.put("profile_page_size_bytes", profile.pageSizeBytes);
+        results.put("profile_max_read_page_messages", profile.maxReadPageMessages);
+        results.put("profile_max_read_page_bytes", profile.maxReadPageBytes);
+        results.put("profile_consumer_window_size", String.valueOf(profile.consumerWindowSize));
+        results.put("profile_messages", String.valueOf(MESSAGES));
+        results.put("profile_artemis_version", artemisVersion);
+        LOGGER.info("[Paging] {}: {}", profile, results);
+
+        String resultsFile = String.format("%s/results_%s_%s", resultsDir, profile.getName(), artemisVersion);
+        TestUtils.createFile(resultsFile + ".json", TestUtils.convertMapToJson(results));
+        TestUtils.createFile(resultsFile + "_series.csv", monitor.toCsv());
+
+        assertThat(monitor.getMaxPageCount()).as("address was paging").isGreaterThan(0);
+        ensureQueueCount(artemis, address, address, RoutingType.ANYCAST, 0);
+    }
+
+    private Map<String, String> runPerfCommand(ArtemisCommand command, Map<String, String> options, String address) {
+        DeployableClient deployableClient = PerfClientHelper.createDeployableClient(artemis);
+        BundledArtemisClient artemisClient = new BundledArtemisClient(deployableClient, command, options, "queue://" + address);
+        Map<String, String> perfOutput = (Map<String, String>) artemisClient.executeCommand(CLIENT_TIMEOUT);
+        LOGGER.info("[Paging] {} {}", command.getCommand(), perfOutput);
+        return perfOutput;
+    }
+
+    private static String formatRate(double rate) {
+        return String.format(Locale.ROOT, "%.2f", rate);
+    }
+
+    /**
+     * @return time in ms, empty string when paging state was never reached
+     */
+    private static String formatTime(OptionalLong timeMs) {
+        return timeMs.isPresent() ? String.valueOf(timeMs.getAsLong()) : "";
+    }
+}
@@ -13,6 +13,7 @@ import io.brokerqe.claire.clients.DeployableClient;
 import io.brokerqe.claire.clients.bundled.ArtemisCommand;
 import io.brokerqe.claire.clients.bundled.BundledArtemisClient;
 import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.monitoring.JfrRecorder;
 import io.brokerqe.claire.smoke.ClientsMessagingTests;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -66,6 +67,24 @@ public class PerformanceTests extends AbstractSystemTests {
         TestUtils.createFile(perfFilenameHost, results);
     }
 
+    /**
+     * Executes perf client, with enabled {@link io.brokerqe.claire.Constants#EV_PERF_PROFILING} broker is recorded by
+     * JFR during the workload and recording summary is added to results.
+     */
+    Map<String, String> executePerfClient(BundledArtemisClient artemisClient, String recordingName) {
+        if (!Environment.get().isPerfProfiling()) {
+            return (Map<String, String>) artemisClient.executeCommand();
+        }
+        JfrRecorder recorder = artemis.startJfrRecording(recordingName);
+        Map<String, String> perfOutput = new HashMap<>();
+        try {
+            perfOutput.putAll((Map<String, String>) artemisClient.executeCommand());
+        } finally {
+            perfOutput.putAll(recorder.stop(testNameDir).toMap());
+        }
+        return perfOutput;
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"amqp"})
 //    @ValueSource(strings = {"amqp", "core"})
@@ -86,7 +105,7 @@ public class PerformanceTests extends AbstractSystemTests {
                 "json", reportFilename
         );
         BundledArtemisClient artemisClient = new BundledArtemisClient(deployableClient, ArtemisCommand.PERF_CLIENT, artemisQueueStatOptions);
-        Map<String, String> perfOutput = (Map<String, String>) artemisClient.executeCommand();
+        Map<String, String> perfOutput = executePerfClient(artemisClient, testName + "_" + protocol);
         LOGGER.info(perfOutput.toString());
 
         assertThat("performance test ended successfully", perfOutput.get("result"), equalTo("success"));
@@ -115,7 +134,7 @@ public class PerformanceTests extends AbstractSystemTests {
                 "json", reportFilename
         );
         BundledArtemisClient artemisClient = new BundledArtemisClient(deployableClient, ArtemisCommand.PERF_CLIENT, artemisQueueStatOptions);
-        Map<String, String> perfOutput = (Map<String, String>) artemisClient.executeCommand();
+        Map<String, String> perfOutput = executePerfClient(artemisClient, testName + "_" + protocol);
         LOGGER.info(perfOutput.toString());
 
         assertThat("performance test ended successfully", perfOutput.get("result"), equalTo("success"));
@@ -143,7 +162,7 @@ public class PerformanceTests extends AbstractSystemTests {
                 "json", reportFilename
         );
         BundledArtemisClient artemisClient = new BundledArtemisClient(deployableClient, ArtemisCommand.PERF_CLIENT, artemisQueueStatOptions);
-        Map<String, String> perfOutput = (Map<String, String>) artemisClient.executeCommand();
+        Map<String, String> perfOutput = executePerfClient(artemisClient, testName + "_" + protocol);
         LOGGER.info(perfOutput.toString());
 
         assertThat("performance test ended successfully", perfOutput.get("result"), equalTo("success"));
@@ -179,7 +198,7 @@ public class PerformanceTests extends AbstractSystemTests {
                 Map.entry("json", reportFilename)
         );
         BundledArtemisClient artemisClient = new BundledArtemisClient(deployableClient, ArtemisCommand.PERF_CLIENT, artemisQueueStatOptions, "topic://DURABLE_TOPIC");
-        Map<String, String> perfOutput = (Map<String, String>) artemisClient.executeCommand();
+        Map<String, String> perfOutput = executePerfClient(artemisClient, testName + "_" + protocol);
         LOGGER.info(perfOutput.toString());
         storeResults(TestUtils.convertMapToJson(perfOutput), hdrFilename, reportFilename);
     }
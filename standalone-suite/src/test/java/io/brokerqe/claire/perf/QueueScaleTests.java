@@ -0,0 +1,152 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.clients.DeployableClient;
+import io.brokerqe.claire.clients.bundled.ArtemisCommand;
+import io.brokerqe.claire.clients.bundled.BundledArtemisClient;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.helper.ArtemisJmxHelper;
+import io.brokerqe.claire.helper.PerfClientHelper;
+import io.brokerqe.claire.helper.RecoveryTimer;
+import io.brokerqe.claire.monitoring.LatencyStats;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Address/queue cardinality scale test. Durable anycast queues (each on its own address) are created in cumulative
+ * steps up to 100k using management (JMX). In every step it records creation rate and latency of single management
+ * call, retained broker heap per queue (after full GC), latency of {@code queue stat} CLI (which lists all queues)
+ * and broker startup time with all queues loaded from journal.
+ */
+public class QueueScaleTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueueScaleTests.class);
+    /** cumulative number of queues in every step */
+    private static final int[] QUEUES = {1_000, 10_000, 50_000, 100_000};
+    private static final int BATCH_SIZE = 1_000;
+    private static final int QUEUE_STAT_SAMPLES = 5;
+    private static final String QUEUE_PREFIX = "SCALE_Q_";
+
+    private ArtemisContainer artemis;
+    private String artemisVersion;
+    private String resultsDir;
+
+    @BeforeAll
+    void setupEnv() {
+        artemisVersion = Environment.get().getArtemisVersion();
+        resultsDir = Constants.PERFORMANCE_DIR + "/scale";
+        TestUtils.createDirectory(resultsDir);
+        artemis = ResourceManager.getArtemisContainerInstance(Constants.ARTEMIS_STRING);
+    }
+
+    @Test
+    void queueCardinalityScaleTest() {
+        RecoveryTimer timer = new RecoveryTimer(artemis);
+        Map<String, String> results = new HashMap<>(timer.measureColdStart());
+        ArtemisJmxHelper.runGc(artemis);
+        double baselineHeap = ArtemisJmxHelper.getJvmStats(artemis).get("heap_used_bytes");
+        int baselineQueues = ArtemisJmxHelper.getTotalQueueCount(artemis);
+        LOGGER.info("[Scale] Baseline heap {} bytes with {} queues", (long) baselineHeap, baselineQueues);
+
+        List<Map<String, String>> series = new ArrayList<>();
+        int queues = 0;
+        try {
+            for (int stepQueues : QUEUES) {
+                Map<String, String> point = new HashMap<>();
+                LatencyStats createLatency = new LatencyStats();
+                long start = System.nanoTime();
+                for (int from = queues; from < stepQueues; from += BATCH_SIZE) {
+                    List<String> names = new ArrayList<>();
+                    for (int i = from; i < Math.min(stepQueues, from + BATCH_SIZE); i++) {
+                        names.add(QUEUE_PREFIX + i);
+                    }
+                    ArtemisJmxHelper.createQueues(artemis, names, RoutingType.ANYCAST, createLatency::recordNanos);
+                }
+                double createSeconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+                point.put("queues", String.valueOf(stepQueues));
+                point.put("create_rate", format((stepQueues - queues) / createSeconds));
+                point.putAll(createLatency.toMap("create"));
+                queues = stepQueues;
+                assertThat(ArtemisJmxHelper.getTotalQueueCount(artemis)).as("queues on broker").isEqualTo(baselineQueues + queues);
+
+                ArtemisJmxHelper.runGc(artemis);
+                double heap = ArtemisJmxHelper.getJvmStats(artemis).get("heap_used_bytes");
+                point.put("heap_used_bytes", format(heap));
+                point.put("heap_bytes_per_queue", format((heap - baselineHeap) / queues));
+
+                point.putAll(measureQueueStat().toMap("queue_stat"));
+                point.put("startup_ms", timer.measureRecovery().get("recovery_ms"));
+                assertThat(ArtemisJmxHelper.getTotalQueueCount(artemis)).as("queues after restart").isEqualTo(baselineQueues + queues);
+                LOGGER.info("[Scale] {}", point);
+                series.add(point);
+            }
+        } finally {
+            artemis.stop();
+        }
+
+        Map<String, String> lastPoint = series.get(series.size() - 1);
+        results.put("max_queues", lastPoint.get("queues"));
+        results.put("max_queues_create_rate", lastPoint.get("create_rate"));
+        results.put("max_queues_heap_bytes_per_queue", lastPoint.get("heap_bytes_per_queue"));
+        results.put("max_queues_queue_stat_us_50.00", lastPoint.get("queue_stat_us_50.00"));
+        results.put("max_queues_startup_ms", lastPoint.get("startup_ms"));
+        results.put("profile_routing_type", RoutingType.ANYCAST.toString());
+        results.put("profile_artemis_version", artemisVersion);
+        String resultsFile = String.format("%s/results_queues_%s", resultsDir, artemisVersion);
+        TestUtils.createFile(resultsFile + ".json", TestUtils.convertMapToJson(results));
+        TestUtils.createFile(resultsFile + "_series.csv", toCsv(series));
+    }
+
+    /**
+     * {@code queue stat} filters queues on broker side, so every call iterates over all deployed queues.
+     */
+    private LatencyStats measureQueueStat() {
+        LatencyStats latency = new LatencyStats();
+        DeployableClient deployableClient = PerfClientHelper.createDeployableClient(artemis);
+        Map<String, String> commandOptions = Map.of(
+                "queueName", QUEUE_PREFIX + "0",
+                "maxColumnSize", "-1"
+        );
+        for (int i = 0; i < QUEUE_STAT_SAMPLES; i++) {
+            long start = System.nanoTime();
+            Map<String, Map<String, String>> queueStats = (Map<String, Map<String, String>>)
+                    new BundledArtemisClient(deployableClient, ArtemisCommand.QUEUE_STAT, commandOptions).executeCommand();
+            latency.recordNanos(System.nanoTime() - start);
+            assertThat(queueStats).containsKey(QUEUE_PREFIX + "0");
+        }
+        return latency;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static String toCsv(List<Map<String, String>> series) {
+        StringBuilder csv = new StringBuilder("queues,create_rate,create_us_99.00,heap_bytes_per_queue,queue_stat_us_50.00,startup_ms\n");
+        for (Map<String, String> point : series) {
+            csv.append(String.join(",", point.get("queues"), point.get("create_rate"), point.get("create_us_99.00"),
+                    point.get("heap_bytes_per_queue"), point.get("queue_stat_us_50.00"), point.get("startup_ms"))).append('\n');
+        }
+        return csv.toString();
+    }
+}
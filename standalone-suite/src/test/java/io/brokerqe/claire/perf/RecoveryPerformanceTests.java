@@ -0,0 +1,212 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.EnvironmentStandalone;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.clients.bundled.ArtemisCommand;
+import io.brokerqe.claire.clients.bundled.BundledArtemisClient;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.container.NfsServerContainer;
+import io.brokerqe.claire.container.database.DatabaseContainer;
+import io.brokerqe.claire.database.Database;
+import io.brokerqe.claire.ha.sharedstore.FailoverSharedStoreTests;
+import io.brokerqe.claire.helper.PerfClientHelper;
+import io.brokerqe.claire.helper.RecoveryTimer;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cold start of broker and recovery time after kill of broker process with growing amount of persisted data,
+ * for file journal, JDBC store and shared store (journal on NFS, recovery is activation of backup).
+ * In every step, messages are added to anycast queue and to topic with durable subscriptions, then broker is killed
+ * and time until it is live again is recorded together with journal size. Results are stored as json per setup and
+ * csv series (recovery time against journal size and stored message references).
+ * JDBC store uses JDBC_DATA database, PostgreSQL by default.
+ */
+public class RecoveryPerformanceTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecoveryPerformanceTests.class);
+    /** cumulative number of messages in queue in every step */
+    private static final long[] QUEUE_MESSAGES = {0, 100_000, 1_000_000, 2_000_000, 5_000_000};
+    private static final long TOPIC_MESSAGES_PER_STEP = 10_000;
+    private static final int DURABLE_SUBSCRIPTIONS = 50;
+    private static final String MESSAGE_SIZE = "256";
+    private static final String QUEUE = "RECOVERY_QUEUE";
+    private static final String TOPIC = "RECOVERY_TOPIC";
+    private static final long CLIENT_TIMEOUT = TimeUnit.HOURS.toMillis(1);
+    private static final String JOURNAL_DIR = ArtemisContainer.ARTEMIS_INSTANCE_DATA_DIR + "/journal";
+
+    private String artemisVersion;
+    private String resultsDir;
+
+    @BeforeAll
+    void setupEnv() {
+        artemisVersion = Environment.get().getArtemisVersion();
+        resultsDir = Constants.PERFORMANCE_DIR + "/recovery";
+        TestUtils.createDirectory(resultsDir);
+    }
+
+    @Test
+    void testFileJournalRecovery() {
+        ArtemisContainer artemis = ResourceManager.getArtemisContainerInstance(Constants.ARTEMIS_STRING);
+        generateArtemisCfg(artemis);
+        RecoveryTimer timer = new RecoveryTimer(artemis);
+        try {
+            measureRecoverySeries("file", artemis, timer, timer.measureColdStart(), JOURNAL_DIR);
+        } finally {
+            artemis.stop();
+        }
+    }
+
+    @Test
+    @Tag(Constants.TAG_JDBC)
+    void testJdbcRecovery() {
+        String databaseFile = getEnvironment().getJdbcDatabaseFile();
+        Database database = ((EnvironmentStandalone) getEnvironment()).createDatabase(databaseFile == null ? Database.POSTGRESQL : databaseFile);
+        if (database instanceof DatabaseContainer) {
+            ((DatabaseContainer) database).start();
+        }
+        ArtemisContainer artemis = ResourceManager.getArtemisContainerInstance(Constants.ARTEMIS_STRING);
+        LOGGER.info("[{}] Setting up database {}", artemis.getName(), database.getName());
+        generateArtemisCfg(artemis, new ArrayList<>(List.of("tune_file=" + database.getTuneFile())));
+        artemis.withLibFile(database.getDriverFile(), database.getDriverFilename());
+        RecoveryTimer timer = new RecoveryTimer(artemis);
+        try {
+            Map<String, String> coldStart = timer.measureColdStart();
+            ensureBrokerUsesJdbc(artemis, database);
+            measureRecoverySeries("jdbc_" + database.getName().split("-")[0], artemis, timer, coldStart, null);
+        } finally {
+            artemis.stop();
+            if (database instanceof DatabaseContainer) {
+                ((DatabaseContainer) database).stop();
+            }
+        }
+    }
+
+    @Test
+    void testSharedStoreRecovery() {
+        String exportDirName = "artemisData";
+        NfsServerContainer nfsServer = getNfsServerInstance(exportDirName);
+        String artemisNfsMountDir = ArtemisContainer.ARTEMIS_INSTANCE_DIR + Constants.FILE_SEPARATOR + "shared_data_dir";
+        Map<String, String> nfsEnvVars = Map.of("NFS_MOUNTS", nfsServer.getNfsMountString(exportDirName, artemisNfsMountDir,
+                NfsServerContainer.DEFAULT_CLIENT_OPTIONS));
+        List<String> yacfgOpts = List.of("--opt", "journal_base_data_dir=" + artemisNfsMountDir);
+
+        ArtemisContainer artemisPrimary = ResourceManager.getArtemisContainerInstance("artemisPrimary");
+        artemisPrimary.withEnvVar(nfsEnvVars);
+        List<String> primaryYacfgOpts = new ArrayList<>(yacfgOpts);
+        primaryYacfgOpts.addAll(List.of("--tune", generateYacfgProfilesContainerTestDir(FailoverSharedStoreTests.class, "primary-tune.yaml.jinja2")));
+        generateArtemisCfg(artemisPrimary, primaryYacfgOpts);
+        RecoveryTimer timer = new RecoveryTimer(artemisPrimary);
+        ArtemisContainer artemisBackup = null;
+        try {
+            Map<String, String> coldStart = timer.measureColdStart();
+            artemisBackup = getArtemisInstance("artemisBackup", generateYacfgProfilesContainerTestDir(FailoverSharedStoreTests.class, "backup-tune.yaml.jinja2"),
+                    yacfgOpts, nfsEnvVars, true);
+            timer.withBackup(artemisBackup);
+            measureRecoverySeries("shared_store", artemisPrimary, timer, coldStart, artemisNfsMountDir + "/journal");
+        } finally {
+            if (artemisBackup != null) {
+                artemisBackup.stop();
+            }
+            artemisPrimary.stop();
+            nfsServer.stop();
+        }
+    }
+
+    private void measureRecoverySeries(String setup, ArtemisContainer artemis, RecoveryTimer timer,
+                                       Map<String, String> coldStart, String journalDir) {
+        createDurableSubscriptions(artemis);
+        List<Map<String, String>> series = new ArrayList<>();
+        long queueMessages = 0;
+        long topicMessages = 0;
+        for (long stepQueueMessages : QUEUE_MESSAGES) {
+            if (stepQueueMessages > queueMessages) {
+                produce(artemis, "queue://" + QUEUE, stepQueueMessages - queueMessages);
+                produce(artemis, "topic://" + TOPIC, TOPIC_MESSAGES_PER_STEP);
+                queueMessages = stepQueueMessages;
+                topicMessages += TOPIC_MESSAGES_PER_STEP;
+            }
+            long journalBytes = journalDir == null ? -1 : artemis.getDirectorySize(journalDir);
+
+            Map<String, String> point = new HashMap<>(timer.measureRecovery());
+            point.put("queue_messages", String.valueOf(queueMessages));
+            point.put("topic_messages", String.valueOf(topicMessages));
+            point.put("message_references", String.valueOf(queueMessages + topicMessages * DURABLE_SUBSCRIPTIONS));
+            point.put("journal_bytes", String.valueOf(journalBytes));
+            LOGGER.info("[Recovery] {}: {}", setup, point);
+            series.add(point);
+            // nothing may be lost by kill
+            ensureQueueCount(artemis, QUEUE, QUEUE, RoutingType.ANYCAST, (int) queueMessages);
+        }
+
+        Map<String, String> results = new HashMap<>(coldStart);
+        Map<String, String> lastPoint = series.get(series.size() - 1);
+        results.put("recovery_ms_empty", series.get(0).get("recovery_ms"));
+        results.put("recovery_ms_max_journal", lastPoint.get("recovery_ms"));
+        results.put("max_journal_bytes", lastPoint.get("journal_bytes"));
+        results.put("max_message_references", lastPoint.get("message_references"));
+        results.put("profile_setup", setup);
+        results.put("profile_durable_subscriptions", String.valueOf(DURABLE_SUBSCRIPTIONS));
+        results.put("profile_message_size", MESSAGE_SIZE);
+        results.put("profile_artemis_version", artemisVersion);
+        String resultsFile = String.format("%s/results_%s_%s", resultsDir, setup, artemisVersion);
+        TestUtils.createFile(resultsFile + ".json", TestUtils.convertMapToJson(results));
+        TestUtils.createFile(resultsFile + "_series.csv", toCsv(series));
+    }
+
+    private void createDurableSubscriptions(ArtemisContainer artemis) {
+        LOGGER.info("[Recovery] Creating {} durable subscriptions of {}", DURABLE_SUBSCRIPTIONS, TOPIC);
+        for (int i = 0; i < DURABLE_SUBSCRIPTIONS; i++) {
+            Map<String, String> commandOptions = Map.of(
+                    "name", TOPIC + "_SUB_" + i,
+                    "address", TOPIC,
+                    "multicast", "",
+                    "durable", "",
+                    "preserve-on-no-consumers", "",
+                    "auto-create-address", ""
+            );
+            new BundledArtemisClient(PerfClientHelper.createDeployableClient(artemis), ArtemisCommand.QUEUE_CREATE, commandOptions).executeCommand();
+        }
+    }
+
+    private void produce(ArtemisContainer artemis, String destination, long count) {
+        Map<String, String> producerOptions = Map.of(
+                "protocol", "core",
+                "message-count", String.valueOf(count),
+                "message-size", MESSAGE_SIZE,
+                "persistent", "",
+                "max-pending", "1000"
+        );
+        BundledArtemisClient artemisClient = new BundledArtemisClient(PerfClientHelper.createDeployableClient(artemis), ArtemisCommand.PERF_PRODUCER,
+                producerOptions, destination);
+        Map<String, String> perfOutput = (Map<String, String>) artemisClient.executeCommand(CLIENT_TIMEOUT);
+        LOGGER.info("[Recovery] Sent {} messages to {}: {}", count, destination, perfOutput);
+    }
+
+    private static String toCsv(List<Map<String, String>> series) {
+        StringBuilder csv = new StringBuilder("queue_messages,message_references,journal_bytes,recovery_ms,failback_ms\n");
+        for (Map<String, String> point : series) {
+            csv.append(String.join(",", point.get("queue_messages"), point.get("message_references"), point.get("journal_bytes"),
+                    point.get("recovery_ms"), point.getOrDefault("failback_ms", ""))).append('\n');
+        }
+        return csv.toString();
+    }
+}
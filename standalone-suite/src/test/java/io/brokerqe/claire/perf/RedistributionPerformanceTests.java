@@ -0,0 +1,166 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.clients.bundled.RedistributionBenchmark;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.helper.ArtemisJmxHelper;
+import io.brokerqe.claire.helper.PerfClientHelper;
+import io.brokerqe.claire.helper.TimeHelper;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures message redistribution ({@link RedistributionBenchmark}) in cluster of standalone brokers with growing
+ * cluster size, for combinations of message load balancing policy and redistribution delay.
+ */
+public class RedistributionPerformanceTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedistributionPerformanceTests.class);
+    private static final String CLUSTER_CONNECTION = "artemis-cluster";
+    private static final String QUEUE = "REDISTRIBUTION_QUEUE";
+    private static final String DESTINATION = "queue://" + QUEUE;
+
+    /** message load balancing type and redistribution delay (ms) */
+    private static final String[][] SCENARIOS = {
+        {"ON_DEMAND", "0"},
+        {"ON_DEMAND", "5000"},
+        {"OFF_WITH_REDISTRIBUTION", "0"},
+    };
+
+    private String artemisVersion;
+    private String resultsDir;
+
+    @BeforeAll
+    void setupEnv() {
+        artemisVersion = Environment.get().getArtemisVersion();
+        resultsDir = Constants.PERFORMANCE_DIR + "/redistribution";
+        TestUtils.createDirectory(resultsDir);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 4})
+    void testRedistribution(int clusterSize) {
+        for (String[] scenario : SCENARIOS) {
+            String loadBalancing = scenario[0];
+            String redistributionDelay = scenario[1];
+            String scenarioId = String.format("%s_delay%s", loadBalancing.toLowerCase(Locale.ROOT), redistributionDelay);
+            List<ArtemisContainer> nodes = startCluster(clusterSize, scenarioId, loadBalancing, redistributionDelay);
+            try {
+                Map<String, String> results = measureScenario(nodes);
+                results.put("profile_cluster_size", String.valueOf(clusterSize));
+                results.put("profile_message_load_balancing", loadBalancing);
+                results.put("profile_redistribution_delay", redistributionDelay);
+                results.put("profile_rate", RedistributionBenchmark.RATE);
+                results.put("profile_artemis_version", artemisVersion);
+                LOGGER.info("[PERF] Redistribution {} of {} nodes: {}", scenarioId, clusterSize, results);
+                TestUtils.createFile(String.format("%s/results_%s_nodes%d_%s.json", resultsDir, scenarioId, clusterSize, artemisVersion),
+                        TestUtils.convertMapToJson(results));
+            } finally {
+                nodes.forEach(ArtemisContainer::stop);
+            }
+        }
+    }
+
+    private Map<String, String> measureScenario(List<ArtemisContainer> nodes) {
+        ArtemisContainer first = nodes.get(0);
+        RedistributionBenchmark benchmark = new RedistributionBenchmark(PerfClientHelper.createDeployableClient(first), DESTINATION);
+        Map<String, String> results = benchmark.measure(getUrl(first), getUrl(nodes.get(nodes.size() - 1)));
+        // whole backlog is redistributed from the first node
+        ensureQueueCount(first, QUEUE, QUEUE, RoutingType.ANYCAST, 0);
+        return results;
+    }
+
+    private List<ArtemisContainer> startCluster(int clusterSize, String scenarioId, String loadBalancing, String redistributionDelay) {
+        String tuneFile = createClusterTuneFile(scenarioId, loadBalancing, redistributionDelay);
+        List<ArtemisContainer> nodes = new ArrayList<>();
+        for (int i = 0; i < clusterSize; i++) {
+            ArtemisContainer node = ResourceManager.getArtemisContainerInstance(String.format("node%d-%s-%d", i, scenarioId.replace("_", "-"), clusterSize));
+            generateArtemisCfg(node, new ArrayList<>(List.of("tune_file=" + tuneFile)));
+            node.start();
+            ensureBrokerStarted(node);
+            ensureBrokerIsLive(node);
+            nodes.add(node);
+        }
+        for (ArtemisContainer node : nodes) {
+            TimeHelper.waitFor(e -> ArtemisJmxHelper.getClusterNodeCount(node, CLUSTER_CONNECTION) == clusterSize - 1,
+                    Constants.DURATION_500_MILLISECONDS, Constants.DURATION_2_MINUTES);
+        }
+        LOGGER.info("[PERF] Cluster of {} nodes formed for {}", clusterSize, scenarioId);
+        return nodes;
+    }
+
+    private static String getUrl(ArtemisContainer artemis) {
+        return "tcp://" + artemis.getName() + ":" + ArtemisContainer.DEFAULT_ALL_PROTOCOLS_PORT;
+    }
+
+    private String createClusterTuneFile(String scenarioId, String loadBalancing, String redistributionDelay) {
+        String tuneFileName = TestUtils.getProjectRelativeFile("redistribution_" + scenarioId + "_tune.yaml");
+        String tuneFileContent = String.format("""
+                user_connectors:
+                  - name: 'cluster-connector'
+
+                user_broadcast_groups:
+                  - name: 'cluster-broadcast-group'
+                    broadcast_period: 500
+                    connectors_ref:
+                      - 'cluster-connector'
+
+                user_discovery_groups:
+                  - name: 'cluster-discovery-group'
+                    refresh_timeout: 1000
+
+                user_cluster:
+                  user: 'clusterUser'
+                  password: 'clusterPassword'
+
+                user_cluster_connections:
+                  - name: '%s'
+                    connector_ref: 'cluster-connector'
+                    discovery_group_ref: 'cluster-discovery-group'
+                    message_load_balancing: '%s'
+                    max_hops: 1
+
+                user_address_settings:
+                  - match: activemq.management#
+                    dead_letter_address: DLQ
+                    expiry_address: ExpiryQueue
+                    redelivery_delay: 0
+                    max_size_bytes: -1
+                    message_counter_history_day_limit: 10
+                    address_full_policy: PAGE
+                    auto_create_queues: true
+                    auto_create_addresses: true
+                  - match: '#'
+                    dead_letter_address: DLQ
+                    expiry_address: ExpiryQueue
+                    redelivery_delay: 0
+                    redistribution_delay: %s
+                    max_size_bytes: -1
+                    message_counter_history_day_limit: 10
+                    address_full_policy: PAGE
+                    auto_create_queues: true
+                    auto_create_addresses: true
+                    auto_delete_queues: false
+                    auto_delete_addresses: false
+                """, CLUSTER_CONNECTION, loadBalancing, redistributionDelay);
+        TestUtils.createFile(tuneFileName, tuneFileContent);
+        return tuneFileName;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.client.AmqpUtil;
+import io.brokerqe.claire.client.MixedJmsWorkload;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.helper.ArtemisJmxHelper;
+import io.brokerqe.claire.monitoring.SoakMonitor;
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs mixed workload (queue, topic, durable subscription and transacted flows) for {@link Constants#EV_SOAK_DURATION}
+ * and every minute checkpoints client throughput and latency percentiles, broker heap, GC, threads, open file
+ * descriptors and journal and paging directory sizes. Soak fails on leak (growing slope) or throughput decay.
+ * With {@link Constants#EV_SOAK_RESUME} soak continues from stored state, single report is stored at the end.
+ */
+@Tag(Constants.TAG_SOAK)
+public class SoakTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SoakTests.class);
+    private static final String FAILOVER_OPTIONS = "failover.maxReconnectAttempts=-1";
+    private static final long SEND_INTERVAL_MS = 5;
+    private static final long MB = 1024L * 1024;
+
+    private ArtemisContainer artemis;
+    private String artemisVersion;
+    private String resultsDir;
+
+    @BeforeAll
+    void setupEnv() {
+        artemisVersion = Environment.get().getArtemisVersion();
+        resultsDir = Constants.PERFORMANCE_DIR + "/soak";
+        TestUtils.createDirectory(resultsDir);
+
+        artemis = ResourceManager.getArtemisContainerInstance(Constants.ARTEMIS_STRING);
+        artemis.start();
+        ensureBrokerStarted(artemis);
+        ensureBrokerIsLive(artemis);
+    }
+
+    @Test
+    void mixedWorkloadSoak() {
+        String name = "mixed";
+        Duration duration = Environment.get().getSoakDuration();
+        Path stateFile = Path.of(resultsDir, name + "_state.jsonl");
+        if (!Environment.get().isSoakResume() && Files.exists(stateFile)) {
+            TestUtils.deleteFile(stateFile);
+        }
+
+        String url = AmqpUtil.buildAmqFailoverUrl(FAILOVER_OPTIONS, artemis.getHostAndPort(ArtemisContainer.DEFAULT_ALL_PROTOCOLS_PORT));
+        MixedJmsWorkload workload = new MixedJmsWorkload("soak-" + name, new JmsConnectionFactory(url), SEND_INTERVAL_MS)
+                .withCredentials(Constants.ARTEMIS_INSTANCE_USER_NAME, Constants.ARTEMIS_INSTANCE_USER_PASS)
+                .start();
+
+        SoakMonitor soak = new SoakMonitor(name, stateFile, duration)
+                .withCheckpointInterval(Constants.DURATION_1_MINUTE)
+                .withSource("client", workload::checkpoint)
+                .withSource("broker", this::getBrokerStats)
+                .withMaxSlope("broker_old_gen_after_gc_bytes", 64 * MB)
+                .withMaxSlope("broker_open_fds", 50)
+                .withMaxSlope("broker_threads", 20)
+                .withMaxSlope("broker_journal_bytes", 256 * MB)
+                .withMaxSlope("client_backlog", 1000)
+                .withMaxSlope("client_queue_latency_us_99.00", Duration.ofMillis(50).toNanos() / 1000.0)
+                .withMaxDecay("client_received_rate", 0.2);
+        try {
+            soak.run();
+        } finally {
+            workload.stop(Constants.DURATION_1_MINUTE);
+        }
+
+        LOGGER.info("[Soak] {} of {} on {} finished with violations {}", name, duration, artemisVersion, soak.getViolations());
+        soak.writeReport(String.format("%s/%s_report_%s.json", resultsDir, name, artemisVersion));
+
+        assertThat(soak.getViolations()).as("soak drift violations").isEmpty();
+        assertThat(soak.getElapsedMs()).as("soak elapsed time").isGreaterThanOrEqualTo(duration.toMillis());
+    }
+
+    private Map<String, Double> getBrokerStats() {
+        Map<String, Double> stats = new HashMap<>(ArtemisJmxHelper.getJvmStats(artemis));
+        stats.put("journal_bytes", (double) artemis.getDirectorySize(ArtemisContainer.ARTEMIS_INSTANCE_DATA_DIR + "/journal"));
+        stats.put("paging_bytes", (double) artemis.getDirectorySize(ArtemisContainer.ARTEMIS_INSTANCE_DATA_DIR + "/paging"));
+        return stats;
+    }
+}
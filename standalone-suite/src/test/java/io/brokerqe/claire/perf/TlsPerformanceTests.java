@@ -0,0 +1,266 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.ArtemisVersion;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.client.TlsHandshakeBenchmark;
+import io.brokerqe.claire.clients.DeployableClient;
+import io.brokerqe.claire.clients.bundled.ArtemisCommand;
+import io.brokerqe.claire.clients.bundled.BundledArtemisClient;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.helper.PerfClientHelper;
+import io.brokerqe.claire.security.CertificateManager;
+import io.brokerqe.claire.security.KeyAlgorithm;
+import io.brokerqe.claire.security.KeyStoreData;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.BindMode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * TLS benchmark matrix over broker key algorithm, TLS protocol version, broker SSL provider and session resumption.
+ * Handshake latency and connection rate are measured from test JVM, encrypted throughput by `artemis perf client`
+ * running in broker container against the same TLS acceptor.
+ * Broker is recreated for each key algorithm, both SSL providers are served by separate acceptors of the same broker.
+ */
+@Tag(Constants.TAG_TLS)
+public class TlsPerformanceTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TlsPerformanceTests.class);
+    private static final String JDK_PROVIDER = "JDK";
+    private static final String OPENSSL_PROVIDER = "OPENSSL";
+    private static final Map<String, Integer> PROVIDER_PORTS = Map.of(JDK_PROVIDER, 61617, OPENSSL_PROVIDER, 61618);
+    private static final List<String> TLS_PROTOCOLS = List.of("TLSv1.2", "TLSv1.3");
+    private static final int HANDSHAKE_CONNECTIONS = 1000;
+    private static final int HANDSHAKE_CONCURRENCY = 4;
+
+    private String testNameDir;
+    private String artemisVersion;
+    private ArtemisContainer artemis;
+    private KeyAlgorithm artemisKeyAlgorithm;
+    private KeyStoreData clientTrustStore;
+    private String clientTrustStoreContainerPath;
+
+    @BeforeAll
+    void setupEnv() {
+        artemisVersion = Environment.get().getArtemisVersion();
+        TestUtils.createDirectory(Constants.PERFORMANCE_DIR);
+    }
+
+    @AfterAll
+    void teardownEnv() {
+        if (artemis != null) {
+            artemis.stop();
+        }
+    }
+
+    @BeforeEach
+    void init(TestInfo testInfo) {
+        this.testInfo = testInfo;
+        String testName = testInfo.getTestMethod().orElseThrow().getName().toLowerCase(Locale.ROOT);
+        testNameDir = Constants.PERFORMANCE_DIR + "/" + testName;
+        TestUtils.createDirectory(testNameDir);
+    }
+
+    static List<String> supportedProviders() {
+        // OPENSSL Provider does not work on 7.10.x https://issues.redhat.com/browse/ENTMQBR-8294
+        if (Environment.get().getArtemisTestVersion().getVersionNumber() >= ArtemisVersion.VERSION_2_28.getVersionNumber()) {
+            return List.of(JDK_PROVIDER, OPENSSL_PROVIDER);
+        }
+        return List.of(JDK_PROVIDER);
+    }
+
+    static Stream<Arguments> handshakeMatrix() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (KeyAlgorithm keyAlgorithm : KeyAlgorithm.values()) {
+            for (String provider : supportedProviders()) {
+                for (String tlsProtocol : TLS_PROTOCOLS) {
+                    arguments.add(Arguments.of(keyAlgorithm, provider, tlsProtocol, false));
+                    arguments.add(Arguments.of(keyAlgorithm, provider, tlsProtocol, true));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    static Stream<Arguments> throughputMatrix() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (KeyAlgorithm keyAlgorithm : KeyAlgorithm.values()) {
+            for (String provider : supportedProviders()) {
+                for (String tlsProtocol : TLS_PROTOCOLS) {
+                    arguments.add(Arguments.of(keyAlgorithm, provider, tlsProtocol));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    /**
+     * Reuses running broker if it serves certificate of requested key algorithm, otherwise replaces it by a new one.
+     */
+    private ArtemisContainer getTlsArtemis(KeyAlgorithm keyAlgorithm) {
+        if (artemis != null && keyAlgorithm == artemisKeyAlgorithm) {
+            return artemis;
+        }
+        if (artemis != null) {
+            artemis.stop();
+        }
+        LOGGER.info("[TLS] Creating artemis instance with {} broker certificate", keyAlgorithm);
+        Map<String, KeyStoreData> keystores = CertificateManager.generateDefaultCertificateKeystores(
+                CertificateManager.generateArtemisCloudDN("tls-perf", "localhost"),
+                CertificateManager.generateArtemisCloudDN("tls-perf", "client"),
+                null, null, keyAlgorithm
+        );
+        KeyStoreData brokerKeyStore = keystores.get(Constants.BROKER_KEYSTORE_ID);
+        clientTrustStore = keystores.get(Constants.CLIENT_TRUSTSTORE_ID);
+        String keyStoreContainerPath = ArtemisContainer.ARTEMIS_INSTANCE_DIR + "/" + brokerKeyStore.getKeyStorePathFileName();
+        clientTrustStoreContainerPath = ArtemisContainer.ARTEMIS_INSTANCE_DIR + "/" + clientTrustStore.getKeyStorePathFileName();
+
+        String tuneFileName = TestUtils.getProjectRelativeFile("tls_perf_tune.yaml");
+        StringBuilder tuneFileContent = new StringBuilder("""
+                acceptors:
+                  - name: 'artemis'
+                    host: 0.0.0.0
+                    port: 61616
+                    parameters:
+                      - key: protocols
+                        value: CORE,AMQP,STOMP,HORNETQ,MQTT,OPENWIRE
+                  - name: 'amqp'
+                    host: 0.0.0.0
+                    port: 5672
+                    parameters:
+                      - key: protocols
+                        value: AMQP
+                  - name: 'stomp'
+                    host: 0.0.0.0
+                    port: 61613
+                    parameters:
+                      - key: protocols
+                        value: STOMP
+                  - name: 'hornetq'
+                    host: 0.0.0.0
+                    port: 5445
+                    parameters:
+                      - key: protocols
+                        value: HORNETQ,STOMP
+                  - name: 'mqtt'
+                    host: 0.0.0.0
+                    port: 1883
+                    parameters:
+                      - key: protocols
+                        value: MQTT
+                """);
+        for (String provider : supportedProviders()) {
+            tuneFileContent.append(String.format("""
+                      - name: 'tls-%s'
+                        host: 0.0.0.0
+                        port: %d
+                        parameters:
+                          - key: protocols
+                            value: CORE,AMQP
+                          - key: sslEnabled
+                            value: true
+                          - key: sslProvider
+                            value: %s
+                          - key: enabledProtocols
+                            value: %s
+                          - key: keyStorePath
+                            value: %s
+                          - key: keyStorePassword
+                            value: %s
+                    """, provider.toLowerCase(Locale.ROOT), PROVIDER_PORTS.get(provider), provider, String.join(",", TLS_PROTOCOLS),
+                    keyStoreContainerPath, brokerKeyStore.getPassword()));
+        }
+        TestUtils.createFile(tuneFileName, tuneFileContent.toString());
+
+        artemis = ResourceManager.getArtemisContainerInstance(Constants.ARTEMIS_STRING);
+        artemis.withFileSystemBind(brokerKeyStore.getKeyStorePath(), keyStoreContainerPath, BindMode.READ_ONLY);
+        artemis.withFileSystemBind(clientTrustStore.getKeyStorePath(), clientTrustStoreContainerPath, BindMode.READ_ONLY);
+        artemis.withExposedPorts(supportedProviders().stream().mapToInt(PROVIDER_PORTS::get).toArray());
+        generateArtemisCfg(artemis, new ArrayList<>(List.of("tune_file=" + tuneFileName)));
+        artemis.start();
+        ensureBrokerStarted(artemis);
+        ensureBrokerIsLive(artemis);
+        artemisKeyAlgorithm = keyAlgorithm;
+        return artemis;
+    }
+
+    private void storeResults(Map<String, String> results, KeyAlgorithm keyAlgorithm, String provider, String tlsProtocol, String suffix) {
+        Map<String, String> allResults = new HashMap<>(results);
+        allResults.put("profile_key_algorithm", keyAlgorithm.name());
+        allResults.put("profile_ssl_provider", provider);
+        allResults.put("profile_tls_protocol", tlsProtocol);
+        allResults.put("profile_artemis_version", artemisVersion);
+        String fileName = String.format("%s/results_%s_%s_%s%s_%s.json", testNameDir, keyAlgorithm.name().toLowerCase(Locale.ROOT),
+                provider.toLowerCase(Locale.ROOT), tlsProtocol.toLowerCase(Locale.ROOT), suffix, artemisVersion);
+        TestUtils.createFile(fileName, TestUtils.convertMapToJson(allResults));
+    }
+
+    @ParameterizedTest(name = "{0} {1} {2} resumption={3}")
+    @MethodSource("handshakeMatrix")
+    void testHandshake(KeyAlgorithm keyAlgorithm, String provider, String tlsProtocol, boolean sessionResumption) {
+        ArtemisContainer artemisInstance = getTlsArtemis(keyAlgorithm);
+        int port = PROVIDER_PORTS.get(provider);
+        TlsHandshakeBenchmark benchmark = new TlsHandshakeBenchmark(artemisInstance.getHost(), artemisInstance.getPort(port), clientTrustStore)
+                .withTlsProtocol(tlsProtocol)
+                .withSessionResumption(sessionResumption)
+                .withConcurrency(HANDSHAKE_CONCURRENCY);
+        // warmup of both JVMs (JIT, provider initialization)
+        benchmark.run(HANDSHAKE_CONNECTIONS / 10);
+        Map<String, String> results = benchmark.run(HANDSHAKE_CONNECTIONS);
+
+        storeResults(results, keyAlgorithm, provider, tlsProtocol, sessionResumption ? "_resumption" : "");
+        assertThat("all TLS connections established", results.get("failed_connections"), equalTo("0"));
+    }
+
+    @ParameterizedTest(name = "{0} {1} {2}")
+    @MethodSource("throughputMatrix")
+    void testThroughput(KeyAlgorithm keyAlgorithm, String provider, String tlsProtocol) {
+        ArtemisContainer artemisInstance = getTlsArtemis(keyAlgorithm);
+        String url = String.format("tcp://localhost:%d?sslEnabled=true&sslProvider=%s&enabledProtocols=%s&trustStorePath=%s&trustStorePassword=%s&verifyHost=false",
+                PROVIDER_PORTS.get(provider), provider, tlsProtocol, clientTrustStoreContainerPath, clientTrustStore.getPassword());
+        DeployableClient deployableClient = PerfClientHelper.createDeployableClient(artemisInstance);
+        Map<String, String> perfClientOptions = Map.of(
+                "duration", "60",
+                "protocol", "core",
+                "producers", "1",
+                "consumers", "1",
+                "threads", "1",
+                "warmup", "10",
+                "show-latency", "",
+                "url", url
+        );
+        LOGGER.info("[TLS] Test throughput of {} {} acceptor with {} certificate", provider, tlsProtocol, keyAlgorithm);
+        BundledArtemisClient artemisClient = new BundledArtemisClient(deployableClient, ArtemisCommand.PERF_CLIENT, perfClientOptions);
+        Map<String, String> perfOutput = (Map<String, String>) artemisClient.executeCommand();
+        LOGGER.info(perfOutput.toString());
+
+        storeResults(perfOutput, keyAlgorithm, provider, tlsProtocol, "");
+        assertThat("performance test ended successfully", perfOutput.get("result"), equalTo("success"));
+        assertThat("total send = total received", perfOutput.get("total_sent"), equalTo(perfOutput.get("total_received")));
+    }
+}
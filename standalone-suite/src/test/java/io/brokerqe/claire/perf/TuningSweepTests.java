@@ -0,0 +1,183 @@
+/*
+ * Copyright Broker QE authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.brokerqe.claire.perf;
+
+import io.brokerqe.claire.AbstractSystemTests;
+import io.brokerqe.claire.Constants;
+import io.brokerqe.claire.Environment;
+import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
+import io.brokerqe.claire.clients.bundled.ArtemisCommand;
+import io.brokerqe.claire.clients.bundled.BundledArtemisClient;
+import io.brokerqe.claire.container.ArtemisContainer;
+import io.brokerqe.claire.helper.PerfClientHelper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Broker tuning sweep. Every variant changes one tuning knob of default broker (journal type, journal buffer timeout,
+ * global max size, thread pool sizes and acceptor batchDelay/tcpNoDelay/buffer sizes), same persistent perf workload
+ * is executed against it and variants are ranked by throughput and by p99 end-to-end latency.
+ * <p>
+ * Claire yacfg profiles do not template these knobs, so variant is stored as {@code broker.properties} on top of
+ * yacfg generated configuration (and kept next to the results to make every ranked row reproducible).
+ */
+public class TuningSweepTests extends AbstractSystemTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TuningSweepTests.class);
+    private static final String ACCEPTOR = "acceptorConfigurations.artemis.params.";
+    private static final String DURATION = "60";
+    private static final String WARMUP = "10";
+    private static final String AIO_FALLBACK_LOG = "AMQ222018";
+    private static final long CLIENT_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+    private static final List<String> COLUMNS = List.of("rank_throughput", "rank_p99", "variant", "properties", "journal_type",
+            "throughput", "latency_us_50.00", "latency_us_99.00", "latency_us_99.90", "result");
+
+    /** variant name followed by broker properties applied on top of default configuration */
+    private static final String[][] VARIANTS = {
+        {"default"},
+        {"journal-nio", "journalType=NIO"},
+        {"journal-asyncio", "journalType=ASYNCIO"},
+        {"journal-mapped", "journalType=MAPPED"},
+        {"buffer-timeout-100us", "journalBufferTimeout_AIO=100000", "journalBufferTimeout_NIO=100000"},
+        {"buffer-timeout-2ms", "journalBufferTimeout_AIO=2000000", "journalBufferTimeout_NIO=2000000"},
+        {"global-max-size-64m", "globalMaxSize=67108864"},
+        {"global-max-size-1g", "globalMaxSize=1073741824"},
+        {"thread-pool-8", "threadPoolMaxSize=8", "scheduledThreadPoolMaxSize=2"},
+        {"thread-pool-64", "threadPoolMaxSize=64", "scheduledThreadPoolMaxSize=10"},
+        {"acceptor-batch-delay-50", ACCEPTOR + "batchDelay=50"},
+        {"acceptor-no-tcp-nodelay", ACCEPTOR + "tcpNoDelay=false"},
+        {"acceptor-buffers-64k", ACCEPTOR + "tcpSendBufferSize=65536", ACCEPTOR + "tcpReceiveBufferSize=65536"},
+        {"acceptor-buffers-4m", ACCEPTOR + "tcpSendBufferSize=4194304", ACCEPTOR + "tcpReceiveBufferSize=4194304"},
+    };
+
+    private String artemisVersion;
+    private String resultsDir;
+
+    @BeforeAll
+    void setupEnv() {
+        artemisVersion = Environment.get().getArtemisVersion();
+        resultsDir = Constants.PERFORMANCE_DIR + "/tuning";
+        TestUtils.createDirectory(resultsDir);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1024, 10240})
+    void testTuningSweep(int messageSize) {
+        List<Map<String, String>> table = new ArrayList<>();
+        for (String[] variant : VARIANTS) {
+            table.add(runVariant(variant, messageSize));
+        }
+        rank(table);
+
+        StringBuilder csv = new StringBuilder(String.join(",", COLUMNS)).append('\n');
+        for (Map<String, String> row : table) {
+            csv.append(String.join(",", COLUMNS.stream().map(column -> row.getOrDefault(column, "")).toList())).append('\n');
+        }
+        LOGGER.info("[TUNING] Ranked variants for {} B messages:\n{}", messageSize, csv);
+        TestUtils.createFile(String.format("%s/results_size%d_%s.csv", resultsDir, messageSize, artemisVersion), csv.toString());
+        assertThat("all tuning variants finished successfully",
+                table.stream().allMatch(row -> "success".equals(row.get("result"))), equalTo(true));
+    }
+
+    private Map<String, String> runVariant(String[] variant, int messageSize) {
+        String variantName = variant[0];
+        List<String> properties = List.of(variant).subList(1, variant.length);
+        String propertiesFile = String.format("%s/%s.properties", resultsDir, variantName);
+        TestUtils.createFile(propertiesFile, String.join("\n", properties) + "\n");
+
+        ArtemisContainer artemis = ResourceManager.getArtemisContainerInstance(String.format("tune-%s-%d", variantName, messageSize));
+        generateArtemisCfg(artemis);
+        artemis.withConfigFile(propertiesFile, "broker.properties");
+
+        Map<String, String> row = new HashMap<>();
+        row.put("variant", variantName);
+        row.put("properties", String.join(" ", properties));
+        try {
+            artemis.start();
+            ensureBrokerStarted(artemis);
+            ensureBrokerIsLive(artemis);
+            String journalType = properties.stream().filter(property -> property.startsWith("journalType="))
+                    .map(property -> property.substring(property.indexOf('=') + 1)).findFirst().orElse("default");
+            // broker silently falls back to NIO when libaio is not available in container
+            row.put("journal_type", artemis.getLogs().contains(AIO_FALLBACK_LOG) ? journalType + "->NIO" : journalType);
+
+            Map<String, String> perfOutput = runWorkload(artemis, messageSize);
+            double received = Double.parseDouble(perfOutput.getOrDefault("total_received", "0"));
+            row.put("throughput", String.format(Locale.ROOT, "%.1f", received / Double.parseDouble(DURATION)));
+            row.put("latency_us_50.00", PerfClientHelper.findEndToEndLatency(perfOutput, "50.00"));
+            row.put("latency_us_99.00", PerfClientHelper.findEndToEndLatency(perfOutput, "99.00"));
+            row.put("latency_us_99.90", PerfClientHelper.findEndToEndLatency(perfOutput, "99.90"));
+            row.put("result", perfOutput.get("result"));
+            LOGGER.info("[TUNING] {}", row);
+            TestUtils.createFile(String.format("%s/results_%s_size%d_%s.json", resultsDir, variantName, messageSize, artemisVersion),
+                    TestUtils.convertMapToJson(perfOutput));
+        } catch (Exception e) {
+            // variant which breaks broker or workload is ranked last, the sweep continues
+            LOGGER.warn("[TUNING] Variant {} failed: {}", variantName, e.getMessage());
+            row.put("result", "error");
+        } finally {
+            artemis.stop();
+        }
+        return row;
+    }
+
+    private Map<String, String> runWorkload(ArtemisContainer artemis, int messageSize) {
+        Map<String, String> perfOptions = Map.of(
+                "duration", DURATION,
+                "warmup", WARMUP,
+                "protocol", "core",
+                "producers", "4",
+                "consumers", "4",
+                "threads", "4",
+                "message-size", String.valueOf(messageSize),
+                "persistent", "",
+                "show-latency", ""
+        );
+        return (Map<String, String>) new BundledArtemisClient(PerfClientHelper.createDeployableClient(artemis), ArtemisCommand.PERF_CLIENT, perfOptions,
+                "queue://TUNING_QUEUE").executeCommand(CLIENT_TIMEOUT);
+    }
+
+    /**
+     * Ranks by throughput (descending) and separately by p99 latency (ascending), failed variants are ranked last.
+     */
+    private static void rank(List<Map<String, String>> table) {
+        Comparator<Map<String, String>> byThroughput = Comparator.comparingDouble(row -> -parseOrNaN(row.get("throughput")));
+        table.sort(byThroughput);
+        for (int i = 0; i < table.size(); i++) {
+            table.get(i).put("rank_throughput", String.valueOf(i + 1));
+        }
+        table.sort(Comparator.comparingDouble(row -> parseOrNaN(row.get("latency_us_99.00"))));
+        for (int i = 0; i < table.size(); i++) {
+            table.get(i).put("rank_p99", String.valueOf(i + 1));
+        }
+        table.sort(byThroughput);
+    }
+
+    /**
+     * @return parsed value or NaN, which is sorted after all numbers
+     */
+    private static double parseOrNaN(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NullPointerException | NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
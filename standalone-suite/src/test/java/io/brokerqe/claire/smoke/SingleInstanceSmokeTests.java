@@ -7,6 +7,7 @@ package io.brokerqe.claire.smoke;
 import io.brokerqe.claire.AbstractSystemTests;
 import io.brokerqe.claire.Constants;
 import io.brokerqe.claire.ResourceManager;
+import io.brokerqe.claire.TestUtils;
 import io.brokerqe.claire.client.AmqpUtil;
 import io.brokerqe.claire.client.JmsClient;
 import io.brokerqe.claire.container.ArtemisContainer;
@@ -20,8 +21,12 @@ import org.slf4j.LoggerFactory;
 
 import javax.jms.Message;
 import javax.jms.Queue;
+import java.util.HashMap;
 import java.util.Map;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
 public class SingleInstanceSmokeTests extends AbstractSystemTests {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SingleInstanceSmokeTests.class);
@@ -52,18 +57,26 @@ public class SingleInstanceSmokeTests extends AbstractSystemTests {
                 .withDestination(Queue.class, queueName);
 
         LOGGER.info("Producing {} messages to queue {}", numOfMessages, queueName);
-        client.produce(numOfMessages);
+        long producerId = client.produce(numOfMessages);
         Map<String, Message> producedMsgs = client.getProducedMsgs();
 
         LOGGER.info("Ensure queue contains {} messages", numOfMessages);
         ensureQueueCount(artemisInstance, addressName, queueName, RoutingType.ANYCAST, numOfMessages);
 
         LOGGER.info("Consuming {} messages from queue {}", numOfMessages, queueName);
-        client.consume(numOfMessages);
+        long consumerId = client.consume(numOfMessages);
         Map<String, Message> consumedMsgs = client.getConsumedMsgs();
 
         client.disconnect();
 
+        Map<String, String> results = new HashMap<>();
+        client.getProducerMetrics(producerId).toMap().forEach((key, value) -> results.put("producer_" + key, value));
+        client.getConsumerMetrics(consumerId).toMap().forEach((key, value) -> results.put("consumer_" + key, value));
+        LOGGER.info("[JVM] Client results: {}", results);
+        TestUtils.createDirectory(Constants.PERFORMANCE_DIR + "/smoke");
+        TestUtils.createFile(Constants.PERFORMANCE_DIR + "/smoke/queue_produce_consume.json", TestUtils.convertMapToJson(results));
+        assertThat("client GC pauses did not affect measured latencies", client.isClientRunValid(), equalTo(true));
+
         LOGGER.info("Ensure queue is empty");
         ensureQueueCount(artemisInstance, addressName, queueName, RoutingType.ANYCAST, 0);
 